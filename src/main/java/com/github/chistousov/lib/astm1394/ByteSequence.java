@@ -0,0 +1,202 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Characters of bytes in an ASCII compatible charset without decoding the whole input.
+ * Delimiters are found byte by byte, strings are decoded only for the parts that are read (see {@link #toString()}).
+ * Single-byte charsets (ASCII, ISO-8859-x, windows-125x, ...) are decoded with a table. Multibyte charsets are accepted
+ * only if their multibyte sequences never contain bytes of ASCII (for example UTF-8), they are decoded by the charset and
+ * {@link #charAt(int)} is exact only for ASCII characters. Charsets whose trail bytes can be delimiters (GBK, Big5, Shift_JIS, ...)
+ * are rejected.
+ * (Символы байтов в ASCII-совместимой кодировке без декодирования всех входных данных.
+ * Разделители находятся побайтно, строки декодируются только для читаемых частей (см. {@link #toString()}).
+ * Однобайтовые кодировки (ASCII, ISO-8859-x, windows-125x, ...) декодируются по таблице. Многобайтовые кодировки
+ * принимаются, только если их многобайтовые последовательности никогда не содержат байтов ASCII (например, UTF-8), они
+ * декодируются кодировкой, и {@link #charAt(int)} точен только для символов ASCII. Кодировки, в которых последующие байты
+ * могут быть разделителями (GBK, Big5, Shift_JIS, ...), отклоняются.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class ByteSequence implements CharSequence {
+
+	//decoding tables of charsets
+	//таблицы декодирования кодировок
+	private static final Map<Charset, char[]> TABLES = new ConcurrentHashMap<>();
+
+	private final ByteBuffer bytes;
+	private final Charset charset;
+	private final char[] table;
+	private final boolean singleByte;
+
+	/**
+	 * Characters of bytes
+	 * (Символы байтов)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param bytes bytes from the position to the limit, the buffer is not changed (байты от позиции до предела, буфер не изменяется)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @throws IllegalArgumentException if the charset is not ASCII compatible or its multibyte sequences contain bytes of ASCII
+	 * (если кодировка не ASCII-совместима или ее многобайтовые последовательности содержат байты ASCII)
+	 */
+	public ByteSequence(ByteBuffer bytes, Charset charset) {
+		this(bytes.slice(), charset, table(charset), isSingleByte(charset));
+	}
+
+	/**
+	 * Characters of bytes
+	 * (Символы байтов)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param bytes bytes, the array is not copied (байты, массив не копируется)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @throws IllegalArgumentException if the charset is not ASCII compatible or its multibyte sequences contain bytes of ASCII
+	 * (если кодировка не ASCII-совместима или ее многобайтовые последовательности содержат байты ASCII)
+	 */
+	public ByteSequence(byte[] bytes, Charset charset) {
+		this(ByteBuffer.wrap(bytes), charset);
+	}
+
+	private ByteSequence(ByteBuffer bytes, Charset charset, char[] table, boolean singleByte) {
+		this.bytes = bytes;
+		this.charset = charset;
+		this.table = table;
+		this.singleByte = singleByte;
+	}
+
+	@Override
+	public int length() {
+		return this.bytes.limit();
+	}
+
+	@Override
+	public char charAt(int index) {
+		return this.table[this.bytes.get(index) & 0xFF];
+	}
+
+	@Override
+	public ByteSequence subSequence(int start, int end) {
+		ByteBuffer duplicate = this.bytes.duplicate();
+		duplicate.position(start).limit(end);
+		return new ByteSequence(duplicate.slice(), this.charset, this.table, this.singleByte);
+	}
+
+	/**
+	 * Decodes the bytes into a string
+	 * (Декодирует байты в строку)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return string (строка)
+	 */
+	@Override
+	public String toString() {
+		int length = length();
+		if(this.singleByte){
+			char[] chars = new char[length];
+			for(int i = 0; i < length; i++){
+				chars[i] = charAt(i);
+			}
+			return new String(chars);
+		}
+
+		if(this.bytes.hasArray()){
+			return new String(this.bytes.array(), this.bytes.arrayOffset(), length, this.charset);
+		}
+		byte[] copy = new byte[length];
+		this.bytes.duplicate().get(copy);
+		return new String(copy, this.charset);
+	}
+
+	private static boolean isSingleByte(Charset charset) {
+		return charset.canEncode() && charset.newEncoder().maxBytesPerChar() == 1.0f;
+	}
+
+	//characters of bytes: decoded for single-byte charsets, ASCII and U+FFFD for other charsets
+	//символы байтов: декодированные для однобайтовых кодировок, ASCII и U+FFFD для остальных
+	private static char[] table(Charset charset) {
+		return TABLES.computeIfAbsent(charset, key -> {
+			char[] table = new char[256];
+			CharsetDecoder decoder = key.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			boolean singleByte = isSingleByte(key);
+
+			for(int i = 0; i < table.length; i++){
+				if(singleByte || i < 128){
+					try{
+						String decoded = decoder.decode(ByteBuffer.wrap(new byte[]{ (byte) i })).toString();
+						table[i] = decoded.length() == 1 ? decoded.charAt(0) : '\uFFFD';
+					} catch(Exception ex){
+						table[i] = '\uFFFD';
+					}
+				} else {
+					table[i] = '\uFFFD';
+				}
+			}
+
+			for(int i = 0; i < 128; i++){
+				if(table[i] != i){
+					throw new IllegalArgumentException("Charset " + key.name() + " is not ASCII compatible");
+				}
+			}
+			if(!singleByte && !hasOnlyNonAsciiSequences(key)){
+				throw new IllegalArgumentException("Charset " + key.name() + " has multibyte sequences with bytes of ASCII");
+			}
+			return table;
+		});
+	}
+
+	//every character beyond ASCII is encoded only with bytes beyond ASCII, so a byte of ASCII is always a character of ASCII
+	//каждый символ вне ASCII кодируется только байтами вне ASCII, поэтому байт ASCII - всегда символ ASCII
+	private static boolean hasOnlyNonAsciiSequences(Charset charset) {
+		if(!charset.canEncode()){
+			return false;
+		}
+		CharsetEncoder encoder = charset.newEncoder();
+		ByteBuffer encoded = ByteBuffer.allocate((int) Math.ceil(encoder.maxBytesPerChar() * 2) + 16);
+		//all characters of the BMP and a supplementary character (U+1F600)
+		//все символы BMP и дополнительный символ (U+1F600)
+		char[] chars = new char[2];
+		for(int c = 0x80; c <= 0x10000; c++){
+			int length = 1;
+			if(c == 0x10000){
+				chars[0] = '\uD83D';
+				chars[1] = '\uDE00';
+				length = 2;
+			} else if(Character.isSurrogate((char) c)){
+				continue;
+			} else {
+				chars[0] = (char) c;
+			}
+
+			encoder.reset();
+			encoded.clear();
+			CharBuffer input = CharBuffer.wrap(chars, 0, length);
+			if(encoder.encode(input, encoded, true).isError() || encoder.flush(encoded).isError()){
+				continue;
+			}
+			for(int i = 0; i < encoded.position(); i++){
+				if((encoded.get(i) & 0xFF) < 0x80){
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
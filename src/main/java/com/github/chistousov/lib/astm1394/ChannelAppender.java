@@ -0,0 +1,161 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * <p>
+ * Output of characters that encodes them into a caller-supplied, reusable buffer and writes the buffer into a channel
+ * when it is full, see {@link Message#writeTo(Appendable)}. Characters of ASCII are put into the buffer directly if the charset
+ * encodes them as one byte (ASCII, ISO-8859-1, UTF-8, windows-1251), other characters are encoded by the encoder of the charset.
+ * (Вывод символов, который кодирует их в переданный вызывающим кодом повторно используемый буфер и записывает буфер в канал,
+ * когда он заполнен, см. {@link Message#writeTo(Appendable)}. Символы ASCII кладутся в буфер напрямую, если кодировка
+ * кодирует их одним байтом (ASCII, ISO-8859-1, UTF-8, windows-1251), остальные символы кодируются кодировщиком кодировки.)
+ * </p>
+ *
+ * <pre>
+ * ChannelAppender out = new ChannelAppender(channel, ByteBuffer.allocateDirect(64 * 1024), StandardCharsets.US_ASCII);
+ * for(Message&lt;...&gt; message : messages){
+ *     message.writeTo(out);
+ * }
+ * out.flush();
+ * </pre>
+ *
+ * <p>
+ * The appender is not thread-safe, {@link #flush()} writes the rest of the buffer.
+ * (Вывод не потокобезопасен, {@link #flush()} записывает остаток буфера.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class ChannelAppender implements Appendable, Flushable {
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer;
+	private final CharsetEncoder encoder;
+
+	//characters of ASCII are one byte of the same value
+	//символы ASCII - один байт того же значения
+	private final boolean asciiCompatible;
+
+	/**
+	 * Creates an output into a channel
+	 * (Создает вывод в канал)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param channel channel (канал)
+	 * @param buffer buffer in write mode, it is cleared (буфер в режиме записи, он очищается)
+	 * @param charset charset of messages (кодировка сообщений)
+	 * @throws IllegalArgumentException if the buffer is read-only or has no space (если буфер только для чтения или не имеет места)
+	 */
+	public ChannelAppender(WritableByteChannel channel, ByteBuffer buffer, Charset charset) {
+		if(buffer.isReadOnly() || buffer.capacity() < 16){
+			throw new IllegalArgumentException("The buffer must be writable and hold at least 16 bytes");
+		}
+		this.channel = channel;
+		this.buffer = buffer;
+		this.buffer.clear();
+		this.encoder = charset.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.asciiCompatible = isAsciiCompatible(charset);
+	}
+
+	@Override
+	public ChannelAppender append(CharSequence csq) throws IOException {
+		if(csq == null){
+			return append("null", 0, 4);
+		}
+		return append(csq, 0, csq.length());
+	}
+
+	@Override
+	public ChannelAppender append(CharSequence csq, int start, int end) throws IOException {
+		if(csq == null){
+			return append("null", start, end);
+		}
+		int i = start;
+		if(this.asciiCompatible){
+			for(; i < end; i++){
+				char c = csq.charAt(i);
+				if(c >= 0x80){
+					break;
+				}
+				if(!this.buffer.hasRemaining()){
+					drain();
+				}
+				this.buffer.put((byte) c);
+			}
+		}
+		if(i < end){
+			encode(CharBuffer.wrap(csq, i, end));
+		}
+		return this;
+	}
+
+	@Override
+	public ChannelAppender append(char c) throws IOException {
+		if(this.asciiCompatible && c < 0x80){
+			if(!this.buffer.hasRemaining()){
+				drain();
+			}
+			this.buffer.put((byte) c);
+			return this;
+		}
+		encode(CharBuffer.wrap(new char[] { c }));
+		return this;
+	}
+
+	/**
+	 * Writes the rest of the buffer into the channel
+	 * (Записывает остаток буфера в канал)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 */
+	@Override
+	public void flush() throws IOException {
+		drain();
+	}
+
+	private void encode(CharBuffer chars) throws IOException {
+		this.encoder.reset();
+		while(true){
+			CoderResult result = this.encoder.encode(chars, this.buffer, true);
+			if(result.isOverflow()){
+				drain();
+			} else if(result.isUnderflow()){
+				break;
+			} else {
+				throw new CharacterCodingException();
+			}
+		}
+		while(this.encoder.flush(this.buffer).isOverflow()){
+			drain();
+		}
+	}
+
+	private void drain() throws IOException {
+		this.buffer.flip();
+		while(this.buffer.hasRemaining()){
+			this.channel.write(this.buffer);
+		}
+		this.buffer.clear();
+	}
+
+	private static boolean isAsciiCompatible(Charset charset) {
+		byte[] ascii = "\r|^&!~\\AZaz09".getBytes(charset);
+		return ascii.length == 13 && ascii[0] == '\r' && ascii[6] == '\\' && ascii[7] == 'A' && ascii[12] == '9';
+	}
+}
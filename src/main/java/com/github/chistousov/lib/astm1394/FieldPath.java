@@ -0,0 +1,523 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.github.chistousov.lib.astm1394.record.RecordType;
+
+/**
+ * <p>
+ * Field path compiled once and read straight from the text of messages, without messages, records and components.
+ * (Путь к полю, компилируемый один раз и читаемый прямо из текста сообщений, без сообщений, записей и компонентов.)
+ * </p>
+ *
+ * <pre>
+ * path      := TYPE [selector] '.' field ['[' (repeat | '*') ']'] ['.' component]
+ * selector  := '[' ('*' | sequenceNumber | key '=' value) ']'
+ * key       := alias | field ['.' component]
+ * field     := alias | fieldIndex
+ * </pre>
+ *
+ * <p>
+ * Field indexes are the same as in {@link com.github.chistousov.lib.astm1394.record.Record#getField(int)},
+ * repeats and components are numbered from 1. Without a selector all records of the type are read, a number selects
+ * records by the sequence number. Examples: {@code R[*].2.4} - test names of all results, {@code O[specimen=SID].4.4} -
+ * tests of an order, {@code P.5.1} - last names of patients, {@code R.value} - values of results.
+ * (Индексы полей такие же, как в {@link com.github.chistousov.lib.astm1394.record.Record#getField(int)},
+ * повторы и компоненты нумеруются с 1. Без селектора читаются все записи типа, число выбирает записи
+ * по порядковому номеру. Примеры: {@code R[*].2.4} - названия тестов всех результатов, {@code O[specimen=SID].4.4} -
+ * тесты задания, {@code P.5.1} - фамилии пациентов, {@code R.value} - значения результатов.)
+ * </p>
+ *
+ * <p>
+ * Aliases (Псевдонимы):
+ * H - sender (4), receiver (9), processingId (11), version (12), timestamp (13);
+ * P - practicePatientId (2), laboratoryPatientId (3), patientId (4), name (5), birthdate (7), sex (8);
+ * O - specimen (2.1), instrumentSpecimen (3), test (4.4), priority (5), actionCode (11), reportType (25);
+ * R - test (2.4), value (3), units (4), referenceRanges (5), abnormalFlag (6), status (8), completed (12), instrument (13);
+ * C - source (2), text (3), type (4);
+ * Q - startingRange (2), endingRange (3), test (4.4), status (12);
+ * L - terminationCode (2).
+ * </p>
+ *
+ * <p>
+ * A compiled path is immutable and can be shared between threads.
+ * (Скомпилированный путь неизменяем и может использоваться несколькими потоками.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class FieldPath {
+
+	private static final int ALL = -1;
+	private static final int NONE = -2;
+
+	private static final Map<RecordType, Map<String, int[]>> ALIASES = new EnumMap<>(RecordType.class);
+
+	static {
+		alias(RecordType.H, "sender", 4, NONE);
+		alias(RecordType.H, "receiver", 9, NONE);
+		alias(RecordType.H, "processingId", 11, NONE);
+		alias(RecordType.H, "version", 12, NONE);
+		alias(RecordType.H, "timestamp", 13, NONE);
+
+		alias(RecordType.P, "practicePatientId", 2, NONE);
+		alias(RecordType.P, "laboratoryPatientId", 3, NONE);
+		alias(RecordType.P, "patientId", 4, NONE);
+		alias(RecordType.P, "name", 5, NONE);
+		alias(RecordType.P, "birthdate", 7, NONE);
+		alias(RecordType.P, "sex", 8, NONE);
+
+		alias(RecordType.O, "specimen", 2, 0);
+		alias(RecordType.O, "instrumentSpecimen", 3, NONE);
+		alias(RecordType.O, "test", 4, 3);
+		alias(RecordType.O, "priority", 5, NONE);
+		alias(RecordType.O, "actionCode", 11, NONE);
+		alias(RecordType.O, "reportType", 25, NONE);
+
+		alias(RecordType.R, "test", 2, 3);
+		alias(RecordType.R, "value", 3, NONE);
+		alias(RecordType.R, "units", 4, NONE);
+		alias(RecordType.R, "referenceRanges", 5, NONE);
+		alias(RecordType.R, "abnormalFlag", 6, NONE);
+		alias(RecordType.R, "status", 8, NONE);
+		alias(RecordType.R, "completed", 12, NONE);
+		alias(RecordType.R, "instrument", 13, NONE);
+
+		alias(RecordType.C, "source", 2, NONE);
+		alias(RecordType.C, "text", 3, NONE);
+		alias(RecordType.C, "type", 4, NONE);
+
+		alias(RecordType.Q, "startingRange", 2, NONE);
+		alias(RecordType.Q, "endingRange", 3, NONE);
+		alias(RecordType.Q, "test", 4, 3);
+		alias(RecordType.Q, "status", 12, NONE);
+
+		alias(RecordType.L, "terminationCode", 2, NONE);
+	}
+
+	private final String expression;
+
+	private final RecordType recordType;
+
+	//selector, selectorField is NONE if there is no selector
+	//селектор, selectorField равен NONE, если селектора нет
+	private final int selectorField;
+	private final int selectorComponent;
+	private final String selectorValue;
+
+	//value coordinates, 0-based, repeat is ALL for all repeats, component is NONE for the whole field or repeat
+	//координаты значения с 0, repeat равен ALL для всех повторов, component равен NONE для всего поля или повтора
+	private final int field;
+	private final int repeat;
+	private final int component;
+
+	private FieldPath(String expression, RecordType recordType, int selectorField, int selectorComponent, String selectorValue, int field, int repeat, int component) {
+		this.expression = expression;
+		this.recordType = recordType;
+		this.selectorField = selectorField;
+		this.selectorComponent = selectorComponent;
+		this.selectorValue = selectorValue;
+		this.field = field;
+		this.repeat = repeat;
+		this.component = component;
+	}
+
+	/**
+	 * Compiles a field path
+	 * (Компилирует путь к полю)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param expression path, for example R[*].2.4 (путь, например R[*].2.4)
+	 * @return compiled path (скомпилированный путь)
+	 * @throws IllegalArgumentException if the path is not valid (если путь некорректен)
+	 */
+	public static FieldPath compile(String expression) {
+		return new Compiler(expression).compile();
+	}
+
+	public RecordType getRecordType() {
+		return this.recordType;
+	}
+
+	/**
+	 * Checks that the current record of the cursor has the type of the path and matches the selector
+	 * (Проверяет, что текущая запись курсора имеет тип пути и подходит под селектор)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param cursor cursor on a record (курсор на записи)
+	 * @return true if the record matches (true, если запись подходит)
+	 */
+	public boolean matches(RecordCursor cursor) {
+		if(cursor.getRecordType() != this.recordType){
+			return false;
+		}
+		if(this.selectorField == NONE){
+			return true;
+		}
+		if(this.selectorComponent == NONE){
+			return cursor.fieldEquals(this.selectorField, this.selectorValue);
+		}
+		return cursor.componentEquals(this.selectorField, 0, this.selectorComponent, this.selectorValue);
+	}
+
+	/**
+	 * Value of the path in the current record of the cursor, the first repeat if the path reads all repeats.
+	 * The record is not checked, see {@link #matches(RecordCursor)}.
+	 * (Значение пути в текущей записи курсора, первый повтор, если путь читает все повторы.
+	 * Запись не проверяется, см. {@link #matches(RecordCursor)}.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param cursor cursor on a record (курсор на записи)
+	 * @return value, an empty string if there is no such value (значение, пустая строка, если такого значения нет)
+	 */
+	public String value(RecordCursor cursor) {
+		return value(cursor, this.repeat == ALL ? 0 : this.repeat);
+	}
+
+	/**
+	 * Compares the value of the path in the current record of the cursor with a value without creating strings,
+	 * if the path reads all repeats any repeat may be equal. The record is not checked, see {@link #matches(RecordCursor)}.
+	 * (Сравнивает значение пути в текущей записи курсора со значением без создания строк,
+	 * если путь читает все повторы, равным может быть любой повтор. Запись не проверяется, см. {@link #matches(RecordCursor)}.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param cursor cursor on a record (курсор на записи)
+	 * @param value value (значение)
+	 * @return true if the value of the path is equal to the value (true, если значение пути равно значению)
+	 */
+	public boolean valueEquals(RecordCursor cursor, CharSequence value) {
+		if(this.repeat != ALL){
+			return valueEquals(cursor, this.repeat, value);
+		}
+		int repeats = cursor.getRepeatCount(this.field);
+		for(int i = 0; i < repeats; i++){
+			if(valueEquals(cursor, i, value)){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Values of the path in all matching records of messages
+	 * (Значения пути во всех подходящих записях сообщений)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messages text of messages (текст сообщений)
+	 * @return values (значения)
+	 */
+	public List<String> values(CharSequence messages) {
+		return values(RecordCursor.of(messages));
+	}
+
+	/**
+	 * Values of the path in all matching records of messages in bytes, only the values are decoded.
+	 * The bytes are indexed once by {@link StructuralIndex}, records, fields and components are found by their offsets.
+	 * (Значения пути во всех подходящих записях сообщений в байтах, декодируются только значения.
+	 * Байты индексируются один раз {@link StructuralIndex}, записи, поля и компоненты находятся по их смещениям.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messagesBytes bytes of messages from the position to the limit (байты сообщений от позиции до предела)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @return values (значения)
+	 * @throws IllegalArgumentException if the charset cannot be read byte by byte, see {@link ByteSequence} (если кодировку нельзя читать побайтно, см. {@link ByteSequence})
+	 */
+	public List<String> values(ByteBuffer messagesBytes, Charset charset) {
+		StructuralIndex index = StructuralIndex.of(messagesBytes, charset);
+		List<String> values = new ArrayList<>();
+		for(int record = 0; record < index.getRecordCount(); record++){
+			if(!matches(index, record)){
+				continue;
+			}
+			if(this.repeat != ALL){
+				values.add(value(index, record, this.repeat));
+				continue;
+			}
+
+			//all repeats of the field
+			//все повторы поля
+			int repeats = index.getRepeatCount(record, this.field);
+			for(int i = 0; i < repeats; i++){
+				values.add(value(index, record, i));
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Value of the path in the first matching record of messages
+	 * (Значение пути в первой подходящей записи сообщений)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messages text of messages (текст сообщений)
+	 * @return value, null if there is no matching record (значение, null если подходящей записи нет)
+	 */
+	public String first(CharSequence messages) {
+		RecordCursor cursor = RecordCursor.of(messages);
+		while(cursor.next()){
+			if(matches(cursor)){
+				return value(cursor);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+	private List<String> values(RecordCursor cursor) {
+		List<String> values = new ArrayList<>();
+		while(cursor.next()){
+			if(!matches(cursor)){
+				continue;
+			}
+			if(this.repeat != ALL){
+				values.add(value(cursor, this.repeat));
+				continue;
+			}
+
+			//all repeats of the field
+			//все повторы поля
+			int repeats = cursor.getRepeatCount(this.field);
+			for(int i = 0; i < repeats; i++){
+				values.add(value(cursor, i));
+			}
+		}
+		return values;
+	}
+
+	private String value(RecordCursor cursor, int repeatIndex) {
+		if(this.component != NONE){
+			return cursor.getComponent(this.field, repeatIndex, this.component);
+		}
+		if(this.repeat == NONE){
+			return cursor.getField(this.field);
+		}
+		return cursor.getRepeat(this.field, repeatIndex);
+	}
+
+	private boolean matches(StructuralIndex index, int record) {
+		if(index.getRecordType(record) != this.recordType){
+			return false;
+		}
+		if(this.selectorField == NONE){
+			return true;
+		}
+		if(this.selectorComponent == NONE){
+			return index.fieldEquals(record, this.selectorField, this.selectorValue);
+		}
+		return index.componentEquals(record, this.selectorField, 0, this.selectorComponent, this.selectorValue);
+	}
+
+	private String value(StructuralIndex index, int record, int repeatIndex) {
+		if(this.component != NONE){
+			return index.getComponent(record, this.field, repeatIndex, this.component);
+		}
+		if(this.repeat == NONE){
+			return index.getField(record, this.field);
+		}
+		return index.getRepeat(record, this.field, repeatIndex);
+	}
+
+	private boolean valueEquals(RecordCursor cursor, int repeatIndex, CharSequence value) {
+		if(this.component != NONE){
+			return cursor.componentEquals(this.field, repeatIndex, this.component, value);
+		}
+		if(this.repeat == NONE){
+			return cursor.fieldEquals(this.field, value);
+		}
+		return cursor.repeatEquals(this.field, repeatIndex, value);
+	}
+
+	private static void alias(RecordType recordType, String name, int field, int component) {
+		ALIASES.computeIfAbsent(recordType, key -> new HashMap<>()).put(name, new int[]{ field, component });
+	}
+
+	/*
+	 * Recursive descent over the expression
+	 * Рекурсивный спуск по выражению
+	 */
+	private static final class Compiler {
+
+		private final String expression;
+		private int position;
+
+		private RecordType recordType;
+
+		private Compiler(String expression) {
+			this.expression = expression;
+		}
+
+		private FieldPath compile() {
+			if(this.expression.isEmpty()){
+				throw error("record type expected");
+			}
+			this.recordType = RecordType.getBy(this.expression.charAt(this.position++));
+			if(this.recordType == RecordType.U){
+				throw error("unknown record type");
+			}
+
+			int selectorField = NONE;
+			int selectorComponent = NONE;
+			String selectorValue = null;
+
+			if(accept('[')){
+				if(!accept('*')){
+					int start = this.position;
+					int end = this.expression.indexOf(']', start);
+					if(end < 0){
+						throw error("']' expected");
+					}
+					String selector = this.expression.substring(start, end);
+					int equals = selector.indexOf('=');
+					if(equals < 0){
+						//sequence number
+						//порядковый номер
+						number(selector);
+						selectorField = 1;
+						selectorValue = selector;
+					} else {
+						int[] key = coordinates(selector.substring(0, equals));
+						selectorField = key[0];
+						selectorComponent = key[1];
+						selectorValue = selector.substring(equals + 1);
+					}
+					this.position = end;
+				}
+				expect(']');
+			}
+
+			expect('.');
+			int[] coordinates = coordinates(token());
+			int field = coordinates[0];
+			int component = coordinates[1];
+
+			int repeat = NONE;
+			if(accept('[')){
+				if(accept('*')){
+					repeat = ALL;
+				} else {
+					int start = this.position;
+					while(this.position < this.expression.length() && Character.isDigit(this.expression.charAt(this.position))){
+						this.position++;
+					}
+					repeat = ordinal(this.expression.substring(start, this.position));
+				}
+				expect(']');
+			}
+
+			if(accept('.')){
+				if(component != NONE){
+					throw error("the alias already points to a component");
+				}
+				component = ordinal(token());
+			}
+
+			if(this.position != this.expression.length()){
+				throw error("unexpected character");
+			}
+			if(component != NONE && repeat == NONE){
+				repeat = 0;
+			}
+
+			return new FieldPath(this.expression, this.recordType, selectorField, selectorComponent, selectorValue, field, repeat, component);
+		}
+
+		//field and component (NONE if it is not set) of an alias or of "field[.component]"
+		//поле и компонент (NONE, если не задан) псевдонима или "поле[.компонент]"
+		private int[] coordinates(String token) {
+			Map<String, int[]> aliases = ALIASES.getOrDefault(this.recordType, Collections.emptyMap());
+			int[] alias = aliases.get(token);
+			if(alias != null){
+				return alias.clone();
+			}
+
+			int dot = token.indexOf('.');
+			if(dot < 0){
+				return new int[]{ number(token), NONE };
+			}
+			return new int[]{ number(token.substring(0, dot)), ordinal(token.substring(dot + 1)) };
+		}
+
+		//letters and digits up to the next '.' or '['
+		//буквы и цифры до следующей '.' или '['
+		private String token() {
+			int start = this.position;
+			while(this.position < this.expression.length() && Character.isLetterOrDigit(this.expression.charAt(this.position))){
+				this.position++;
+			}
+			if(start == this.position){
+				throw error("field expected");
+			}
+			return this.expression.substring(start, this.position);
+		}
+
+		private int number(String token) {
+			if(token.isEmpty()){
+				throw error("number expected");
+			}
+			for(int i = 0; i < token.length(); i++){
+				if(!Character.isDigit(token.charAt(i))){
+					throw error("unknown alias '" + token + "' of records " + this.recordType.getRecordTypeId());
+				}
+			}
+			int number = Integer.parseInt(token);
+			if(number < 0 || number > 1000){
+				throw error("number out of range");
+			}
+			return number;
+		}
+
+		//repeat or component numbered from 1 as a 0-based index
+		//повтор или компонент с номером от 1 как индекс с 0
+		private int ordinal(String token) {
+			int number = number(token);
+			if(number < 1){
+				throw error("repeats and components are numbered from 1");
+			}
+			return number - 1;
+		}
+
+		private boolean accept(char c) {
+			if(this.position < this.expression.length() && this.expression.charAt(this.position) == c){
+				this.position++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(char c) {
+			if(!accept(c)){
+				throw error("'" + c + "' expected");
+			}
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException("Invalid field path '" + this.expression + "' at " + this.position + ": " + message);
+		}
+	}
+}
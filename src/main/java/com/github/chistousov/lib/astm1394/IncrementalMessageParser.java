@@ -0,0 +1,185 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Incremental parser for non-blocking I/O. It is fed with chunks of bytes or characters as they arrive,
+ * keeps the incomplete record between calls and passes every completed record on.
+ * It is created by {@link MessageParser#incremental}, one parser per connection, it is not thread-safe.
+ * (Инкрементальный парсер для неблокирующего ввода-вывода. Получает части байтов или символов по мере поступления,
+ * хранит незавершенную запись между вызовами и передает дальше каждую завершенную запись.
+ * Создается методом {@link MessageParser#incremental}, один парсер на подключение, не потокобезопасен.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class IncrementalMessageParser {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	//longest incomplete character of any charset
+	//самый длинный незавершенный символ любой кодировки
+	private static final int MAX_PENDING_BYTES = 16;
+
+	private final Consumer<String> recordConsumer;
+
+	private final CharsetDecoder decoder;
+	private CharBuffer decoded;
+	private ByteBuffer pendingBytes;
+
+	//incomplete record
+	//незавершенная запись
+	private final StringBuilder recordStr = new StringBuilder();
+
+	//CR LF is the same as CR
+	//CR LF равносильно CR
+	private boolean afterCr;
+
+	IncrementalMessageParser(Consumer<String> recordConsumer, Charset charset) {
+		this.recordConsumer = recordConsumer;
+		this.decoder = charset == null ? null : charset.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Feeds a chunk of characters
+	 * (Передает часть символов)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param chunk characters (символы)
+	 * @param offset first character (первый символ)
+	 * @param length number of characters (количество символов)
+	 */
+	public void feed(char[] chunk, int offset, int length) {
+		int end = offset + length;
+		for(int i = offset; i < end; i++){
+			feed(chunk[i]);
+		}
+	}
+
+	/**
+	 * Feeds a chunk of characters
+	 * (Передает часть символов)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param chunk characters (символы)
+	 */
+	public void feed(CharSequence chunk) {
+		int length = chunk.length();
+		for(int i = 0; i < length; i++){
+			feed(chunk.charAt(i));
+		}
+	}
+
+	/**
+	 * Feeds a chunk of bytes, all remaining bytes of the buffer are consumed.
+	 * An incomplete character at the end of the chunk is kept until the next call.
+	 * (Передает часть байтов, все оставшиеся байты буфера потребляются.
+	 * Незавершенный символ в конце части сохраняется до следующего вызова.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param chunk bytes (байты)
+	 * @throws IllegalStateException if the parser was created without a charset (если парсер создан без кодировки)
+	 */
+	public void feed(ByteBuffer chunk) {
+		if(this.decoder == null){
+			throw new IllegalStateException("The parser was created without a charset");
+		}
+		if(this.decoded == null){
+			this.decoded = CharBuffer.allocate(BUFFER_SIZE);
+			this.pendingBytes = ByteBuffer.allocate(MAX_PENDING_BYTES);
+		}
+
+		ByteBuffer input = chunk;
+		if(this.pendingBytes.position() > 0){
+			this.pendingBytes.flip();
+			input = ByteBuffer.allocate(this.pendingBytes.remaining() + chunk.remaining());
+			input.put(this.pendingBytes).put(chunk);
+			input.flip();
+			this.pendingBytes.clear();
+		}
+
+		decode(input, false);
+
+		if(input.hasRemaining()){
+			this.pendingBytes.put(input);
+		}
+	}
+
+	/**
+	 * Ends the input: passes on the last record if it is not terminated and resets the parser
+	 * (Завершает ввод: передает дальше последнюю запись, если она не завершена, и сбрасывает парсер)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 */
+	public void finish() {
+		if(this.decoded != null){
+			this.pendingBytes.flip();
+			decode(this.pendingBytes, true);
+			this.pendingBytes.clear();
+
+			while(this.decoder.flush(this.decoded).isOverflow()){
+				drainDecoded();
+			}
+			drainDecoded();
+			this.decoder.reset();
+		}
+		completeRecord();
+		this.afterCr = false;
+	}
+
+	private void decode(ByteBuffer input, boolean endOfInput) {
+		while(true){
+			CoderResult result = this.decoder.decode(input, this.decoded, endOfInput);
+			drainDecoded();
+			if(result.isUnderflow()){
+				return;
+			}
+		}
+	}
+
+	private void drainDecoded() {
+		this.decoded.flip();
+		while(this.decoded.hasRemaining()){
+			feed(this.decoded.get());
+		}
+		this.decoded.clear();
+	}
+
+	private void feed(char c) {
+		if(c == '\r'){
+			completeRecord();
+			this.afterCr = true;
+		} else {
+			if(!this.afterCr || c != '\n'){
+				this.recordStr.append(c);
+			}
+			this.afterCr = false;
+		}
+	}
+
+	private void completeRecord() {
+		if(this.recordStr.length() == 0){
+			return;
+		}
+		String record = this.recordStr.toString();
+		this.recordStr.setLength(0);
+		this.recordConsumer.accept(record);
+	}
+}
@@ -1,13 +1,14 @@
 package com.github.chistousov.lib.astm1394;
 
-import java.lang.reflect.Constructor;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import com.github.chistousov.lib.astm1394.record.Diagnostic;
 import com.github.chistousov.lib.astm1394.record.IWithComments;
 import com.github.chistousov.lib.astm1394.record.Record;
-import com.github.chistousov.lib.astm1394.record.RecordType;
 import com.github.chistousov.lib.astm1394.record.ScientificRecord;
 import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
 import com.github.chistousov.lib.astm1394.record.header.MessageHeaderRecord;
@@ -55,6 +56,22 @@ public class Message<T1 extends MessageHeaderRecord,
 
 	private T8 terminatorRecord;
 
+	//problems found by a tolerant parser, null - there were none
+	//проблемы, найденные терпимым парсером, null - их не было
+	private List<Diagnostic> diagnostics;
+
+	/**
+	 * Parses a message. Record constructors are resolved once for the set of classes, see {@link MessageParser#of}.
+	 * (Разбирает сообщение. Конструкторы записей находятся один раз для набора классов, см. {@link MessageParser#of}.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @throws InvocationTargetException if a record constructor throws an exception (если конструктор записи выбрасывает исключение)
+	 * @throws IllegalAccessException not thrown since constructors are resolved once, kept for compatibility (не выбрасывается, так как конструкторы находятся один раз, оставлено для совместимости)
+	 * @throws InstantiationException not thrown since constructors are resolved once, kept for compatibility (не выбрасывается, так как конструкторы находятся один раз, оставлено для совместимости)
+	 * @throws IllegalArgumentException if a class has no suitable constructor or the header cannot be created (если у класса нет подходящего конструктора или заголовок не удается создать)
+	 */
 	public Message(Class<T1> clazzT1,
 				   Class<T2> clazzT2,
 				   Class<T3> clazzT3,
@@ -66,239 +83,13 @@ public class Message<T1 extends MessageHeaderRecord,
 				   Class<T10> interfaceIWithComments,
 				   String messageStr) throws InvocationTargetException, IllegalAccessException, InstantiationException{
 
-		this.clazzH = clazzT1;
-		this.clazzP = clazzT2;
-		this.clazzO = clazzT3;
-		this.clazzR = clazzT4;
-		this.clazzQ = clazzT6;
-		this.clazzS = clazzT7;
-		this.clazzL = clazzT8;
-		this.clazzC = clazzT9;
-		this.interfaceIWithComments = interfaceIWithComments;
-
-		String[] recordsStr = messageStr.replaceAll("(\r\n)", "\r") .split("(\r)");
-		
-		try{
-			Constructor<T1> contructorT1 = this.clazzH.getDeclaredConstructor(String.class);
-			this.headerRecord = contructorT1.newInstance(recordsStr[0]);
-		} catch(Exception ex){
-			throw new IllegalArgumentException("MessageHeaderRecord descendant has no (String) constructor");
-		}
-
-		//last record
-		//последняя запись
-		T10 currectRecordWithComments = null;
-			
-		//To link patient and orders
-		//Для связи пациента и заданий
-		T2 patientInformationRecord = null;
-
-		//To link orders and results
-		//Для связи задания и результатов
-		T3 testOrderRecord = null;
-
-		//constructors for creating types
-		//конструкторы для создания типов
-		Constructor<T2> constructorPatientInformationRecord;
-		try{
-			constructorPatientInformationRecord = clazzP.getDeclaredConstructor(String.class,
-			String.class,
-			String.class,
-			String.class,
-			String.class);
-		} catch(Exception ex){
-			throw new IllegalArgumentException("Child PatientInformationRecord has no constructor (String,String,String,String,String)");
-		}
+		this(clazzT1, clazzT2, clazzT3, clazzT4, clazzT6, clazzT7, clazzT8, clazzT9, interfaceIWithComments);
 
-		Constructor<T3> constructorTestOrderRecord;
 		try{
-			constructorTestOrderRecord = clazzO.getDeclaredConstructor(String.class,
-			String.class,
-			String.class,
-			String.class,
-			String.class);
-		} catch(Exception ex){
-			throw new IllegalArgumentException("TestOrderRecord child has no constructor (String,String,String,String,String)");
-		}
-
-		Constructor<T4> constructorResultRecord;
-		try{
-			constructorResultRecord = clazzR.getDeclaredConstructor(String.class,
-			String.class,
-			String.class,
-			String.class,
-			String.class);
-		} catch(Exception ex){
-			throw new IllegalArgumentException("ResultRecord child has no constructor (String,String,String,String,String)");
-		}
-
-
-
-		Constructor<T6> constructorRequestInformationRecord;
-		try{
-			constructorRequestInformationRecord = clazzQ.getDeclaredConstructor(String.class,
-			String.class,
-			String.class,
-			String.class,
-			String.class);
-		} catch(Exception ex){
-			throw new IllegalArgumentException("RequestInformationRecord child has no constructor (String,String,String,String,String)");
-		}
-
-		Constructor<T8> constructorMessageTerminatorRecord;
-		try{
-			constructorMessageTerminatorRecord = clazzL.getDeclaredConstructor(String.class,
-			String.class,
-			String.class,
-			String.class,
-			String.class);
-		} catch(Exception ex){
-			throw new IllegalArgumentException("TerminatorRecord child has no constructor (String,String,String,String,String)");
-		}
-
-
-		Constructor<T9> constructorCommentRecord;
-		try{
-			constructorCommentRecord = clazzC.getDeclaredConstructor(String.class,
-			String.class,
-			String.class,
-			String.class,
-			String.class);
-		} catch(Exception ex){
-			throw new IllegalArgumentException("CommentRecord child has no constructor (String,String,String,String,String)");
-		}
-		
-		for(int i = 1; i < recordsStr.length; i++){
-			
-			RecordType recordType = RecordType.getBy(String.valueOf(recordsStr[i].charAt(0)));
-
-			if(recordType == RecordType.P) {
-				try{
-					patientInformationRecord = constructorPatientInformationRecord.newInstance(recordsStr[i], 
-																			this.headerRecord.getFieldDelimiter().getValue(), 
-																			this.headerRecord.getRepeatDelimiter().getValue(), 
-																			this.headerRecord.getComponentDelimiter().getValue(), 
-																			this.headerRecord.getEscapeDelimiter().getValue());
-				} catch (InvocationTargetException itex){
-					throw new InvocationTargetException(itex, "An error occurred in the PatientInformationRecord constructor");
-				} catch (IllegalAccessException iaex){
-					throw new IllegalAccessException("No access to PatientInformationRecord constructor");
-				} catch (InstantiationException ex){
-					throw new InstantiationException("Unable to create type PatientInformationRecord");
-				}
-				
-				if(this.patientInformationRecords == null){
-					this.patientInformationRecords = new ArrayList<>();
-				}
-				this.patientInformationRecords.add(patientInformationRecord);
-				
-				try{
-					currectRecordWithComments = (T10)patientInformationRecord;
-				} catch(Exception ex) {}
-
-			} else if(recordType == RecordType.O) {
-				try{
-					testOrderRecord = constructorTestOrderRecord.newInstance(recordsStr[i], 
-															this.headerRecord.getFieldDelimiter().getValue(), 
-															this.headerRecord.getRepeatDelimiter().getValue(), 
-															this.headerRecord.getComponentDelimiter().getValue(), 
-															this.headerRecord.getEscapeDelimiter().getValue());
-				} catch (InvocationTargetException itex){
-					throw new InvocationTargetException(itex, "An error occurred in the TestOrderRecord constructor");
-				} catch (IllegalAccessException iaex){
-					throw new IllegalAccessException("No access to TestOrderRecord constructor");
-				} catch (InstantiationException ex){
-					throw new InstantiationException("Unable to create type TestOrderRecord");
-				}
-				
-				patientInformationRecord.addOrder(testOrderRecord);
-
-				try{
-					currectRecordWithComments = (T10)testOrderRecord;
-				} catch(Exception ex) {}
-
-			} else if(recordType == RecordType.R) {
-				T4 resultRecord;
-				try{
-				resultRecord = constructorResultRecord.newInstance(recordsStr[i], 
-															this.headerRecord.getFieldDelimiter().getValue(), 
-															this.headerRecord.getRepeatDelimiter().getValue(), 
-															this.headerRecord.getComponentDelimiter().getValue(), 
-															this.headerRecord.getEscapeDelimiter().getValue());
-				} catch (InvocationTargetException itex){
-					throw new InvocationTargetException(itex, "An error occurred in the ResultRecord constructor");
-				} catch (IllegalAccessException iaex){
-					throw new IllegalAccessException("No access to ResultRecord constructor");
-				} catch (InstantiationException ex){
-					throw new InstantiationException("Unable to create type ResultRecord");
-				}
-				
-				testOrderRecord.addResult(resultRecord);
-
-
-				try{
-					currectRecordWithComments = (T10)resultRecord;
-				} catch(Exception ex) {}
-
-			} else if(recordType == RecordType.C) {
-				try{
-					currectRecordWithComments.addCommentRecord(
-						constructorCommentRecord.newInstance(
-							recordsStr[i], 
-							this.headerRecord.getFieldDelimiter().getValue(), 
-							this.headerRecord.getRepeatDelimiter().getValue(), 
-							this.headerRecord.getComponentDelimiter().getValue(), 
-							this.headerRecord.getEscapeDelimiter().getValue())
-					);
-				} catch (InvocationTargetException itex){
-					throw new InvocationTargetException(itex, "An error occurred in the CommentRecord constructor");
-				} catch (IllegalAccessException iaex){
-					throw new IllegalAccessException("No access to CommentRecord constructor");
-				} catch (InstantiationException ex){
-					throw new InstantiationException("Unable to create type CommentRecord");
-				}
-
-			} else if(recordType == RecordType.L) {
-				try{
-					this.terminatorRecord = constructorMessageTerminatorRecord.newInstance(recordsStr[i], 
-					this.headerRecord.getFieldDelimiter().getValue(), 
-					this.headerRecord.getRepeatDelimiter().getValue(), 
-					this.headerRecord.getComponentDelimiter().getValue(), 
-					this.headerRecord.getEscapeDelimiter().getValue());
-				} catch (InvocationTargetException itex){
-					throw new InvocationTargetException(itex, "An error occurred in the MessageTerminatorRecord constructor");
-				} catch (IllegalAccessException iaex){
-					throw new IllegalAccessException("No access to MessageTerminatorRecord constructor");
-				} catch (InstantiationException ex){
-					throw new InstantiationException("Unable to create type MessageTerminatorRecord");
-				}
-
-			} else if(recordType == RecordType.Q){
-				if(this.requestInformationRecords == null){
-					this.requestInformationRecords = new ArrayList<>();
-				}
-				T6 requestInformationRecord = null;
-				try{
-					requestInformationRecord = constructorRequestInformationRecord.newInstance(recordsStr[i], 
-					this.headerRecord.getFieldDelimiter().getValue(), 
-					this.headerRecord.getRepeatDelimiter().getValue(), 
-					this.headerRecord.getComponentDelimiter().getValue(), 
-					this.headerRecord.getEscapeDelimiter().getValue());
-				} catch (InvocationTargetException itex){
-					throw new InvocationTargetException(itex, "An error occurred in the RequestInformationRecord constructor");
-				} catch (IllegalAccessException iaex){
-					throw new IllegalAccessException("No access to RequestInformationRecord constructor");
-				} catch (InstantiationException ex){
-					throw new InstantiationException("Unable to create type RequestInformationRecord");
-				}
-
-				this.requestInformationRecords.add(requestInformationRecord);
-
-				try{
-					currectRecordWithComments = (T10)requestInformationRecord;
-				} catch(Exception ex) {}
-
-			}
+			MessageParser.of(clazzT1, clazzT2, clazzT3, clazzT4, clazzT6, clazzT7, clazzT8, clazzT9, interfaceIWithComments)
+				.parseInto(this, messageStr, true);
+		} catch(MessageParser.RecordConstructorException ex){
+			throw new InvocationTargetException(ex.getCause(), "An error occurred in the constructor of a record of type " + ex.getRecordType().getRecordTypeId());
 		}
 	}
 
@@ -328,18 +119,38 @@ public class Message<T1 extends MessageHeaderRecord,
 	@Override
 	public String toString() {
 		StringBuilder returnStr = new StringBuilder();
-		
-		returnStr.append(this.headerRecord.toString());
+		try{
+			writeTo(returnStr);
+		} catch(IOException ex){
+			throw new IllegalStateException("StringBuilder does not throw IOException", ex);
+		}
+		return returnStr.toString();
+	}
+
+	/**
+	 * Writes the whole message in one pass into the output without intermediate strings, the same text as {@link #toString()}
+	 * (Записывает все сообщение за один проход в вывод без промежуточных строк, тот же текст, что у {@link #toString()})
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param out output, for example a reused StringBuilder, Writer or {@link ChannelAppender} (вывод, например повторно используемый StringBuilder, Writer или {@link ChannelAppender})
+	 * @throws IOException if the output cannot be written (если вывод не удается записать)
+	 */
+	public void writeTo(Appendable out) throws IOException {
+		this.headerRecord.writeTo(out);
 
 		if(this.requestInformationRecords != null) {
-			this.requestInformationRecords.forEach(requestInformationRecord -> returnStr.append(requestInformationRecord.toString()));
+			for(T6 requestInformationRecord : this.requestInformationRecords){
+				requestInformationRecord.writeTo(out);
+			}
 		} else if(this.patientInformationRecords != null) {
-			this.patientInformationRecords.forEach(patientInformationRecord -> returnStr.append(patientInformationRecord.toString()));
+			for(T2 patientInformationRecord : this.patientInformationRecords){
+				patientInformationRecord.writeTo(out);
+			}
 		}
 
-		returnStr.append(this.terminatorRecord.toString());
-
-		return returnStr.toString();
+		this.terminatorRecord.writeTo(out);
 	}
 
 	public T1 getHeaderRecord() {
@@ -366,7 +177,7 @@ public class Message<T1 extends MessageHeaderRecord,
 		if(this.patientInformationRecords == null){
 			this.patientInformationRecords = new ArrayList<>();
 		}
-		patientInformationRecord.setSequenceNumber(String.valueOf(this.patientInformationRecords.size() + 1));
+		patientInformationRecord.setSequenceNumber(this.patientInformationRecords.size() + 1);
 		patientInformationRecords.add(patientInformationRecord);
 	}
 
@@ -382,7 +193,7 @@ public class Message<T1 extends MessageHeaderRecord,
 		if(this.requestInformationRecords == null){
 			this.requestInformationRecords = new ArrayList<>();
 		}
-		requestInformationRecord.setSequenceNumber(String.valueOf(this.requestInformationRecords.size() + 1));
+		requestInformationRecord.setSequenceNumber(this.requestInformationRecords.size() + 1);
 		requestInformationRecords.add(requestInformationRecord);
 	}
 
@@ -391,6 +202,22 @@ public class Message<T1 extends MessageHeaderRecord,
 		requestInformationRecords.forEach(this::addRequestInformationRecord);
 	}
 
+	//parsed records keep their sequence numbers
+	//разобранные записи сохраняют свои порядковые номера
+	void appendPatientInformationRecord(T2 patientInformationRecord){
+		if(this.patientInformationRecords == null){
+			this.patientInformationRecords = new ArrayList<>();
+		}
+		this.patientInformationRecords.add(patientInformationRecord);
+	}
+
+	void appendRequestInformationRecord(T6 requestInformationRecord){
+		if(this.requestInformationRecords == null){
+			this.requestInformationRecords = new ArrayList<>();
+		}
+		this.requestInformationRecords.add(requestInformationRecord);
+	}
+
 	public void clearPatientsOrRequest() {
 		this.patientInformationRecords = null;
 		this.requestInformationRecords = null;
@@ -404,4 +231,26 @@ public class Message<T1 extends MessageHeaderRecord,
 	public void setTerminatorRecord(T8 terminatorRecord) {
 		this.terminatorRecord = terminatorRecord;
 	}
+
+	/**
+	 * Problems found by a tolerant parser (see {@link MessageParser#withTolerantMode(boolean)}) in the order they were found.
+	 * Values of fields are checked when they are read, so the list can grow after parsing.
+	 * (Проблемы, найденные терпимым парсером (см. {@link MessageParser#withTolerantMode(boolean)}), в порядке обнаружения.
+	 * Значения полей проверяются при их чтении, поэтому список может пополняться после разбора.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return diagnostics, empty list if there were no problems (диагностики, пустой список, если проблем не было)
+	 */
+	public List<Diagnostic> getDiagnostics() {
+		return this.diagnostics == null ? Collections.emptyList() : Collections.unmodifiableList(this.diagnostics);
+	}
+
+	void addDiagnostic(Diagnostic diagnostic) {
+		if(this.diagnostics == null){
+			this.diagnostics = new ArrayList<>();
+		}
+		this.diagnostics.add(diagnostic);
+	}
 }
@@ -0,0 +1,221 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * <p>
+ * Archive file of messages written one after another, mapped into memory. Messages start with header records (H),
+ * their boundaries are found by scanning chunks of the file in parallel, the bytes before the first header are skipped.
+ * The mapping stays valid after the file is closed, so the archive is not closed.
+ * (Файл архива сообщений, записанных одно за другим, отображенный в память. Сообщения начинаются с записей заголовка (H),
+ * их границы находятся просмотром частей файла параллельно, байты до первого заголовка пропускаются.
+ * Отображение остается действительным после закрытия файла, поэтому архив не закрывается.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+final class MessageArchive {
+
+	//the largest region of the file that can be mapped at once
+	//наибольшая часть файла, которую можно отобразить за один раз
+	private static final long REGION_SIZE = Integer.MAX_VALUE;
+
+	//size of the chunks of the file scanned by one task
+	//размер частей файла, просматриваемых одной задачей
+	private static final int CHUNK_SIZE = 1 << 22;
+
+	//mapped regions of the file and their positions in the file, a message is always inside one region
+	//отображенные части файла и их позиции в файле, сообщение всегда находится внутри одной части
+	private final ByteBuffer[] regions;
+	private final long[] regionStarts;
+
+	//starts of messages in the file, the last element is the end of the file
+	//начала сообщений в файле, последний элемент - конец файла
+	private final long[] messageStarts;
+	private final int[] messageRegions;
+
+	private MessageArchive(ByteBuffer[] regions, long[] regionStarts, long[] messageStarts, int[] messageRegions) {
+		this.regions = regions;
+		this.regionStarts = regionStarts;
+		this.messageStarts = messageStarts;
+		this.messageRegions = messageRegions;
+	}
+
+	/**
+	 * Maps an archive file into memory and finds its messages
+	 * (Отображает файл архива в память и находит его сообщения)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param archive archive file (файл архива)
+	 * @param forkJoinPool pool for scanning the file, null - the file is scanned by the calling thread (пул для просмотра файла, null - файл просматривается вызывающим потоком)
+	 * @return archive (архив)
+	 * @throws IOException if the file cannot be read (если файл не читается)
+	 * @throws IllegalArgumentException if a message is longer than 2 GB (если сообщение длиннее 2 ГБ)
+	 */
+	static MessageArchive map(Path archive, ForkJoinPool forkJoinPool) throws IOException {
+		return map(archive, forkJoinPool, REGION_SIZE);
+	}
+
+	//the archive mapped by regions of the size, small regions are used by tests of the boundaries of regions
+	//архив, отображенный частями размера, маленькие части используются тестами границ частей
+	static MessageArchive map(Path archive, ForkJoinPool forkJoinPool, long regionSize) throws IOException {
+		try(FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ)){
+			long size = channel.size();
+			long[] messageStarts = scan(channel, size, forkJoinPool, regionSize);
+			int count = messageStarts.length - 1;
+
+			//regions are cut at the starts of messages
+			//части отрезаются по началам сообщений
+			List<ByteBuffer> regions = new ArrayList<>();
+			long[] regionStarts = new long[Math.max(count, 1)];
+			int[] messageRegions = new int[count];
+			int message = 0;
+			while(message < count){
+				long regionStart = messageStarts[message];
+				int last = message;
+				while(last < count && messageStarts[last + 1] - regionStart <= regionSize){
+					last++;
+				}
+				if(last == message){
+					throw new IllegalArgumentException("The message at position " + regionStart + " of the archive is longer than " + regionSize + " bytes");
+				}
+				regionStarts[regions.size()] = regionStart;
+				Arrays.fill(messageRegions, message, last, regions.size());
+				regions.add(channel.map(FileChannel.MapMode.READ_ONLY, regionStart, messageStarts[last] - regionStart));
+				message = last;
+			}
+			return new MessageArchive(regions.toArray(new ByteBuffer[0]), regionStarts, messageStarts, messageRegions);
+		}
+	}
+
+	/**
+	 * Number of messages
+	 * (Количество сообщений)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return number of messages (количество сообщений)
+	 */
+	int size() {
+		return this.messageRegions.length;
+	}
+
+	/**
+	 * Length of a message in bytes
+	 * (Длина сообщения в байтах)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index message index (индекс сообщения)
+	 * @return length (длина)
+	 */
+	long length(int index) {
+		return this.messageStarts[index + 1] - this.messageStarts[index];
+	}
+
+	/**
+	 * Bytes of a message without copying
+	 * (Байты сообщения без копирования)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index message index (индекс сообщения)
+	 * @return bytes of the message from the position to the limit (байты сообщения от позиции до предела)
+	 */
+	ByteBuffer message(int index) {
+		int region = this.messageRegions[index];
+		ByteBuffer bytes = this.regions[region].duplicate();
+		int start = (int) (this.messageStarts[index] - this.regionStarts[region]);
+		bytes.position(start).limit(start + (int) length(index));
+		return bytes;
+	}
+
+	//starts of messages in the file and the end of the file, windows of the file are scanned in chunks in parallel
+	//начала сообщений в файле и конец файла, окна файла просматриваются частями параллельно
+	private static long[] scan(FileChannel channel, long size, ForkJoinPool forkJoinPool, long regionSize) throws IOException {
+		long[] starts = new long[16];
+		int count = 0;
+
+		long windowStart = 0;
+		while(windowStart < size){
+			//the window also maps two bytes before it to see the terminator of the previous record
+			//окно отображает также два байта перед ним, чтобы видеть завершающие символы предыдущей записи
+			long mapStart = Math.max(0, windowStart - 2);
+			ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, Math.min(size - mapStart, regionSize));
+			int from = (int) (windowStart - mapStart);
+
+			List<long[]> found = new ArrayList<>();
+			if(forkJoinPool == null){
+				found.add(scan(window, from, window.limit(), mapStart));
+			} else {
+				List<ForkJoinTask<long[]>> tasks = new ArrayList<>();
+				int chunkStart = from;
+				while(chunkStart < window.limit()){
+					int start = chunkStart;
+					int end = (int) Math.min((long) chunkStart + CHUNK_SIZE, window.limit());
+					tasks.add(forkJoinPool.submit(() -> scan(window, start, end, mapStart)));
+					chunkStart = end;
+				}
+				for(ForkJoinTask<long[]> task : tasks){
+					found.add(task.join());
+				}
+			}
+
+			for(long[] chunkStarts : found){
+				int chunkCount = (int) chunkStarts[0];
+				if(count + chunkCount + 1 > starts.length){
+					starts = Arrays.copyOf(starts, Math.max(starts.length * 2, count + chunkCount + 1));
+				}
+				System.arraycopy(chunkStarts, 1, starts, count, chunkCount);
+				count += chunkCount;
+			}
+
+			//the next window starts right after the bytes scanned by this one
+			//следующее окно начинается сразу после байтов, просмотренных этим
+			windowStart = mapStart + window.limit();
+		}
+
+		starts[count] = size;
+		return Arrays.copyOf(starts, count + 1);
+	}
+
+	//positions of header records in a chunk of the window, the first element is their number
+	//позиции записей заголовка в части окна, первый элемент - их количество
+	private static long[] scan(ByteBuffer window, int from, int to, long offset) {
+		long[] starts = new long[8];
+		int count = 0;
+		for(int i = from; i < to; i++){
+			if(window.get(i) != 'H'){
+				continue;
+			}
+			//a record starts at the beginning of the file, after CR or after CR LF
+			//запись начинается в начале файла, после CR или после CR LF
+			boolean recordStart = offset + i == 0
+				|| window.get(i - 1) == '\r'
+				|| window.get(i - 1) == '\n' && i > 1 && window.get(i - 2) == '\r';
+			if(recordStart){
+				if(count + 1 == starts.length){
+					starts = Arrays.copyOf(starts, starts.length * 2);
+				}
+				starts[++count] = offset + i;
+			}
+		}
+		starts[0] = count;
+		return starts;
+	}
+}
@@ -0,0 +1,131 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.util.Arrays;
+
+import com.github.chistousov.lib.astm1394.record.RecordType;
+
+/**
+ * <p>
+ * Filter of messages checked on the raw text before records (record) are created, see
+ * {@link MessageParser#filter(CharSequence, MessageFilter, java.util.function.Consumer)}.
+ * A message is passed on only if every condition of {@link #anyRecord(RecordPredicate)} is met by at least one of its records,
+ * other messages are skipped without creating records. In a passed message the records of a type that do not meet
+ * the condition of {@link #records(RecordType, RecordPredicate)} are not created, records nested into them are skipped too.
+ * (Фильтр сообщений, проверяемый на исходном тексте до создания записей (record), см.
+ * {@link MessageParser#filter(CharSequence, MessageFilter, java.util.function.Consumer)}.
+ * Сообщение передается дальше, только если каждому условию {@link #anyRecord(RecordPredicate)} удовлетворяет хотя бы одна его запись,
+ * остальные сообщения пропускаются без создания записей. В переданном сообщении записи типа, которые не удовлетворяют
+ * условию {@link #records(RecordType, RecordPredicate)}, не создаются, вложенные в них записи тоже пропускаются.)
+ * </p>
+ *
+ * <pre>
+ * RecordPredicate abnormal = RecordPredicate.in("R.abnormalFlag", "H", "HH", "LL");
+ * MessageFilter filter = MessageFilter.all()
+ *     .anyRecord(RecordPredicate.in("H.processingId", "P"))
+ *     .anyRecord(abnormal)
+ *     .records(RecordType.R, abnormal);
+ * </pre>
+ *
+ * <p>
+ * A filter is immutable.
+ * (Фильтр неизменяем.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class MessageFilter {
+
+	//conditions of a message are tracked in bits of a long
+	//условия сообщения отслеживаются в битах long
+	private static final int MAX_CONDITIONS = Long.SIZE;
+
+	private static final MessageFilter ALL = new MessageFilter(new RecordPredicate[0], new RecordPredicate[RecordType.values().length]);
+
+	private final RecordPredicate[] conditions;
+
+	//conditions of records by the ordinal of the record type, null - all records
+	//условия записей по порядковому номеру типа записи, null - все записи
+	private final RecordPredicate[] records;
+
+	private MessageFilter(RecordPredicate[] conditions, RecordPredicate[] records) {
+		this.conditions = conditions;
+		this.records = records;
+	}
+
+	/**
+	 * Filter that passes all messages and records
+	 * (Фильтр, который пропускает все сообщения и записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return filter (фильтр)
+	 */
+	public static MessageFilter all() {
+		return ALL;
+	}
+
+	/**
+	 * Returns a filter that also requires at least one record of the message to meet the condition
+	 * (Возвращает фильтр, который также требует, чтобы хотя бы одна запись сообщения удовлетворяла условию)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param predicate condition (условие)
+	 * @return filter (фильтр)
+	 * @throws IllegalArgumentException if the filter already has 64 conditions (если у фильтра уже 64 условия)
+	 */
+	public MessageFilter anyRecord(RecordPredicate predicate) {
+		if(this.conditions.length >= MAX_CONDITIONS){
+			throw new IllegalArgumentException("A filter cannot have more than " + MAX_CONDITIONS + " conditions of messages");
+		}
+		RecordPredicate[] newConditions = Arrays.copyOf(this.conditions, this.conditions.length + 1);
+		newConditions[this.conditions.length] = predicate;
+		return new MessageFilter(newConditions, this.records);
+	}
+
+	/**
+	 * Returns a filter that also creates only the records of the type that meet the condition
+	 * (Возвращает фильтр, который также создает только записи типа, удовлетворяющие условию)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordType record type (тип записи)
+	 * @param predicate condition, it is combined with the previous condition of the type by "and" (условие, объединяется с предыдущим условием типа по "и")
+	 * @return filter (фильтр)
+	 * @throws IllegalArgumentException if records of the header (H) are filtered (если фильтруются записи заголовка (H))
+	 */
+	public MessageFilter records(RecordType recordType, RecordPredicate predicate) {
+		if(recordType == RecordType.H){
+			throw new IllegalArgumentException("The header record (H) cannot be filtered");
+		}
+		RecordPredicate[] newRecords = this.records.clone();
+		RecordPredicate previous = newRecords[recordType.ordinal()];
+		newRecords[recordType.ordinal()] = previous == null ? predicate : previous.and(predicate);
+		return new MessageFilter(this.conditions, newRecords);
+	}
+
+	//bits of the conditions met so far plus the conditions met by the current record of the cursor
+	//биты условий, выполненных до сих пор, плюс условия, выполненные текущей записью курсора
+	long match(RecordCursor cursor, long matched) {
+		for(int i = 0; i < this.conditions.length; i++){
+			long bit = 1L << i;
+			if((matched & bit) == 0 && this.conditions[i].test(cursor)){
+				matched |= bit;
+			}
+		}
+		return matched;
+	}
+
+	boolean isMatched(long matched) {
+		return Long.bitCount(matched) == this.conditions.length;
+	}
+
+	boolean keeps(RecordCursor cursor) {
+		RecordPredicate predicate = this.records[cursor.getRecordType().ordinal()];
+		return predicate == null || predicate.test(cursor);
+	}
+}
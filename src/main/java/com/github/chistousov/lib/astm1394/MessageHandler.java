@@ -0,0 +1,124 @@
+package com.github.chistousov.lib.astm1394;
+
+import com.github.chistousov.lib.astm1394.record.Diagnostic;
+import com.github.chistousov.lib.astm1394.record.IWithComments;
+import com.github.chistousov.lib.astm1394.record.Record;
+import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
+import com.github.chistousov.lib.astm1394.record.header.MessageHeaderRecord;
+import com.github.chistousov.lib.astm1394.record.order.TestOrderRecord;
+import com.github.chistousov.lib.astm1394.record.patient.PatientInformationRecord;
+import com.github.chistousov.lib.astm1394.record.request.RequestInformationRecord;
+import com.github.chistousov.lib.astm1394.record.terminator.MessageTerminatorRecord;
+
+/**
+ * <p>
+ * Receives records (record) from {@link MessageParser} as soon as they are read, together with the parent records.
+ * Records are not linked to each other, so the memory does not depend on the size of the message.
+ * (Получает записи (record) от {@link MessageParser} сразу после чтения вместе с родительскими записями.
+ * Записи не связываются друг с другом, поэтому память не зависит от размера сообщения.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public interface MessageHandler<T1 extends MessageHeaderRecord,
+								T2 extends PatientInformationRecord<T3, T9>,
+								T3 extends TestOrderRecord<T4, T9>,
+								T4 extends Record,
+								T6 extends RequestInformationRecord<T9>,
+								T8 extends MessageTerminatorRecord,
+								T9 extends CommentRecord> {
+
+	/**
+	 * Header record (H) of a new message
+	 * (Запись заголовка (H) нового сообщения)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param headerRecord header record (запись заголовка)
+	 */
+	public default void onHeader(T1 headerRecord) {}
+
+	/**
+	 * Patient information record (P)
+	 * (Запись информации о пациенте (P))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param patientInformationRecord patient record (запись пациента)
+	 */
+	public default void onPatient(T2 patientInformationRecord) {}
+
+	/**
+	 * Test order record (O)
+	 * (Запись задания на тест (O))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param patientInformationRecord patient of the order, null if there is none (пациент задания, null если его нет)
+	 * @param testOrderRecord order record (запись задания)
+	 */
+	public default void onOrder(T2 patientInformationRecord, T3 testOrderRecord) {}
+
+	/**
+	 * Result record (R)
+	 * (Запись результата (R))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param testOrderRecord order of the result, null if there is none (задание результата, null если его нет)
+	 * @param resultRecord result record (запись результата)
+	 */
+	public default void onResult(T3 testOrderRecord, T4 resultRecord) {}
+
+	/**
+	 * Comment record (C)
+	 * (Запись-комментарий (C))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param parentRecord last record with comments, null if there is none (последняя запись с комментариями, null если ее нет)
+	 * @param commentRecord comment record (запись-комментарий)
+	 */
+	public default void onComment(IWithComments<T9> parentRecord, T9 commentRecord) {}
+
+	/**
+	 * Request information record (Q)
+	 * (Запись с запрашиваемой информацией (Q))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param requestInformationRecord request record (запись запроса)
+	 */
+	public default void onRequest(T6 requestInformationRecord) {}
+
+	/**
+	 * Message terminator record (L)
+	 * (Запись конца сообщения (L))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param terminatorRecord terminator record (запись конца сообщения)
+	 */
+	public default void onTerminator(T8 terminatorRecord) {}
+
+	/**
+	 * Problem found by a tolerant parser (see {@link MessageParser#withTolerantMode(boolean)}), the record is skipped
+	 * or its value is null. Values of fields are reported when they are read.
+	 * (Проблема, найденная терпимым парсером (см. {@link MessageParser#withTolerantMode(boolean)}), запись пропущена
+	 * или ее значение равно null. О значениях полей сообщается при их чтении.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param diagnostic diagnostic (диагностика)
+	 */
+	public default void onDiagnostic(Diagnostic diagnostic) {}
+}
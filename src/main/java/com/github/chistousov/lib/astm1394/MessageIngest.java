@@ -0,0 +1,232 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * Bulk ingest of a directory tree of message files laid out as {@code <root>/<instrument>/...}, for example
+ * {@code CentaurXP/results/1.txt}. The parser of a file is chosen by the profile of its instrument directory,
+ * the files of instruments without a profile are skipped. Files are parsed concurrently on a work-stealing (fork-join) pool,
+ * messages are passed to the consumer by the calling thread in a deterministic order: files in the order of their paths,
+ * messages in the order in the file. Only files whose total size does not exceed the in-flight limit are parsed ahead,
+ * a file larger than the limit is parsed in batches on the pool when its turn comes (see {@link MessageParser#parse(Path, Charset, java.util.function.Consumer)}).
+ * (Массовый разбор дерева каталогов файлов сообщений вида {@code <корень>/<прибор>/...}, например
+ * {@code CentaurXP/results/1.txt}. Парсер файла выбирается по профилю каталога его прибора,
+ * файлы приборов без профиля пропускаются. Файлы разбираются одновременно в пуле с перехватом работы (fork-join),
+ * сообщения передаются потребителю вызывающим потоком в детерминированном порядке: файлы в порядке их путей,
+ * сообщения в порядке в файле. Заранее разбираются только файлы, общий размер которых не превышает предел одновременной обработки,
+ * файл больше предела разбирается в пуле пакетами, когда до него доходит очередь (см. {@link MessageParser#parse(Path, Charset, java.util.function.Consumer)}).)
+ * </p>
+ *
+ * <pre>
+ * MessageIngest ingest = new MessageIngest(ForkJoinPool.commonPool(), 64 * 1024 * 1024)
+ *     .withProfile("CentaurXP", centaurXPParser)
+ *     .withProfile("UniCellDxH", uniCellDxHParser);
+ * ingest.ingest(root, StandardCharsets.US_ASCII, (file, message) -&gt; ...);
+ * </pre>
+ *
+ * <p>
+ * The ingest is immutable. Files are parsed by the parsers of profiles with the pool (see {@link MessageParser#withForkJoinPool(ForkJoinPool)}),
+ * several files of a profile are parsed at the same time, so they share its dictionary and pool of records, which are thread-safe
+ * (see {@link com.github.chistousov.lib.astm1394.record.ValueDictionary} and {@link RecordPool}). The consumer may release messages
+ * to the pool of records while the next files are parsed.
+ * (Объект разбора неизменяем. Файлы разбираются парсерами профилей с пулом (см. {@link MessageParser#withForkJoinPool(ForkJoinPool)}),
+ * несколько файлов профиля разбираются одновременно, поэтому они разделяют его словарь и пул записей, которые потокобезопасны
+ * (см. {@link com.github.chistousov.lib.astm1394.record.ValueDictionary} и {@link RecordPool}). Потребитель может освобождать сообщения
+ * в пул записей, пока разбираются следующие файлы.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class MessageIngest {
+
+	private final ForkJoinPool forkJoinPool;
+
+	//total size of the files parsed ahead, in bytes
+	//общий размер файлов, разбираемых заранее, в байтах
+	private final long inFlightLimit;
+
+	//parsers of instrument directories
+	//парсеры каталогов приборов
+	private final Map<String, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>> profiles;
+
+	/**
+	 * Creates an ingest without profiles
+	 * (Создает объект разбора без профилей)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param forkJoinPool pool for parsing files (пул для разбора файлов)
+	 * @param inFlightLimit total size of the files parsed ahead, in bytes (общий размер файлов, разбираемых заранее, в байтах)
+	 * @throws IllegalArgumentException if the pool is null or the limit is not positive (если пул null или предел не положителен)
+	 */
+	public MessageIngest(ForkJoinPool forkJoinPool, long inFlightLimit) {
+		this(forkJoinPool, inFlightLimit, Collections.emptyMap());
+	}
+
+	private MessageIngest(ForkJoinPool forkJoinPool, long inFlightLimit, Map<String, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>> profiles) {
+		if(forkJoinPool == null){
+			throw new IllegalArgumentException("The fork-join pool is null");
+		}
+		if(inFlightLimit <= 0){
+			throw new IllegalArgumentException("The in-flight limit must be positive");
+		}
+		this.forkJoinPool = forkJoinPool;
+		this.inFlightLimit = inFlightLimit;
+		this.profiles = profiles;
+	}
+
+	/**
+	 * Returns an ingest that parses the files of the instrument directory with the parser
+	 * (Возвращает объект разбора, который разбирает файлы каталога прибора парсером)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param instrument name of the instrument directory, for example CentaurXP (имя каталога прибора, например CentaurXP)
+	 * @param parser parser of the record classes of the instrument (парсер классов записей прибора)
+	 * @return ingest (объект разбора)
+	 */
+	public MessageIngest withProfile(String instrument, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser) {
+		Map<String, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>> profiles = new HashMap<>(this.profiles);
+		profiles.put(instrument, parser);
+		return new MessageIngest(this.forkJoinPool, this.inFlightLimit, Collections.unmodifiableMap(profiles));
+	}
+
+	/**
+	 * Parses the message files of the directory tree and passes the messages to the consumer in the order of the files and of the messages in them.
+	 * The first exception stops the ingest, the files parsed ahead are cancelled.
+	 * (Разбирает файлы сообщений дерева каталогов и передает сообщения потребителю в порядке файлов и сообщений в них.
+	 * Первое исключение останавливает разбор, файлы, разбираемые заранее, отменяются.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param root root directory with instrument directories (корневой каталог с каталогами приборов)
+	 * @param charset ASCII compatible charset of the files (ASCII-совместимая кодировка файлов)
+	 * @param messageConsumer consumer of a file and its message (потребитель файла и его сообщения)
+	 * @throws IOException if the directory or a file cannot be read (если каталог или файл не читается)
+	 */
+	public void ingest(Path root, Charset charset, BiConsumer<Path, Message<?, ?, ?, ?, ?, ?, ?, ?, ?>> messageConsumer) throws IOException {
+		List<Path> files;
+		try(Stream<Path> paths = Files.walk(root)){
+			files = paths.filter(Files::isRegularFile)
+						 .filter(file -> profile(root, file) != null)
+						 .sorted()
+						 .collect(Collectors.toList());
+		}
+
+		Deque<ParsedFile> inFlight = new ArrayDeque<>();
+		long inFlightSize = 0;
+		int next = 0;
+		boolean completed = false;
+		try{
+			while(next < files.size() || !inFlight.isEmpty()){
+				//files are parsed ahead while they fit into the limit, at least one file is parsed
+				//файлы разбираются заранее, пока они помещаются в предел, разбирается хотя бы один файл
+				while(next < files.size()){
+					Path file = files.get(next);
+					long size = Files.size(file);
+					long charge = size > this.inFlightLimit ? 0 : size;
+					if(!inFlight.isEmpty() && inFlightSize + charge > this.inFlightLimit){
+						break;
+					}
+					inFlight.add(parseAhead(profile(root, file), file, size, charset));
+					inFlightSize += charge;
+					next++;
+				}
+
+				ParsedFile parsedFile = inFlight.poll();
+				if(parsedFile.messages == null){
+					parsedFile.parser.parse(parsedFile.file, charset, message -> messageConsumer.accept(parsedFile.file, message));
+				} else {
+					for(Message<?, ?, ?, ?, ?, ?, ?, ?, ?> message : join(parsedFile.messages)){
+						messageConsumer.accept(parsedFile.file, message);
+					}
+				}
+				inFlightSize -= parsedFile.size;
+			}
+			completed = true;
+		} finally {
+			if(!completed){
+				for(ParsedFile parsedFile : inFlight){
+					if(parsedFile.messages != null){
+						parsedFile.messages.cancel(false);
+					}
+				}
+			}
+		}
+	}
+
+	//parser of the instrument directory of a file, null if there is no profile
+	//парсер каталога прибора файла, null если профиля нет
+	private MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> profile(Path root, Path file) {
+		Path relative = root.relativize(file);
+		return relative.getNameCount() < 2 ? null : this.profiles.get(relative.getName(0).toString());
+	}
+
+	//a file not larger than the limit is parsed on the pool at once, a larger file is parsed when its turn comes
+	//файл не больше предела сразу разбирается в пуле, файл больше разбирается, когда до него доходит очередь
+	private ParsedFile parseAhead(MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> profile, Path file, long size, Charset charset) {
+		MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser = profile.withForkJoinPool(this.forkJoinPool);
+		if(size > this.inFlightLimit){
+			return new ParsedFile(parser, file, 0, null);
+		}
+		return new ParsedFile(parser, file, size, this.forkJoinPool.submit(() -> {
+			List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>> messages = new ArrayList<>();
+			try{
+				parser.parse(file, charset, messages::add);
+			} catch(IOException ex){
+				throw new UncheckedIOException(ex);
+			}
+			return messages;
+		}));
+	}
+
+	//messages parsed ahead, an exception of reading the file is thrown as the IOException of the sequential parsing
+	//сообщения, разобранные заранее, исключение чтения файла выбрасывается как IOException последовательного разбора
+	private static List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>> join(ForkJoinTask<List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>>> messages) throws IOException {
+		try{
+			return messages.join();
+		} catch(UncheckedIOException ex){
+			throw ex.getCause();
+		}
+	}
+
+	/*
+	 * File in the queue of the ingest and its messages parsed ahead, null if the file is parsed when its turn comes
+	 * Файл в очереди разбора и его сообщения, разбираемые заранее, null если файл разбирается, когда до него доходит очередь
+	 */
+	private static final class ParsedFile {
+
+		private final MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser;
+		private final Path file;
+		private final long size;
+		private final ForkJoinTask<List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>>> messages;
+
+		private ParsedFile(MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser, Path file, long size, ForkJoinTask<List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>>> messages) {
+			this.parser = parser;
+			this.file = file;
+			this.size = size;
+			this.messages = messages;
+		}
+	}
+}
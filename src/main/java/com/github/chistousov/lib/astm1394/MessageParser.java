@@ -0,0 +1,1454 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.github.chistousov.lib.astm1394.record.Diagnostic;
+import com.github.chistousov.lib.astm1394.record.IReusable;
+import com.github.chistousov.lib.astm1394.record.IWithComments;
+import com.github.chistousov.lib.astm1394.record.Record;
+import com.github.chistousov.lib.astm1394.record.RecordType;
+import com.github.chistousov.lib.astm1394.record.ScientificRecord;
+import com.github.chistousov.lib.astm1394.record.ValueDictionary;
+import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
+import com.github.chistousov.lib.astm1394.record.header.MessageHeaderRecord;
+import com.github.chistousov.lib.astm1394.record.order.TestOrderRecord;
+import com.github.chistousov.lib.astm1394.record.patient.PatientInformationRecord;
+import com.github.chistousov.lib.astm1394.record.request.RequestInformationRecord;
+import com.github.chistousov.lib.astm1394.record.terminator.MessageTerminatorRecord;
+
+/**
+ * <p>
+ * ASTM 1394 message parser. It is created once for a set of record classes, does not use reflection
+ * while parsing, is immutable and can be shared between threads (for example between instrument connections).
+ * (Парсер сообщений ASTM 1394. Создается один раз для набора классов записей, не использует рефлексию
+ * при разборе, неизменяем и может использоваться несколькими потоками (например, подключениями приборов).)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class MessageParser<T1 extends MessageHeaderRecord,
+					 T2 extends PatientInformationRecord<T3, T9>,
+					 T3 extends TestOrderRecord<T4, T9>,
+					 T4 extends Record,
+					 T6 extends RequestInformationRecord<T9>,
+					 T7 extends ScientificRecord,
+					 T8 extends MessageTerminatorRecord,
+					 T9 extends CommentRecord,
+					 T10 extends IWithComments<T9>
+					> {
+
+	//parsers created from record classes, kept by the patient record class of the instrument, so they are unloaded together with its class loader
+	//парсеры, созданные по классам записей, хранятся у класса записи пациента прибора, поэтому выгружаются вместе с его загрузчиком классов
+	private static final ClassValue<Map<List<Class<?>>, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>>> PARSERS = new ClassValue<Map<List<Class<?>>, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>>>() {
+		@Override
+		protected Map<List<Class<?>>, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>> computeValue(Class<?> clazz) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private static final int BUFFER_SIZE = 8192;
+
+	//patients of a message are parsed by one task if their text is not longer
+	//пациенты сообщения разбираются одной задачей, если их текст не длиннее
+	private static final int SUBTREE_THRESHOLD = 16384;
+
+	//messages of an archive are parsed in batches of this size, so that only one batch of messages is kept at a time
+	//сообщения архива разбираются пакетами такого размера, чтобы одновременно хранился только один пакет сообщений
+	private static final long ARCHIVE_BATCH_SIZE = 1 << 23;
+
+	private static final MethodType RECORD_CONSTRUCTOR = MethodType.methodType(void.class, String.class, String.class, String.class, String.class, String.class);
+
+	private final Class<T1> clazzH;
+	private final Class<T2> clazzP;
+	private final Class<T3> clazzO;
+	private final Class<T4> clazzR;
+	private final Class<T6> clazzQ;
+	private final Class<T7> clazzS;
+	private final Class<T8> clazzL;
+	private final Class<T9> clazzC;
+	private final Class<T10> interfaceIWithComments;
+
+	private final Function<String, T1> headerFactory;
+	private final RecordFactory<T2> patientFactory;
+	private final RecordFactory<T3> orderFactory;
+	private final RecordFactory<T4> resultFactory;
+	private final RecordFactory<T6> requestFactory;
+	private final RecordFactory<T7> scientificFactory;
+	private final RecordFactory<T8> terminatorFactory;
+	private final RecordFactory<T9> commentFactory;
+
+	//record types and fields to parse, null - all
+	//типы записей и поля для разбора, null - все
+	private final Projection projection;
+
+	//dictionary of values shared by the records, null - values are not shared
+	//словарь значений, разделяемых записями, null - значения не разделяются
+	private final ValueDictionary dictionary;
+
+	//pool of reused records, null - records are created
+	//пул повторно используемых записей, null - записи создаются
+	private final RecordPool recordPool;
+
+	//problems are collected as diagnostics instead of exceptions
+	//проблемы собираются в диагностики вместо исключений
+	private final boolean tolerant;
+
+	//pool for parsing patients of large messages in parallel, null - messages are parsed sequentially
+	//пул для параллельного разбора пациентов больших сообщений, null - сообщения разбираются последовательно
+	private final ForkJoinPool forkJoinPool;
+
+	/**
+	 * Creates a parser from record factories, usually constructor references such as {@code ResultRecord::new}
+	 * (Создает парсер по фабрикам записей, обычно ссылкам на конструкторы, например {@code ResultRecord::new})
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param headerFactory H record factory (фабрика записей H)
+	 * @param patientFactory P record factory (фабрика записей P)
+	 * @param orderFactory O record factory (фабрика записей O)
+	 * @param resultFactory R record factory (фабрика записей R)
+	 * @param requestFactory Q record factory (фабрика записей Q)
+	 * @param scientificFactory S record factory (фабрика записей S)
+	 * @param terminatorFactory L record factory (фабрика записей L)
+	 * @param commentFactory C record factory (фабрика записей C)
+	 */
+	public MessageParser(Function<String, T1> headerFactory,
+						 RecordFactory<T2> patientFactory,
+						 RecordFactory<T3> orderFactory,
+						 RecordFactory<T4> resultFactory,
+						 RecordFactory<T6> requestFactory,
+						 RecordFactory<T7> scientificFactory,
+						 RecordFactory<T8> terminatorFactory,
+						 RecordFactory<T9> commentFactory) {
+		this(null, null, null, null, null, null, null, null, null,
+			 headerFactory, patientFactory, orderFactory, resultFactory, requestFactory, scientificFactory, terminatorFactory, commentFactory);
+	}
+
+	private MessageParser(Class<T1> clazzT1,
+						  Class<T2> clazzT2,
+						  Class<T3> clazzT3,
+						  Class<T4> clazzT4,
+						  Class<T6> clazzT6,
+						  Class<T7> clazzT7,
+						  Class<T8> clazzT8,
+						  Class<T9> clazzT9,
+						  Class<T10> interfaceIWithComments,
+						  Function<String, T1> headerFactory,
+						  RecordFactory<T2> patientFactory,
+						  RecordFactory<T3> orderFactory,
+						  RecordFactory<T4> resultFactory,
+						  RecordFactory<T6> requestFactory,
+						  RecordFactory<T7> scientificFactory,
+						  RecordFactory<T8> terminatorFactory,
+						  RecordFactory<T9> commentFactory) {
+		this.clazzH = clazzT1;
+		this.clazzP = clazzT2;
+		this.clazzO = clazzT3;
+		this.clazzR = clazzT4;
+		this.clazzQ = clazzT6;
+		this.clazzS = clazzT7;
+		this.clazzL = clazzT8;
+		this.clazzC = clazzT9;
+		this.interfaceIWithComments = interfaceIWithComments;
+
+		this.headerFactory = headerFactory;
+		this.patientFactory = patientFactory;
+		this.orderFactory = orderFactory;
+		this.resultFactory = resultFactory;
+		this.requestFactory = requestFactory;
+		this.scientificFactory = scientificFactory;
+		this.terminatorFactory = terminatorFactory;
+		this.commentFactory = commentFactory;
+
+		this.projection = null;
+		this.dictionary = null;
+		this.recordPool = null;
+		this.tolerant = false;
+		this.forkJoinPool = null;
+	}
+
+	private MessageParser(MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10> parser, Projection projection, ValueDictionary dictionary, RecordPool recordPool, boolean tolerant, ForkJoinPool forkJoinPool) {
+		this.clazzH = parser.clazzH;
+		this.clazzP = parser.clazzP;
+		this.clazzO = parser.clazzO;
+		this.clazzR = parser.clazzR;
+		this.clazzQ = parser.clazzQ;
+		this.clazzS = parser.clazzS;
+		this.clazzL = parser.clazzL;
+		this.clazzC = parser.clazzC;
+		this.interfaceIWithComments = parser.interfaceIWithComments;
+
+		this.headerFactory = parser.headerFactory;
+		this.patientFactory = parser.patientFactory;
+		this.orderFactory = parser.orderFactory;
+		this.resultFactory = parser.resultFactory;
+		this.requestFactory = parser.requestFactory;
+		this.scientificFactory = parser.scientificFactory;
+		this.terminatorFactory = parser.terminatorFactory;
+		this.commentFactory = parser.commentFactory;
+
+		this.projection = projection;
+		this.dictionary = dictionary;
+		this.recordPool = recordPool;
+		this.tolerant = tolerant;
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Returns a parser for record classes. Constructors are resolved once, the parser is cached for the set of classes.
+	 * (Возвращает парсер для классов записей. Конструкторы находятся один раз, парсер кэшируется для набора классов.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param clazzT1 MessageHeaderRecord descendant with a (String) constructor (потомок MessageHeaderRecord с конструктором (String))
+	 * @param clazzT2 PatientInformationRecord descendant (потомок PatientInformationRecord)
+	 * @param clazzT3 TestOrderRecord descendant (потомок TestOrderRecord)
+	 * @param clazzT4 ResultRecord or another result record (ResultRecord или другая запись результата)
+	 * @param clazzT6 RequestInformationRecord descendant (потомок RequestInformationRecord)
+	 * @param clazzT7 ScientificRecord descendant (потомок ScientificRecord)
+	 * @param clazzT8 MessageTerminatorRecord descendant (потомок MessageTerminatorRecord)
+	 * @param clazzT9 CommentRecord descendant (потомок CommentRecord)
+	 * @param interfaceIWithComments interface of records with comments (интерфейс записей с комментариями)
+	 * @return parser (парсер)
+	 * @throws IllegalArgumentException if a class has no suitable constructor (если у класса нет подходящего конструктора)
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T1 extends MessageHeaderRecord,
+				   T2 extends PatientInformationRecord<T3, T9>,
+				   T3 extends TestOrderRecord<T4, T9>,
+				   T4 extends Record,
+				   T6 extends RequestInformationRecord<T9>,
+				   T7 extends ScientificRecord,
+				   T8 extends MessageTerminatorRecord,
+				   T9 extends CommentRecord,
+				   T10 extends IWithComments<T9>> MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10> of(Class<T1> clazzT1,
+																										Class<T2> clazzT2,
+																										Class<T3> clazzT3,
+																										Class<T4> clazzT4,
+																										Class<T6> clazzT6,
+																										Class<T7> clazzT7,
+																										Class<T8> clazzT8,
+																										Class<T9> clazzT9,
+																										Class<T10> interfaceIWithComments) {
+		List<Class<?>> key = Arrays.asList(clazzT1, clazzT2, clazzT3, clazzT4, clazzT6, clazzT7, clazzT8, clazzT9, interfaceIWithComments);
+
+		Map<List<Class<?>>, MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>> parsers = PARSERS.get(clazzT2);
+		MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser = parsers.get(key);
+		if(parser == null){
+			parser = new MessageParser<>(clazzT1, clazzT2, clazzT3, clazzT4, clazzT6, clazzT7, clazzT8, clazzT9, interfaceIWithComments,
+					headerFactory(clazzT1),
+					recordFactory(clazzT2, "PatientInformationRecord"),
+					recordFactory(clazzT3, "TestOrderRecord"),
+					recordFactory(clazzT4, "ResultRecord"),
+					recordFactory(clazzT6, "RequestInformationRecord"),
+					recordFactory(clazzT7, "ScientificRecord"),
+					recordFactory(clazzT8, "MessageTerminatorRecord"),
+					recordFactory(clazzT9, "CommentRecord"));
+			//a parser created at the same time by another thread wins, so all threads get one parser
+			//парсер, созданный одновременно другим потоком, побеждает, поэтому все потоки получают один парсер
+			MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> cached = parsers.putIfAbsent(key, parser);
+			if(cached != null){
+				parser = cached;
+			}
+		}
+		return (MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10>) parser;
+	}
+
+	/**
+	 * Returns a parser with the same factories that parses only the record types and fields of the projection
+	 * (Возвращает парсер с теми же фабриками, который разбирает только типы записей и поля проекции)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param projection record types and fields to parse, null - all (типы записей и поля для разбора, null - все)
+	 * @return parser (парсер)
+	 */
+	public MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10> withProjection(Projection projection) {
+		return new MessageParser<>(this, projection, this.dictionary, this.recordPool, this.tolerant, this.forkJoinPool);
+	}
+
+	/**
+	 * Returns a parser with the same factories whose records share equal values of the dictionary.
+	 * The dictionary can be shared by parsers of several connections or threads (see {@link ValueDictionary}).
+	 * (Возвращает парсер с теми же фабриками, записи которого разделяют равные значения словаря.
+	 * Словарь может разделяться парсерами нескольких подключений или потоков (см. {@link ValueDictionary}).)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param dictionary dictionary of values, null - values are not shared (словарь значений, null - значения не разделяются)
+	 * @return parser (парсер)
+	 */
+	public MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10> withDictionary(ValueDictionary dictionary) {
+		return new MessageParser<>(this, this.projection, dictionary, this.recordPool, this.tolerant, this.forkJoinPool);
+	}
+
+	/**
+	 * Returns a parser with the same factories that refills the records released to the pool instead of creating new records.
+	 * The pool is thread-safe (see {@link RecordPool}), messages can be released while the parser parses other messages.
+	 * (Возвращает парсер с теми же фабриками, который заполняет заново записи, освобожденные в пул, вместо создания новых записей.
+	 * Пул потокобезопасен (см. {@link RecordPool}), сообщения можно освобождать, пока парсер разбирает другие сообщения.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordPool pool of records, null - records are created (пул записей, null - записи создаются)
+	 * @return parser (парсер)
+	 */
+	public MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10> withRecordPool(RecordPool recordPool) {
+		return new MessageParser<>(this, this.projection, this.dictionary, recordPool, this.tolerant, this.forkJoinPool);
+	}
+
+	/**
+	 * Returns a parser with the same factories that does not throw on malformed messages: problems are passed to
+	 * {@link MessageHandler#onDiagnostic(Diagnostic)} and collected by {@link Message#getDiagnostics()}, the records
+	 * with problems are skipped with the records nested into them. Records also report the values of fields that cannot be read.
+	 * Exceptions thrown by the constructors of record classes are not problems of the message, they are thrown as they are.
+	 * (Возвращает парсер с теми же фабриками, который не выбрасывает исключения на некорректных сообщениях: проблемы передаются в
+	 * {@link MessageHandler#onDiagnostic(Diagnostic)} и собираются в {@link Message#getDiagnostics()}, записи
+	 * с проблемами пропускаются вместе с вложенными в них записями. Записи также сообщают о значениях полей, которые не удается прочитать.
+	 * Исключения конструкторов классов записей не являются проблемами сообщения, они выбрасываются как есть.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param tolerant true - problems are diagnostics, false - exceptions (true - проблемы являются диагностиками, false - исключениями)
+	 * @return parser (парсер)
+	 */
+	public MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10> withTolerantMode(boolean tolerant) {
+		return new MessageParser<>(this, this.projection, this.dictionary, this.recordPool, tolerant, this.forkJoinPool);
+	}
+
+	/**
+	 * Returns a parser with the same factories that parses the patients (P) of a message with their orders, results and comments
+	 * on the fork-join pool. The boundaries of patients are found by a quick scan of the text, the patients are returned
+	 * by {@link Message#getPatientInformationRecords()} in the original order, the message and its diagnostics are the same as
+	 * after sequential parsing. Messages with requests (Q), records after the terminator (L) or less than two patients
+	 * are parsed sequentially. The tasks share the dictionary and the pool of records of the parser, both are thread-safe
+	 * (see {@link ValueDictionary} and {@link RecordPool}), and the consumer may release messages while the tasks parse.
+	 * (Возвращает парсер с теми же фабриками, который разбирает пациентов (P) сообщения с их заданиями, результатами и комментариями
+	 * в пуле fork-join. Границы пациентов находятся быстрым просмотром текста, пациенты возвращаются
+	 * {@link Message#getPatientInformationRecords()} в исходном порядке, сообщение и его диагностики такие же, как
+	 * после последовательного разбора. Сообщения с запросами (Q), записями после записи конца сообщения (L) или менее чем с двумя пациентами
+	 * разбираются последовательно. Задачи разделяют словарь и пул записей парсера, оба потокобезопасны
+	 * (см. {@link ValueDictionary} и {@link RecordPool}), и потребитель может освобождать сообщения, пока задачи разбирают.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param forkJoinPool pool of tasks, for example {@link ForkJoinPool#commonPool()}, null - messages are parsed sequentially (пул задач, например {@link ForkJoinPool#commonPool()}, null - сообщения разбираются последовательно)
+	 * @return parser (парсер)
+	 */
+	public MessageParser<T1, T2, T3, T4, T6, T7, T8, T9, T10> withForkJoinPool(ForkJoinPool forkJoinPool) {
+		return new MessageParser<>(this, this.projection, this.dictionary, this.recordPool, this.tolerant, forkJoinPool);
+	}
+
+	/**
+	 * Parses a message
+	 * (Разбирает сообщение)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messageStr message text (текст сообщения)
+	 * @return message (сообщение)
+	 */
+	public Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> parse(String messageStr) {
+		Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message = new Message<>(clazzH, clazzP, clazzO, clazzR, clazzQ, clazzS, clazzL, clazzC, interfaceIWithComments);
+		parseInto(message, messageStr);
+		return message;
+	}
+
+	/**
+	 * Parses a message from bytes without decoding the whole message, records are decoded one by one
+	 * (Разбирает сообщение из байтов без декодирования всего сообщения, записи декодируются по одной)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messageBytes message bytes from the position to the limit (байты сообщения от позиции до предела)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @return message (сообщение)
+	 */
+	public Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> parse(ByteBuffer messageBytes, Charset charset) {
+		Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message = new Message<>(clazzH, clazzP, clazzO, clazzR, clazzQ, clazzS, clazzL, clazzC, interfaceIWithComments);
+		parseInto(message, new ByteSequence(messageBytes, charset));
+		return message;
+	}
+
+	/**
+	 * Reads messages from bytes and passes every record to the handler, records are decoded one by one
+	 * (Читает сообщения из байтов и передает каждую запись обработчику, записи декодируются по одной)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messagesBytes bytes of messages from the position to the limit (байты сообщений от позиции до предела)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @param handler record handler (обработчик записей)
+	 */
+	public void parse(ByteBuffer messagesBytes, Charset charset, MessageHandler<T1, T2, T3, T4, T6, T8, T9> handler) {
+		RecordCursor cursor = cursor(messagesBytes, charset);
+		ParseState state = new ParseState(handler);
+		while(cursor.next()){
+			state.accept(cursor.getRecord());
+		}
+	}
+
+	/**
+	 * Reads messages from a stream and passes every record to the handler as soon as it is read.
+	 * The stream may contain several messages one after another, the stream is not closed.
+	 * (Читает сообщения из потока и передает каждую запись обработчику сразу после чтения.
+	 * Поток может содержать несколько сообщений подряд, поток не закрывается.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param inputStream stream of messages (поток сообщений)
+	 * @param charset charset of the stream (кодировка потока)
+	 * @param handler record handler (обработчик записей)
+	 * @throws IOException if the stream cannot be read (если поток не читается)
+	 */
+	public void parse(InputStream inputStream, Charset charset, MessageHandler<T1, T2, T3, T4, T6, T8, T9> handler) throws IOException {
+		parse(new InputStreamReader(inputStream, charset), handler);
+	}
+
+	/**
+	 * Reads messages from a reader and passes every record to the handler as soon as it is read.
+	 * The reader may contain several messages one after another, the reader is not closed.
+	 * (Читает сообщения из reader и передает каждую запись обработчику сразу после чтения.
+	 * Reader может содержать несколько сообщений подряд, reader не закрывается.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param reader reader of messages (reader сообщений)
+	 * @param handler record handler (обработчик записей)
+	 * @throws IOException if the reader cannot be read (если reader не читается)
+	 */
+	public void parse(Reader reader, MessageHandler<T1, T2, T3, T4, T6, T8, T9> handler) throws IOException {
+		IncrementalMessageParser incrementalParser = new IncrementalMessageParser(new ParseState(handler), null);
+		char[] buffer = new char[BUFFER_SIZE];
+
+		int read;
+		while((read = reader.read(buffer)) != -1){
+			incrementalParser.feed(buffer, 0, read);
+		}
+		incrementalParser.finish();
+	}
+
+	/**
+	 * Parses an archive file of messages written one after another. The file is mapped into memory and is not read into the heap,
+	 * the boundaries of messages (header records H) are found by scanning chunks of the file, the bytes before the first header are skipped.
+	 * With a fork-join pool (see {@link #withForkJoinPool(ForkJoinPool)}) the file is scanned and the messages are parsed on the pool in batches,
+	 * the consumer is called by the calling thread in the order of the messages in the file.
+	 * (Разбирает файл архива сообщений, записанных одно за другим. Файл отображается в память и не читается в кучу,
+	 * границы сообщений (записи заголовка H) находятся просмотром частей файла, байты до первого заголовка пропускаются.
+	 * С пулом fork-join (см. {@link #withForkJoinPool(ForkJoinPool)}) файл просматривается, а сообщения разбираются в пуле пакетами,
+	 * потребитель вызывается вызывающим потоком в порядке сообщений в файле.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param archive archive file (файл архива)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @param messageConsumer consumer of messages (потребитель сообщений)
+	 * @throws IOException if the file cannot be read (если файл не читается)
+	 * @throws IllegalArgumentException if a message is longer than 2 GB (если сообщение длиннее 2 ГБ)
+	 */
+	public void parse(Path archive, Charset charset, Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) throws IOException {
+		MessageArchive messageArchive = MessageArchive.map(archive, this.forkJoinPool);
+		int count = messageArchive.size();
+
+		int from = 0;
+		while(from < count){
+			int to = from;
+			long batchSize = 0;
+			while(to < count && (to == from || batchSize + messageArchive.length(to) <= ARCHIVE_BATCH_SIZE)){
+				batchSize += messageArchive.length(to);
+				to++;
+			}
+
+			if(this.forkJoinPool == null){
+				for(int i = from; i < to; i++){
+					messageConsumer.accept(parse(messageArchive.message(i), charset));
+				}
+			} else {
+				List<ForkJoinTask<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>>> tasks = new ArrayList<>(to - from);
+				for(int i = from; i < to; i++){
+					ByteBuffer messageBytes = messageArchive.message(i);
+					tasks.add(this.forkJoinPool.submit(() -> parse(messageBytes, charset)));
+				}
+				for(ForkJoinTask<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> task : tasks){
+					messageConsumer.accept(task.join());
+				}
+			}
+			from = to;
+		}
+	}
+
+	/**
+	 * Creates an incremental parser that is fed with chunks of data as they arrive and passes every completed record to the handler
+	 * (Создает инкрементальный парсер, который получает части данных по мере поступления и передает каждую завершенную запись обработчику)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param charset charset of the bytes fed to the parser (кодировка байтов, передаваемых парсеру)
+	 * @param handler record handler (обработчик записей)
+	 * @return incremental parser (инкрементальный парсер)
+	 */
+	public IncrementalMessageParser incremental(Charset charset, MessageHandler<T1, T2, T3, T4, T6, T8, T9> handler) {
+		return new IncrementalMessageParser(new ParseState(handler), charset);
+	}
+
+	/**
+	 * Creates an incremental parser that is fed with chunks of data as they arrive and passes every message to the consumer
+	 * when its terminator record (L) is read
+	 * (Создает инкрементальный парсер, который получает части данных по мере поступления и передает каждое сообщение потребителю
+	 * после чтения его записи конца сообщения (L))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param charset charset of the bytes fed to the parser (кодировка байтов, передаваемых парсеру)
+	 * @param messageConsumer consumer of messages (потребитель сообщений)
+	 * @return incremental parser (инкрементальный парсер)
+	 */
+	public IncrementalMessageParser incremental(Charset charset, Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) {
+		return new IncrementalMessageParser(new ParseState(new MessageCollector(messageConsumer)), charset);
+	}
+
+	/**
+	 * Creates a pull cursor over the records of one or several messages
+	 * (Создает курсор по записям одного или нескольких сообщений)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messages text of messages (текст сообщений)
+	 * @return cursor before the first record (курсор перед первой записью)
+	 */
+	public RecordCursor cursor(CharSequence messages) {
+		return new RecordCursor(this, messages);
+	}
+
+	/**
+	 * Creates a pull cursor over the records of messages in bytes. Strings are decoded only for the fields that are read.
+	 * (Создает курсор по записям сообщений в байтах. Строки декодируются только для читаемых полей.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messagesBytes bytes of messages from the position to the limit (байты сообщений от позиции до предела)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @return cursor before the first record (курсор перед первой записью)
+	 */
+	public RecordCursor cursor(ByteBuffer messagesBytes, Charset charset) {
+		return new RecordCursor(this, new ByteSequence(messagesBytes, charset));
+	}
+
+	/**
+	 * Passes on the messages that pass the filter. The conditions are checked on the raw text of records,
+	 * records are created only for the passed messages and only for the records passed by the filter.
+	 * (Передает дальше сообщения, прошедшие фильтр. Условия проверяются на исходном тексте записей,
+	 * записи создаются только для прошедших сообщений и только для записей, пропущенных фильтром.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messages text of messages (текст сообщений)
+	 * @param filter filter (фильтр)
+	 * @param messageConsumer consumer of messages (потребитель сообщений)
+	 */
+	public void filter(CharSequence messages, MessageFilter filter, Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) {
+		RecordCursor cursor = cursor(messages);
+		RecordCursor messageCursor = null;
+
+		boolean hasRecord = cursor.next();
+		while(hasRecord){
+			//records before the header are not a message
+			//записи до заголовка не являются сообщением
+			if(cursor.getRecordType() != RecordType.H){
+				hasRecord = cursor.next();
+				continue;
+			}
+
+			//the message ends with the terminator record (L) or before the next header
+			//сообщение заканчивается записью конца сообщения (L) или перед следующим заголовком
+			int messageStart = cursor.getRecordStart();
+			long matched = 0;
+			boolean terminated;
+			do {
+				matched = filter.match(cursor, matched);
+				terminated = cursor.getRecordType() == RecordType.L;
+				hasRecord = cursor.next();
+			} while(hasRecord && !terminated && cursor.getRecordType() != RecordType.H);
+
+			if(filter.isMatched(matched)){
+				if(messageCursor == null){
+					messageCursor = cursor(messages);
+				}
+				messageCursor.reset(messageStart);
+				messageConsumer.accept(filteredMessage(messageCursor, filter));
+			}
+		}
+	}
+
+	/**
+	 * Passes on the messages in bytes that pass the filter, only the records of the passed messages are decoded
+	 * (Передает дальше сообщения в байтах, прошедшие фильтр, декодируются только записи прошедших сообщений)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messagesBytes bytes of messages from the position to the limit (байты сообщений от позиции до предела)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @param filter filter (фильтр)
+	 * @param messageConsumer consumer of messages (потребитель сообщений)
+	 */
+	public void filter(ByteBuffer messagesBytes, Charset charset, MessageFilter filter, Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) {
+		filter(new ByteSequence(messagesBytes, charset), filter, messageConsumer);
+	}
+
+	/**
+	 * Reads messages from a reader and passes on the messages that pass the filter. Only the text of one message
+	 * is kept at a time, the reader is not closed.
+	 * (Читает сообщения из reader и передает дальше сообщения, прошедшие фильтр. Одновременно хранится
+	 * текст только одного сообщения, reader не закрывается.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param reader reader of messages (reader сообщений)
+	 * @param filter filter (фильтр)
+	 * @param messageConsumer consumer of messages (потребитель сообщений)
+	 * @throws IOException if the reader cannot be read (если reader не читается)
+	 */
+	public void filter(Reader reader, MessageFilter filter, Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) throws IOException {
+		FilterBuffer filterBuffer = new FilterBuffer(filter, messageConsumer);
+		IncrementalMessageParser incrementalParser = new IncrementalMessageParser(filterBuffer, null);
+		char[] buffer = new char[BUFFER_SIZE];
+
+		int read;
+		while((read = reader.read(buffer)) != -1){
+			incrementalParser.feed(buffer, 0, read);
+		}
+		incrementalParser.finish();
+		filterBuffer.flush();
+	}
+
+	/**
+	 * Reads messages from a stream and passes on the messages that pass the filter, the stream is not closed
+	 * (Читает сообщения из потока и передает дальше сообщения, прошедшие фильтр, поток не закрывается)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param inputStream stream of messages (поток сообщений)
+	 * @param charset charset of the stream (кодировка потока)
+	 * @param filter filter (фильтр)
+	 * @param messageConsumer consumer of messages (потребитель сообщений)
+	 * @throws IOException if the stream cannot be read (если поток не читается)
+	 */
+	public void filter(InputStream inputStream, Charset charset, MessageFilter filter, Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) throws IOException {
+		filter(new InputStreamReader(inputStream, charset), filter, messageConsumer);
+	}
+
+	void parseInto(Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message, CharSequence messageStr) {
+		parseInto(message, messageStr, false);
+	}
+
+	//exceptions of record constructors are wrapped into RecordConstructorException for the constructor of the message
+	//исключения конструкторов записей оборачиваются в RecordConstructorException для конструктора сообщения
+	void parseInto(Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message, CharSequence messageStr, boolean wrapsConstructorExceptions) {
+		RecordCursor cursor = cursor(messageStr);
+		ParseState state = new ParseState(new MessageAssembler<>(message));
+		state.wrapsConstructorExceptions = wrapsConstructorExceptions;
+
+		boolean hasRecord = cursor.next();
+		if(this.tolerant){
+			while(hasRecord && cursor.getRecordType() != RecordType.H){
+				diagnose(state, cursor.getRecordType(), Diagnostic.Problem.MISSING_HEADER, cursor.getRecord());
+				state.recordIndex++;
+				hasRecord = cursor.next();
+			}
+			if(!hasRecord){
+				diagnose(state, null, Diagnostic.Problem.MISSING_HEADER, "");
+				return;
+			}
+		}
+		if(!hasRecord){
+			throw new IllegalArgumentException("The message does not contain a header record");
+		}
+
+		headerRecord(cursor.getRecord(), state);
+		if(this.forkJoinPool == null || !parsePatients(message, messageStr, cursor.getRecordStart(), state)){
+			while(cursor.next()){
+				record(cursor.getRecord(), state);
+			}
+		}
+		if(this.tolerant && message.getTerminatorRecord() == null){
+			diagnose(state, RecordType.L, Diagnostic.Problem.MISSING_TERMINATOR, "");
+		}
+	}
+
+	//parses the records after the header with patients on the fork-join pool, false if the message is parsed sequentially
+	//разбирает записи после заголовка с пациентами в пуле fork-join, false если сообщение разбирается последовательно
+	private boolean parsePatients(Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message, CharSequence messageStr, int headerStart, ParseState state) {
+		RecordCursor scan = RecordCursor.of(messageStr);
+		scan.reset(headerStart);
+		scan.next();
+
+		//starts of patients and their indexes in the message
+		//начала пациентов и их индексы в сообщении
+		int[] starts = new int[16];
+		int[] indexes = new int[16];
+		int count = 0;
+		int recordIndex = 0;
+		boolean terminated = false;
+		while(scan.next()){
+			recordIndex++;
+			RecordType recordType = scan.getRecordType();
+			if(recordType == RecordType.Q || terminated){
+				return false;
+			}
+			terminated = recordType == RecordType.L;
+			if(recordType == RecordType.P){
+				if(count == starts.length){
+					starts = Arrays.copyOf(starts, count * 2);
+					indexes = Arrays.copyOf(indexes, count * 2);
+				}
+				starts[count] = scan.getRecordStart();
+				indexes[count] = recordIndex;
+				count++;
+			}
+		}
+		if(count < 2){
+			return false;
+		}
+
+		//records before the first patient belong to the header
+		//записи до первого пациента относятся к заголовку
+		parseRange(messageStr, headerStart, starts[0], state, true);
+
+		//tasks set the subtrees of their patients, the list is not resized
+		//задачи задают поддеревья своих пациентов, размер списка не меняется
+		List<PatientSubtree> subtrees = new ArrayList<>(Collections.nCopies(count, null));
+		this.forkJoinPool.invoke(new SubtreeTask(messageStr, starts, indexes, count, 0, count, state, subtrees));
+
+		for(PatientSubtree subtree : subtrees){
+			if(subtree != null){
+				subtree.mergeInto(message);
+			}
+		}
+		return true;
+	}
+
+	//parses the records in the range of the text, the first record is skipped if it was already parsed
+	//разбирает записи в диапазоне текста, первая запись пропускается, если она уже разобрана
+	private void parseRange(CharSequence messageStr, int start, int end, ParseState state, boolean skipFirst) {
+		RecordCursor cursor = RecordCursor.of(messageStr);
+		cursor.reset(start);
+		if(skipFirst){
+			cursor.next();
+		}
+		while(cursor.next() && cursor.getRecordStart() < end){
+			record(cursor.getRecord(), state);
+		}
+	}
+
+	Record createRecord(RecordType recordType, String recordStr, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter) {
+		switch(recordType){
+			case H:
+				return canonical(this.headerFactory.apply(recordStr));
+			case P:
+				return canonical(reuse(RecordType.P, this.patientFactory, recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			case O:
+				return canonical(reuse(RecordType.O, this.orderFactory, recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			case R:
+				return canonical(reuse(RecordType.R, this.resultFactory, recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			case C:
+				return canonical(this.commentFactory.create(recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			case Q:
+				return canonical(this.requestFactory.create(recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			case S:
+				return canonical(this.scientificFactory.create(recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			case L:
+				return canonical(this.terminatorFactory.create(recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			default:
+				throw new IllegalStateException("There is no factory for records of type " + recordType.getRecordTypeId());
+		}
+	}
+
+	//message at the cursor, the records rejected by the filter are not created
+	//сообщение в позиции курсора, отклоненные фильтром записи не создаются
+	private Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> filteredMessage(RecordCursor cursor, MessageFilter filter) {
+		Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message = new Message<>(clazzH, clazzP, clazzO, clazzR, clazzQ, clazzS, clazzL, clazzC, interfaceIWithComments);
+		ParseState state = new ParseState(new MessageAssembler<>(message));
+
+		cursor.next();
+		headerRecord(cursor.getRecord(), state);
+
+		//level of the last rejected record, -1 if records are not rejected
+		//уровень последней отклоненной записи, -1 если записи не отклоняются
+		int rejectedLevel = -1;
+		while(cursor.next() && cursor.getRecordType() != RecordType.H){
+			int level = cursor.getLevel();
+			if(rejectedLevel >= 0 && level > rejectedLevel){
+				continue;
+			}
+			rejectedLevel = -1;
+			if(!filter.keeps(cursor)){
+				rejectedLevel = level;
+				continue;
+			}
+
+			record(cursor.getRecord(), state);
+			if(cursor.getRecordType() == RecordType.L){
+				break;
+			}
+		}
+		return message;
+	}
+
+	private void headerRecord(String recordStr, ParseState state) {
+		T1 headerRecord;
+		try{
+			headerRecord = canonical(this.headerFactory.apply(recordStr));
+		} catch(RuntimeException ex){
+			if(state.wrapsConstructorExceptions){
+				throw new IllegalArgumentException("An error occurred in the MessageHeaderRecord constructor", ex);
+			}
+			throw ex;
+		}
+		if(this.projection != null){
+			headerRecord.setConvertedFields(this.projection.convertedFields(RecordType.H));
+		}
+
+		state.fieldDelimiter = headerRecord.getFieldDelimiter().getValue();
+		state.repeatDelimiter = headerRecord.getRepeatDelimiter().getValue();
+		state.componentDelimiter = headerRecord.getComponentDelimiter().getValue();
+		state.escapeDelimiter = headerRecord.getEscapeDelimiter().getValue();
+		state.currectRecordWithComments = null;
+		state.patientInformationRecord = null;
+		state.testOrderRecord = null;
+		state.skippedLevel = -1;
+		state.recordIndex = 0;
+		state.hasPatient = false;
+		state.hasRequest = false;
+
+		state.handler.onHeader(headerRecord);
+		if(this.tolerant){
+			//values are read after the message is passed on, so they are reported to the message itself
+			//значения читаются после передачи сообщения, поэтому сообщаются самому сообщению
+			state.valueDiagnostics = state.handler instanceof MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>.MessageCollector ? ((MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?>.MessageCollector) state.handler).message::addDiagnostic : state.handler::onDiagnostic;
+			Diagnostic.watch(headerRecord, 0, state.valueDiagnostics);
+		}
+	}
+
+	private void diagnose(ParseState state, RecordType recordType, Diagnostic.Problem problem, String recordStr) {
+		state.handler.onDiagnostic(new Diagnostic(state.recordIndex, recordType, -1, problem, recordStr));
+	}
+
+	//problem of a record in the current message, null if the record can be linked
+	//проблема записи в текущем сообщении, null если запись можно связать
+	private Diagnostic.Problem problem(RecordType recordType, ParseState state) {
+		switch(recordType){
+			case P:
+				return state.hasRequest ? Diagnostic.Problem.PATIENT_AND_REQUEST : null;
+			case Q:
+				return state.hasPatient ? Diagnostic.Problem.PATIENT_AND_REQUEST : null;
+			case O:
+				return state.patientInformationRecord == null ? Diagnostic.Problem.MISSING_PARENT : null;
+			case R:
+				return state.testOrderRecord == null ? Diagnostic.Problem.MISSING_PARENT : null;
+			case C:
+				return state.currectRecordWithComments == null ? Diagnostic.Problem.MISSING_PARENT : null;
+			case U:
+				return Diagnostic.Problem.UNKNOWN_RECORD_TYPE;
+			default:
+				return null;
+		}
+	}
+
+	private <R extends Record> R canonical(R record) {
+		return this.dictionary == null ? record : this.dictionary.canonicalize(record);
+	}
+
+	//a released record of the pool refilled with the text, otherwise a new record
+	//освобожденная запись пула, заполненная заново текстом, иначе новая запись
+	@SuppressWarnings("unchecked")
+	private <R extends Record> R reuse(RecordType recordType, RecordFactory<R> factory, String recordStr, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter) {
+		Record record = null;
+		if(this.recordPool != null){
+			record = this.recordPool.poll(recordType);
+		}
+		if(record == null){
+			return factory.create(recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter);
+		}
+		((IReusable) record).reset(recordStr, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter);
+		return (R) record;
+	}
+
+	//the record is not empty: the cursor and the incremental parser skip empty records between terminators
+	//запись не пустая: курсор и инкрементальный парсер пропускают пустые записи между завершающими символами
+	private void record(String recordStr, ParseState state) {
+		state.recordIndex++;
+		RecordType recordType = RecordType.getBy(recordStr.charAt(0));
+		int level = Projection.level(recordType);
+
+		//records nested into a skipped record are skipped too
+		//записи, вложенные в пропущенную запись, тоже пропускаются
+		if(state.skippedLevel >= 0 && level > state.skippedLevel){
+			return;
+		}
+		state.skippedLevel = -1;
+
+		if(this.projection != null){
+			if(this.projection.isSkipped(recordType)){
+				state.skippedLevel = level;
+				return;
+			}
+		}
+
+		if(!isLinked(recordType)){
+			if(this.tolerant && recordType == RecordType.U){
+				diagnose(state, recordType, Diagnostic.Problem.UNKNOWN_RECORD_TYPE, recordStr);
+			}
+			return;
+		}
+
+		Record record;
+		if(this.tolerant){
+			Diagnostic.Problem problem = problem(recordType, state);
+			record = null;
+			if(problem == null){
+				record = createRecord(recordType, recordStr, state.fieldDelimiter, state.repeatDelimiter, state.componentDelimiter, state.escapeDelimiter);
+				if(record.hasExcessFields()){
+					problem = Diagnostic.Problem.INVALID_RECORD;
+				} else {
+					Diagnostic.watch(record, state.recordIndex, state.valueDiagnostics);
+				}
+			}
+			if(problem != null){
+				diagnose(state, recordType, problem, recordStr);
+				state.skippedLevel = level;
+				return;
+			}
+		} else {
+			try{
+				record = createRecord(recordType, recordStr, state.fieldDelimiter, state.repeatDelimiter, state.componentDelimiter, state.escapeDelimiter);
+				if(record.hasExcessFields()){
+					throw new IllegalArgumentException("The record " + recordType.getRecordTypeId() + " has more fields than its class holds");
+				}
+			} catch(RuntimeException ex){
+				if(state.wrapsConstructorExceptions){
+					throw new RecordConstructorException(recordType, ex);
+				}
+				throw ex;
+			}
+		}
+		if(this.projection != null){
+			record.setConvertedFields(this.projection.convertedFields(recordType));
+		}
+		link(recordType, record, state);
+	}
+
+	//records of these types are created and linked into the message
+	//записи этих типов создаются и связываются в сообщение
+	private static boolean isLinked(RecordType recordType) {
+		switch(recordType){
+			case P:
+			case O:
+			case R:
+			case C:
+			case Q:
+			case L:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void link(RecordType recordType, Record record, ParseState state) {
+		if(recordType == RecordType.P) {
+			T2 patientInformationRecord = (T2) record;
+			state.patientInformationRecord = patientInformationRecord;
+			state.currectRecordWithComments = patientInformationRecord;
+			state.hasPatient = true;
+			state.handler.onPatient(patientInformationRecord);
+
+		} else if(recordType == RecordType.O) {
+			T3 testOrderRecord = (T3) record;
+			state.testOrderRecord = testOrderRecord;
+			state.currectRecordWithComments = testOrderRecord;
+			state.handler.onOrder(state.patientInformationRecord, testOrderRecord);
+
+		} else if(recordType == RecordType.R) {
+			T4 resultRecord = (T4) record;
+			if(resultRecord instanceof IWithComments){
+				state.currectRecordWithComments = (IWithComments<T9>) resultRecord;
+			}
+			state.handler.onResult(state.testOrderRecord, resultRecord);
+
+		} else if(recordType == RecordType.C) {
+			state.handler.onComment(state.currectRecordWithComments, (T9) record);
+
+		} else if(recordType == RecordType.L) {
+			state.handler.onTerminator((T8) record);
+
+		} else if(recordType == RecordType.Q){
+			T6 requestInformationRecord = (T6) record;
+			state.currectRecordWithComments = requestInformationRecord;
+			state.hasRequest = true;
+			state.handler.onRequest(requestInformationRecord);
+
+		}
+	}
+
+	/*
+	 * Delimiters of the current message and the last records to link children with
+	 * Разделители текущего сообщения и последние записи для связи с дочерними
+	 */
+	private final class ParseState implements Consumer<String> {
+		private final MessageHandler<T1, T2, T3, T4, T6, T8, T9> handler;
+
+		private String fieldDelimiter;
+		private String repeatDelimiter;
+		private String componentDelimiter;
+		private String escapeDelimiter;
+
+		//last record
+		//последняя запись
+		private IWithComments<T9> currectRecordWithComments;
+
+		//To link patient and orders
+		//Для связи пациента и заданий
+		private T2 patientInformationRecord;
+
+		//To link orders and results
+		//Для связи задания и результатов
+		private T3 testOrderRecord;
+
+		//level of the last skipped record of the projection, -1 if records are not skipped
+		//уровень последней пропущенной записи проекции, -1 если записи не пропускаются
+		private int skippedLevel = -1;
+
+		//index of the last record in the message, the header is 0
+		//индекс последней записи в сообщении, заголовок - 0
+		private int recordIndex;
+
+		//the message has patients (P) or requests (Q)
+		//в сообщении есть пациенты (P) или запросы (Q)
+		private boolean hasPatient;
+		private boolean hasRequest;
+
+		//receiver of values that cannot be read, null if the parser is not tolerant
+		//получатель значений, которые не удается прочитать, null если парсер не терпимый
+		private Consumer<Diagnostic> valueDiagnostics;
+
+		//exceptions of record constructors are wrapped, see parseInto
+		//исключения конструкторов записей оборачиваются, см. parseInto
+		private boolean wrapsConstructorExceptions;
+
+		private ParseState(MessageHandler<T1, T2, T3, T4, T6, T8, T9> handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public void accept(String recordStr) {
+			//every H record starts a new message
+			//каждая запись H начинает новое сообщение
+			boolean header = !recordStr.isEmpty() && recordStr.charAt(0) == 'H';
+			if(header || this.fieldDelimiter == null && !tolerant){
+				headerRecord(recordStr, this);
+			} else if(this.fieldDelimiter == null){
+				this.recordIndex++;
+				diagnose(this, recordStr.isEmpty() ? null : RecordType.getBy(recordStr.charAt(0)), Diagnostic.Problem.MISSING_HEADER, recordStr);
+			} else {
+				record(recordStr, this);
+			}
+		}
+	}
+
+	/*
+	 * Exception of a record constructor while the constructor of a message parses it
+	 * Исключение конструктора записи при разборе конструктором сообщения
+	 */
+	static final class RecordConstructorException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RecordType recordType;
+
+		private RecordConstructorException(RecordType recordType, RuntimeException cause) {
+			super(cause);
+			this.recordType = recordType;
+		}
+
+		RecordType getRecordType() {
+			return this.recordType;
+		}
+	}
+
+	/*
+	 * Parses the patients of a message in halves until the text of the patients is short enough for one task
+	 * Разбирает пациентов сообщения половинами, пока текст пациентов не станет достаточно коротким для одной задачи
+	 */
+	private final class SubtreeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final CharSequence messageStr;
+		private final int[] starts;
+		private final int[] indexes;
+		private final int count;
+		private final int from;
+		private final int to;
+		private final ParseState headerState;
+		private final List<PatientSubtree> subtrees;
+
+		private SubtreeTask(CharSequence messageStr, int[] starts, int[] indexes, int count, int from, int to, ParseState headerState, List<PatientSubtree> subtrees) {
+			this.messageStr = messageStr;
+			this.starts = starts;
+			this.indexes = indexes;
+			this.count = count;
+			this.from = from;
+			this.to = to;
+			this.headerState = headerState;
+			this.subtrees = subtrees;
+		}
+
+		@Override
+		protected void compute() {
+			int end = this.to < this.count ? this.starts[this.to] : this.messageStr.length();
+			if(this.to - this.from > 1 && end - this.starts[this.from] > SUBTREE_THRESHOLD){
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new SubtreeTask(this.messageStr, this.starts, this.indexes, this.count, this.from, middle, this.headerState, this.subtrees),
+						  new SubtreeTask(this.messageStr, this.starts, this.indexes, this.count, middle, this.to, this.headerState, this.subtrees));
+				return;
+			}
+
+			PatientSubtree subtree = new PatientSubtree();
+			ParseState state = new ParseState(subtree);
+			state.fieldDelimiter = this.headerState.fieldDelimiter;
+			state.repeatDelimiter = this.headerState.repeatDelimiter;
+			state.componentDelimiter = this.headerState.componentDelimiter;
+			state.escapeDelimiter = this.headerState.escapeDelimiter;
+			state.recordIndex = this.indexes[this.from] - 1;
+			state.hasPatient = true;
+			if(tolerant){
+				state.valueDiagnostics = subtree::onDiagnostic;
+			}
+			try{
+				parseRange(this.messageStr, this.starts[this.from], end, state, false);
+			} catch(RuntimeException ex){
+				subtree.exception = ex;
+			}
+			this.subtrees.set(this.from, subtree);
+		}
+	}
+
+	/*
+	 * Patients parsed by one task, they are moved into the message in the original order after all tasks
+	 * Пациенты, разобранные одной задачей, они переносятся в сообщение в исходном порядке после всех задач
+	 */
+	private final class PatientSubtree implements MessageHandler<T1, T2, T3, T4, T6, T8, T9> {
+
+		private final List<T2> patientInformationRecords = new ArrayList<>();
+		private final List<Diagnostic> diagnostics = new ArrayList<>();
+		private T8 terminatorRecord;
+
+		//the first exception stops parsing as in sequential parsing
+		//первое исключение останавливает разбор, как при последовательном разборе
+		private RuntimeException exception;
+
+		//values read after merging are reported to the message itself
+		//значения, прочитанные после переноса, сообщаются самому сообщению
+		private Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message;
+
+		@Override
+		public void onHeader(T1 headerRecord) {
+			throw new IllegalStateException("Patients of a message do not contain a header record");
+		}
+
+		@Override
+		public void onPatient(T2 patientInformationRecord) {
+			this.patientInformationRecords.add(patientInformationRecord);
+		}
+
+		@Override
+		public void onOrder(T2 patientInformationRecord, T3 testOrderRecord) {
+			patientInformationRecord.addOrder(testOrderRecord);
+		}
+
+		@Override
+		public void onResult(T3 testOrderRecord, T4 resultRecord) {
+			testOrderRecord.addResult(resultRecord);
+		}
+
+		@Override
+		public void onComment(IWithComments<T9> parentRecord, T9 commentRecord) {
+			parentRecord.addCommentRecord(commentRecord);
+		}
+
+		@Override
+		public void onRequest(T6 requestInformationRecord) {
+			throw new IllegalStateException("Patients of a message do not contain request records");
+		}
+
+		@Override
+		public void onTerminator(T8 terminatorRecord) {
+			this.terminatorRecord = terminatorRecord;
+		}
+
+		@Override
+		public void onDiagnostic(Diagnostic diagnostic) {
+			if(this.message == null){
+				this.diagnostics.add(diagnostic);
+			} else {
+				this.message.addDiagnostic(diagnostic);
+			}
+		}
+
+		private void mergeInto(Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message) {
+			this.patientInformationRecords.forEach(message::appendPatientInformationRecord);
+			this.diagnostics.forEach(message::addDiagnostic);
+			this.diagnostics.clear();
+			this.message = message;
+			if(this.exception != null){
+				throw this.exception;
+			}
+			if(this.terminatorRecord != null){
+				message.setTerminatorRecord(this.terminatorRecord);
+			}
+		}
+	}
+
+	/*
+	 * Collects the text of a message from a stream and filters it at the terminator record or at the next header
+	 * Собирает текст сообщения из потока и фильтрует его на записи конца сообщения или на следующем заголовке
+	 */
+	private final class FilterBuffer implements Consumer<String> {
+
+		private final MessageFilter filter;
+		private final Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer;
+
+		private final StringBuilder messageStr = new StringBuilder();
+
+		private FilterBuffer(MessageFilter filter, Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) {
+			this.filter = filter;
+			this.messageConsumer = messageConsumer;
+		}
+
+		@Override
+		public void accept(String recordStr) {
+			if(recordStr.charAt(0) == 'H'){
+				flush();
+			}
+			this.messageStr.append(recordStr).append('\r');
+			if(recordStr.charAt(0) == 'L'){
+				flush();
+			}
+		}
+
+		private void flush() {
+			if(this.messageStr.length() > 0){
+				filter(this.messageStr, this.filter, this.messageConsumer);
+				this.messageStr.setLength(0);
+			}
+		}
+	}
+
+	/*
+	 * Builds messages one after another and passes them on at the terminator record
+	 * Строит сообщения одно за другим и передает их дальше на записи конца сообщения
+	 */
+	private final class MessageCollector implements MessageHandler<T1, T2, T3, T4, T6, T8, T9> {
+
+		private final Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer;
+
+		private Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> message;
+		private MessageAssembler<T1, T2, T3, T4, T6, T8, T9> assembler;
+
+		private MessageCollector(Consumer<Message<T1, T2, T3, T4, T6, T7, T8, T9, T10>> messageConsumer) {
+			this.messageConsumer = messageConsumer;
+		}
+
+		@Override
+		public void onHeader(T1 headerRecord) {
+			this.message = new Message<>(clazzH, clazzP, clazzO, clazzR, clazzQ, clazzS, clazzL, clazzC, interfaceIWithComments);
+			this.assembler = new MessageAssembler<>(this.message);
+			this.assembler.onHeader(headerRecord);
+		}
+
+		@Override
+		public void onPatient(T2 patientInformationRecord) {
+			this.assembler.onPatient(patientInformationRecord);
+		}
+
+		@Override
+		public void onOrder(T2 patientInformationRecord, T3 testOrderRecord) {
+			this.assembler.onOrder(patientInformationRecord, testOrderRecord);
+		}
+
+		@Override
+		public void onResult(T3 testOrderRecord, T4 resultRecord) {
+			this.assembler.onResult(testOrderRecord, resultRecord);
+		}
+
+		@Override
+		public void onComment(IWithComments<T9> parentRecord, T9 commentRecord) {
+			this.assembler.onComment(parentRecord, commentRecord);
+		}
+
+		@Override
+		public void onRequest(T6 requestInformationRecord) {
+			this.assembler.onRequest(requestInformationRecord);
+		}
+
+		@Override
+		public void onDiagnostic(Diagnostic diagnostic) {
+			//problems before the first header have no message
+			//проблемы до первого заголовка не имеют сообщения
+			if(this.message != null){
+				this.message.addDiagnostic(diagnostic);
+			}
+		}
+
+		@Override
+		public void onTerminator(T8 terminatorRecord) {
+			this.assembler.onTerminator(terminatorRecord);
+
+			Message<T1, T2, T3, T4, T6, T7, T8, T9, T10> completed = this.message;
+			this.message = null;
+			this.assembler = null;
+			this.messageConsumer.accept(completed);
+		}
+	}
+
+	/*
+	 * Builds the tree of records of a message
+	 * Строит дерево записей сообщения
+	 */
+	private static final class MessageAssembler<T1 extends MessageHeaderRecord,
+												T2 extends PatientInformationRecord<T3, T9>,
+												T3 extends TestOrderRecord<T4, T9>,
+												T4 extends Record,
+												T6 extends RequestInformationRecord<T9>,
+												T8 extends MessageTerminatorRecord,
+												T9 extends CommentRecord> implements MessageHandler<T1, T2, T3, T4, T6, T8, T9> {
+
+		private final Message<T1, T2, T3, T4, T6, ?, T8, T9, ?> message;
+
+		private MessageAssembler(Message<T1, T2, T3, T4, T6, ?, T8, T9, ?> message) {
+			this.message = message;
+		}
+
+		@Override
+		public void onHeader(T1 headerRecord) {
+			this.message.setHeaderRecord(headerRecord);
+		}
+
+		@Override
+		public void onPatient(T2 patientInformationRecord) {
+			this.message.appendPatientInformationRecord(patientInformationRecord);
+		}
+
+		@Override
+		public void onOrder(T2 patientInformationRecord, T3 testOrderRecord) {
+			patientInformationRecord.addOrder(testOrderRecord);
+		}
+
+		@Override
+		public void onResult(T3 testOrderRecord, T4 resultRecord) {
+			testOrderRecord.addResult(resultRecord);
+		}
+
+		@Override
+		public void onComment(IWithComments<T9> parentRecord, T9 commentRecord) {
+			parentRecord.addCommentRecord(commentRecord);
+		}
+
+		@Override
+		public void onRequest(T6 requestInformationRecord) {
+			this.message.appendRequestInformationRecord(requestInformationRecord);
+		}
+
+		@Override
+		public void onTerminator(T8 terminatorRecord) {
+			this.message.setTerminatorRecord(terminatorRecord);
+		}
+
+		@Override
+		public void onDiagnostic(Diagnostic diagnostic) {
+			this.message.addDiagnostic(diagnostic);
+		}
+	}
+
+	private static <T1 extends MessageHeaderRecord> Function<String, T1> headerFactory(Class<T1> clazz) {
+		MethodHandle constructor;
+		try{
+			constructor = MethodHandles.lookup().findConstructor(clazz, MethodType.methodType(void.class, String.class))
+				.asType(MethodType.methodType(Object.class, String.class));
+		} catch(Exception ex){
+			throw new IllegalArgumentException("MessageHeaderRecord descendant has no (String) constructor");
+		}
+
+		return recordString -> {
+			try{
+				return clazz.cast(constructor.invokeExact(recordString));
+			} catch(RuntimeException | Error ex){
+				throw ex;
+			} catch(Throwable ex){
+				throw new IllegalArgumentException("An error occurred in the MessageHeaderRecord constructor", ex);
+			}
+		};
+	}
+
+	private static <T extends Record> RecordFactory<T> recordFactory(Class<T> clazz, String recordName) {
+		MethodHandle constructor;
+		try{
+			constructor = MethodHandles.lookup().findConstructor(clazz, RECORD_CONSTRUCTOR)
+				.asType(MethodType.methodType(Object.class, String.class, String.class, String.class, String.class, String.class));
+		} catch(Exception ex){
+			throw new IllegalArgumentException(recordName + " child has no constructor (String,String,String,String,String)");
+		}
+
+		return (recordString, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter) -> {
+			try{
+				return clazz.cast(constructor.invokeExact(recordString, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter));
+			} catch(RuntimeException | Error ex){
+				throw ex;
+			} catch(Throwable ex){
+				throw new IllegalArgumentException("An error occurred in the " + recordName + " constructor", ex);
+			}
+		};
+	}
+}
@@ -0,0 +1,170 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import com.github.chistousov.lib.astm1394.record.RecordType;
+
+/**
+ * <p>
+ * Projection of parsing: record types to skip and fields to convert, see {@link MessageParser#withProjection(Projection)}.
+ * The text of records is kept as it is: fields outside the projection are returned by {@code getField} and written back
+ * by {@code toString()}, but getters never convert them into components, dates or enums (see
+ * {@link com.github.chistousov.lib.astm1394.record.Record#setConvertedFields(IntPredicate)}). The record type and the sequence
+ * number are always converted, the header (H) is never skipped. Records nested into a skipped record are skipped too.
+ * (Проекция разбора: типы записей для пропуска и поля для преобразования, см. {@link MessageParser#withProjection(Projection)}.
+ * Текст записей сохраняется как есть: поля вне проекции возвращаются {@code getField} и выводятся обратно
+ * в {@code toString()}, но геттеры никогда не преобразуют их в компоненты, даты или перечисления (см.
+ * {@link com.github.chistousov.lib.astm1394.record.Record#setConvertedFields(IntPredicate)}). Тип записи и порядковый
+ * номер преобразуются всегда, заголовок (H) никогда не пропускается. Записи, вложенные в пропущенную запись, тоже пропускаются.)
+ * </p>
+ *
+ * <pre>
+ * Projection projection = Projection.all()
+ *     .skip(RecordType.C)
+ *     .fields(RecordType.R, 2, 3, 4, 6);
+ * </pre>
+ *
+ * <p>
+ * Field indexes are the same as in {@link com.github.chistousov.lib.astm1394.record.Record#getField(int)}.
+ * A projection is immutable.
+ * (Индексы полей такие же, как в {@link com.github.chistousov.lib.astm1394.record.Record#getField(int)}.
+ * Проекция неизменяема.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class Projection {
+
+	private static final Projection ALL = new Projection(EnumSet.noneOf(RecordType.class), new EnumMap<>(RecordType.class));
+
+	private final Set<RecordType> skippedTypes;
+
+	//converted fields by record type, all fields of types that are not here
+	//преобразуемые поля по типам записей, все поля типов, которых здесь нет
+	private final Map<RecordType, IntPredicate> fields;
+
+	private Projection(Set<RecordType> skippedTypes, Map<RecordType, IntPredicate> fields) {
+		this.skippedTypes = skippedTypes;
+		this.fields = fields;
+	}
+
+	/**
+	 * Projection of all record types and fields
+	 * (Проекция всех типов записей и полей)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return projection (проекция)
+	 */
+	public static Projection all() {
+		return ALL;
+	}
+
+	/**
+	 * Returns a projection that also skips records of the types
+	 * (Возвращает проекцию, которая также пропускает записи типов)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordTypes record types (типы записей)
+	 * @return projection (проекция)
+	 * @throws IllegalArgumentException if the header (H) is skipped (если пропускается заголовок (H))
+	 */
+	public Projection skip(RecordType... recordTypes) {
+		Set<RecordType> newSkippedTypes = EnumSet.noneOf(RecordType.class);
+		newSkippedTypes.addAll(this.skippedTypes);
+		for(RecordType recordType : recordTypes){
+			if(recordType == RecordType.H){
+				throw new IllegalArgumentException("The header record (H) cannot be skipped");
+			}
+			newSkippedTypes.add(recordType);
+		}
+		return new Projection(newSkippedTypes, this.fields);
+	}
+
+	/**
+	 * Returns a projection that converts only the fields of records of the type
+	 * (Возвращает проекцию, которая преобразует только поля записей типа)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordType record type (тип записи)
+	 * @param fieldIndexes field indexes, the record type and the sequence number are always converted (индексы полей, тип записи и порядковый номер преобразуются всегда)
+	 * @return projection (проекция)
+	 * @throws IllegalArgumentException if a field index is negative (если индекс поля отрицательный)
+	 */
+	public Projection fields(RecordType recordType, int... fieldIndexes) {
+		int length = 2;
+		for(int fieldIndex : fieldIndexes){
+			if(fieldIndex < 0){
+				throw new IllegalArgumentException("Field index cannot be negative");
+			}
+			length = Math.max(length, fieldIndex + 1);
+		}
+
+		boolean[] mask = new boolean[length];
+		mask[0] = true;
+		mask[1] = true;
+		for(int fieldIndex : fieldIndexes){
+			mask[fieldIndex] = true;
+		}
+
+		Map<RecordType, IntPredicate> newFields = new EnumMap<>(RecordType.class);
+		newFields.putAll(this.fields);
+		newFields.put(recordType, fieldIndex -> fieldIndex < mask.length && mask[fieldIndex]);
+		return new Projection(this.skippedTypes, newFields);
+	}
+
+	public boolean isSkipped(RecordType recordType) {
+		return this.skippedTypes.contains(recordType);
+	}
+
+	/**
+	 * Checks that a field of records of the type is converted
+	 * (Проверяет, что поле записей типа преобразуется)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordType record type (тип записи)
+	 * @param fieldIndex field index (индекс поля)
+	 * @return true if the field is converted (true, если поле преобразуется)
+	 */
+	public boolean isKept(RecordType recordType, int fieldIndex) {
+		IntPredicate convertedFields = this.fields.get(recordType);
+		return convertedFields == null || convertedFields.test(fieldIndex);
+	}
+
+	//converted fields of records of the type, null - all fields
+	//преобразуемые поля записей типа, null - все поля
+	IntPredicate convertedFields(RecordType recordType) {
+		return this.fields.get(recordType);
+	}
+
+	//nesting level of records: H and L - 0, P and Q - 1, O - 2, R - 3, others are nested into the previous record
+	//уровень вложенности записей: H и L - 0, P и Q - 1, O - 2, R - 3, остальные вложены в предыдущую запись
+	static int level(RecordType recordType) {
+		switch(recordType){
+			case H:
+			case L:
+				return 0;
+			case P:
+			case Q:
+				return 1;
+			case O:
+				return 2;
+			case R:
+				return 3;
+			default:
+				return 4;
+		}
+	}
+}
@@ -0,0 +1,537 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.util.Arrays;
+
+import com.github.chistousov.lib.astm1394.record.Record;
+import com.github.chistousov.lib.astm1394.record.RecordType;
+
+/**
+ * <p>
+ * Pull cursor over the records (record) of one or several messages. It moves from record to record
+ * and reads record types, fields, repeats and components straight from the text. Records are created
+ * only by {@link #materialize()}.
+ * (Курсор по записям (record) одного или нескольких сообщений. Переходит от записи к записи
+ * и читает типы записей, поля, повторы и компоненты прямо из текста. Записи создаются
+ * только методом {@link #materialize()}.)
+ * </p>
+ *
+ * <p>
+ * Field indexes are the same as in {@link Record#getField(int)}: 0 is the record type, 1 is the sequence number.
+ * Repeats and components are numbered from 0. The cursor is not thread-safe.
+ * (Индексы полей такие же, как в {@link Record#getField(int)}: 0 - тип записи, 1 - порядковый номер.
+ * Повторы и компоненты нумеруются с 0. Курсор не потокобезопасен.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class RecordCursor {
+
+	private final MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser;
+
+	private final CharSequence text;
+
+	/*
+	 * Delimiters of the current message, by default as in LIS2-A2
+	 * Разделители текущего сообщения, по умолчанию как в LIS2-A2
+	 */
+	private char fieldDelimiter = '|';
+	private char repeatDelimiter = '\\';
+	private char componentDelimiter = '^';
+	private char escapeDelimiter = '&';
+
+	private RecordType recordType;
+	private int level;
+
+	//level of the last record that can have children
+	//уровень последней записи, которая может иметь дочерние записи
+	private int parentLevel;
+
+	//bounds of the current record without the terminator
+	//границы текущей записи без завершающего символа
+	private int recordStart;
+	private int recordEnd;
+
+	//starts of fields of the current record, the last one is recordEnd + 1
+	//начала полей текущей записи, последнее равно recordEnd + 1
+	private int[] fieldStarts = new int[32];
+	private int fieldCount = -1;
+
+	RecordCursor(MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser, CharSequence text) {
+		this.parser = parser;
+		this.text = text;
+	}
+
+	/**
+	 * Creates a cursor without a parser, such a cursor cannot materialize records
+	 * (Создает курсор без парсера, такой курсор не может создавать записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messages text of messages (текст сообщений)
+	 * @return cursor before the first record (курсор перед первой записью)
+	 */
+	public static RecordCursor of(CharSequence messages) {
+		return new RecordCursor(null, messages);
+	}
+
+	/**
+	 * Moves to the next record
+	 * (Переходит к следующей записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return false if there are no more records (false, если записей больше нет)
+	 */
+	public boolean next() {
+		int length = this.text.length();
+		int i = this.recordEnd;
+
+		//CR or CR LF ends a record, empty records are skipped
+		//CR или CR LF завершает запись, пустые записи пропускаются
+		while(i < length && this.text.charAt(i) == '\r'){
+			i++;
+			if(i < length && this.text.charAt(i) == '\n'){
+				i++;
+			}
+		}
+
+		if(i >= length){
+			this.recordStart = length;
+			this.recordEnd = length;
+			this.recordType = null;
+			this.fieldCount = -1;
+			return false;
+		}
+
+		this.recordStart = i;
+		while(i < length && this.text.charAt(i) != '\r'){
+			i++;
+		}
+		this.recordEnd = i;
+		this.fieldCount = -1;
+
+		this.recordType = RecordType.getBy(this.text.charAt(this.recordStart));
+		switch(this.recordType){
+			case H:
+				if(this.recordEnd - this.recordStart >= 5){
+					this.fieldDelimiter = this.text.charAt(this.recordStart + 1);
+					this.repeatDelimiter = this.text.charAt(this.recordStart + 2);
+					this.componentDelimiter = this.text.charAt(this.recordStart + 3);
+					this.escapeDelimiter = this.text.charAt(this.recordStart + 4);
+				}
+				this.level = 0;
+				this.parentLevel = 0;
+				break;
+			case L:
+				this.level = 0;
+				this.parentLevel = 0;
+				break;
+			case P:
+			case Q:
+				this.level = 1;
+				this.parentLevel = 1;
+				break;
+			case O:
+				this.level = 2;
+				this.parentLevel = 2;
+				break;
+			case R:
+				this.level = 3;
+				this.parentLevel = 3;
+				break;
+			default:
+				this.level = this.parentLevel + 1;
+		}
+		return true;
+	}
+
+	/**
+	 * Skips the records nested into the current one and moves to the next record of the same or a higher level
+	 * (Пропускает записи, вложенные в текущую, и переходит к следующей записи того же или более высокого уровня)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return false if there are no more records (false, если записей больше нет)
+	 */
+	public boolean skipChildren() {
+		int currentLevel = this.level;
+		while(next()){
+			if(this.level <= currentLevel){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Type of the current record
+	 * (Тип текущей записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return record type, null before the first record and after the last one (тип записи, null до первой и после последней записи)
+	 */
+	public RecordType getRecordType() {
+		return this.recordType;
+	}
+
+	/**
+	 * Nesting level of the current record: H and L - 0, P and Q - 1, O - 2, R - 3, C, M and S - one below the previous record
+	 * (Уровень вложенности текущей записи: H и L - 0, P и Q - 1, O - 2, R - 3, C, M и S - на один ниже предыдущей записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return level (уровень)
+	 */
+	public int getLevel() {
+		return this.level;
+	}
+
+	public char getFieldDelimiter() {
+		return this.fieldDelimiter;
+	}
+
+	public char getRepeatDelimiter() {
+		return this.repeatDelimiter;
+	}
+
+	public char getComponentDelimiter() {
+		return this.componentDelimiter;
+	}
+
+	public char getEscapeDelimiter() {
+		return this.escapeDelimiter;
+	}
+
+	/**
+	 * Text of the current record without the terminator
+	 * (Текст текущей записи без завершающего символа)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return record text (текст записи)
+	 */
+	public String getRecord() {
+		return this.text.subSequence(this.recordStart, this.recordEnd).toString();
+	}
+
+	/**
+	 * Position of the current record in the text
+	 * (Позиция текущей записи в тексте)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return position of the first character of the record (позиция первого символа записи)
+	 */
+	public int getRecordStart() {
+		return this.recordStart;
+	}
+
+	/**
+	 * Number of fields of the current record including the record type
+	 * (Количество полей текущей записи вместе с типом записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return number of fields (количество полей)
+	 */
+	public int getFieldCount() {
+		indexFields();
+		return this.fieldCount;
+	}
+
+	/**
+	 * Position of the first character of a field in the text
+	 * (Позиция первого символа поля в тексте)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @return position, the end of the record if there is no such field (позиция, конец записи, если такого поля нет)
+	 */
+	public int getFieldStart(int field) {
+		indexFields();
+		return field < this.fieldCount ? this.fieldStarts[field] : this.recordEnd;
+	}
+
+	/**
+	 * Position after the last character of a field in the text
+	 * (Позиция после последнего символа поля в тексте)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @return position, the end of the record if there is no such field (позиция, конец записи, если такого поля нет)
+	 */
+	public int getFieldEnd(int field) {
+		indexFields();
+		return field < this.fieldCount ? this.fieldStarts[field + 1] - 1 : this.recordEnd;
+	}
+
+	/**
+	 * Value of a field
+	 * (Значение поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @return value, an empty string if there is no such field (значение, пустая строка, если такого поля нет)
+	 */
+	public String getField(int field) {
+		return this.text.subSequence(getFieldStart(field), getFieldEnd(field)).toString();
+	}
+
+	/**
+	 * Value of a repeat of a field
+	 * (Значение повтора поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @return value, an empty string if there is no such repeat (значение, пустая строка, если такого повтора нет)
+	 */
+	public String getRepeat(int field, int repeat) {
+		int start = part(getFieldStart(field), getFieldEnd(field), this.repeatDelimiter, repeat);
+		if(start < 0){
+			return "";
+		}
+		return this.text.subSequence(start, partEnd(start, getFieldEnd(field), this.repeatDelimiter)).toString();
+	}
+
+	/**
+	 * Number of repeats of a field, an empty or missing field has one empty repeat
+	 * (Количество повторов поля, у пустого или отсутствующего поля один пустой повтор)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @return number of repeats (количество повторов)
+	 */
+	public int getRepeatCount(int field) {
+		int fieldEnd = getFieldEnd(field);
+		int repeats = 1;
+		for(int i = getFieldStart(field); i < fieldEnd; i++){
+			if(this.text.charAt(i) == this.repeatDelimiter){
+				repeats++;
+			}
+		}
+		return repeats;
+	}
+
+	/**
+	 * Value of a component of the first repeat of a field
+	 * (Значение компонента первого повтора поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @param component component index (индекс компонента)
+	 * @return value, an empty string if there is no such component (значение, пустая строка, если такого компонента нет)
+	 */
+	public String getComponent(int field, int component) {
+		return getComponent(field, 0, component);
+	}
+
+	/**
+	 * Value of a component of a repeat of a field
+	 * (Значение компонента повтора поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param component component index (индекс компонента)
+	 * @return value, an empty string if there is no such component (значение, пустая строка, если такого компонента нет)
+	 */
+	public String getComponent(int field, int repeat, int component) {
+		int start = getComponentStart(field, repeat, component);
+		if(start < 0){
+			return "";
+		}
+		return this.text.subSequence(start, getComponentEnd(start, field)).toString();
+	}
+
+	/**
+	 * Compares a field with a value without creating strings
+	 * (Сравнивает поле со значением без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @param value value (значение)
+	 * @return true if the field is equal to the value (true, если поле равно значению)
+	 */
+	public boolean fieldEquals(int field, CharSequence value) {
+		return regionEquals(getFieldStart(field), getFieldEnd(field), value);
+	}
+
+	/**
+	 * Compares a component with a value without creating strings
+	 * (Сравнивает компонент со значением без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param component component index (индекс компонента)
+	 * @param value value (значение)
+	 * @return true if the component is equal to the value, a missing component is equal to an empty value (true, если компонент равен значению, отсутствующий компонент равен пустому значению)
+	 */
+	public boolean componentEquals(int field, int repeat, int component, CharSequence value) {
+		int start = getComponentStart(field, repeat, component);
+		if(start < 0){
+			return value.length() == 0;
+		}
+		return regionEquals(start, getComponentEnd(start, field), value);
+	}
+
+	/**
+	 * Compares a repeat of a field with a value without creating strings
+	 * (Сравнивает повтор поля со значением без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param value value (значение)
+	 * @return true if the repeat is equal to the value, a missing repeat is equal to an empty value (true, если повтор равен значению, отсутствующий повтор равен пустому значению)
+	 */
+	public boolean repeatEquals(int field, int repeat, CharSequence value) {
+		int fieldEnd = getFieldEnd(field);
+		int start = part(getFieldStart(field), fieldEnd, this.repeatDelimiter, repeat);
+		if(start < 0){
+			return value.length() == 0;
+		}
+		return regionEquals(start, partEnd(start, fieldEnd, this.repeatDelimiter), value);
+	}
+
+	/**
+	 * Creates a record (record) of the current position with the factories of the parser.
+	 * The record is not linked with other records.
+	 * (Создает запись (record) текущей позиции фабриками парсера. Запись не связывается с другими записями.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return record (запись)
+	 * @throws IllegalStateException if there is no current record, the cursor has no parser or the parser has no factory for the type (если текущей записи нет, у курсора нет парсера или у парсера нет фабрики для типа)
+	 */
+	public Record materialize() {
+		if(this.recordType == null){
+			throw new IllegalStateException("The cursor is not positioned on a record");
+		}
+		if(this.parser == null){
+			throw new IllegalStateException("The cursor was created without a parser");
+		}
+		return this.parser.createRecord(this.recordType, getRecord(),
+			String.valueOf(this.fieldDelimiter),
+			String.valueOf(this.repeatDelimiter),
+			String.valueOf(this.componentDelimiter),
+			String.valueOf(this.escapeDelimiter));
+	}
+
+	//moves the cursor before the record at the position, the delimiters are read again from the next header
+	//перемещает курсор перед записью в позиции, разделители снова читаются из следующего заголовка
+	void reset(int position) {
+		this.recordStart = position;
+		this.recordEnd = position;
+		this.recordType = null;
+		this.level = 0;
+		this.parentLevel = 0;
+		this.fieldCount = -1;
+	}
+
+	private boolean regionEquals(int start, int end, CharSequence value) {
+		if(end - start != value.length()){
+			return false;
+		}
+		for(int i = start; i < end; i++){
+			if(this.text.charAt(i) != value.charAt(i - start)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//start of a component, -1 if there is no such component
+	//начало компонента, -1 если такого компонента нет
+	private int getComponentStart(int field, int repeat, int component) {
+		int fieldEnd = getFieldEnd(field);
+		int repeatStart = part(getFieldStart(field), fieldEnd, this.repeatDelimiter, repeat);
+		if(repeatStart < 0){
+			return -1;
+		}
+		return part(repeatStart, partEnd(repeatStart, fieldEnd, this.repeatDelimiter), this.componentDelimiter, component);
+	}
+
+	private int getComponentEnd(int componentStart, int field) {
+		int fieldEnd = getFieldEnd(field);
+		int i = componentStart;
+		while(i < fieldEnd && this.text.charAt(i) != this.componentDelimiter && this.text.charAt(i) != this.repeatDelimiter){
+			i++;
+		}
+		return i;
+	}
+
+	//field starts are found on first access
+	//начала полей находятся при первом обращении
+	private void indexFields() {
+		if(this.fieldCount >= 0){
+			return;
+		}
+		int count = 0;
+		this.fieldStarts[count++] = this.recordStart;
+		for(int i = this.recordStart; i < this.recordEnd; i++){
+			if(this.text.charAt(i) == this.fieldDelimiter){
+				if(count + 1 >= this.fieldStarts.length){
+					this.fieldStarts = Arrays.copyOf(this.fieldStarts, this.fieldStarts.length * 2);
+				}
+				this.fieldStarts[count++] = i + 1;
+			}
+		}
+		this.fieldStarts[count] = this.recordEnd + 1;
+		this.fieldCount = count;
+	}
+
+	//start of the part with the index, -1 if there is no such part
+	//начало части с индексом, -1 если такой части нет
+	private int part(int start, int end, char delimiter, int index) {
+		int position = start;
+		for(int i = 0; i < index; i++){
+			int partEnd = partEnd(position, end, delimiter);
+			if(partEnd >= end){
+				return -1;
+			}
+			position = partEnd + 1;
+		}
+		return position;
+	}
+
+	private int partEnd(int start, int end, char delimiter) {
+		int i = start;
+		while(i < end && this.text.charAt(i) != delimiter){
+			i++;
+		}
+		return i;
+	}
+}
@@ -0,0 +1,34 @@
+package com.github.chistousov.lib.astm1394;
+
+import com.github.chistousov.lib.astm1394.record.Record;
+
+/**
+ * <p>
+ * Creates a record (record) of a message from its text and the delimiters of the message header.
+ * Usually it is a reference to the record constructor, for example {@code ResultRecord::new}.
+ * (Создает запись (record) сообщения по ее тексту и разделителям из заголовка сообщения.
+ * Обычно это ссылка на конструктор записи, например {@code ResultRecord::new}.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+@FunctionalInterface
+public interface RecordFactory<T extends Record> {
+
+	/**
+	 * Creates a record (record)
+	 * (Создает запись (record))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordString record text without the terminator (текст записи без завершающего символа)
+	 * @param fieldDelimiter field delimiter (разделитель полей)
+	 * @param repeatDelimiter repeat delimiter (разделитель повторов)
+	 * @param componentDelimiter component delimiter (разделитель компонентов)
+	 * @param escapeDelimiter escape delimiter (разделитель escape-последовательностей)
+	 * @return record (запись)
+	 */
+	public T create(String recordString, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter);
+}
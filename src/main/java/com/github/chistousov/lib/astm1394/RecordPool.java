@@ -0,0 +1,156 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.chistousov.lib.astm1394.record.IReusable;
+import com.github.chistousov.lib.astm1394.record.Record;
+import com.github.chistousov.lib.astm1394.record.RecordType;
+import com.github.chistousov.lib.astm1394.record.order.TestOrderRecord;
+import com.github.chistousov.lib.astm1394.record.patient.PatientInformationRecord;
+
+/**
+ * <p>
+ * Pools of records (record) by record types for parsing without garbage. A parser created by
+ * {@link MessageParser#withRecordPool(RecordPool)} takes released records from the pool and refills them
+ * (see {@link IReusable}) instead of creating new records, the consumer releases a message when it is done with it.
+ * Only records implementing {@link IReusable} (patients, orders, results) are kept, at most capacity records of every type.
+ * (Пулы записей (record) по типам записей для разбора без мусора. Парсер, созданный
+ * {@link MessageParser#withRecordPool(RecordPool)}, берет освобожденные записи из пула и заполняет их заново
+ * (см. {@link IReusable}) вместо создания новых записей, потребитель освобождает сообщение, когда закончил с ним работу.
+ * Хранятся только записи, реализующие {@link IReusable} (пациенты, задания, результаты), не больше capacity записей каждого типа.)
+ * </p>
+ *
+ * <pre>
+ * RecordPool pool = new RecordPool(256);
+ * MessageParser&lt;...&gt; connectionParser = parser.withRecordPool(pool);
+ * Message&lt;...&gt; message = connectionParser.parse(messageStr);
+ * deliver(message);
+ * pool.release(message);
+ * </pre>
+ *
+ * <p>
+ * A released message and its records must not be used any more. A pool is used with one parser (the same record classes),
+ * it is thread-safe: records are taken and returned under the lock of the pool, so the tasks of a parser with a fork-join pool
+ * and a consumer releasing messages at the same time can share it.
+ * (Освобожденное сообщение и его записи больше не должны использоваться. Пул используется с одним парсером (теми же классами записей),
+ * он потокобезопасен: записи берутся и возвращаются под блокировкой пула, поэтому задачи парсера с пулом fork-join
+ * и потребитель, одновременно освобождающий сообщения, могут разделять его.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class RecordPool {
+
+	private final int capacity;
+
+	//free records and their number by the ordinal of the record type
+	//свободные записи и их количество по порядковому номеру типа записи
+	private final Record[][] records = new Record[RecordType.values().length][];
+	private final int[] sizes = new int[RecordType.values().length];
+
+	/**
+	 * Creates a pool
+	 * (Создает пул)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param capacity maximum number of free records of every type (максимальное количество свободных записей каждого типа)
+	 * @throws IllegalArgumentException if the capacity is negative (если емкость отрицательна)
+	 */
+	public RecordPool(int capacity) {
+		if(capacity < 0){
+			throw new IllegalArgumentException("Capacity of a pool cannot be negative");
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the records of a message to the pool: patients with their orders and results
+	 * (Возвращает записи сообщения в пул: пациентов с их заданиями и результатами)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param message message that is not used any more (сообщение, которое больше не используется)
+	 */
+	public void release(Message<?, ?, ?, ?, ?, ?, ?, ?, ?> message) {
+		List<? extends PatientInformationRecord<?, ?>> patientInformationRecords = message.getPatientInformationRecords();
+		if(patientInformationRecords != null){
+			for(PatientInformationRecord<?, ?> patientInformationRecord : patientInformationRecords){
+				release(patientInformationRecord);
+			}
+		}
+		message.clearPatientsOrRequest();
+	}
+
+	/**
+	 * Returns a record and the records nested into it to the pool, records that are not {@link IReusable} are skipped
+	 * (Возвращает запись и вложенные в нее записи в пул, записи, не являющиеся {@link IReusable}, пропускаются)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record that is not used any more (запись, которая больше не используется)
+	 */
+	public void release(Record record) {
+		if(record instanceof PatientInformationRecord){
+			List<? extends Record> testOrderRecords = ((PatientInformationRecord<?, ?>) record).getTestOrderRecords();
+			if(testOrderRecords != null){
+				testOrderRecords.forEach(this::release);
+			}
+		} else if(record instanceof TestOrderRecord){
+			List<? extends Record> resultRecords = ((TestOrderRecord<?, ?>) record).getResultRecords();
+			if(resultRecords != null){
+				resultRecords.forEach(this::release);
+			}
+		}
+
+		if(record instanceof IReusable){
+			offer(record);
+		}
+	}
+
+	//stores a free record if there is room for it
+	//сохраняет свободную запись, если для нее есть место
+	private synchronized void offer(Record record) {
+		int type = record.getRecordType().ordinal();
+		if(this.sizes[type] >= this.capacity){
+			return;
+		}
+		if(this.records[type] == null){
+			this.records[type] = new Record[Math.min(this.capacity, 16)];
+		} else if(this.sizes[type] == this.records[type].length){
+			this.records[type] = Arrays.copyOf(this.records[type], Math.min(this.capacity, this.sizes[type] * 2));
+		}
+		this.records[type][this.sizes[type]++] = record;
+	}
+
+	/**
+	 * Number of free records of the type
+	 * (Количество свободных записей типа)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordType record type (тип записи)
+	 * @return number of records (количество записей)
+	 */
+	public synchronized int size(RecordType recordType) {
+		return this.sizes[recordType.ordinal()];
+	}
+
+	//free record of the type, null if there is none
+	//свободная запись типа, null если ее нет
+	synchronized Record poll(RecordType recordType) {
+		int type = recordType.ordinal();
+		if(this.sizes[type] == 0){
+			return null;
+		}
+		Record record = this.records[type][--this.sizes[type]];
+		this.records[type][this.sizes[type]] = null;
+		return record;
+	}
+}
@@ -0,0 +1,89 @@
+package com.github.chistousov.lib.astm1394;
+
+import com.github.chistousov.lib.astm1394.record.RecordType;
+
+/**
+ * <p>
+ * Condition on the raw text of a record (record) at the position of a {@link RecordCursor}, it is checked
+ * before the record is created, see {@link MessageFilter}.
+ * (Условие на исходный текст записи (record) в позиции {@link RecordCursor}, проверяется
+ * до создания записи, см. {@link MessageFilter}.)
+ * </p>
+ *
+ * <pre>
+ * RecordPredicate abnormal = RecordPredicate.in("R.abnormalFlag", "H", "HH", "LL");
+ * RecordPredicate production = RecordPredicate.in("H.processingId", "P");
+ * </pre>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+@FunctionalInterface
+public interface RecordPredicate {
+
+	/**
+	 * Checks the current record of the cursor
+	 * (Проверяет текущую запись курсора)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param cursor cursor on a record (курсор на записи)
+	 * @return true if the record matches (true, если запись подходит)
+	 */
+	public boolean test(RecordCursor cursor);
+
+	public default RecordPredicate and(RecordPredicate other) {
+		return cursor -> test(cursor) && other.test(cursor);
+	}
+
+	public default RecordPredicate or(RecordPredicate other) {
+		return cursor -> test(cursor) || other.test(cursor);
+	}
+
+	public default RecordPredicate negate() {
+		return cursor -> !test(cursor);
+	}
+
+	/**
+	 * Records of the type
+	 * (Записи типа)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordType record type (тип записи)
+	 * @return predicate (условие)
+	 */
+	public static RecordPredicate type(RecordType recordType) {
+		return cursor -> cursor.getRecordType() == recordType;
+	}
+
+	/**
+	 * Records of the type of the path whose value is one of the values, values are compared without creating strings
+	 * (Записи типа пути, значение которых равно одному из значений, значения сравниваются без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param fieldPath field path, see {@link FieldPath} (путь к полю, см. {@link FieldPath})
+	 * @param values values (значения)
+	 * @return predicate (условие)
+	 * @throws IllegalArgumentException if the path is not valid (если путь некорректен)
+	 */
+	public static RecordPredicate in(String fieldPath, String... values) {
+		FieldPath path = FieldPath.compile(fieldPath);
+		String[] expected = values.clone();
+		return cursor -> {
+			if(!path.matches(cursor)){
+				return false;
+			}
+			for(String value : expected){
+				if(path.valueEquals(cursor, value)){
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+}
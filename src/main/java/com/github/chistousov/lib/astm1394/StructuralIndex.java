@@ -0,0 +1,581 @@
+package com.github.chistousov.lib.astm1394;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import com.github.chistousov.lib.astm1394.record.RecordType;
+
+/**
+ * <p>
+ * Structural index of messages in bytes: offsets of all records, fields, repeats and components found in one pass.
+ * The bytes are scanned eight at a time (SWAR - SIMD within a register) for CR and the delimiters of the header,
+ * after that fields are found by index and components by the few delimiters of their field.
+ * (Структурный индекс сообщений в байтах: смещения всех записей, полей, повторов и компонентов, найденные за один проход.
+ * Байты просматриваются по восемь за раз (SWAR - SIMD в пределах регистра) в поисках CR и разделителей заголовка,
+ * после этого поля находятся по индексу, а компоненты - по немногим разделителям своего поля.)
+ * </p>
+ *
+ * <p>
+ * Records, fields, repeats and components are numbered from 0, field indexes are the same as in
+ * {@link com.github.chistousov.lib.astm1394.record.Record#getField(int)}. The index is immutable after it is built.
+ * (Записи, поля, повторы и компоненты нумеруются с 0, индексы полей такие же, как в
+ * {@link com.github.chistousov.lib.astm1394.record.Record#getField(int)}. Индекс неизменяем после построения.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class StructuralIndex {
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+	private static final byte CR = '\r';
+	private static final byte LF = '\n';
+
+	private static final byte REPEAT = 1;
+	private static final byte COMPONENT = 2;
+
+	private final ByteBuffer bytes;
+	private final ByteSequence text;
+
+	//records: bounds and the index of the first field, recordFirstField[recordCount] is the number of fields
+	//записи: границы и индекс первого поля, recordFirstField[recordCount] - количество полей
+	private int recordCount;
+	private int[] recordStarts = new int[16];
+	private int[] recordEnds = new int[16];
+	private int[] recordFirstField = new int[17];
+
+	//fields: starts and the index of the first repeat or component delimiter, fieldFirstSeparator[fieldCount] is the number of delimiters
+	//поля: начала и индекс первого разделителя повторов или компонентов, fieldFirstSeparator[fieldCount] - количество разделителей
+	private int fieldCount;
+	private int[] fieldStarts = new int[256];
+	private int[] fieldFirstSeparator = new int[257];
+
+	//repeat and component delimiters
+	//разделители повторов и компонентов
+	private int separatorCount;
+	private int[] separators = new int[256];
+	private byte[] separatorKinds = new byte[256];
+
+	//delimiters of the current message, by default as in LIS2-A2
+	//разделители текущего сообщения, по умолчанию как в LIS2-A2
+	private byte fieldDelimiter = '|';
+	private byte repeatDelimiter = '\\';
+	private byte componentDelimiter = '^';
+
+	private StructuralIndex(ByteBuffer bytes, Charset charset) {
+		this.bytes = bytes;
+		this.text = new ByteSequence(bytes, charset);
+	}
+
+	/**
+	 * Builds the index of messages in bytes
+	 * (Строит индекс сообщений в байтах)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messagesBytes bytes of messages from the position to the limit, the buffer must not be changed while the index is used (байты сообщений от позиции до предела, буфер не должен изменяться, пока используется индекс)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @return index (индекс)
+	 */
+	public static StructuralIndex of(ByteBuffer messagesBytes, Charset charset) {
+		StructuralIndex index = new StructuralIndex(messagesBytes.slice(), charset);
+		index.scan();
+		return index;
+	}
+
+	/**
+	 * Builds the index of messages in bytes
+	 * (Строит индекс сообщений в байтах)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param messagesBytes bytes of messages, the array is not copied (байты сообщений, массив не копируется)
+	 * @param charset ASCII compatible charset (ASCII-совместимая кодировка)
+	 * @return index (индекс)
+	 */
+	public static StructuralIndex of(byte[] messagesBytes, Charset charset) {
+		return of(ByteBuffer.wrap(messagesBytes), charset);
+	}
+
+	public int getRecordCount() {
+		return this.recordCount;
+	}
+
+	public RecordType getRecordType(int record) {
+		return RecordType.getBy(this.text.charAt(this.recordStarts[record]));
+	}
+
+	public int getRecordStart(int record) {
+		return this.recordStarts[record];
+	}
+
+	public int getRecordEnd(int record) {
+		return this.recordEnds[record];
+	}
+
+	/**
+	 * Text of a record without the terminator
+	 * (Текст записи без завершающего символа)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @return record text (текст записи)
+	 */
+	public String getRecord(int record) {
+		return this.text.subSequence(this.recordStarts[record], this.recordEnds[record]).toString();
+	}
+
+	public int getFieldCount(int record) {
+		return this.recordFirstField[record + 1] - this.recordFirstField[record];
+	}
+
+	/**
+	 * Position of the first byte of a field
+	 * (Позиция первого байта поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @return position, the end of the record if there is no such field (позиция, конец записи, если такого поля нет)
+	 */
+	public int getFieldStart(int record, int field) {
+		if(field >= getFieldCount(record)){
+			return this.recordEnds[record];
+		}
+		return this.fieldStarts[this.recordFirstField[record] + field];
+	}
+
+	/**
+	 * Position after the last byte of a field
+	 * (Позиция после последнего байта поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @return position, the end of the record if there is no such field (позиция, конец записи, если такого поля нет)
+	 */
+	public int getFieldEnd(int record, int field) {
+		if(field + 1 >= getFieldCount(record)){
+			return this.recordEnds[record];
+		}
+		return this.fieldStarts[this.recordFirstField[record] + field + 1] - 1;
+	}
+
+	/**
+	 * Value of a field
+	 * (Значение поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @return value, an empty string if there is no such field (значение, пустая строка, если такого поля нет)
+	 */
+	public String getField(int record, int field) {
+		return this.text.subSequence(getFieldStart(record, field), getFieldEnd(record, field)).toString();
+	}
+
+	/**
+	 * Number of repeats of a field, an empty or missing field has one empty repeat
+	 * (Количество повторов поля, у пустого или отсутствующего поля один пустой повтор)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @return number of repeats (количество повторов)
+	 */
+	public int getRepeatCount(int record, int field) {
+		if(field >= getFieldCount(record)){
+			return 1;
+		}
+		int fieldIndex = this.recordFirstField[record] + field;
+		int repeats = 1;
+		for(int separator = this.fieldFirstSeparator[fieldIndex]; separator < this.fieldFirstSeparator[fieldIndex + 1]; separator++){
+			if(this.separatorKinds[separator] == REPEAT){
+				repeats++;
+			}
+		}
+		return repeats;
+	}
+
+	/**
+	 * Value of a repeat of a field
+	 * (Значение повтора поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @return value, an empty string if there is no such repeat (значение, пустая строка, если такого повтора нет)
+	 */
+	public String getRepeat(int record, int field, int repeat) {
+		int start = getComponentStart(record, field, repeat, 0);
+		if(start < 0){
+			return "";
+		}
+		return this.text.subSequence(start, getRepeatEnd(record, field, start)).toString();
+	}
+
+	/**
+	 * Position of the first byte of a component
+	 * (Позиция первого байта компонента)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param component component index (индекс компонента)
+	 * @return position, -1 if there is no such component (позиция, -1 если такого компонента нет)
+	 */
+	public int getComponentStart(int record, int field, int repeat, int component) {
+		if(field >= getFieldCount(record)){
+			return -1;
+		}
+		int fieldIndex = this.recordFirstField[record] + field;
+		int separator = this.fieldFirstSeparator[fieldIndex];
+		int lastSeparator = this.fieldFirstSeparator[fieldIndex + 1];
+
+		int start = this.fieldStarts[fieldIndex];
+		int currentRepeat = 0;
+		int currentComponent = 0;
+		while(currentRepeat < repeat || currentComponent < component){
+			if(separator >= lastSeparator){
+				return -1;
+			}
+			if(this.separatorKinds[separator] == REPEAT){
+				if(currentRepeat == repeat){
+					return -1;
+				}
+				currentRepeat++;
+				currentComponent = 0;
+			} else if(currentRepeat == repeat){
+				currentComponent++;
+			}
+			start = this.separators[separator] + 1;
+			separator++;
+		}
+		return start;
+	}
+
+	/**
+	 * Position after the last byte of a component
+	 * (Позиция после последнего байта компонента)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param component component index (индекс компонента)
+	 * @return position, -1 if there is no such component (позиция, -1 если такого компонента нет)
+	 */
+	public int getComponentEnd(int record, int field, int repeat, int component) {
+		int start = getComponentStart(record, field, repeat, component);
+		if(start < 0){
+			return -1;
+		}
+		int fieldIndex = this.recordFirstField[record] + field;
+		int lastSeparator = this.fieldFirstSeparator[fieldIndex + 1];
+
+		//first delimiter after the start
+		//первый разделитель после начала
+		int low = this.fieldFirstSeparator[fieldIndex];
+		int high = lastSeparator;
+		while(low < high){
+			int middle = (low + high) >>> 1;
+			if(this.separators[middle] < start){
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low < lastSeparator ? this.separators[low] : getFieldEnd(record, field);
+	}
+
+	/**
+	 * Value of a component
+	 * (Значение компонента)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param component component index (индекс компонента)
+	 * @return value, an empty string if there is no such component (значение, пустая строка, если такого компонента нет)
+	 */
+	public String getComponent(int record, int field, int repeat, int component) {
+		int start = getComponentStart(record, field, repeat, component);
+		if(start < 0){
+			return "";
+		}
+		return this.text.subSequence(start, getComponentEnd(record, field, repeat, component)).toString();
+	}
+
+	/**
+	 * Compares a field with a value without decoding bytes into strings
+	 * (Сравнивает поле со значением без декодирования байтов в строки)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @param value value (значение)
+	 * @return true if the field is equal to the value (true, если поле равно значению)
+	 */
+	public boolean fieldEquals(int record, int field, CharSequence value) {
+		return regionEquals(getFieldStart(record, field), getFieldEnd(record, field), value);
+	}
+
+	/**
+	 * Compares a repeat of a field with a value without decoding bytes into strings
+	 * (Сравнивает повтор поля со значением без декодирования байтов в строки)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param value value (значение)
+	 * @return true if the repeat is equal to the value, a missing repeat is equal to an empty value (true, если повтор равен значению, отсутствующий повтор равен пустому значению)
+	 */
+	public boolean repeatEquals(int record, int field, int repeat, CharSequence value) {
+		int start = getComponentStart(record, field, repeat, 0);
+		if(start < 0){
+			return value.length() == 0;
+		}
+		return regionEquals(start, getRepeatEnd(record, field, start), value);
+	}
+
+	/**
+	 * Compares a component with a value without decoding bytes into strings
+	 * (Сравнивает компонент со значением без декодирования байтов в строки)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record index (индекс записи)
+	 * @param field field index (индекс поля)
+	 * @param repeat repeat index (индекс повтора)
+	 * @param component component index (индекс компонента)
+	 * @param value value (значение)
+	 * @return true if the component is equal to the value, a missing component is equal to an empty value (true, если компонент равен значению, отсутствующий компонент равен пустому значению)
+	 */
+	public boolean componentEquals(int record, int field, int repeat, int component, CharSequence value) {
+		int start = getComponentStart(record, field, repeat, component);
+		if(start < 0){
+			return value.length() == 0;
+		}
+		return regionEquals(start, getComponentEnd(record, field, repeat, component), value);
+	}
+
+	/**
+	 * Text of the indexed bytes
+	 * (Текст проиндексированных байтов)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return text (текст)
+	 */
+	public ByteSequence getText() {
+		return this.text;
+	}
+
+	//end of the repeat that starts at the position: the next repeat delimiter of the field or the end of the field
+	//конец повтора, начинающегося в позиции: следующий разделитель повторов поля или конец поля
+	private int getRepeatEnd(int record, int field, int repeatStart) {
+		int fieldIndex = this.recordFirstField[record] + field;
+		for(int separator = this.fieldFirstSeparator[fieldIndex]; separator < this.fieldFirstSeparator[fieldIndex + 1]; separator++){
+			if(this.separatorKinds[separator] == REPEAT && this.separators[separator] >= repeatStart){
+				return this.separators[separator];
+			}
+		}
+		return getFieldEnd(record, field);
+	}
+
+	private boolean regionEquals(int start, int end, CharSequence value) {
+		if(end - start != value.length()){
+			return false;
+		}
+		for(int i = start; i < end; i++){
+			if(this.text.charAt(i) != value.charAt(i - start)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void scan() {
+		int limit = this.bytes.limit();
+
+		long crPattern = ONES * CR;
+		long fieldPattern = 0;
+		long repeatPattern = 0;
+		long componentPattern = 0;
+
+		int position = openRecord(0, limit);
+		boolean delimitersChanged = true;
+
+		while(position < limit){
+			if(delimitersChanged){
+				fieldPattern = ONES * (this.fieldDelimiter & 0xFF);
+				repeatPattern = ONES * (this.repeatDelimiter & 0xFF);
+				componentPattern = ONES * (this.componentDelimiter & 0xFF);
+				delimitersChanged = false;
+			}
+
+			if(position + Long.BYTES <= limit){
+				long word = this.bytes.getLong(position);
+				long mask = zeroBytes(word ^ crPattern) | zeroBytes(word ^ fieldPattern) | zeroBytes(word ^ repeatPattern) | zeroBytes(word ^ componentPattern);
+
+				int next = position + Long.BYTES;
+				while(mask != 0){
+					long highest = Long.highestOneBit(mask);
+					int structural = position + (Long.numberOfLeadingZeros(highest) >>> 3);
+					mask ^= highest;
+
+					if(this.bytes.get(structural) == CR){
+						int recordStart = closeRecord(structural, limit);
+						next = openRecord(recordStart, limit);
+						delimitersChanged = true;
+						break;
+					}
+					structural(structural);
+				}
+				position = next;
+			} else {
+				byte b = this.bytes.get(position);
+				if(b == CR){
+					position = openRecord(closeRecord(position, limit), limit);
+					delimitersChanged = true;
+				} else {
+					if(b == this.fieldDelimiter || b == this.repeatDelimiter || b == this.componentDelimiter){
+						structural(position);
+					}
+					position++;
+				}
+			}
+		}
+
+		if(this.recordCount > 0 && this.recordEnds[this.recordCount - 1] < 0){
+			this.recordEnds[this.recordCount - 1] = limit;
+		}
+		this.recordFirstField[this.recordCount] = this.fieldCount;
+		this.fieldFirstSeparator[this.fieldCount] = this.separatorCount;
+	}
+
+	//high bit of every zero byte of the word, without false positives
+	//старший бит каждого нулевого байта слова, без ложных срабатываний
+	private static long zeroBytes(long word) {
+		long value = (word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS;
+		return ~(value | word | LOW_SEVEN_BITS);
+	}
+
+	private void structural(int position) {
+		byte b = this.bytes.get(position);
+		if(b == this.fieldDelimiter){
+			addField(position + 1);
+		} else if(b == this.repeatDelimiter){
+			addSeparator(position, REPEAT);
+		} else {
+			addSeparator(position, COMPONENT);
+		}
+	}
+
+	//closes the record at CR, returns the start of the next record
+	//закрывает запись на CR, возвращает начало следующей записи
+	private int closeRecord(int cr, int limit) {
+		if(this.recordCount > 0 && this.recordEnds[this.recordCount - 1] < 0){
+			this.recordEnds[this.recordCount - 1] = cr;
+		}
+		return afterTerminator(cr, limit);
+	}
+
+	//opens a record, returns the position to continue the scan from
+	//открывает запись, возвращает позицию, с которой продолжается просмотр
+	private int openRecord(int start, int limit) {
+		//empty records are skipped
+		//пустые записи пропускаются
+		int position = start;
+		while(position < limit && this.bytes.get(position) == CR){
+			position = afterTerminator(position, limit);
+		}
+		if(position >= limit){
+			return limit;
+		}
+
+		if(this.recordCount + 1 >= this.recordStarts.length){
+			this.recordStarts = Arrays.copyOf(this.recordStarts, this.recordStarts.length * 2);
+			this.recordEnds = Arrays.copyOf(this.recordEnds, this.recordEnds.length * 2);
+			this.recordFirstField = Arrays.copyOf(this.recordFirstField, this.recordFirstField.length * 2);
+		}
+		this.recordStarts[this.recordCount] = position;
+		this.recordEnds[this.recordCount] = -1;
+		this.recordFirstField[this.recordCount] = this.fieldCount;
+		this.recordCount++;
+		addField(position);
+
+		//the header defines the delimiters, its second field holds them and is not split
+		//заголовок задает разделители, его второе поле содержит их и не разбивается
+		if(this.bytes.get(position) == 'H' && position + 4 < limit){
+			this.fieldDelimiter = this.bytes.get(position + 1);
+			this.repeatDelimiter = this.bytes.get(position + 2);
+			this.componentDelimiter = this.bytes.get(position + 3);
+			addField(position + 2);
+			return position + 5;
+		}
+		return position;
+	}
+
+	private int afterTerminator(int cr, int limit) {
+		//CR LF is the same as CR
+		//CR LF равносильно CR
+		if(cr + 1 < limit && this.bytes.get(cr + 1) == LF){
+			return cr + 2;
+		}
+		return cr + 1;
+	}
+
+	private void addField(int start) {
+		if(this.fieldCount + 1 >= this.fieldStarts.length){
+			this.fieldStarts = Arrays.copyOf(this.fieldStarts, this.fieldStarts.length * 2);
+			this.fieldFirstSeparator = Arrays.copyOf(this.fieldFirstSeparator, this.fieldFirstSeparator.length * 2);
+		}
+		this.fieldStarts[this.fieldCount] = start;
+		this.fieldFirstSeparator[this.fieldCount] = this.separatorCount;
+		this.fieldCount++;
+	}
+
+	private void addSeparator(int position, byte kind) {
+		if(this.separatorCount >= this.separators.length){
+			this.separators = Arrays.copyOf(this.separators, this.separators.length * 2);
+			this.separatorKinds = Arrays.copyOf(this.separatorKinds, this.separatorKinds.length * 2);
+		}
+		this.separators[this.separatorCount] = position;
+		this.separatorKinds[this.separatorCount] = kind;
+		this.separatorCount++;
+	}
+}
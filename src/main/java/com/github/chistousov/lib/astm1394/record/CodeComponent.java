@@ -0,0 +1,42 @@
+package com.github.chistousov.lib.astm1394.record;
+
+/**
+ * <p>
+ * Coded (enum) component that keeps its value and code, see {@link Component#ofCode(Object, java.util.function.Function)}
+ * (Кодированный (enum) компонент, хранящий свое значение и код, см. {@link Component#ofCode(Object, java.util.function.Function)})
+ * </p>
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+final class CodeComponent<E> extends Component<E> {
+
+	private final E value;
+	private final String code;
+
+	CodeComponent(E value, String code) {
+		this.value = value;
+		this.code = code;
+	}
+
+	@Override
+	public E getValue() {
+		return this.value;
+	}
+
+	//an unknown code is the undefined value whose code is empty
+	//неизвестный код - неопределенное значение, код которого пуст
+	@Override
+	boolean hasValue() {
+		return this.value != null && !this.code.isEmpty();
+	}
+
+	@Override
+	public long getEpochSecond() {
+		return DateTimeParser.INVALID;
+	}
+
+	@Override
+	public String toString() {
+		return this.code;
+	}
+}
@@ -0,0 +1,149 @@
+package com.github.chistousov.lib.astm1394.record;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * <p>
+ * Lookup table of coded values (enums) by their codes that does not create or hash strings.
+ * Codes of one character are found in an array indexed by the character, longer codes (up to 4 ASCII characters)
+ * are packed into an int and found by binary search.
+ * (Таблица поиска кодированных значений (перечислений) по их кодам, которая не создает и не хэширует строки.
+ * Коды из одного символа находятся в массиве по индексу символа, более длинные коды (до 4 символов ASCII)
+ * упаковываются в int и находятся двоичным поиском.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class CodeTable<E> {
+
+	private static final int MAX_CODE_LENGTH = 4;
+
+	private final E undefined;
+
+	//values by the character of codes of one character
+	//значения по символу кодов из одного символа
+	private final Object[] byChar = new Object[128];
+
+	//sorted packed codes of several characters and their values
+	//отсортированные упакованные коды из нескольких символов и их значения
+	private final int[] keys;
+	private final Object[] values;
+
+	/**
+	 * Creates a table
+	 * (Создает таблицу)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param codes values by codes (значения по кодам)
+	 * @param undefined value of unknown codes (значение неизвестных кодов)
+	 * @throws IllegalArgumentException if a code is longer than 4 characters or is not ASCII (если код длиннее 4 символов или не ASCII)
+	 */
+	public CodeTable(Map<String, E> codes, E undefined) {
+		this.undefined = undefined;
+
+		int[] packedKeys = new int[codes.size()];
+		int count = 0;
+		for(Map.Entry<String, E> entry : codes.entrySet()){
+			String code = entry.getKey();
+			int key = pack(code, 0, code.length());
+			if(key < 0){
+				throw new IllegalArgumentException("Code '" + code + "' is longer than " + MAX_CODE_LENGTH + " characters or is not ASCII");
+			}
+			if(code.length() == 1){
+				this.byChar[code.charAt(0)] = entry.getValue();
+			} else {
+				packedKeys[count++] = key;
+			}
+		}
+
+		this.keys = Arrays.copyOf(packedKeys, count);
+		Arrays.sort(this.keys);
+		this.values = new Object[count];
+		for(Map.Entry<String, E> entry : codes.entrySet()){
+			String code = entry.getKey();
+			if(code.length() != 1){
+				this.values[Arrays.binarySearch(this.keys, pack(code, 0, code.length()))] = entry.getValue();
+			}
+		}
+	}
+
+	/**
+	 * Value of a code of one character
+	 * (Значение кода из одного символа)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param code code (код)
+	 * @return value, the undefined value if the code is unknown (значение, неопределенное значение, если код неизвестен)
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(char code) {
+		Object value = code < this.byChar.length ? this.byChar[code] : null;
+		return value == null ? this.undefined : (E) value;
+	}
+
+	/**
+	 * Value of a code
+	 * (Значение кода)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param code code, may be null (код, может быть null)
+	 * @return value, the undefined value if the code is unknown (значение, неопределенное значение, если код неизвестен)
+	 */
+	public E get(CharSequence code) {
+		if(code == null){
+			return this.undefined;
+		}
+		return get(code, 0, code.length());
+	}
+
+	/**
+	 * Value of a code in a part of the text
+	 * (Значение кода в части текста)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text text (текст)
+	 * @param start first character of the code (первый символ кода)
+	 * @param end position after the last character of the code (позиция после последнего символа кода)
+	 * @return value, the undefined value if the code is unknown (значение, неопределенное значение, если код неизвестен)
+	 */
+	@SuppressWarnings("unchecked")
+	public E get(CharSequence text, int start, int end) {
+		if(end - start == 1){
+			return get(text.charAt(start));
+		}
+		int key = pack(text, start, end);
+		if(key < 0){
+			return this.undefined;
+		}
+		int index = Arrays.binarySearch(this.keys, key);
+		return index < 0 ? this.undefined : (E) this.values[index];
+	}
+
+	//length in the high bits and 7 bits of every character, -1 if the code cannot be packed
+	//длина в старших битах и по 7 бит каждого символа, -1 если код нельзя упаковать
+	private static int pack(CharSequence text, int start, int end) {
+		int length = end - start;
+		if(length > MAX_CODE_LENGTH){
+			return -1;
+		}
+		int key = length << 28;
+		for(int i = start; i < end; i++){
+			char c = text.charAt(i);
+			if(c >= 128){
+				return -1;
+			}
+			key |= c << (7 * (i - start));
+		}
+		return key;
+	}
+}
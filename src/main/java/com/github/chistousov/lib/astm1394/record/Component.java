@@ -8,20 +8,36 @@ import java.util.function.Supplier;
 
 /**
  * <p>
- * A generic class that encapsulates some logic for working with a component (component) 
- * (Класс-дженерик, инкапсулирующий некоторую логику работы с компонентом (component))
+ * A generic class that encapsulates some logic for working with a component (component).
+ * Records create components with the factories {@link #ofString(String)}, {@link #ofInt(String)}, {@link #ofLong(String)},
+ * {@link #ofDateTime(String)} and {@link #ofCode(Object, Function)}: the implementation is chosen once by the field,
+ * numbers are stored as primitives and are boxed only by {@link #getValue()}.
+ * (Класс-дженерик, инкапсулирующий некоторую логику работы с компонентом (component).
+ * Записи создают компоненты фабриками {@link #ofString(String)}, {@link #ofInt(String)}, {@link #ofLong(String)},
+ * {@link #ofDateTime(String)} и {@link #ofCode(Object, Function)}: реализация выбирается один раз по полю,
+ * числа хранятся как примитивы и упаковываются только в {@link #getValue()}.)
  * </p>
  * @author Nikita Chistousov (chistousov.nik@yandex.ru)
  * @since 8
  */
 @SuppressWarnings("unchecked")
 public class Component<T> {
+
+	//text that is not a number of the range
+	//текст, не являющийся числом диапазона
+	static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
     private T value;
 
 	private Function<T, String> toStringHandler;
 
 	private Class<T> persistentClass;
 
+	//dates and times are kept as seconds since the epoch until the value is requested
+	//даты и время хранятся в секундах с начала эпохи до запроса значения
+	private long epochSecond = DateTimeParser.INVALID;
+	private int dateTimeDigits;
+
     public Component(Supplier<T> handler, Function<T, String> toStringHandler){
         this.value = handler.get();
 		this.toStringHandler = toStringHandler;
@@ -29,50 +45,222 @@ public class Component<T> {
 
     public Component(Class<T> persistentClass, String value) {
 		this.persistentClass = persistentClass;
-        
-		try{
-            if(persistentClass.equals(String.class)){
-                this.value = (T)value;
-            }  else if (persistentClass.equals(Short.class)){
-                this.value = (T)Short.valueOf(value);
-            } else if (persistentClass.equals(Integer.class)){
-                this.value = (T)Integer.valueOf(value);
-            } else if (persistentClass.equals(Long.class)){
-                this.value = (T)Long.valueOf(value);
-            } else if (persistentClass.equals(LocalDateTime.class)){
-                this.value = (T)LocalDateTime.parse(value, GeneralConsiderations.DATE_TIME_FORMATTER);
-            } else if (persistentClass.equals(LocalDate.class)){
-                this.value = (T)LocalDate.parse(value, GeneralConsiderations.DATE_FORMATTER);
-            }
-        } catch(Exception ex){
-            this.value = null;
+        if(value == null){
+            return;
+        }
+
+        //values that are not numbers or dates stay null without throwing exceptions
+        //значения, не являющиеся числами или датами, остаются null без выбрасывания исключений
+        if(persistentClass.equals(String.class)){
+            this.value = (T)value;
+        }  else if (persistentClass.equals(Short.class)){
+            long number = parseNumber(value, Short.MIN_VALUE, Short.MAX_VALUE);
+            this.value = number == NOT_A_NUMBER ? null : (T)Short.valueOf((short) number);
+        } else if (persistentClass.equals(Integer.class)){
+            long number = parseNumber(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            this.value = number == NOT_A_NUMBER ? null : (T)Integer.valueOf((int) number);
+        } else if (persistentClass.equals(Long.class)){
+            long number = parseNumber(value, Long.MIN_VALUE + 1, Long.MAX_VALUE);
+            this.value = number == NOT_A_NUMBER ? null : (T)Long.valueOf(number);
+        } else if (persistentClass.equals(LocalDateTime.class)){
+            this.epochSecond = DateTimeParser.epochSecond(value);
+            this.dateTimeDigits = value.length();
+        } else if (persistentClass.equals(LocalDate.class)){
+            this.epochSecond = value.length() == 8 ? DateTimeParser.epochSecond(value) : DateTimeParser.INVALID;
+            this.dateTimeDigits = 8;
         }
     }
 
+	//for the specialized components that keep their own value
+	//для специализированных компонентов, хранящих свое значение
+	Component() {}
+
+	/**
+	 * Text component
+	 * (Текстовый компонент)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value text, may be null (текст, может быть null)
+	 * @return component (компонент)
+	 */
+	public static Component<String> ofString(String value) {
+		return new StringComponent(value);
+	}
+
+	/**
+	 * Integer component stored as int
+	 * (Целочисленный компонент, хранящийся как int)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text decimal number, the value is null if the text is not a number (десятичное число, значение null, если текст не является числом)
+	 * @return component (компонент)
+	 */
+	public static Component<Integer> ofInt(String text) {
+		return IntComponent.parse(text);
+	}
+
+	/**
+	 * Integer component stored as int
+	 * (Целочисленный компонент, хранящийся как int)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value value (значение)
+	 * @return component (компонент)
+	 */
+	public static Component<Integer> ofInt(int value) {
+		return new IntComponent(value, true);
+	}
+
+	/**
+	 * Long integer component stored as long
+	 * (Длинный целочисленный компонент, хранящийся как long)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text decimal number, the value is null if the text is not a number (десятичное число, значение null, если текст не является числом)
+	 * @return component (компонент)
+	 */
+	public static Component<Long> ofLong(String text) {
+		return LongComponent.parse(text);
+	}
+
+	/**
+	 * Long integer component stored as long
+	 * (Длинный целочисленный компонент, хранящийся как long)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value value (значение)
+	 * @return component (компонент)
+	 */
+	public static Component<Long> ofLong(long value) {
+		return new LongComponent(value, true);
+	}
+
+	/**
+	 * Date and time component stored as seconds since the epoch
+	 * (Компонент даты и времени, хранящийся в секундах с начала эпохи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text YYYYMMDD[HH[MM[SS]]], the value is null if the text is not a date (значение null, если текст не является датой)
+	 * @return component (компонент)
+	 */
+	public static Component<LocalDateTime> ofDateTime(String text) {
+		return text == null ? new DateTimeComponent(DateTimeParser.INVALID, 0, null)
+			: new DateTimeComponent(DateTimeParser.epochSecond(text), text.length(), null);
+	}
+
+	/**
+	 * Date and time component stored as seconds since the epoch, it is written as YYYYMMDDHHMMSS
+	 * (Компонент даты и времени, хранящийся в секундах с начала эпохи, записывается как YYYYMMDDHHMMSS)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value date and time, may be null (дата и время, может быть null)
+	 * @return component (компонент)
+	 */
+	public static Component<LocalDateTime> ofDateTime(LocalDateTime value) {
+		return new DateTimeComponent(DateTimeComponent.epochSecond(value), 14, null);
+	}
+
+	/**
+	 * Coded (enum) component, the code is taken once
+	 * (Кодированный (enum) компонент, код берется один раз)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value value, may be null (значение, может быть null)
+	 * @param toStringHandler value to code conversion (преобразование значения в код)
+	 * @return component (компонент)
+	 */
+	public static <E> Component<E> ofCode(E value, Function<E, String> toStringHandler) {
+		return new CodeComponent<>(value, value == null ? "" : toStringHandler.apply(value));
+	}
+
+	//decimal number with an optional sign from min to max, NOT_A_NUMBER if the text is not such a number
+	//десятичное число с необязательным знаком от min до max, NOT_A_NUMBER если текст не является таким числом
+	static long parseNumber(String value, long min, long max) {
+		int length = value.length();
+		int i = 0;
+		boolean negative = false;
+		if(length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')){
+			negative = value.charAt(0) == '-';
+			i = 1;
+		}
+		if(i == length){
+			return NOT_A_NUMBER;
+		}
+
+		//accumulated negatively like Long.parseLong to hold Long.MIN_VALUE
+		//накапливается отрицательным, как в Long.parseLong, чтобы вместить Long.MIN_VALUE
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multiplyLimit = limit / 10;
+		long result = 0;
+		for(; i < length; i++){
+			int digit = value.charAt(i) - '0';
+			if(digit < 0 || digit > 9 || result < multiplyLimit){
+				return NOT_A_NUMBER;
+			}
+			result *= 10;
+			if(result < limit + digit){
+				return NOT_A_NUMBER;
+			}
+			result -= digit;
+		}
+		long number = negative ? result : -result;
+		return number < min || number > max ? NOT_A_NUMBER : number;
+	}
+
     public T getValue() {
+		if(this.value == null && this.epochSecond != DateTimeParser.INVALID){
+			if(this.persistentClass.equals(LocalDateTime.class)){
+				this.value = (T)DateTimeParser.toDateTime(this.epochSecond);
+			} else {
+				this.value = (T)DateTimeParser.toDate(this.epochSecond);
+			}
+		}
         return value;
     }
 
+	//the component has a value, without boxing it
+	//у компонента есть значение, без его упаковки
+	boolean hasValue() {
+		return getValue() != null;
+	}
+
+	/**
+	 * Date and time of the component without creating {@link LocalDateTime}
+	 * (Дата и время компонента без создания {@link LocalDateTime})
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds since the epoch, {@link DateTimeParser#INVALID} if the component is not a valid date (секунды с начала эпохи, {@link DateTimeParser#INVALID}, если компонент не является корректной датой)
+	 */
+	public long getEpochSecond() {
+		return this.epochSecond;
+	}
+
 	@Override
 	public String toString() {
-		if(this.value != null){
-			if(this.toStringHandler != null){
-				return this.toStringHandler.apply(this.value);
-			} else if(this.persistentClass.equals(String.class)){
-                return this.value.toString();
-            } else if (this.persistentClass.equals(Short.class)){
-                return this.value.toString();
-            } else if (persistentClass.equals(Integer.class)){
-                return this.value.toString();
-            } else if (persistentClass.equals(Long.class)){
-				return this.value.toString();
-            } else if (persistentClass.equals(LocalDateTime.class)){
-                return ((LocalDateTime)this.value).format(GeneralConsiderations.DATE_TIME_FORMATTER);
-            } else if (persistentClass.equals(LocalDate.class)){
-                return ((LocalDate)this.value).format(GeneralConsiderations.DATE_FORMATTER);
-            }
-			
+		if(this.epochSecond != DateTimeParser.INVALID){
+			return DateTimeParser.format(this.epochSecond, this.dateTimeDigits);
+		}
+		if(this.value == null){
+			return "";
 		}
-		return "";
+		return this.toStringHandler != null ? this.toStringHandler.apply(this.value) : this.value.toString();
 	}
 }
@@ -0,0 +1,59 @@
+package com.github.chistousov.lib.astm1394.record;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * <p>
+ * Date and time component stored as seconds since the epoch, {@link LocalDateTime} is created only by {@link #getValue()},
+ * see {@link Component#ofDateTime(String)}
+ * (Компонент даты и времени, хранящийся в секундах с начала эпохи, {@link LocalDateTime} создается только в {@link #getValue()},
+ * см. {@link Component#ofDateTime(String)})
+ * </p>
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+final class DateTimeComponent extends Component<LocalDateTime> {
+
+	private final long epochSecond;
+	private final int digits;
+	private LocalDateTime value;
+
+	DateTimeComponent(long epochSecond, int digits, LocalDateTime value) {
+		this.epochSecond = epochSecond;
+		this.digits = digits;
+		this.value = value;
+	}
+
+	//seconds of a date and time that is written with four digits of the year, INVALID otherwise
+	//секунды даты и времени, записываемой четырьмя цифрами года, иначе INVALID
+	static long epochSecond(LocalDateTime dateTime) {
+		if(dateTime == null || dateTime.getYear() < 0 || dateTime.getYear() > 9999){
+			return DateTimeParser.INVALID;
+		}
+		return dateTime.toEpochSecond(ZoneOffset.UTC);
+	}
+
+	@Override
+	public LocalDateTime getValue() {
+		if(this.value == null && this.epochSecond != DateTimeParser.INVALID){
+			this.value = DateTimeParser.toDateTime(this.epochSecond);
+		}
+		return this.value;
+	}
+
+	@Override
+	boolean hasValue() {
+		return this.epochSecond != DateTimeParser.INVALID;
+	}
+
+	@Override
+	public long getEpochSecond() {
+		return this.epochSecond;
+	}
+
+	@Override
+	public String toString() {
+		return DateTimeParser.format(this.epochSecond, this.digits);
+	}
+}
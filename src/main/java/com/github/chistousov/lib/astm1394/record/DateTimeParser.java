@@ -0,0 +1,216 @@
+package com.github.chistousov.lib.astm1394.record;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * <p>
+ * Parser of dates and times of LIS2-A2 (section 5.6.2) that reads digits directly, without {@link java.time.format.DateTimeFormatter}
+ * and without exceptions. A date and time is YYYYMMDDHHMMSS, the time may be truncated to YYYYMMDDHHMM, YYYYMMDDHH
+ * or to the date YYYYMMDD, the missing parts are zero. Values are returned as seconds since the epoch 1970-01-01T00:00:00,
+ * the time zone is not applied, so hot code does not have to create {@link LocalDateTime}.
+ * (Парсер дат и времени LIS2-A2 (раздел 5.6.2), который читает цифры напрямую, без {@link java.time.format.DateTimeFormatter}
+ * и без исключений. Дата и время - YYYYMMDDHHMMSS, время может быть сокращено до YYYYMMDDHHMM, YYYYMMDDHH
+ * или до даты YYYYMMDD, недостающие части равны нулю. Значения возвращаются в секундах с начала эпохи 1970-01-01T00:00:00,
+ * часовой пояс не применяется, поэтому горячему коду не нужно создавать {@link LocalDateTime}.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class DateTimeParser {
+
+	/**
+	 * Result of parsing of an empty or invalid value
+	 * (Результат разбора пустого или некорректного значения)
+	 */
+	public static final long INVALID = Long.MIN_VALUE;
+
+	private static final int SECONDS_PER_DAY = 86400;
+
+	//days from 0000-03-01 to 1970-01-01
+	//дни от 0000-03-01 до 1970-01-01
+	private static final long DAYS_0000_TO_1970 = 719468L;
+
+	private DateTimeParser() {}
+
+	/**
+	 * Parses a date and time
+	 * (Разбирает дату и время)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value YYYYMMDD[HH[MM[SS]]], may be null (может быть null)
+	 * @return seconds since the epoch, {@link #INVALID} if the value is empty or invalid (секунды с начала эпохи, {@link #INVALID}, если значение пустое или некорректное)
+	 */
+	public static long epochSecond(CharSequence value) {
+		if(value == null){
+			return INVALID;
+		}
+		return epochSecond(value, 0, value.length());
+	}
+
+	/**
+	 * Parses a date and time in a part of the text
+	 * (Разбирает дату и время в части текста)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text text (текст)
+	 * @param start first character of the value (первый символ значения)
+	 * @param end position after the last character of the value (позиция после последнего символа значения)
+	 * @return seconds since the epoch, {@link #INVALID} if the value is empty or invalid (секунды с начала эпохи, {@link #INVALID}, если значение пустое или некорректное)
+	 */
+	public static long epochSecond(CharSequence text, int start, int end) {
+		int length = end - start;
+		if(length != 8 && length != 10 && length != 12 && length != 14){
+			return INVALID;
+		}
+
+		int year = digits(text, start, 4);
+		int month = digits(text, start + 4, 2);
+		int day = digits(text, start + 6, 2);
+		int hour = length >= 10 ? digits(text, start + 8, 2) : 0;
+		int minute = length >= 12 ? digits(text, start + 10, 2) : 0;
+		int second = length == 14 ? digits(text, start + 12, 2) : 0;
+
+		if(year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+				|| hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59){
+			return INVALID;
+		}
+		return epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+	}
+
+	/**
+	 * Parses a date and time
+	 * (Разбирает дату и время)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value YYYYMMDD[HH[MM[SS]]], may be null (может быть null)
+	 * @return date and time, null if the value is empty or invalid (дата и время, null если значение пустое или некорректное)
+	 */
+	public static LocalDateTime parseDateTime(CharSequence value) {
+		return toDateTime(epochSecond(value));
+	}
+
+	/**
+	 * Parses a date
+	 * (Разбирает дату)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value YYYYMMDD, may be null (может быть null)
+	 * @return date, null if the value is empty or invalid (дата, null если значение пустое или некорректное)
+	 */
+	public static LocalDate parseDate(CharSequence value) {
+		if(value == null || value.length() != 8){
+			return null;
+		}
+		return toDate(epochSecond(value));
+	}
+
+	public static LocalDateTime toDateTime(long epochSecond) {
+		return epochSecond == INVALID ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+	}
+
+	public static LocalDate toDate(long epochSecond) {
+		return epochSecond == INVALID ? null : LocalDate.ofEpochDay(Math.floorDiv(epochSecond, SECONDS_PER_DAY));
+	}
+
+	/**
+	 * Formats a date and time as YYYYMMDDHHMMSS or truncated to the number of digits
+	 * (Форматирует дату и время как YYYYMMDDHHMMSS или с сокращением до количества цифр)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param epochSecond seconds since the epoch (секунды с начала эпохи)
+	 * @param digits 8, 10, 12 or 14 (8, 10, 12 или 14)
+	 * @return text, an empty string for {@link #INVALID} (текст, пустая строка для {@link #INVALID})
+	 */
+	public static String format(long epochSecond, int digits) {
+		if(epochSecond == INVALID){
+			return "";
+		}
+
+		long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+		int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+		//civil date of the day, the year starts in March
+		//календарная дата дня, год начинается в марте
+		long days = epochDay + DAYS_0000_TO_1970;
+		long era = Math.floorDiv(days, 146097);
+		int dayOfEra = (int) (days - era * 146097);
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int shiftedMonth = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+		int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+		long year = era * 400 + yearOfEra + (month <= 2 ? 1 : 0);
+
+		char[] chars = new char[digits];
+		put(chars, 0, 4, (int) year);
+		put(chars, 4, 2, month);
+		put(chars, 6, 2, day);
+		put(chars, 8, 2, secondOfDay / 3600);
+		put(chars, 10, 2, secondOfDay / 60 % 60);
+		put(chars, 12, 2, secondOfDay % 60);
+		return new String(chars);
+	}
+
+	//days since the epoch of a civil date
+	//дни с начала эпохи для календарной даты
+	private static long epochDay(int year, int month, int day) {
+		int shiftedYear = month <= 2 ? year - 1 : year;
+		int era = Math.floorDiv(shiftedYear, 400);
+		int yearOfEra = shiftedYear - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - DAYS_0000_TO_1970;
+	}
+
+	private static int lengthOfMonth(int year, int month) {
+		switch(month){
+			case 2:
+				return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	//number of the digits, -1 if there is another character
+	//число из цифр, -1 если встретился другой символ
+	private static int digits(CharSequence text, int start, int count) {
+		int number = 0;
+		for(int i = start; i < start + count; i++){
+			int digit = text.charAt(i) - '0';
+			if(digit < 0 || digit > 9){
+				return -1;
+			}
+			number = number * 10 + digit;
+		}
+		return number;
+	}
+
+	//digits of the number that fit into the characters
+	//цифры числа, которые помещаются в символы
+	private static void put(char[] chars, int start, int count, int number) {
+		for(int i = start + count - 1; i >= start; i--){
+			if(i < chars.length){
+				chars[i] = (char) ('0' + number % 10);
+			}
+			number /= 10;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.github.chistousov.lib.astm1394.record;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Problem found by a tolerant parser (see {@link com.github.chistousov.lib.astm1394.MessageParser#withTolerantMode(boolean)})
+ * instead of throwing an exception or silently storing null: the index of the record in the message (the header is 0),
+ * the record type, the field index and the text of the record or the field.
+ * (Проблема, найденная терпимым парсером (см. {@link com.github.chistousov.lib.astm1394.MessageParser#withTolerantMode(boolean)})
+ * вместо выбрасывания исключения или молчаливого сохранения null: индекс записи в сообщении (заголовок - 0),
+ * тип записи, индекс поля и текст записи или поля.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class Diagnostic {
+
+	/**
+	 * <p>
+	 * Kind of problem
+	 * (Вид проблемы)
+	 * </p>
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 */
+	public enum Problem {
+		/**
+		 * Records before the header record (H), they are skipped
+		 * (Записи до записи заголовка (H), они пропускаются)
+		 */
+		MISSING_HEADER,
+		/**
+		 * Record of an unknown type, it is skipped
+		 * (Запись неизвестного типа, она пропускается)
+		 */
+		UNKNOWN_RECORD_TYPE,
+		/**
+		 * Order without a patient, result without an order or comment without a record, it is skipped with the records nested into it
+		 * (Задание без пациента, результат без задания или комментарий без записи, пропускается с вложенными в него записями)
+		 */
+		MISSING_PARENT,
+		/**
+		 * Patient (P) in a message with requests (Q) or the other way round, it is skipped with the records nested into it
+		 * (Пациент (P) в сообщении с запросами (Q) или наоборот, пропускается с вложенными в него записями)
+		 */
+		PATIENT_AND_REQUEST,
+		/**
+		 * The text of the record has more fields than the record class holds (see {@link Record#hasExcessFields()}),
+		 * it is skipped with the records nested into it
+		 * (В тексте записи больше полей, чем вмещает класс записи (см. {@link Record#hasExcessFields()}),
+		 * она пропускается с вложенными в нее записями)
+		 */
+		INVALID_RECORD,
+		/**
+		 * The message has no terminator record (L)
+		 * (В сообщении нет записи конца сообщения (L))
+		 */
+		MISSING_TERMINATOR,
+		/**
+		 * A non-empty field is not a value of its type (number, date, code), the getter returns null or the undefined code
+		 * (Непустое поле не является значением своего типа (число, дата, код), геттер возвращает null или неопределенный код)
+		 */
+		INVALID_VALUE
+	}
+
+	private final int recordIndex;
+	private final RecordType recordType;
+	private final int fieldIndex;
+	private final Problem problem;
+	private final String text;
+
+	/**
+	 * Creates a diagnostic
+	 * (Создает диагностику)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordIndex index of the record in the message, the header is 0 (индекс записи в сообщении, заголовок - 0)
+	 * @param recordType record type, null if the record is empty (тип записи, null если запись пустая)
+	 * @param fieldIndex field index, -1 for the whole record (индекс поля, -1 для всей записи)
+	 * @param problem kind of problem (вид проблемы)
+	 * @param text text of the record or the field (текст записи или поля)
+	 */
+	public Diagnostic(int recordIndex, RecordType recordType, int fieldIndex, Problem problem, String text) {
+		this.recordIndex = recordIndex;
+		this.recordType = recordType;
+		this.fieldIndex = fieldIndex;
+		this.problem = problem;
+		this.text = text;
+	}
+
+	/**
+	 * Makes a record report the values of its fields that cannot be read (see {@link Problem#INVALID_VALUE}).
+	 * Used by the tolerant parser.
+	 * (Заставляет запись сообщать о значениях своих полей, которые не удается прочитать (см. {@link Problem#INVALID_VALUE}).
+	 * Используется терпимым парсером.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record (запись)
+	 * @param recordIndex index of the record in the message (индекс записи в сообщении)
+	 * @param sink receiver of diagnostics, null - values are not reported (получатель диагностик, null - значения не сообщаются)
+	 * @return the record (запись)
+	 */
+	public static <R extends Record> R watch(R record, int recordIndex, Consumer<Diagnostic> sink) {
+		record.setDiagnostics(recordIndex, sink);
+		return record;
+	}
+
+	public int getRecordIndex() {
+		return recordIndex;
+	}
+
+	public RecordType getRecordType() {
+		return recordType;
+	}
+
+	public int getFieldIndex() {
+		return fieldIndex;
+	}
+
+	public Problem getProblem() {
+		return problem;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	@Override
+	public String toString() {
+		return "Record " + this.recordIndex + (this.recordType == null ? "" : " (" + this.recordType.getRecordTypeId() + ")")
+			+ (this.fieldIndex < 0 ? "" : ", field " + this.fieldIndex) + ": " + this.problem + " '" + this.text + "'";
+	}
+}
@@ -0,0 +1,157 @@
+package com.github.chistousov.lib.astm1394.record;
+
+/**
+ * <p>
+ * Escape sequences of text fields (LIS2-A2, section 5.4.4), with the escape delimiter {@code &}:
+ * {@code &F&} - field delimiter, {@code &S&} - component delimiter, {@code &R&} - repeat delimiter,
+ * {@code &E&} - escape delimiter, {@code &Xhh...&} - characters of the hexadecimal bytes (ISO-8859-1),
+ * {@code &H&} and {@code &N&} - start and end of highlighting, they are removed from the text.
+ * Other and unterminated sequences are kept as they are. A field is scanned once, a new string is created
+ * only if the field contains the escape delimiter (decoding) or a delimiter (encoding).
+ * (Escape-последовательности текстовых полей (LIS2-A2, раздел 5.4.4), с разделителем escape {@code &}:
+ * {@code &F&} - разделитель полей, {@code &S&} - разделитель компонентов, {@code &R&} - разделитель повторов,
+ * {@code &E&} - разделитель escape, {@code &Xhh...&} - символы шестнадцатеричных байтов (ISO-8859-1),
+ * {@code &H&} и {@code &N&} - начало и конец выделения, они удаляются из текста.
+ * Остальные и незавершенные последовательности сохраняются как есть. Поле просматривается один раз, новая строка создается,
+ * только если поле содержит разделитель escape (декодирование) или разделитель (кодирование).)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class EscapeSequences {
+
+	private EscapeSequences() {}
+
+	/**
+	 * Replaces escape sequences of a field with the characters they stand for
+	 * (Заменяет escape-последовательности поля символами, которые они обозначают)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value text of the field, may be null (текст поля, может быть null)
+	 * @param fieldDelimiter field delimiter (разделитель полей)
+	 * @param repeatDelimiter repeat delimiter (разделитель повторов)
+	 * @param componentDelimiter component delimiter (разделитель компонентов)
+	 * @param escapeDelimiter escape delimiter (разделитель escape)
+	 * @return text, the same string if there are no escape sequences (текст, та же строка, если escape-последовательностей нет)
+	 */
+	public static String unescape(String value, char fieldDelimiter, char repeatDelimiter, char componentDelimiter, char escapeDelimiter) {
+		int start = value == null ? -1 : value.indexOf(escapeDelimiter);
+		if(start < 0){
+			return value;
+		}
+
+		StringBuilder text = new StringBuilder(value.length());
+		text.append(value, 0, start);
+		int i = start;
+		while(i < value.length()){
+			char c = value.charAt(i);
+			int end = c == escapeDelimiter ? value.indexOf(escapeDelimiter, i + 1) : -1;
+			if(end < 0){
+				text.append(c);
+				i++;
+				continue;
+			}
+			if(!appendSequence(text, value, i + 1, end, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter)){
+				text.append(value, i, end + 1);
+			}
+			i = end + 1;
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Replaces delimiters in the text of a field with escape sequences
+	 * (Заменяет разделители в тексте поля escape-последовательностями)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value text, may be null (текст, может быть null)
+	 * @param fieldDelimiter field delimiter (разделитель полей)
+	 * @param repeatDelimiter repeat delimiter (разделитель повторов)
+	 * @param componentDelimiter component delimiter (разделитель компонентов)
+	 * @param escapeDelimiter escape delimiter (разделитель escape)
+	 * @return text of the field, the same string if there are no delimiters (текст поля, та же строка, если разделителей нет)
+	 */
+	public static String escape(String value, char fieldDelimiter, char repeatDelimiter, char componentDelimiter, char escapeDelimiter) {
+		if(value == null){
+			return null;
+		}
+		int start = 0;
+		while(start < value.length() && code(value.charAt(start), fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter) == 0){
+			start++;
+		}
+		if(start == value.length()){
+			return value;
+		}
+
+		StringBuilder text = new StringBuilder(value.length() + 8);
+		text.append(value, 0, start);
+		for(int i = start; i < value.length(); i++){
+			char c = value.charAt(i);
+			char code = code(c, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter);
+			if(code == 0){
+				text.append(c);
+			} else {
+				text.append(escapeDelimiter).append(code).append(escapeDelimiter);
+			}
+		}
+		return text.toString();
+	}
+
+	//letter of the escape sequence of a delimiter, 0 if the character is not a delimiter
+	//буква escape-последовательности разделителя, 0 если символ не является разделителем
+	private static char code(char c, char fieldDelimiter, char repeatDelimiter, char componentDelimiter, char escapeDelimiter) {
+		if(c == fieldDelimiter){
+			return 'F';
+		} else if(c == repeatDelimiter){
+			return 'R';
+		} else if(c == componentDelimiter){
+			return 'S';
+		} else if(c == escapeDelimiter){
+			return 'E';
+		}
+		return 0;
+	}
+
+	//false if the sequence between the escape delimiters is unknown or malformed
+	//false, если последовательность между разделителями escape неизвестна или некорректна
+	private static boolean appendSequence(StringBuilder text, String value, int start, int end, char fieldDelimiter, char repeatDelimiter, char componentDelimiter, char escapeDelimiter) {
+		if(end - start == 1){
+			switch(value.charAt(start)){
+				case 'F':
+					text.append(fieldDelimiter);
+					return true;
+				case 'S':
+					text.append(componentDelimiter);
+					return true;
+				case 'R':
+					text.append(repeatDelimiter);
+					return true;
+				case 'E':
+					text.append(escapeDelimiter);
+					return true;
+				case 'H':
+				case 'N':
+					return true;
+				default:
+					return false;
+			}
+		}
+		if(value.charAt(start) != 'X' || (end - start - 1) % 2 != 0 || end - start < 3){
+			return false;
+		}
+		for(int i = start + 1; i < end; i++){
+			if(Character.digit(value.charAt(i), 16) < 0){
+				return false;
+			}
+		}
+		for(int i = start + 1; i < end; i += 2){
+			text.append((char) (Character.digit(value.charAt(i), 16) * 16 + Character.digit(value.charAt(i + 1), 16)));
+		}
+		return true;
+	}
+}
@@ -0,0 +1,32 @@
+package com.github.chistousov.lib.astm1394.record;
+
+/**
+ * <p>
+ * A record (record) implementing this interface can be refilled with the text of another record of its type instead of
+ * creating a new record, the values and the records nested into it are forgotten. Descendants that keep their own state
+ * override {@link #reset(String, String, String, String, String)} and call it of the parent.
+ * (Запись (record), реализующая этот интерфейс, может быть заполнена заново текстом другой записи своего типа вместо
+ * создания новой записи, ее значения и вложенные записи забываются. Потомки, хранящие свое состояние,
+ * переопределяют {@link #reset(String, String, String, String, String)} и вызывают его у родителя.)
+ * </p>
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public interface IReusable {
+
+    /**
+     * Refills the record with the text of another record of its type
+     * (Заполняет запись заново текстом другой записи своего типа)
+     *
+     * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+     * @since 8
+     *
+     * @param recordString record text without the terminator (текст записи без завершающего символа)
+     * @param fieldDelimiter field delimiter (разделитель полей)
+     * @param repeatDelimiter repeat delimiter (разделитель повторов)
+     * @param componentDelimiter component delimiter (разделитель компонентов)
+     * @param escapeDelimiter escape delimiter (разделитель escape-последовательностей)
+     * @throws IllegalArgumentException if the text is not a record of the type (если текст не является записью этого типа)
+     */
+    public void reset(String recordString, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter);
+}
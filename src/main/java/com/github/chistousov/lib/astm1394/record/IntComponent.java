@@ -0,0 +1,53 @@
+package com.github.chistousov.lib.astm1394.record;
+
+/**
+ * <p>
+ * Integer component stored as int, see {@link Component#ofInt(String)}
+ * (Целочисленный компонент, хранящийся как int, см. {@link Component#ofInt(String)})
+ * </p>
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+final class IntComponent extends Component<Integer> {
+
+	private final int value;
+	private final boolean present;
+
+	IntComponent(int value, boolean present) {
+		this.value = value;
+		this.present = present;
+	}
+
+	//component of a decimal number, without a value if the text is not an int
+	//компонент десятичного числа, без значения, если текст не является int
+	static IntComponent parse(String text) {
+		long number = text == null ? NOT_A_NUMBER : parseNumber(text, Integer.MIN_VALUE, Integer.MAX_VALUE);
+		return number == NOT_A_NUMBER ? new IntComponent(0, false) : new IntComponent((int) number, true);
+	}
+
+	//value without boxing, 0 if there is no value
+	//значение без упаковки, 0 если значения нет
+	int getInt() {
+		return this.value;
+	}
+
+	@Override
+	public Integer getValue() {
+		return this.present ? Integer.valueOf(this.value) : null;
+	}
+
+	@Override
+	boolean hasValue() {
+		return this.present;
+	}
+
+	@Override
+	public long getEpochSecond() {
+		return DateTimeParser.INVALID;
+	}
+
+	@Override
+	public String toString() {
+		return this.present ? Integer.toString(this.value) : "";
+	}
+}
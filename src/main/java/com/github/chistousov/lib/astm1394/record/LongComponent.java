@@ -0,0 +1,47 @@
+package com.github.chistousov.lib.astm1394.record;
+
+/**
+ * <p>
+ * Long integer component stored as long, see {@link Component#ofLong(String)}
+ * (Длинный целочисленный компонент, хранящийся как long, см. {@link Component#ofLong(String)})
+ * </p>
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+final class LongComponent extends Component<Long> {
+
+	private final long value;
+	private final boolean present;
+
+	LongComponent(long value, boolean present) {
+		this.value = value;
+		this.present = present;
+	}
+
+	//component of a decimal number, without a value if the text is not a long
+	//компонент десятичного числа, без значения, если текст не является long
+	static LongComponent parse(String text) {
+		long number = text == null ? NOT_A_NUMBER : parseNumber(text, Long.MIN_VALUE + 1, Long.MAX_VALUE);
+		return number == NOT_A_NUMBER ? new LongComponent(0, false) : new LongComponent(number, true);
+	}
+
+	@Override
+	public Long getValue() {
+		return this.present ? Long.valueOf(this.value) : null;
+	}
+
+	@Override
+	boolean hasValue() {
+		return this.present;
+	}
+
+	@Override
+	public long getEpochSecond() {
+		return DateTimeParser.INVALID;
+	}
+
+	@Override
+	public String toString() {
+		return this.present ? Long.toString(this.value) : "";
+	}
+}
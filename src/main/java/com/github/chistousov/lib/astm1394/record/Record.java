@@ -1,8 +1,13 @@
 package com.github.chistousov.lib.astm1394.record;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 
 /**
  * <p>
@@ -20,8 +25,15 @@ public abstract class Record {
     private RecordType recordTypeId;
 
     /*
-     * Поля записи (fields)
+     * Поля записи (fields): текст записи и концы полей в нем, строки создаются только для читаемых полей.
+     * Поля, заданные сеттерами или закодированные, хранятся в fields, null - поле читается из текста записи.
+     * (Fields of the record: the text of the record and the ends of the fields in it, strings are created only for the fields
+     * that are read. Fields set by setters or encoded are kept in fields, null - the field is read from the text of the record.)
      */
+    private String source;
+    private int[] fieldEnds;
+    private int fieldCount;
+    private boolean excessFields;
     private String[] fields;
 
     /*
@@ -34,8 +46,48 @@ public abstract class Record {
 
 	/*
      * Для первого переданного пациента необходимо ввести 1, для второго - 2, ... до последнего.
+     * (Sequence number, parsed once into an int)
      */
-	private Component<Integer> sequenceNumber;
+	private int sequenceNumber;
+	private boolean sequenceNumberParsed;
+
+	/*
+	 * Dictionary of values of the connection, null - values are not shared
+	 * (Словарь значений подключения, null - значения не разделяются)
+	 */
+	private ValueDictionary dictionary;
+
+	/*
+	 * Fields changed by setters that are encoded only when they are read or the record is written (bits by field indexes)
+	 * and the components they are encoded from
+	 * (Поля, измененные сеттерами, которые кодируются только при чтении или записи записи (биты по индексам полей),
+	 * и компоненты, из которых они кодируются)
+	 */
+	private long dirtyFields;
+	private Component<?>[] dirtyComponents;
+
+	//one bit of dirtyFields per field
+	//один бит dirtyFields на поле
+	private static final int MAX_FIELDS = Long.SIZE;
+
+	/*
+	 * Last encoded text of the record, null - the record was changed after it was encoded
+	 * (Последний закодированный текст записи, null - запись изменилась после кодирования)
+	 */
+	private String encoded;
+
+	/*
+	 * Receiver of the values that cannot be read and the index of the record in the message, null - values are not reported
+	 * (Получатель значений, которые не удается прочитать, и индекс записи в сообщении, null - значения не сообщаются)
+	 */
+	private Consumer<Diagnostic> diagnostics;
+	private int recordIndex;
+
+	/*
+	 * Fields converted into components by getters, null - all fields, see {@link #setConvertedFields(IntPredicate)}
+	 * (Поля, преобразуемые геттерами в компоненты, null - все поля, см. {@link #setConvertedFields(IntPredicate)})
+	 */
+	private IntPredicate convertedFields;
 
 
 	protected Record(int lengthArrayFields, RecordType recordTypeId, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter){
@@ -46,29 +98,160 @@ public abstract class Record {
     protected Record(String recordStr, int lengthArrayFields, RecordType recordTypeId, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter){
         this.recordTypeId = recordTypeId;
 
-        this.fieldDelimiter = new Component<>(String.class, fieldDelimiter);
-        this.repeatDelimiter = new Component<>(String.class, repeatDelimiter);
-        this.componentDelimiter = new Component<>(String.class, componentDelimiter);
-        this.escapeDelimiter = new Component<>(String.class, escapeDelimiter);
+        this.fieldDelimiter = delimiterOf(fieldDelimiter);
+        this.repeatDelimiter = delimiterOf(repeatDelimiter);
+        this.componentDelimiter = delimiterOf(componentDelimiter);
+        this.escapeDelimiter = delimiterOf(escapeDelimiter);
 
-        //array initialization with one value
-		//инициализация массива одним значением
-		this.fields = new String[lengthArrayFields];
-		Arrays.fill(this.fields, "");
+		if(lengthArrayFields > MAX_FIELDS){
+			throw new IllegalArgumentException("A record cannot have more than " + MAX_FIELDS + " fields");
+		}
 
-        //parsing string into array above
-		//парсинг строки в массив выше
-        String[] fieldsRec = recordStr.split("\\"+this.fieldDelimiter.getValue());
-		System.arraycopy(fieldsRec, 0, this.fields, 0, fieldsRec.length);
-        
-        this.fields[0] = recordTypeId.getRecordTypeId();
+        //only the ends of the fields are found, the text of the record is kept
+		//находятся только концы полей, текст записи сохраняется
+		this.fieldEnds = new int[lengthArrayFields];
+		this.source = recordStr;
+		setFieldCount(Tokenizer.fieldEnds(recordStr, fieldDelimiter.charAt(0), this.fieldEnds));
 
     }
 
+	/**
+	 * Refills the record with the text of another record of the same type, the array of fields and equal delimiters are kept.
+	 * Used by records that are reused, see {@link IReusable}.
+	 * (Заполняет запись заново текстом другой записи того же типа, массив полей и равные разделители сохраняются.
+	 * Используется повторно используемыми записями, см. {@link IReusable}.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordStr record text (текст записи)
+	 * @param fieldDelimiter field delimiter (разделитель полей)
+	 * @param repeatDelimiter repeat delimiter (разделитель повторов)
+	 * @param componentDelimiter component delimiter (разделитель компонентов)
+	 * @param escapeDelimiter escape delimiter (разделитель escape-последовательностей)
+	 * @throws IllegalArgumentException if the text is not a record of the type (если текст не является записью этого типа)
+	 */
+	protected void refill(String recordStr, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter){
+		if(recordStr.isEmpty() || RecordType.getBy(recordStr.charAt(0)) != this.recordTypeId){
+			throw new IllegalArgumentException("The record does not start with " + this.recordTypeId.getRecordTypeId() + ", so it cannot refill a record of this type");
+		}
+
+		this.fieldDelimiter = delimiterOf(fieldDelimiter);
+		this.repeatDelimiter = delimiterOf(repeatDelimiter);
+		this.componentDelimiter = delimiterOf(componentDelimiter);
+		this.escapeDelimiter = delimiterOf(escapeDelimiter);
+
+		this.source = recordStr;
+		setFieldCount(Tokenizer.fieldEnds(recordStr, fieldDelimiter.charAt(0), this.fieldEnds));
+		if(this.fields != null){
+			Arrays.fill(this.fields, null);
+		}
+
+		this.dirtyFields = 0;
+		if(this.dirtyComponents != null){
+			Arrays.fill(this.dirtyComponents, null);
+		}
+		this.encoded = null;
+		this.dictionary = null;
+		this.diagnostics = null;
+		this.convertedFields = null;
+		setSequenceNumber(getField(1));
+	}
+
+	//fields that do not fit into the record are not read
+	//поля, которые не помещаются в запись, не читаются
+	private void setFieldCount(int fieldCount){
+		this.excessFields = fieldCount > this.fieldEnds.length;
+		this.fieldCount = Math.min(fieldCount, this.fieldEnds.length);
+	}
+
+	/**
+	 * Checks that the text of the record has more fields than the record holds, such fields are not read.
+	 * The parser rejects such records (see {@link Diagnostic.Problem#INVALID_RECORD}).
+	 * (Проверяет, что в тексте записи больше полей, чем вмещает запись, такие поля не читаются.
+	 * Парсер отклоняет такие записи (см. {@link Diagnostic.Problem#INVALID_RECORD}).)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return true if the text has excess fields (true, если в тексте есть лишние поля)
+	 */
+	public boolean hasExcessFields(){
+		return this.excessFields;
+	}
+
+	//components of one-character delimiters are shared by all records
+	//компоненты односимвольных разделителей разделяются всеми записями
+	private static final Component<?>[] DELIMITERS = new Component<?>[128];
+
+	static {
+		for(char c = 0; c < DELIMITERS.length; c++){
+			DELIMITERS[c] = Component.ofString(String.valueOf(c));
+		}
+	}
+
+	//the cache holds only components of strings
+	//кэш содержит только компоненты строк
+	@SuppressWarnings("unchecked")
+	private static Component<String> delimiterOf(String delimiter){
+		if(delimiter != null && delimiter.length() == 1 && delimiter.charAt(0) < DELIMITERS.length){
+			return (Component<String>) DELIMITERS[delimiter.charAt(0)];
+		}
+		return Component.ofString(delimiter);
+	}
+
+	/**
+	 * Text of the record, it is encoded again only after the record is changed
+	 * (Текст записи, кодируется заново только после изменения записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return fields joined by the field delimiter with the terminator \r (поля, соединенные разделителем полей, с завершающим \r)
+	 */
     public String getRecord() {
-		return Arrays.asList(this.fields).stream().filter(Objects::nonNull).collect(Collectors.joining(this.fieldDelimiter.getValue())) + "\r";
+		if(this.encoded == null){
+			String delimiter = this.fieldDelimiter.getValue();
+			StringBuilder record = new StringBuilder(this.source.length() + this.fieldEnds.length + 1);
+			for(int i = 0; i < this.fieldEnds.length; i++){
+				if(i > 0){
+					record.append(delimiter);
+				}
+				//unchanged fields are copied from the text of the record without substrings
+				//неизмененные поля копируются из текста записи без подстрок
+				if(i == 0 || isChanged(i) || i >= this.fieldCount){
+					record.append(getField(i));
+				} else {
+					record.append(this.source, this.fieldEnds[i - 1] + 1, this.fieldEnds[i]);
+				}
+			}
+			this.encoded = record.append('\r').toString();
+		}
+		return this.encoded;
     }
 
+	/**
+	 * Writes the record and the records nested into it (comments, orders, results) into the output without intermediate strings
+	 * (Записывает запись и вложенные в нее записи (комментарии, задания, результаты) в вывод без промежуточных строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param out output, for example StringBuilder, Writer or {@link com.github.chistousov.lib.astm1394.ChannelAppender} (вывод, например StringBuilder, Writer или {@link com.github.chistousov.lib.astm1394.ChannelAppender})
+	 * @throws IOException if the output cannot be written (если вывод не удается записать)
+	 */
+	public void writeTo(Appendable out) throws IOException {
+		out.append(getRecord());
+		if(this instanceof IWithComments){
+			List<? extends Record> commentRecords = ((IWithComments<?>) this).getCommentRecords();
+			if(commentRecords != null){
+				for(Record commentRecord : commentRecords){
+					commentRecord.writeTo(out);
+				}
+			}
+		}
+	}
+
     public RecordType getRecordType() {
         return recordTypeId;
     }
@@ -90,31 +273,424 @@ public abstract class Record {
     }
 
 	protected void setField(String value, int index){
-		this.fields[index] = value;
+		fields()[index] = value == null ? "" : value;
+		this.dirtyFields &= ~(1L << index);
+		this.encoded = null;
+	}
+
+	/**
+	 * Sets the component of a field, the text of the field is encoded from the component only when the field is read
+	 * or the record is written
+	 * (Задает компонент поля, текст поля кодируется из компонента только при чтении поля или записи записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param component component of the field (компонент поля)
+	 * @param index field index (индекс поля)
+	 */
+	protected void setField(Component<?> component, int index){
+		if(this.dirtyComponents == null){
+			this.dirtyComponents = new Component<?>[this.fieldEnds.length];
+		}
+		this.dirtyComponents[index] = component;
+		markDirty(index);
+	}
+
+	/**
+	 * Marks a field as changed, its text is obtained by {@link #encodeField(int)} when the field is read or the record is written
+	 * (Отмечает поле как измененное, его текст получается {@link #encodeField(int)} при чтении поля или записи записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 */
+	protected void markDirty(int index){
+		if(index < 0 || index >= this.fieldEnds.length){
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		this.dirtyFields |= 1L << index;
+		this.encoded = null;
+	}
+
+	/**
+	 * Encodes a changed field, descendants encode fields of several components or repeats that they mark by {@link #markDirty(int)}
+	 * (Кодирует измененное поле, потомки кодируют поля из нескольких компонентов или повторов, которые они отмечают {@link #markDirty(int)})
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return text of the field (текст поля)
+	 */
+	protected String encodeField(int index){
+		Component<?> component = this.dirtyComponents == null ? null : this.dirtyComponents[index];
+		return component == null ? storedField(index) : component.toString();
+	}
+
+	/**
+	 * Field as a view of the text of the record without creating a string, a changed field is its text
+	 * (Поле как представление текста записи без создания строки, измененное поле - его текст)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return text of the field, empty if there is no such field (текст поля, пустой, если такого поля нет)
+	 */
+	public CharSequence getFieldView(int index){
+		if(index <= 0 || index >= this.fieldCount || isChanged(index)){
+			return getField(index);
+		}
+		return CharBuffer.wrap(this.source, this.fieldEnds[index - 1] + 1, this.fieldEnds[index]);
+	}
+
+	//the field was set or encoded and is not read from the text of the record
+	//поле задано или закодировано и не читается из текста записи
+	private boolean isChanged(int index){
+		return (this.dirtyFields & (1L << index)) != 0 || (this.fields != null && this.fields[index] != null);
+	}
+
+	//text of a field that is not dirty
+	//текст поля, не отмеченного как измененное
+	private String storedField(int index){
+		String field = this.fields == null ? null : this.fields[index];
+		if(field != null){
+			return field;
+		}
+		if(index == 0){
+			return this.recordTypeId.getRecordTypeId();
+		}
+		if(index >= this.fieldCount){
+			return "";
+		}
+		int start = this.fieldEnds[index - 1] + 1;
+		int end = this.fieldEnds[index];
+		return start == end ? "" : this.source.substring(start, end);
+	}
+
+	private String[] fields(){
+		if(this.fields == null){
+			this.fields = new String[this.fieldEnds.length];
+		}
+		return this.fields;
+	}
+
+	/**
+	 * Creates a component from the raw text of a field. Used by getters that build components on first access,
+	 * the getters of this library use the specialized {@link #stringOf(int)}, {@link #intOf(int)}, {@link #longOf(int)}
+	 * and {@link #dateTimeOf(int)}.
+	 * (Создает компонент из исходного текста поля. Используется геттерами, создающими компоненты при первом обращении,
+	 * геттеры этой библиотеки используют специализированные {@link #stringOf(int)}, {@link #intOf(int)}, {@link #longOf(int)}
+	 * и {@link #dateTimeOf(int)}.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param persistentClass component value type (тип значения компонента)
+	 * @param index field index (индекс поля)
+	 * @return component of the field (компонент поля)
+	 */
+	@SuppressWarnings("unchecked")
+	protected <V> Component<V> componentOf(Class<V> persistentClass, int index){
+		if(persistentClass.equals(String.class)){
+			return (Component<V>) stringOf(index);
+		} else if(persistentClass.equals(Integer.class)){
+			return (Component<V>) intOf(index);
+		} else if(persistentClass.equals(Long.class)){
+			return (Component<V>) longOf(index);
+		} else if(persistentClass.equals(LocalDateTime.class)){
+			return (Component<V>) dateTimeOf(index);
+		}
+		String field = convertedField(index);
+		return checked(new Component<>(persistentClass, field), field, index);
+	}
+
+	/**
+	 * Creates a text component from the raw text of a field
+	 * (Создает текстовый компонент из исходного текста поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return component of the field (компонент поля)
+	 */
+	protected Component<String> stringOf(int index){
+		return Component.ofString(convertedField(index));
+	}
+
+	/**
+	 * Creates an integer component stored as int from the raw text of a field
+	 * (Создает целочисленный компонент, хранящийся как int, из исходного текста поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return component of the field, without a value if the field is not a number (компонент поля, без значения, если поле не является числом)
+	 */
+	protected Component<Integer> intOf(int index){
+		String field = convertedField(index);
+		return checked(Component.ofInt(field), field, index);
+	}
+
+	/**
+	 * Creates a long integer component stored as long from the raw text of a field
+	 * (Создает длинный целочисленный компонент, хранящийся как long, из исходного текста поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return component of the field, without a value if the field is not a number (компонент поля, без значения, если поле не является числом)
+	 */
+	protected Component<Long> longOf(int index){
+		String field = convertedField(index);
+		return checked(Component.ofLong(field), field, index);
+	}
+
+	/**
+	 * Creates a date and time component stored as seconds since the epoch from the raw text of a field
+	 * (Создает компонент даты и времени, хранящийся в секундах с начала эпохи, из исходного текста поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return component of the field, without a value if the field is not a date (компонент поля, без значения, если поле не является датой)
+	 */
+	protected Component<LocalDateTime> dateTimeOf(int index){
+		String field = convertedField(index);
+		//a date and time of the dictionary is parsed once for all records of the connection
+		//дата и время словаря разбираются один раз для всех записей подключения
+		if(this.dictionary != null){
+			return checked(this.dictionary.dateTimeOf(field), field, index);
+		}
+		return checked(Component.ofDateTime(field), field, index);
+	}
+
+	//a non-empty field without a value is reported to the diagnostics
+	//непустое поле без значения сообщается в диагностику
+	private <V> Component<V> checked(Component<V> component, String field, int index){
+		if(this.diagnostics != null && !field.isEmpty() && !component.hasValue()){
+			this.diagnostics.accept(new Diagnostic(this.recordIndex, this.recordTypeId, index, Diagnostic.Problem.INVALID_VALUE, field));
+		}
+		return component;
+	}
+
+	/**
+	 * Creates a text component from the raw text of a field, escape sequences are decoded (see {@link EscapeSequences}).
+	 * Used by getters of free text fields.
+	 * (Создает текстовый компонент из исходного текста поля, escape-последовательности декодируются (см. {@link EscapeSequences}).
+	 * Используется геттерами полей свободного текста.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return component of the field (компонент поля)
+	 */
+	protected Component<String> textOf(int index){
+		String field = convertedField(index);
+		return new Component<>(() -> unescape(field), this::escape);
+	}
+
+	/**
+	 * Creates a text component of a free text field, delimiters in the text are escaped when the field is written
+	 * (Создает текстовый компонент поля свободного текста, разделители в тексте экранируются при записи поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text text (текст)
+	 * @return component of the field (компонент поля)
+	 */
+	protected Component<String> text(String text){
+		return new Component<>(() -> text, this::escape);
+	}
+
+	/**
+	 * Decodes escape sequences of the text of a field with the delimiters of the record
+	 * (Декодирует escape-последовательности текста поля с разделителями записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param field text of the field (текст поля)
+	 * @return text, the same string if there are no escape sequences (текст, та же строка, если escape-последовательностей нет)
+	 */
+	public String unescape(String field){
+		String escape = this.escapeDelimiter.getValue();
+		if(escape == null || escape.isEmpty()){
+			return field;
+		}
+		return EscapeSequences.unescape(field, delimiter(this.fieldDelimiter), delimiter(this.repeatDelimiter), delimiter(this.componentDelimiter), escape.charAt(0));
+	}
+
+	/**
+	 * Escapes the delimiters of the record in a text
+	 * (Экранирует разделители записи в тексте)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text text (текст)
+	 * @return text of the field, the same string if there are no delimiters (текст поля, та же строка, если разделителей нет)
+	 */
+	public String escape(String text){
+		String escape = this.escapeDelimiter.getValue();
+		if(escape == null || escape.isEmpty()){
+			return text;
+		}
+		return EscapeSequences.escape(text, delimiter(this.fieldDelimiter), delimiter(this.repeatDelimiter), delimiter(this.componentDelimiter), escape.charAt(0));
+	}
+
+	//first character of a delimiter, 0 if the delimiter is not set
+	//первый символ разделителя, 0 если разделитель не задан
+	private static char delimiter(Component<String> delimiter){
+		String value = delimiter.getValue();
+		return value == null || value.isEmpty() ? 0 : value.charAt(0);
+	}
+
+	/**
+	 * Text of a field that getters convert into a component, empty for a field that is not converted
+	 * (see {@link #setConvertedFields(IntPredicate)}), so its component has no value. Used by getters that parse fields themselves.
+	 * (Текст поля, который геттеры преобразуют в компонент, пустой для поля, которое не преобразуется
+	 * (см. {@link #setConvertedFields(IntPredicate)}), поэтому его компонент не имеет значения. Используется геттерами, которые сами разбирают поля.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index field index (индекс поля)
+	 * @return text of the field (текст поля)
+	 */
+	protected String convertedField(int index){
+		if(this.convertedFields != null && !this.convertedFields.test(index)){
+			return "";
+		}
+		return getField(index);
+	}
+
+	/**
+	 * Limits the fields that getters convert into components, dates or enums, the getters of other fields return components
+	 * without a value. The text of the record is not changed: {@link #getField(int)} and {@code toString()} return all fields.
+	 * Used by the parser with a projection.
+	 * (Ограничивает поля, которые геттеры преобразуют в компоненты, даты или перечисления, геттеры остальных полей возвращают
+	 * компоненты без значения. Текст записи не меняется: {@link #getField(int)} и {@code toString()} возвращают все поля.
+	 * Используется парсером с проекцией.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param convertedFields indexes of the converted fields, null - all fields (индексы преобразуемых полей, null - все поля)
+	 */
+	public void setConvertedFields(IntPredicate convertedFields){
+		this.convertedFields = convertedFields;
+	}
+
+	//a field read from the text of the record becomes the canonical value of the dictionary, the text of the record is not changed
+	//поле, читаемое из текста записи, становится каноническим значением словаря, текст записи не меняется
+	void intern(int index, ValueDictionary dictionary){
+		if(index <= 0 || index >= this.fieldCount || isChanged(index)){
+			return;
+		}
+		int start = this.fieldEnds[index - 1] + 1;
+		int end = this.fieldEnds[index];
+		if(start < end){
+			fields()[index] = dictionary.canonical(this.source, start, end);
+		}
+	}
+
+	void setDictionary(ValueDictionary dictionary){
+		this.dictionary = dictionary;
+	}
+
+	void setDiagnostics(int recordIndex, Consumer<Diagnostic> diagnostics){
+		this.recordIndex = recordIndex;
+		this.diagnostics = diagnostics;
+	}
+
+	/**
+	 * Creates a coded (enum) component from the raw text of a field. Used by getters that build components on first access.
+	 * (Создает кодированный (enum) компонент из исходного текста поля. Используется геттерами, создающими компоненты при первом обращении.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param getBy code lookup (поиск по коду)
+	 * @param toStringHandler code to text conversion (преобразование кода в текст)
+	 * @param index field index (индекс поля)
+	 * @return component of the field, an unknown code is reported to the diagnostics (компонент поля, неизвестный код сообщается в диагностику)
+	 */
+	protected <V> Component<V> componentOf(Function<String, V> getBy, Function<V, String> toStringHandler, int index){
+		String field = convertedField(index);
+		return checked(Component.ofCode(getBy.apply(field), toStringHandler), field, index);
 	}
 
     public String getField(int index){
-        String field;
-        try{
-            field = this.fields[index];
-        } catch(ArrayIndexOutOfBoundsException ex) {
-            field = "";
+        if(index < 0 || index >= this.fieldEnds.length){
+            return "";
+        }
+        if((this.dirtyFields & (1L << index)) != 0){
+            String field = encodeField(index);
+            fields()[index] = field == null ? "" : field;
+            this.dirtyFields &= ~(1L << index);
+            if(this.dirtyComponents != null){
+                this.dirtyComponents[index] = null;
+            }
         }
-        return field;
+        return storedField(index);
     }
 
 	public void setSequenceNumber(String sequenceNumber){
-        fields[1] = sequenceNumber;
-		this.sequenceNumber = new Component<>(Integer.class, sequenceNumber);
+        setField(sequenceNumber, 1);
+		this.sequenceNumberParsed = false;
+	}
+
+	/**
+	 * Sets the sequence number without parsing it again
+	 * (Задает порядковый номер без повторного разбора)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param sequenceNumber sequence number (порядковый номер)
+	 */
+	public void setSequenceNumber(int sequenceNumber){
+		setField(Component.ofInt(sequenceNumber), 1);
+		this.sequenceNumber = sequenceNumber;
+		this.sequenceNumberParsed = true;
 	}
 
+	/**
+	 * Sequence number of the record
+	 * (Порядковый номер записи)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return sequence number, 0 if the field is not a number (порядковый номер, 0 если поле не является числом)
+	 */
 	public int getSequenceNumber(){
-		return this.sequenceNumber.getValue();
+		if(!this.sequenceNumberParsed){
+			String field = getField(1);
+			this.sequenceNumber = ((IntComponent) checked(IntComponent.parse(field), field, 1)).getInt();
+			this.sequenceNumberParsed = true;
+		}
+		return this.sequenceNumber;
 	}
 
 	@Override
 	public String toString() {
-		return this.getRecord();
+		StringBuilder returnStr = new StringBuilder();
+		try{
+			writeTo(returnStr);
+		} catch(IOException ex){
+			throw new IllegalStateException("StringBuilder does not throw IOException", ex);
+		}
+		return returnStr.toString();
 	}
 
 }
\ No newline at end of file
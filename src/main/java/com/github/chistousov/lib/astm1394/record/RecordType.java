@@ -66,11 +66,36 @@ public enum RecordType {
         types.put(M.getRecordTypeId(), M);
 	}
 
+	private static final CodeTable<RecordType> table = new CodeTable<>(types, U);
+
 	public static RecordType getBy(String recordTyoeId) {
-		RecordType recordType = types.get(recordTyoeId);
-        if(recordType == null){
-            recordType = U;
-        }
-        return recordType;
+		return table.get(recordTyoeId);
+	}
+
+	/**
+	 * Returns the record type by the first character of a record without creating strings
+	 * (Возвращает тип записи по первому символу записи без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordTypeId first character of a record (первый символ записи)
+	 * @return record type, U if the type is unknown (тип записи, U если тип неизвестен)
+	 */
+	public static RecordType getBy(char recordTypeId) {
+		return table.get(recordTypeId);
+	}
+
+	/**
+	 * Lookup table of record types: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска типов записей: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<RecordType> codes() {
+		return table;
 	}
 }
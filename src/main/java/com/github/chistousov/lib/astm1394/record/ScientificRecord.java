@@ -126,25 +126,25 @@ public class ScientificRecord extends Record{
         }
         setSequenceNumber(getField(1));
 
-		this.analyticalMethod = new Component<>(String.class, getField(2));
-		this.instrumentation = new Component<>(String.class, getField(3));
-		this.reagents = new Component<>(String.class, getField(4));
-		this.unitsOfMeasure = new Component<>(String.class, getField(5));
-		this.qualityControl = new Component<>(String.class, getField(6));
-		this.specimenDescriptor = new Component<>(String.class, getField(7));
-		this.reservedField = new Component<>(String.class, getField(8));
-		this.container = new Component<>(String.class, getField(9));
-		this.specimenId = new Component<>(String.class, getField(10));
-		this.analyte = new Component<>(String.class, getField(11));
-		this.result = new Component<>(String.class, getField(12));
-		this.resultUnits = new Component<>(String.class, getField(13));
-		this.collectionDateAndTime = new Component<>(LocalDateTime.class, getField(14));
-		this.resultDateAndTime = new Component<>(LocalDateTime.class, getField(15));
-		this.analyticalPreprocessingSteps = new Component<>(String.class, getField(16));
-		this.patientDiagnosis = new Component<>(String.class, getField(17));
-		this.patientBirthdate = new Component<>(String.class, getField(18));
-		this.patientSex = new Component<>(String.class, getField(19));
-		this.patientRace = new Component<>(String.class, getField(20));
+		this.analyticalMethod = Component.ofString(getField(2));
+		this.instrumentation = Component.ofString(getField(3));
+		this.reagents = Component.ofString(getField(4));
+		this.unitsOfMeasure = Component.ofString(getField(5));
+		this.qualityControl = Component.ofString(getField(6));
+		this.specimenDescriptor = Component.ofString(getField(7));
+		this.reservedField = Component.ofString(getField(8));
+		this.container = Component.ofString(getField(9));
+		this.specimenId = Component.ofString(getField(10));
+		this.analyte = Component.ofString(getField(11));
+		this.result = Component.ofString(getField(12));
+		this.resultUnits = Component.ofString(getField(13));
+		this.collectionDateAndTime = Component.ofDateTime(getField(14));
+		this.resultDateAndTime = Component.ofDateTime(getField(15));
+		this.analyticalPreprocessingSteps = Component.ofString(getField(16));
+		this.patientDiagnosis = Component.ofString(getField(17));
+		this.patientBirthdate = Component.ofString(getField(18));
+		this.patientSex = Component.ofString(getField(19));
+		this.patientRace = Component.ofString(getField(20));
 	}
 
 }
@@ -0,0 +1,38 @@
+package com.github.chistousov.lib.astm1394.record;
+
+/**
+ * <p>
+ * Text component, see {@link Component#ofString(String)}
+ * (Текстовый компонент, см. {@link Component#ofString(String)})
+ * </p>
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+final class StringComponent extends Component<String> {
+
+	private final String value;
+
+	StringComponent(String value) {
+		this.value = value;
+	}
+
+	@Override
+	public String getValue() {
+		return this.value;
+	}
+
+	@Override
+	boolean hasValue() {
+		return this.value != null;
+	}
+
+	@Override
+	public long getEpochSecond() {
+		return DateTimeParser.INVALID;
+	}
+
+	@Override
+	public String toString() {
+		return this.value == null ? "" : this.value;
+	}
+}
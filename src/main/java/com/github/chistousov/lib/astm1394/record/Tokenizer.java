@@ -0,0 +1,181 @@
+package com.github.chistousov.lib.astm1394.record;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Index-based tokenizer of messages, records, fields, repeats and components.
+ * It walks the input once without regular expressions and without intermediate arrays.
+ * (Токенизатор сообщений, записей, полей, повторов и компонентов на основе индексов.
+ * Проходит по входным данным один раз, без регулярных выражений и без промежуточных массивов.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class Tokenizer {
+
+	private Tokenizer() {}
+
+	/**
+	 * Splits a message into records. Records end with CR or CR LF, empty records are skipped.
+	 * (Разбивает сообщение на записи. Записи заканчиваются CR или CR LF, пустые записи пропускаются.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param message message text (текст сообщения)
+	 * @return records without terminators (записи без завершающих символов)
+	 */
+	public static List<String> splitRecords(String message) {
+		List<String> records = new ArrayList<>();
+
+		int length = message.length();
+		int start = 0;
+		for(int i = 0; i < length; i++){
+			if(message.charAt(i) == '\r'){
+				if(i > start){
+					records.add(message.substring(start, i));
+				}
+				//CR LF is the same as CR
+				//CR LF равносильно CR
+				if(i + 1 < length && message.charAt(i + 1) == '\n'){
+					i++;
+				}
+				start = i + 1;
+			}
+		}
+		if(start < length){
+			records.add(message.substring(start));
+		}
+
+		return records;
+	}
+
+	/**
+	 * Splits a value by a delimiter the same way as {@link String#split(String)} does: trailing empty parts are dropped.
+	 * (Разбивает значение по разделителю так же, как {@link String#split(String)}: пустые части в конце отбрасываются.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value value to split (значение для разбиения)
+	 * @param delimiter field, repeat or component delimiter (разделитель полей, повторов или компонентов)
+	 * @return parts of the value (части значения)
+	 */
+	public static String[] split(String value, char delimiter) {
+		if(value.isEmpty()){
+			return new String[]{ "" };
+		}
+
+		int length = trimTrailingEmpty(value, delimiter);
+		if(length == 0){
+			return new String[0];
+		}
+
+		String[] parts = new String[count(value, delimiter, length) + 1];
+		fill(value, delimiter, length, parts, 0);
+		return parts;
+	}
+
+	/**
+	 * Splits a value by a delimiter into a ready array. Parts that are not present keep their previous values.
+	 * (Разбивает значение по разделителю в готовый массив. Отсутствующие части сохраняют прежние значения.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value value to split (значение для разбиения)
+	 * @param delimiter field, repeat or component delimiter (разделитель полей, повторов или компонентов)
+	 * @param target array for parts (массив для частей)
+	 * @param offset index of the first part in the array (индекс первой части в массиве)
+	 * @return number of parts (количество частей)
+	 * @throws ArrayIndexOutOfBoundsException if a non-empty part does not fit into the array (если непустая часть не помещается в массив)
+	 */
+	public static int splitInto(String value, char delimiter, String[] target, int offset) {
+		if(value.isEmpty()){
+			target[offset] = "";
+			return 1;
+		}
+
+		int length = trimTrailingEmpty(value, delimiter);
+		if(length == 0){
+			return 0;
+		}
+		return fill(value, delimiter, length, target, offset);
+	}
+
+	/**
+	 * Finds the ends of the parts of a value without creating strings: part i is from ends[i - 1] + 1 (0 for the first part)
+	 * to ends[i], trailing empty parts are not counted
+	 * (Находит концы частей значения без создания строк: часть i находится от ends[i - 1] + 1 (0 для первой части)
+	 * до ends[i], пустые части в конце не учитываются)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value value to split (значение для разбиения)
+	 * @param delimiter field, repeat or component delimiter (разделитель полей, повторов или компонентов)
+	 * @param ends array for the ends of parts (массив для концов частей)
+	 * @return number of parts, greater than the length of the array if the parts do not fit into it, the ends of such parts are not stored
+	 * (количество частей, больше длины массива, если части не помещаются в него, концы таких частей не сохраняются)
+	 */
+	public static int fieldEnds(String value, char delimiter, int[] ends) {
+		if(value.isEmpty()){
+			ends[0] = 0;
+			return 1;
+		}
+
+		int length = trimTrailingEmpty(value, delimiter);
+		int count = 0;
+		for(int i = 0; i < length; i++){
+			if(value.charAt(i) == delimiter){
+				if(count < ends.length){
+					ends[count] = i;
+				}
+				count++;
+			}
+		}
+		if(length > 0){
+			if(count < ends.length){
+				ends[count] = length;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	//length of the value without trailing delimiters
+	//длина значения без разделителей в конце
+	private static int trimTrailingEmpty(String value, char delimiter) {
+		int length = value.length();
+		while(length > 0 && value.charAt(length - 1) == delimiter){
+			length--;
+		}
+		return length;
+	}
+
+	private static int count(String value, char delimiter, int length) {
+		int count = 0;
+		for(int i = 0; i < length; i++){
+			if(value.charAt(i) == delimiter){
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int fill(String value, char delimiter, int length, String[] target, int offset) {
+		int index = offset;
+		int start = 0;
+		for(int i = 0; i < length; i++){
+			if(value.charAt(i) == delimiter){
+				target[index++] = start == i ? "" : value.substring(start, i);
+				start = i + 1;
+			}
+		}
+		target[index++] = value.substring(start, length);
+		return index - offset;
+	}
+}
@@ -53,10 +53,10 @@ public class UniversalTestIDField {
      */
 	public UniversalTestIDField(String universalTestID, String universalTestIdName, String universalTestIdType, String manufacturersOrLocalCode){
 		
-		this.universalTestID = new Component<>(String.class, universalTestID);
-		this.universalTestIdName = new Component<>(String.class, universalTestIdName);
-		this.universalTestIdType = new Component<>(String.class, universalTestIdType);
-		this.manufacturersOrLocalCode =  new Component<>(String.class, manufacturersOrLocalCode);
+		this.universalTestID = Component.ofString(universalTestID);
+		this.universalTestIdName = Component.ofString(universalTestIdName);
+		this.universalTestIdType = Component.ofString(universalTestIdType);
+		this.manufacturersOrLocalCode =  Component.ofString(manufacturersOrLocalCode);
 	}
 
 	public String toString(String componentDelimiter){
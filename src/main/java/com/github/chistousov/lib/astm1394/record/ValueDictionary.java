@@ -0,0 +1,249 @@
+package com.github.chistousov.lib.astm1394.record;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Bounded dictionary of values of low cardinality (units, operators, instruments, status codes, dates and times)
+ * that returns one canonical string for equal values. Records keep their text, so a field of the dictionary read from
+ * a record is the canonical string instead of a new substring of every record. Dates and times of canonical values are parsed
+ * once, when the value enters the dictionary, and shared too.
+ * The dictionary is a direct-mapped cache: a value replaces the previous value of its slot, so the memory is bounded.
+ * (Ограниченный словарь значений с малым числом вариантов (единицы, операторы, приборы, коды статусов, даты и время),
+ * который возвращает одну каноническую строку для равных значений. Записи хранят свой текст, поэтому поле словаря, прочитанное
+ * из записи, - каноническая строка вместо новой подстроки каждой записи. Даты и время канонических значений разбираются
+ * один раз, когда значение попадает в словарь, и тоже разделяются.
+ * Словарь - кэш с прямым отображением: значение заменяет предыдущее значение своей ячейки, поэтому память ограничена.)
+ * </p>
+ *
+ * <pre>
+ * MessageParser&lt;...&gt; connectionParser = parser.withDictionary(new ValueDictionary(1024));
+ * </pre>
+ *
+ * <p>
+ * Fields are set by record types with {@link #fields(RecordType, int...)}, by default they are:
+ * H - 4, 9, 11, 12; O - 5, 6, 7, 11, 15, 22, 25, 26; R - 4, 5, 6, 7, 8, 10, 11, 12, 13; C - 2, 4; L - 2.
+ * Slots hold immutable entries of a value with its date and time, and getters only read them, so after its fields are set
+ * the dictionary can be shared by threads: a thread sees either the whole entry of a value or an entry of another value.
+ * (Поля задаются по типам записей методом {@link #fields(RecordType, int...)}, по умолчанию это:
+ * H - 4, 9, 11, 12; O - 5, 6, 7, 11, 15, 22, 25, 26; R - 4, 5, 6, 7, 8, 10, 11, 12, 13; C - 2, 4; L - 2.
+ * Ячейки хранят неизменяемые записи значения с его датой и временем, а геттеры только читают их, поэтому после задания полей
+ * словарь может разделяться потоками: поток видит либо всю запись значения, либо запись другого значения.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class ValueDictionary {
+
+	private final Map<RecordType, int[]> fields = new EnumMap<>(RecordType.class);
+
+	private final int mask;
+	private final Entry[] entries;
+
+	/**
+	 * Creates a dictionary with the default fields
+	 * (Создает словарь с полями по умолчанию)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param capacity maximum number of values, rounded up to a power of two (максимальное количество значений, округляется вверх до степени двойки)
+	 * @throws IllegalArgumentException if the capacity is not positive or greater than 2^30 (если емкость не положительна или больше 2^30)
+	 */
+	public ValueDictionary(int capacity) {
+		if(capacity <= 0 || capacity > (1 << 30)){
+			throw new IllegalArgumentException("Capacity of a dictionary must be from 1 to 2^30");
+		}
+		int size = Integer.highestOneBit(capacity);
+		if(size < capacity){
+			size <<= 1;
+		}
+		this.mask = size - 1;
+		this.entries = new Entry[size];
+
+		fields(RecordType.H, 4, 9, 11, 12);
+		fields(RecordType.O, 5, 6, 7, 11, 15, 22, 25, 26);
+		fields(RecordType.R, 4, 5, 6, 7, 8, 10, 11, 12, 13);
+		fields(RecordType.C, 2, 4);
+		fields(RecordType.L, 2);
+	}
+
+	/**
+	 * Sets the fields of records of the type whose values are made canonical
+	 * (Задает поля записей типа, значения которых делаются каноническими)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param recordType record type (тип записи)
+	 * @param fieldIndexes field indexes, none - no fields (индексы полей, пусто - никакие поля)
+	 * @return this dictionary (этот словарь)
+	 * @throws IllegalArgumentException if a field index is less than 2 (если индекс поля меньше 2)
+	 */
+	public ValueDictionary fields(RecordType recordType, int... fieldIndexes) {
+		for(int fieldIndex : fieldIndexes){
+			if(fieldIndex < 2){
+				throw new IllegalArgumentException("The record type and the sequence number are not values of the dictionary");
+			}
+		}
+		this.fields.put(recordType, fieldIndexes.clone());
+		return this;
+	}
+
+	/**
+	 * Makes the fields of a record read from its text canonical values found by their offsets in the text, the text of the record
+	 * is not changed. Date and time components of the record created later are taken from the dictionary.
+	 * (Делает поля записи, читаемые из ее текста, каноническими значениями, найденными по их смещениям в тексте, текст записи
+	 * не меняется. Компоненты даты и времени записи, созданные позже, берутся из словаря.)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param record record (запись)
+	 * @return the same record (та же запись)
+	 */
+	public <R extends Record> R canonicalize(R record) {
+		int[] fieldIndexes = this.fields.get(record.getRecordType());
+		if(fieldIndexes != null){
+			for(int fieldIndex : fieldIndexes){
+				record.intern(fieldIndex, this);
+			}
+		}
+		record.setDictionary(this);
+		return record;
+	}
+
+	/**
+	 * Canonical instance of a value
+	 * (Канонический экземпляр значения)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value value (значение)
+	 * @return equal canonical value (равное каноническое значение)
+	 */
+	public String canonical(String value) {
+		int slot = slot(value, 0, value.length());
+		Entry entry = this.entries[slot];
+		if(entry != null && entry.value.equals(value)){
+			return entry.value;
+		}
+		this.entries[slot] = new Entry(value);
+		return value;
+	}
+
+	/**
+	 * Canonical instance of a value in a part of the text, a string is created only if the value is not in the dictionary
+	 * (Канонический экземпляр значения в части текста, строка создается, только если значения нет в словаре)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param text text (текст)
+	 * @param start first character of the value (первый символ значения)
+	 * @param end position after the last character of the value (позиция после последнего символа значения)
+	 * @return canonical value (каноническое значение)
+	 */
+	public String canonical(CharSequence text, int start, int end) {
+		int slot = slot(text, start, end);
+		Entry entry = this.entries[slot];
+		if(entry != null && regionEquals(entry.value, text, start, end)){
+			return entry.value;
+		}
+		String value = text.subSequence(start, end).toString();
+		this.entries[slot] = new Entry(value);
+		return value;
+	}
+
+	/**
+	 * Date and time of a value, it is parsed only if the value is not in the dictionary, the dictionary is not changed
+	 * (Дата и время значения, разбирается, только если значения нет в словаре, словарь не меняется)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value YYYYMMDD[HH[MM[SS]]] (YYYYMMDD[HH[MM[SS]]])
+	 * @return seconds since the epoch, {@link DateTimeParser#INVALID} if the value is empty or invalid (секунды с начала эпохи, {@link DateTimeParser#INVALID}, если значение пустое или некорректное)
+	 */
+	public long epochSecond(String value) {
+		Entry entry = entry(value);
+		return entry == null ? DateTimeParser.epochSecond(value) : entry.epochSecond;
+	}
+
+	/**
+	 * Shared date and time of a value, it is parsed only if the value is not in the dictionary, the dictionary is not changed
+	 * (Разделяемые дата и время значения, разбираются, только если значения нет в словаре, словарь не меняется)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value YYYYMMDD[HH[MM[SS]]] (YYYYMMDD[HH[MM[SS]]])
+	 * @return date and time, null if the value is empty or invalid (дата и время, null если значение пустое или некорректное)
+	 */
+	public LocalDateTime dateTime(String value) {
+		Entry entry = entry(value);
+		return entry == null ? DateTimeParser.parseDateTime(value) : entry.dateTime;
+	}
+
+	//date and time component of a value with one lookup: the shared date and time of the entry, a value that is not
+	//in the dictionary is parsed by the component once
+	//компонент даты и времени значения за один поиск: разделяемые дата и время записи, значение, которого нет
+	//в словаре, разбирается компонентом один раз
+	Component<LocalDateTime> dateTimeOf(String value) {
+		Entry entry = entry(value);
+		if(entry == null){
+			return Component.ofDateTime(value);
+		}
+		return new DateTimeComponent(entry.epochSecond, value.length(), entry.dateTime);
+	}
+
+	//entry of the value, null if the value is not in the dictionary
+	//запись значения, null если значения нет в словаре
+	private Entry entry(String value) {
+		Entry entry = this.entries[slot(value, 0, value.length())];
+		return entry != null && entry.value.equals(value) ? entry : null;
+	}
+
+	//slot of the hash of the value, the same hash as String.hashCode()
+	//ячейка хэша значения, тот же хэш, что у String.hashCode()
+	private int slot(CharSequence text, int start, int end) {
+		int hash = 0;
+		for(int i = start; i < end; i++){
+			hash = 31 * hash + text.charAt(i);
+		}
+		return (hash ^ (hash >>> 16)) & this.mask;
+	}
+
+	private static boolean regionEquals(String value, CharSequence text, int start, int end) {
+		if(value.length() != end - start){
+			return false;
+		}
+		for(int i = start; i < end; i++){
+			if(value.charAt(i - start) != text.charAt(i)){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * Canonical value and its date and time parsed when it enters the dictionary
+	 * (Каноническое значение и его дата и время, разобранные при попадании в словарь)
+	 */
+	private static final class Entry {
+
+		private final String value;
+		private final long epochSecond;
+		private final LocalDateTime dateTime;
+
+		private Entry(String value) {
+			this.value = value;
+			this.epochSecond = DateTimeParser.epochSecond(value);
+			this.dateTime = DateTimeParser.toDateTime(this.epochSecond);
+		}
+	}
+}
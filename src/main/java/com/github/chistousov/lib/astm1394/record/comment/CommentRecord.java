@@ -41,9 +41,9 @@ public class CommentRecord extends Record {
         }
         setSequenceNumber(getField(1));
 
-		this.commentSource = new Component<>(() -> CommentSource.getBy(getField(2)), CommentSource::getIdForComponent);
-		this.commentText = new Component<>(String.class, getField(3));
-		this.commentType = new Component<>(() -> CommentType.getBy(getField(4)), CommentType::getIdForComponent);
+		this.commentSource = Component.ofCode(CommentSource.getBy(getField(2)), CommentSource::getIdForComponent);
+		this.commentText = textOf(3);
+		this.commentType = Component.ofCode(CommentType.getBy(getField(4)), CommentType::getIdForComponent);
 		
 	}
 
@@ -52,10 +52,8 @@ public class CommentRecord extends Record {
 	}
 
 	public void setCommentSource(CommentSource commentSource) {
-		Component<CommentSource> commentSourceComponent = new Component<>(
-			() -> commentSource, CommentSource::getIdForComponent
-		);
-		setField(commentSourceComponent.toString(), 2);
+		Component<CommentSource> commentSourceComponent = Component.ofCode(commentSource, CommentSource::getIdForComponent);
+		setField(commentSourceComponent, 2);
 		this.commentSource = commentSourceComponent;
 	}
 
@@ -64,8 +62,8 @@ public class CommentRecord extends Record {
 	}
 
 	public void setCommentText(String commentText) {
-		Component<String> commentTextComponent = new Component<>(String.class, commentText);
-		setField(commentTextComponent.toString(), 3);
+		Component<String> commentTextComponent = text(commentText);
+		setField(commentTextComponent, 3);
 		this.commentText = commentTextComponent;
 	}
 
@@ -74,10 +72,8 @@ public class CommentRecord extends Record {
 	}
 
 	public void setCommentType(CommentType commentType) {
-		Component<CommentType> commentTypeComponent = new Component<>(
-			() -> commentType, CommentType::getIdForComponent
-		);
-		setField(commentTypeComponent.toString(), 4);
+		Component<CommentType> commentTypeComponent = Component.ofCode(commentType, CommentType::getIdForComponent);
+		setField(commentTypeComponent, 4);
 		this.commentType = commentTypeComponent;
 	}
 
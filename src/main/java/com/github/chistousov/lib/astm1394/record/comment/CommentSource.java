@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.comment;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 public enum CommentSource {
 	UNDEFINED("U", "Undefined", "неопределенный"),
 	P("P", "practice", "практический комментарий"),
@@ -52,11 +54,22 @@ public enum CommentSource {
 		commentSources.put(I.getId(), I);	
 	}
 
+	private static final CodeTable<CommentSource> table = new CodeTable<>(commentSources, UNDEFINED);
+
 	public static CommentSource getBy(String id) {
-        CommentSource commentSource = commentSources.get(id);
-        if(commentSource == null){
-            commentSource = UNDEFINED;
-        }
-        return commentSource;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of comment sources: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска источников комментариев: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<CommentSource> codes() {
+		return table;
 	}
 }
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.comment;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 public enum CommentType {
 	UNDEFINED("U", "Undefined", "неопределенный"),
 	G("G", "generic/free result comment", "общий/свободный комментарий результата"),
@@ -56,11 +58,22 @@ public enum CommentType {
 		commentTypes.put(I.getId(), I);
 	}
 
+	private static final CodeTable<CommentType> table = new CodeTable<>(commentTypes, UNDEFINED);
+
 	public static CommentType getBy(String id) {
-        CommentType commentType = commentTypes.get(id);
-        if(commentType == null){
-            commentType = UNDEFINED;
-        }
-        return commentType;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of comment types: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска типов комментариев: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<CommentType> codes() {
+		return table;
 	}
 }
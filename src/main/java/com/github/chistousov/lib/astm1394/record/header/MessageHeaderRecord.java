@@ -3,7 +3,7 @@ package com.github.chistousov.lib.astm1394.record.header;
 import java.time.LocalDateTime;
 
 import com.github.chistousov.lib.astm1394.record.Component;
-import com.github.chistousov.lib.astm1394.record.GeneralConsiderations;
+import com.github.chistousov.lib.astm1394.record.DateTimeParser;
 import com.github.chistousov.lib.astm1394.record.Record;
 import com.github.chistousov.lib.astm1394.record.RecordType;
 
@@ -138,20 +138,20 @@ public class MessageHeaderRecord extends Record {
 		setField(getRepeatDelimiter().getValue() + getComponentDelimiter().getValue() + getEscapeDelimiter().getValue(), 1);
 
 
-        this.messageControlId = new Component<>(String.class, getField(2));
-        this.accessPassword = new Component<>(String.class, getField(3));
-        this.senderNameOrId = new Component<>(String.class, getField(4));
-        this.senderStreetAddress = new Component<>(String.class, getField(5));
-        this.reservedField = new Component<>(String.class, getField(6));
-        this.senderTelephoneNumber =  new Component<>(String.class, getField(7));
-        this.characteristicsOfSender =  new Component<>(String.class, getField(8));
-        this.receiverId = new Component<>(String.class, getField(9));
-        this.commentOrSpecialInstructions = new Component<>(String.class, getField(10));
+        this.messageControlId = Component.ofString(getField(2));
+        this.accessPassword = Component.ofString(getField(3));
+        this.senderNameOrId = Component.ofString(getField(4));
+        this.senderStreetAddress = Component.ofString(getField(5));
+        this.reservedField = Component.ofString(getField(6));
+        this.senderTelephoneNumber =  Component.ofString(getField(7));
+        this.characteristicsOfSender =  Component.ofString(getField(8));
+        this.receiverId = Component.ofString(getField(9));
+        this.commentOrSpecialInstructions = Component.ofString(getField(10));
 
-        this.processingId = new Component<>(() -> ProcessingId.getBy(getField(11)), ProcessingId::getIdForComponent);
+        this.processingId = Component.ofCode(ProcessingId.getBy(getField(11)), ProcessingId::getIdForComponent);
 
-        this.versionNumber = new Component<>(String.class, getField(12));
-        this.dateAndTimeOfMessage = new Component<>(LocalDateTime.class, getField(13));
+        this.versionNumber = Component.ofString(getField(12));
+        this.dateAndTimeOfMessage = Component.ofDateTime(getField(13));
 
     }
 
@@ -189,8 +189,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setMessageControlId(String messageControlId) {
-		Component<String> messageControlIdComponent = new Component<>(String.class, messageControlId);
-		setField(messageControlIdComponent.toString(), 2);
+		Component<String> messageControlIdComponent = Component.ofString(messageControlId);
+		setField(messageControlIdComponent, 2);
 		this.messageControlId = messageControlIdComponent;
 	}
 
@@ -227,8 +227,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setAccessPassword(String accessPassword) {
-		Component<String> accessPasswordComponent = new Component<>(String.class, accessPassword);
-		setField(accessPasswordComponent.toString(), 3);
+		Component<String> accessPasswordComponent = Component.ofString(accessPassword);
+		setField(accessPasswordComponent, 3);
 		this.accessPassword = accessPasswordComponent;
 	}
 
@@ -264,8 +264,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setSenderNameOrId(String senderNameOrId) {
-		Component<String> senderNameOrIdComponent = new Component<>(String.class, senderNameOrId);
-		setField(senderNameOrIdComponent.toString(), 4);
+		Component<String> senderNameOrIdComponent = Component.ofString(senderNameOrId);
+		setField(senderNameOrIdComponent, 4);
 		this.senderNameOrId = senderNameOrIdComponent;
 	}
 
@@ -294,8 +294,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setSenderStreetAddress(String senderStreetAddress) {
-		Component<String> senderStreetAddressComponent = new Component<>(String.class, senderStreetAddress);
-		setField(senderStreetAddressComponent.toString(), 5);
+		Component<String> senderStreetAddressComponent = Component.ofString(senderStreetAddress);
+		setField(senderStreetAddressComponent, 5);
 		this.senderStreetAddress = senderStreetAddressComponent;
 	}
 
@@ -324,8 +324,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setReservedField(String reservedField) {
-		Component<String> reservedFieldComponent = new Component<>(String.class, reservedField);
-		setField(reservedFieldComponent.toString(), 6);
+		Component<String> reservedFieldComponent = Component.ofString(reservedField);
+		setField(reservedFieldComponent, 6);
 		this.reservedField = reservedFieldComponent;
 	}
 
@@ -354,8 +354,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setSenderTelephoneNumber(String senderTelephoneNumber) {
-		Component<String> senderTelephoneNumberComponent = new Component<>(String.class, senderTelephoneNumber);
-		setField(senderTelephoneNumberComponent.toString(), 7);
+		Component<String> senderTelephoneNumberComponent = Component.ofString(senderTelephoneNumber);
+		setField(senderTelephoneNumberComponent, 7);
 		this.senderTelephoneNumber = senderTelephoneNumberComponent;
 	}
 
@@ -384,8 +384,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setCharacteristicsOfSender(String characteristicsOfSender) {
-		Component<String> characteristicsOfSenderComponent = new Component<>(String.class, characteristicsOfSender);
-		setField(characteristicsOfSenderComponent.toString(), 8);
+		Component<String> characteristicsOfSenderComponent = Component.ofString(characteristicsOfSender);
+		setField(characteristicsOfSenderComponent, 8);
 		this.characteristicsOfSender = characteristicsOfSenderComponent;
 	}
 
@@ -414,8 +414,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setReceiverId(String receiverId) {
-		Component<String> receiverIdComponent = new Component<>(String.class, receiverId);
-		setField(receiverIdComponent.toString(), 9);
+		Component<String> receiverIdComponent = Component.ofString(receiverId);
+		setField(receiverIdComponent, 9);
 		this.receiverId = receiverIdComponent;
 	}
 
@@ -444,8 +444,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setCommentOrSpecialInstructions(String commentOrSpecialInstructions) {
-		Component<String> commentOrSpecialInstructionsComponent = new Component<>(String.class, commentOrSpecialInstructions);
-		setField(commentOrSpecialInstructionsComponent.toString(), 10);
+		Component<String> commentOrSpecialInstructionsComponent = Component.ofString(commentOrSpecialInstructions);
+		setField(commentOrSpecialInstructionsComponent, 10);
 		this.commentOrSpecialInstructions = commentOrSpecialInstructionsComponent;
 	}
 
@@ -474,10 +474,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setProcessingId(ProcessingId processingId) {
-		Component<ProcessingId> processingIdComponent = new Component<>(
-			() -> processingId, ProcessingId::getIdForComponent
-		);
-		setField(processingIdComponent.toString(), 11);
+		Component<ProcessingId> processingIdComponent = Component.ofCode(processingId, ProcessingId::getIdForComponent);
+		setField(processingIdComponent, 11);
 		this.processingId = processingIdComponent;
 	}
 
@@ -506,8 +504,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setVersionNumber(String versionNumber) {
-		Component<String> versionNumberComponent = new Component<>(String.class, versionNumber);
-		setField(versionNumberComponent.toString(), 12);
+		Component<String> versionNumberComponent = Component.ofString(versionNumber);
+		setField(versionNumberComponent, 12);
 		this.versionNumber = versionNumberComponent;
 	}
 
@@ -526,6 +524,19 @@ public class MessageHeaderRecord extends Record {
 		return dateAndTimeOfMessage.getValue();
 	}
 
+	/**
+	 * {@link #getDateAndTimeOfMessage()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getDateAndTimeOfMessage()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getDateAndTimeOfMessageEpochSecond() {
+		return dateAndTimeOfMessage.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * This field contains the date and time the message was created using the format specified in Section 5.6.2.
@@ -537,8 +548,8 @@ public class MessageHeaderRecord extends Record {
      * 
      */
 	public void setDateAndTimeOfMessage(LocalDateTime dateAndTimeOfMessage) {
-		Component<LocalDateTime> dateAndTimeOfMessageComponent = new Component<>(LocalDateTime.class, dateAndTimeOfMessage.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(dateAndTimeOfMessageComponent.toString(), 13);
+		Component<LocalDateTime> dateAndTimeOfMessageComponent = Component.ofDateTime(dateAndTimeOfMessage);
+		setField(dateAndTimeOfMessageComponent, 13);
 		this.dateAndTimeOfMessage = dateAndTimeOfMessageComponent;
 	}
 
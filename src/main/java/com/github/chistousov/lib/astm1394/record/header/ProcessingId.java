@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.header;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * The enum store-handling identifier indicates how this message should be processed.
@@ -63,11 +65,22 @@ public enum ProcessingId {
         processingIds.put(Q.getId(), Q);
 	}
 
+	private static final CodeTable<ProcessingId> table = new CodeTable<>(processingIds, U);
+
 	public static ProcessingId getBy(String id) {
-        ProcessingId processingId = processingIds.get(id);
-        if(processingId == null){
-            processingId = U;
-        }
-        return processingId;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of processing identifiers: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска идентификаторов обработки: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<ProcessingId> codes() {
+		return table;
 	}
 }
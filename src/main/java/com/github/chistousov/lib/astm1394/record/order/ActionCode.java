@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.order;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Enum  - This field should indicate the actions to be taken on samples that accompany or precede this request.
@@ -70,11 +72,22 @@ public enum ActionCode {
 		actionCodes.put(Q.getId(), Q);
 	}
 
+	private static final CodeTable<ActionCode> table = new CodeTable<>(actionCodes, U);
+
 	public static ActionCode getBy(String id) {
-        ActionCode actionCode = actionCodes.get(id);
-        if(actionCode == null){
-            actionCode = U;
-        }
-        return actionCode;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of action codes: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска кодов действий: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<ActionCode> codes() {
+		return table;
 	}
 }
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.order;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Enum stores - write priority
@@ -66,11 +68,22 @@ public enum Priority {
 		priorities.put(P.getId(), P);
 	}
 
+	private static final CodeTable<Priority> table = new CodeTable<>(priorities, U);
+
 	public static Priority getBy(String id) {
-        Priority priority = priorities.get(id);
-        if(priority == null){
-            priority = U;
-        }
-        return priority;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of priorities: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска приоритетов: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<Priority> codes() {
+		return table;
 	}
 }
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.order;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Enum stores - report type
@@ -73,11 +75,22 @@ public enum ReportType {
 		types.put(Q.getId(), Q);
 	}
 
+	private static final CodeTable<ReportType> table = new CodeTable<>(types, U);
+
 	public static ReportType getBy(String id) {
-        ReportType type = types.get(id);
-        if(type == null){
-            type = U;
-        }
-        return type;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of report types: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска типов отчетов: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<ReportType> codes() {
+		return table;
 	}
 }
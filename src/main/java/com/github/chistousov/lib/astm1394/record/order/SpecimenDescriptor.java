@@ -25,8 +25,8 @@ public class SpecimenDescriptor {
 	private Component<String> specimenSource;
 
 	public SpecimenDescriptor(String specimenType, String specimenSource){
-		this.specimenType = new Component<>(String.class, specimenType);
-		this.specimenSource = new Component<>(String.class, specimenSource);
+		this.specimenType = Component.ofString(specimenType);
+		this.specimenSource = Component.ofString(specimenSource);
 	}
 
 	public String getSpecimenSource() {
@@ -34,7 +34,7 @@ public class SpecimenDescriptor {
 	}
 
 	public void setSpecimenSource(String specimenSource) {
-		this.specimenSource = new Component<>(String.class, specimenSource);
+		this.specimenSource = Component.ofString(specimenSource);
 	}
 
 	public String getSpecimenType() {
@@ -42,6 +42,6 @@ public class SpecimenDescriptor {
 	}
 
 	public void setSpecimenType(String specimenType) {
-		this.specimenType = new Component<>(String.class, specimenType);
+		this.specimenType = Component.ofString(specimenType);
 	}
 }
@@ -1,16 +1,18 @@
 package com.github.chistousov.lib.astm1394.record.order;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import com.github.chistousov.lib.astm1394.record.Component;
-import com.github.chistousov.lib.astm1394.record.GeneralConsiderations;
+import com.github.chistousov.lib.astm1394.record.DateTimeParser;
+import com.github.chistousov.lib.astm1394.record.IReusable;
 import com.github.chistousov.lib.astm1394.record.IWithComments;
 import com.github.chistousov.lib.astm1394.record.Record;
 import com.github.chistousov.lib.astm1394.record.RecordType;
+import com.github.chistousov.lib.astm1394.record.Tokenizer;
 import com.github.chistousov.lib.astm1394.record.UniversalTestIDField;
 import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
 
@@ -35,7 +37,7 @@ import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
  * @author Nikita Chistousov (chistousov.nik@yandex.ru)
  * @since 8
  */
-public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends Record implements IWithComments<T1> {
+public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends Record implements IWithComments<T1>, IReusable {
     
 
 
@@ -54,6 +56,11 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
 	 */
 	private UniversalTestIDField[] universalTestID;
 
+	/*
+	 * Поле идентификатора теста уже разобрано
+	 */
+	private boolean universalTestIDParsed;
+
 	/*
 	 * Коды приоритета тестирования
 	 */
@@ -186,6 +193,10 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
 	//зависимый результаты
 	private List<T> resultRecords;
 
+	//emptied list of results of the previous use of the record
+	//опустошенный список результатов предыдущего использования записи
+	private List<T> recycledResultRecords;
+
 	/**
 	 * <p>
 	 * Запись заказа на тестирование определяет атрибуты конкретного запроса на услуги клинического прибора и содержит всю информацию о образцах. Информационная система сгенерирует запись заказа, чтобы запросить данный тест, батарею или набор тестов. Информация в записи заказа обычно относится к одному образцу. Однако не всегда существует однозначная связь между образцом и заказанными испытаниями. Разные батареи для испытаний обычно заказываются в разном порядке, даже если они могут быть выполнены на одном образце. В этом случае информация об образце дублируется в каждой записи заказа, в которой используется этот образец.
@@ -228,59 +239,55 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
             throw new IllegalArgumentException("Сообщение не начинается с O, поэтому не является записью задания на тест");
         }
         setSequenceNumber(getField(1));
+    }
 
-		this.specimenID = new Component<>(String.class, getField(2));
-		this.instrumentSpecimenID = new Component<>(String.class, getField(3));
+	@Override
+	public void reset(String recordString, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter) {
+		refill(recordString, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter);
+
+		this.specimenID = null;
+		this.instrumentSpecimenID = null;
+		this.universalTestID = null;
+		this.priorities = null;
+		this.requestedOrOrderedDateAndTime = null;
+		this.specimenCollectionDateAndTime = null;
+		this.collectionEndTime = null;
+		this.collectionVolume = null;
+		this.collectorId = null;
+		this.actionCode = null;
+		this.dangerCode = null;
+		this.relevantClinicalInformation = null;
+		this.dateTimeSpecimenReceived = null;
+		this.specimenDescriptor = null;
+		this.orderingPhysician = null;
+		this.physiciansTelephoneNumber = null;
+		this.userFieldNumber1 = null;
+		this.userFieldNumber2 = null;
+		this.laboratoryFieldNumber1 = null;
+		this.laboratoryFieldNumber2 = null;
+		this.dateTimeResultsReportedOrLastModified = null;
+		this.instrumentChargeToInformationSystem = null;
+		this.instrumentSectionId = null;
+		this.reportType = null;
+		this.reservedField = null;
+		this.locationOfSpecimenCollection = null;
+		this.nosocomialInfectionFlag = null;
+		this.specimenService = null;
+		this.specimenInstitution = null;
+		this.universalTestIDParsed = false;
 
-		//парсинг повторяющегося поля с несколькими компонентами
-		String field4 = getField(4);
-		if(!field4.equals("")){
-			String[] repeatFieldsUniversalTestID = field4.split("\\" + repeatDelimiter);
-			universalTestID  = new UniversalTestIDField[repeatFieldsUniversalTestID.length];
-	
-			for(int i =0; i < repeatFieldsUniversalTestID.length; i++){
-				String[] components = repeatFieldsUniversalTestID[i].split("\\" + componentDelimiter);
-				universalTestID[i] = new UniversalTestIDField(components[0], components[1], components[2], components[3]);
-			}
+		if(this.resultRecords != null){
+			this.resultRecords.clear();
+			this.recycledResultRecords = this.resultRecords;
+			this.resultRecords = null;
 		}
-		
-
-
-		
-		String[] prioritiesArrayStr = getField(5).split("\\" + repeatDelimiter);
-		priorities = new ArrayList<>();
 
-		for(int i = 0; i < prioritiesArrayStr.length; i++) {
-			final int ii = i;
-			priorities.add(new Component<>(() -> Priority.getBy(prioritiesArrayStr[ii]), Priority::getIdForComponent));
+		if(this.commentRecords != null){
+			this.commentRecords.clear();
+			this.recycledCommentRecords = this.commentRecords;
+			this.commentRecords = null;
 		}
-
-		this.requestedOrOrderedDateAndTime = new Component<>(LocalDateTime.class, getField(6));
-		this.specimenCollectionDateAndTime = new Component<>(LocalDateTime.class, getField(7));
-		this.collectionEndTime = new Component<>(LocalDateTime.class, getField(8));
-		this.collectionVolume = new Component<>(String.class, getField(9));
-		this.collectorId = new Component<>(String.class, getField(10));
-		this.actionCode = new Component<>(() -> ActionCode.getBy(getField(11)), ActionCode::getIdForComponent);
-		this.dangerCode = new Component<>(String.class, getField(12));
-		this.relevantClinicalInformation = new Component<>(String.class, getField(13));
-		this.dateTimeSpecimenReceived = new Component<>(LocalDateTime.class, getField(14));
-		this.specimenDescriptor = new Component<>(String.class, getField(15));
-		this.orderingPhysician = new Component<>(String.class, getField(16));
-		this.physiciansTelephoneNumber = new Component<>(String.class, getField(17));
-		this.userFieldNumber1 = new Component<>(String.class, getField(18));
-		this.userFieldNumber2 = new Component<>(String.class, getField(19));
-		this.laboratoryFieldNumber1 = new Component<>(String.class, getField(20));
-		this.laboratoryFieldNumber2 = new Component<>(String.class, getField(21));
-		this.dateTimeResultsReportedOrLastModified = new Component<>(LocalDateTime.class, getField(22));
-		this.instrumentChargeToInformationSystem = new Component<>(String.class, getField(23));
-		this.instrumentSectionId = new Component<>(String.class, getField(24));
-		this.reportType = new Component<>(() -> ReportType.getBy(getField(25)),  ReportType::getIdForComponent);
-		this.reservedField = new Component<>(String.class, getField(26));
-		this.locationOfSpecimenCollection = new Component<>(String.class, getField(27));
-		this.nosocomialInfectionFlag = new Component<>(String.class, getField(28));
-		this.specimenService = new Component<>(String.class, getField(29));
-		this.specimenInstitution = new Component<>(String.class, getField(30));
-    }
+	}
 
 	/**
 	 * <p>
@@ -293,9 +300,10 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      */
 	public void addResult(T resultRecord){
 		if(this.resultRecords == null){
-			this.resultRecords = new ArrayList<>();
+			this.resultRecords = this.recycledResultRecords != null ? this.recycledResultRecords : new ArrayList<>();
+			this.recycledResultRecords = null;
 		}
-		resultRecord.setSequenceNumber(String.valueOf(this.resultRecords.size() + 1));
+		resultRecord.setSequenceNumber(this.resultRecords.size() + 1);
 		this.resultRecords.add(resultRecord);
 	}
 
@@ -313,20 +321,14 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
 	}
 
 	@Override
-	public String toString() {
-		StringBuilder returnStr = new StringBuilder();
-		
-		returnStr.append(this.getRecord());
-
-		if(this.commentRecords != null){
-			this.commentRecords.forEach(commentRecord -> returnStr.append(commentRecord.toString()));
-		}
+	public void writeTo(Appendable out) throws IOException {
+		super.writeTo(out);
 
 		if(this.resultRecords != null){
-			this.resultRecords.forEach(resultRecord -> returnStr.append(resultRecord.toString()));
+			for(T resultRecord : this.resultRecords){
+				resultRecord.writeTo(out);
+			}
 		}
-
-		return returnStr.toString();
 	}
 
 	/**
@@ -339,6 +341,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getSpecimenID() {
+		if(specimenID == null){
+			specimenID = stringOf(2);
+		}
 		return specimenID.getValue();
 	}
 
@@ -352,8 +357,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setSpecimenID(String specimenID) {
-		Component<String> specimenIDComponent = new Component<>(String.class, specimenID);
-		setField(specimenIDComponent.toString(), 2);
+		Component<String> specimenIDComponent = Component.ofString(specimenID);
+		setField(specimenIDComponent, 2);
 		this.specimenID = specimenIDComponent;
 	}
 
@@ -367,6 +372,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getInstrumentSpecimenID() {
+		if(instrumentSpecimenID == null){
+			instrumentSpecimenID = stringOf(3);
+		}
 		return instrumentSpecimenID.getValue();
 	}
 
@@ -380,8 +388,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setInstrumentSpecimenID(String instrumentSpecimenID) {
-		Component<String> instrumentSpecimenIDComponent = new Component<>(String.class, instrumentSpecimenID);
-		setField(instrumentSpecimenIDComponent.toString(), 3);
+		Component<String> instrumentSpecimenIDComponent = Component.ofString(instrumentSpecimenID);
+		setField(instrumentSpecimenIDComponent, 3);
 		this.instrumentSpecimenID = instrumentSpecimenIDComponent;
 	}
 
@@ -395,6 +403,21 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public UniversalTestIDField[] getUniversalTestID() {
+		if(!this.universalTestIDParsed){
+			this.universalTestIDParsed = true;
+
+			//парсинг повторяющегося поля с несколькими компонентами
+			String field4 = convertedField(4);
+			if(!field4.equals("")){
+				String[] repeatFieldsUniversalTestID = Tokenizer.split(field4, getRepeatDelimiter().getValue().charAt(0));
+				universalTestID  = new UniversalTestIDField[repeatFieldsUniversalTestID.length];
+		
+				for(int i =0; i < repeatFieldsUniversalTestID.length; i++){
+					String[] components = Tokenizer.split(repeatFieldsUniversalTestID[i], getComponentDelimiter().getValue().charAt(0));
+					universalTestID[i] = new UniversalTestIDField(components[0], components[1], components[2], components[3]);
+				}
+			}
+		}
 		return universalTestID;
 	}
 
@@ -408,14 +431,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setUniversalTestID(UniversalTestIDField[] universalTestID) {
+		this.universalTestIDParsed = true;
 		this.universalTestID = universalTestID;
-		
-		String[] fieldStr = new String[this.universalTestID.length];
-		for(int i = 0; i < this.universalTestID.length; i++) {
-			fieldStr[i] = universalTestID[i].toString(getComponentDelimiter().getValue());
-		}
-		setField(String.join(this.getRepeatDelimiter().toString(), Arrays.asList(fieldStr)), 4);
-
+		markDirty(4);
 	}
 
 	/**
@@ -428,6 +446,14 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public List<Priority> getPriorities() {
+		if(priorities == null){
+			String[] prioritiesArrayStr = Tokenizer.split(convertedField(5), getRepeatDelimiter().getValue().charAt(0));
+			priorities = new ArrayList<>();
+
+			for(String priority : prioritiesArrayStr) {
+				priorities.add(Component.ofCode(Priority.getBy(priority), Priority::getIdForComponent));
+			}
+		}
 		return priorities.stream().map(Component::getValue).collect(Collectors.toList());
 	}
 
@@ -442,11 +468,37 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      */
 	public void setPriorities(List<Priority> priorities) {
 		
-		this.priorities = priorities.stream().map(pr -> new Component<>(() -> pr, Priority::getIdForComponent)).collect(Collectors.toList());
-
-		List<String> prioritiesStrList = this.priorities.stream().map(Component::toString).collect(Collectors.toList());
+		this.priorities = new ArrayList<>(priorities.size());
+		for(Priority priority : priorities){
+			this.priorities.add(Component.ofCode(priority, Priority::getIdForComponent));
+		}
+		markDirty(5);
+	}
 
-		setField(String.join("\\" + this.getRepeatDelimiter().toString(), prioritiesStrList), 5);
+	@Override
+	protected String encodeField(int index) {
+		if(index == 4){
+			String componentDelimiter = getComponentDelimiter().getValue();
+			StringBuilder field = new StringBuilder();
+			for(int i = 0; i < this.universalTestID.length; i++){
+				if(i > 0){
+					field.append(getRepeatDelimiter().getValue());
+				}
+				field.append(this.universalTestID[i].toString(componentDelimiter));
+			}
+			return field.toString();
+		}
+		if(index == 5){
+			StringBuilder field = new StringBuilder();
+			for(int i = 0; i < this.priorities.size(); i++){
+				if(i > 0){
+					field.append('\\').append(getRepeatDelimiter().getValue());
+				}
+				field.append(this.priorities.get(i).toString());
+			}
+			return field.toString();
+		}
+		return super.encodeField(index);
 	}
 
 	/**
@@ -459,9 +511,28 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public LocalDateTime getRequestedOrOrderedDateAndTime() {
+		if(requestedOrOrderedDateAndTime == null){
+			requestedOrOrderedDateAndTime = dateTimeOf(6);
+		}
 		return requestedOrOrderedDateAndTime.getValue();
 	}
 
+	/**
+	 * {@link #getRequestedOrOrderedDateAndTime()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getRequestedOrOrderedDateAndTime()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getRequestedOrOrderedDateAndTimeEpochSecond() {
+		if(requestedOrOrderedDateAndTime == null){
+			requestedOrOrderedDateAndTime = dateTimeOf(6);
+		}
+		return requestedOrOrderedDateAndTime.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * Содержимое этого поля должно быть представлено, как указано в разделе 5.6.2, и будет обозначать дату и время, когда заказ на тестирование следует считать заказанным. Обычно это дата и время регистрации заказа. Это дата и время, относительно которых следует рассматривать приоритеты. Если служба заказа желает, чтобы тест проводился в определенное время в будущем, например, тест должен быть проведен через два дня в 20:00, здесь должны быть указаны будущая дата и время. Обратите внимание, что здесь должны быть записаны данные заголовка сообщения, а также будущая дата и время. Кроме того, обратите внимание, что дата и время записи заголовка сообщения (см. Раздел 6.14) указывают время, когда приказ был передан на инструмент или от него.
@@ -472,8 +543,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setRequestedOrOrderedDateAndTime(LocalDateTime requestedOrOrderedDateAndTime) {
-		Component<LocalDateTime> requestedOrOrderedDateAndTimeComponent = new Component<>(LocalDateTime.class, requestedOrOrderedDateAndTime.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(requestedOrOrderedDateAndTimeComponent.toString(), 6);
+		Component<LocalDateTime> requestedOrOrderedDateAndTimeComponent = Component.ofDateTime(requestedOrOrderedDateAndTime);
+		setField(requestedOrOrderedDateAndTimeComponent, 6);
 		this.requestedOrOrderedDateAndTime = requestedOrOrderedDateAndTimeComponent;
 	}
 
@@ -487,9 +558,28 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public LocalDateTime getSpecimenCollectionDateAndTime() {
+		if(specimenCollectionDateAndTime == null){
+			specimenCollectionDateAndTime = dateTimeOf(7);
+		}
 		return specimenCollectionDateAndTime.getValue();
 	}
 
+	/**
+	 * {@link #getSpecimenCollectionDateAndTime()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getSpecimenCollectionDateAndTime()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getSpecimenCollectionDateAndTimeEpochSecond() {
+		if(specimenCollectionDateAndTime == null){
+			specimenCollectionDateAndTime = dateTimeOf(7);
+		}
+		return specimenCollectionDateAndTime.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * Это поле должно отображать фактическое время сбора или получения образца.
@@ -500,8 +590,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setSpecimenCollectionDateAndTime(LocalDateTime specimenCollectionDateAndTime) {
-		Component<LocalDateTime> specimenCollectionDateAndTimeComponent = new Component<>(LocalDateTime.class, specimenCollectionDateAndTime.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(specimenCollectionDateAndTimeComponent.toString(), 7);
+		Component<LocalDateTime> specimenCollectionDateAndTimeComponent = Component.ofDateTime(specimenCollectionDateAndTime);
+		setField(specimenCollectionDateAndTimeComponent, 7);
 		this.specimenCollectionDateAndTime = specimenCollectionDateAndTimeComponent;
 	}
 
@@ -515,9 +605,28 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public LocalDateTime getCollectionEndTime() {
+		if(collectionEndTime == null){
+			collectionEndTime = dateTimeOf(8);
+		}
 		return collectionEndTime.getValue();
 	}
 
+	/**
+	 * {@link #getCollectionEndTime()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getCollectionEndTime()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getCollectionEndTimeEpochSecond() {
+		if(collectionEndTime == null){
+			collectionEndTime = dateTimeOf(8);
+		}
+		return collectionEndTime.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 *  Это поле должно содержать дату и время окончания сбора пробы по времени, например, 24-часового сбора мочи. Значение указывается в соответствии с разделом 5.6.2.
@@ -528,8 +637,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setCollectionEndTime(LocalDateTime collectionEndTime) {
-		Component<LocalDateTime> collectionEndTimeComponent = new Component<>(LocalDateTime.class, collectionEndTime.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(collectionEndTimeComponent.toString(), 8);
+		Component<LocalDateTime> collectionEndTimeComponent = Component.ofDateTime(collectionEndTime);
+		setField(collectionEndTimeComponent, 8);
 		this.collectionEndTime = collectionEndTimeComponent;
 	}
 
@@ -543,6 +652,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getCollectionVolume() {
+		if(collectionVolume == null){
+			collectionVolume = stringOf(9);
+		}
 		return collectionVolume.getValue();
 	}
 
@@ -556,8 +668,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setCollectionVolume(String collectionVolume) {
-		Component<String> collectionVolumeComponent = new Component<>(String.class, collectionVolume);
-		setField(collectionVolumeComponent.toString(), 9);
+		Component<String> collectionVolumeComponent = Component.ofString(collectionVolume);
+		setField(collectionVolumeComponent, 9);
 		this.collectionVolume = collectionVolumeComponent;
 	}
 
@@ -571,6 +683,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getCollectorId() {
+		if(collectorId == null){
+			collectorId = stringOf(10);
+		}
 		return collectorId.getValue();
 	}
 
@@ -584,8 +699,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setCollectorId(String collectorId) {
-		Component<String> collectorIdComponent = new Component<>(String.class, collectorId);
-		setField(collectorIdComponent.toString(), 10);
+		Component<String> collectorIdComponent = Component.ofString(collectorId);
+		setField(collectorIdComponent, 10);
 		this.collectorId = collectorIdComponent;
 	}
 
@@ -599,6 +714,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public ActionCode getActionCode() {
+		if(actionCode == null){
+			actionCode = componentOf(ActionCode::getBy, ActionCode::getIdForComponent, 11);
+		}
 		return actionCode.getValue();
 	}
 
@@ -612,10 +730,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setActionCode(ActionCode actionCode) {
-		Component<ActionCode> actionCodeComponent = new Component<>(
-			() -> actionCode, ActionCode::getIdForComponent
-		);
-		setField(actionCodeComponent.toString(), 11);
+		Component<ActionCode> actionCodeComponent = Component.ofCode(actionCode, ActionCode::getIdForComponent);
+		setField(actionCodeComponent, 11);
 		this.actionCode = actionCodeComponent;
 	}
 
@@ -629,6 +745,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getDangerCode() {
+		if(dangerCode == null){
+			dangerCode = stringOf(12);
+		}
 		return dangerCode.getValue();
 	}
 
@@ -642,8 +761,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setDangerCode(String dangerCode) {
-		Component<String> dangerCodeComponent = new Component<>(String.class, dangerCode);
-		setField(dangerCodeComponent.toString(), 12);
+		Component<String> dangerCodeComponent = Component.ofString(dangerCode);
+		setField(dangerCodeComponent, 12);
 		this.dangerCode = dangerCodeComponent;
 	}
 
@@ -657,6 +776,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getRelevantClinicalInformation() {
+		if(relevantClinicalInformation == null){
+			relevantClinicalInformation = textOf(13);
+		}
 		return relevantClinicalInformation.getValue();
 	}
 
@@ -670,8 +792,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setRelevantClinicalInformation(String relevantClinicalInformation) {
-		Component<String> relevantClinicalInformationComponent = new Component<>(String.class, relevantClinicalInformation);
-		setField(relevantClinicalInformationComponent.toString(), 13);
+		Component<String> relevantClinicalInformationComponent = text(relevantClinicalInformation);
+		setField(relevantClinicalInformationComponent, 13);
 		this.relevantClinicalInformation = relevantClinicalInformationComponent;
 	}
 
@@ -685,9 +807,28 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public LocalDateTime getDateTimeSpecimenReceived() {
+		if(dateTimeSpecimenReceived == null){
+			dateTimeSpecimenReceived = dateTimeOf(14);
+		}
 		return dateTimeSpecimenReceived.getValue();
 	}
 
+	/**
+	 * {@link #getDateTimeSpecimenReceived()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getDateTimeSpecimenReceived()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getDateTimeSpecimenReceivedEpochSecond() {
+		if(dateTimeSpecimenReceived == null){
+			dateTimeSpecimenReceived = dateTimeOf(14);
+		}
+		return dateTimeSpecimenReceived.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * Это необязательное поле должно содержать фактическое время входа в систему, зарегистрированное в лаборатории. Должно использоваться соглашение, указанное в разделе 5.6.2.
@@ -698,8 +839,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setDateTimeSpecimenReceived(LocalDateTime dateTimeSpecimenReceived) {
-		Component<LocalDateTime> dateTimeSpecimenReceivedComponent = new Component<>(LocalDateTime.class, dateTimeSpecimenReceived.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(dateTimeSpecimenReceivedComponent.toString(), 14);
+		Component<LocalDateTime> dateTimeSpecimenReceivedComponent = Component.ofDateTime(dateTimeSpecimenReceived);
+		setField(dateTimeSpecimenReceivedComponent, 14);
 		this.collectionEndTime = dateTimeSpecimenReceivedComponent;
 	}
 
@@ -713,6 +854,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getSpecimenDescriptor() {
+		if(specimenDescriptor == null){
+			specimenDescriptor = stringOf(15);
+		}
 		return specimenDescriptor.getValue();
 	}
 
@@ -726,8 +870,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setSpecimenDescriptor(String specimenDescriptor) {
-		Component<String> specimenDescriptorComponent = new Component<>(String.class, specimenDescriptor);
-		setField(specimenDescriptorComponent.toString(), 15);
+		Component<String> specimenDescriptorComponent = Component.ofString(specimenDescriptor);
+		setField(specimenDescriptorComponent, 15);
 		this.specimenDescriptor = specimenDescriptorComponent;
 	}
 
@@ -741,6 +885,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getOrderingPhysician() {
+		if(orderingPhysician == null){
+			orderingPhysician = stringOf(16);
+		}
 		return orderingPhysician.getValue();
 	}
 
@@ -754,8 +901,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setOrderingPhysician(String orderingPhysician) {
-		Component<String> orderingPhysicianComponent = new Component<>(String.class, orderingPhysician);
-		setField(orderingPhysicianComponent.toString(), 16);
+		Component<String> orderingPhysicianComponent = Component.ofString(orderingPhysician);
+		setField(orderingPhysicianComponent, 16);
 		this.orderingPhysician = orderingPhysicianComponent;
 	}
 
@@ -769,6 +916,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getPhysiciansTelephoneNumber() {
+		if(physiciansTelephoneNumber == null){
+			physiciansTelephoneNumber = stringOf(17);
+		}
 		return physiciansTelephoneNumber.getValue();
 	}
 
@@ -782,8 +932,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setPhysiciansTelephoneNumber(String physiciansTelephoneNumber) {
-		Component<String> physiciansTelephoneNumberComponent = new Component<>(String.class, physiciansTelephoneNumber);
-		setField(physiciansTelephoneNumberComponent.toString(), 17);
+		Component<String> physiciansTelephoneNumberComponent = Component.ofString(physiciansTelephoneNumber);
+		setField(physiciansTelephoneNumberComponent, 17);
 		this.physiciansTelephoneNumber = physiciansTelephoneNumberComponent;
 	}
 
@@ -797,6 +947,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getUserFieldNumber1() {
+		if(userFieldNumber1 == null){
+			userFieldNumber1 = stringOf(18);
+		}
 		return userFieldNumber1.getValue();
 	}
 
@@ -810,8 +963,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setUserFieldNumber1(String userFieldNumber1) {
-		Component<String> userFieldNumber1Component = new Component<>(String.class, userFieldNumber1);
-		setField(userFieldNumber1Component.toString(), 18);
+		Component<String> userFieldNumber1Component = Component.ofString(userFieldNumber1);
+		setField(userFieldNumber1Component, 18);
 		this.userFieldNumber1 = userFieldNumber1Component;
 	}
 
@@ -825,6 +978,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getUserFieldNumber2() {
+		if(userFieldNumber2 == null){
+			userFieldNumber2 = stringOf(19);
+		}
 		return userFieldNumber2.getValue();
 	}
 
@@ -838,8 +994,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setUserFieldNumber2(String userFieldNumber2) {
-		Component<String> userFieldNumber2Component = new Component<>(String.class, userFieldNumber2);
-		setField(userFieldNumber2Component.toString(), 19);
+		Component<String> userFieldNumber2Component = Component.ofString(userFieldNumber2);
+		setField(userFieldNumber2Component, 19);
 		this.userFieldNumber2 = userFieldNumber2Component;
 	}
 
@@ -853,6 +1009,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getLaboratoryFieldNumber1() {
+		if(laboratoryFieldNumber1 == null){
+			laboratoryFieldNumber1 = stringOf(20);
+		}
 		return laboratoryFieldNumber1.getValue();
 	}
 
@@ -866,8 +1025,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setLaboratoryFieldNumber1(String laboratoryFieldNumber1) {
-		Component<String> laboratoryFieldNumber1Component = new Component<>(String.class, laboratoryFieldNumber1);
-		setField(laboratoryFieldNumber1Component.toString(), 20);
+		Component<String> laboratoryFieldNumber1Component = Component.ofString(laboratoryFieldNumber1);
+		setField(laboratoryFieldNumber1Component, 20);
 		this.laboratoryFieldNumber1 = laboratoryFieldNumber1Component;
 	}
 
@@ -881,6 +1040,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getLaboratoryFieldNumber2() {
+		if(laboratoryFieldNumber2 == null){
+			laboratoryFieldNumber2 = stringOf(21);
+		}
 		return laboratoryFieldNumber2.getValue();
 	}
     
@@ -894,8 +1056,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setLaboratoryFieldNumber2(String laboratoryFieldNumber2) {
-		Component<String> laboratoryFieldNumber2Component = new Component<>(String.class, laboratoryFieldNumber2);
-		setField(laboratoryFieldNumber2Component.toString(), 21);
+		Component<String> laboratoryFieldNumber2Component = Component.ofString(laboratoryFieldNumber2);
+		setField(laboratoryFieldNumber2Component, 21);
 		this.laboratoryFieldNumber2 = laboratoryFieldNumber2Component;
 	}
 
@@ -909,9 +1071,28 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public LocalDateTime getDateTimeResultsReportedOrLastModified() {
+		if(dateTimeResultsReportedOrLastModified == null){
+			dateTimeResultsReportedOrLastModified = dateTimeOf(22);
+		}
 		return dateTimeResultsReportedOrLastModified.getValue();
 	}
 
+	/**
+	 * {@link #getDateTimeResultsReportedOrLastModified()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getDateTimeResultsReportedOrLastModified()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getDateTimeResultsReportedOrLastModifiedEpochSecond() {
+		if(dateTimeResultsReportedOrLastModified == null){
+			dateTimeResultsReportedOrLastModified = dateTimeOf(22);
+		}
+		return dateTimeResultsReportedOrLastModified.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * Это поле используется для указания даты и времени, когда результаты для заказа составляются в отчете или в этом сообщении, или когда статус, как определено в разделах 8.4.26 или 9.9, введен или изменен. Когда информационная система запрашивает у прибора непереданные результаты, информация в этом поле может использоваться для управления обработкой в канале связи. Обычно служба заказа запрашивает только те результаты, для которых дата и время отчета больше, чем дата и время последнего получения результатов запрашивающей системой. Дату и время следует записывать, как указано в разделе 5.6.2.
@@ -922,8 +1103,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setDateTimeResultsReportedOrLastModified(LocalDateTime dateTimeResultsReportedOrLastModified) {
-		Component<LocalDateTime> dateTimeResultsReportedOrLastModifiedComponent = new Component<>(LocalDateTime.class, dateTimeResultsReportedOrLastModified.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(dateTimeResultsReportedOrLastModifiedComponent.toString(), 22);
+		Component<LocalDateTime> dateTimeResultsReportedOrLastModifiedComponent = Component.ofDateTime(dateTimeResultsReportedOrLastModified);
+		setField(dateTimeResultsReportedOrLastModifiedComponent, 22);
 		this.dateTimeResultsReportedOrLastModified = dateTimeResultsReportedOrLastModifiedComponent;
 	}
 
@@ -937,6 +1118,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getInstrumentChargeToInformationSystem() {
+		if(instrumentChargeToInformationSystem == null){
+			instrumentChargeToInformationSystem = stringOf(23);
+		}
 		return instrumentChargeToInformationSystem.getValue();
 	}
 
@@ -950,8 +1134,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setInstrumentChargeToInformationSystem(String instrumentChargeToInformationSystem) {
-		Component<String> instrumentChargeToInformationSystemComponent = new Component<>(String.class, instrumentChargeToInformationSystem);
-		setField(instrumentChargeToInformationSystemComponent.toString(), 23);
+		Component<String> instrumentChargeToInformationSystemComponent = Component.ofString(instrumentChargeToInformationSystem);
+		setField(instrumentChargeToInformationSystemComponent, 23);
 		this.instrumentChargeToInformationSystem = instrumentChargeToInformationSystemComponent;
 	}
 
@@ -966,6 +1150,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getInstrumentSectionId() {
+		if(instrumentSectionId == null){
+			instrumentSectionId = stringOf(24);
+		}
 		return instrumentSectionId.getValue();
 	}
    
@@ -979,20 +1166,21 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setInstrumentSectionId(String instrumentSectionId) {
-		Component<String> instrumentSectionIdComponent = new Component<>(String.class, instrumentSectionId);
-		setField(instrumentSectionIdComponent.toString(), 24);
+		Component<String> instrumentSectionIdComponent = Component.ofString(instrumentSectionId);
+		setField(instrumentSectionIdComponent, 24);
 		this.instrumentSectionId = instrumentSectionIdComponent;
 	}
 
 	public ReportType getReportType() {
+		if(reportType == null){
+			reportType = componentOf(ReportType::getBy, ReportType::getIdForComponent, 25);
+		}
 		return reportType.getValue();
 	}
 
 	public void setReportType(ReportType reportType) {
-		Component<ReportType> reportTypeComponent = new Component<>(
-			() -> reportType, ReportType::getIdForComponent
-		);
-		setField(reportTypeComponent.toString(), 25);
+		Component<ReportType> reportTypeComponent = Component.ofCode(reportType, ReportType::getIdForComponent);
+		setField(reportTypeComponent, 25);
 		this.reportType = reportTypeComponent;
 	}
 
@@ -1006,6 +1194,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getReservedField() {
+		if(reservedField == null){
+			reservedField = stringOf(26);
+		}
 		return reservedField.getValue();
 	}
 
@@ -1019,8 +1210,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setReservedField(String reservedField) {
-		Component<String> reservedFieldComponent = new Component<>(String.class, reservedField);
-		setField(reservedFieldComponent.toString(), 26);
+		Component<String> reservedFieldComponent = Component.ofString(reservedField);
+		setField(reservedFieldComponent, 26);
 		this.reservedField = reservedFieldComponent;
 	}
 
@@ -1034,6 +1225,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getLocationOfSpecimenCollection() {
+		if(locationOfSpecimenCollection == null){
+			locationOfSpecimenCollection = stringOf(27);
+		}
 		return locationOfSpecimenCollection.getValue();
 	}
 
@@ -1047,8 +1241,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setLocationOfSpecimenCollection(String locationOfSpecimenCollection) {
-		Component<String> locationOfSpecimenCollectionComponent = new Component<>(String.class, locationOfSpecimenCollection);
-		setField(locationOfSpecimenCollectionComponent.toString(), 27);
+		Component<String> locationOfSpecimenCollectionComponent = Component.ofString(locationOfSpecimenCollection);
+		setField(locationOfSpecimenCollectionComponent, 27);
 		this.locationOfSpecimenCollection = locationOfSpecimenCollectionComponent;
 	}
 
@@ -1062,6 +1256,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getNosocomialInfectionFlag() {
+		if(nosocomialInfectionFlag == null){
+			nosocomialInfectionFlag = stringOf(28);
+		}
 		return nosocomialInfectionFlag.getValue();
 	}
    
@@ -1075,8 +1272,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public void setNosocomialInfectionFlag(String nosocomialInfectionFlag) {
-		Component<String> nosocomialInfectionFlagComponent = new Component<>(String.class, nosocomialInfectionFlag);
-		setField(nosocomialInfectionFlagComponent.toString(), 28);
+		Component<String> nosocomialInfectionFlagComponent = Component.ofString(nosocomialInfectionFlag);
+		setField(nosocomialInfectionFlagComponent, 28);
 		this.nosocomialInfectionFlag = nosocomialInfectionFlagComponent;
 	}
 
@@ -1090,6 +1287,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */
 	public String getSpecimenService() {
+		if(specimenService == null){
+			specimenService = stringOf(29);
+		}
 		return specimenService.getValue();
 	}
 
@@ -1103,8 +1303,8 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */	
 	public void setSpecimenService(String specimenService) {
-		Component<String> specimenServiceComponent = new Component<>(String.class, specimenService);
-		setField(specimenServiceComponent.toString(), 29);
+		Component<String> specimenServiceComponent = Component.ofString(specimenService);
+		setField(specimenServiceComponent, 29);
 		this.specimenService = specimenServiceComponent;
 	}
 
@@ -1118,6 +1318,9 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */	
 	public String getSpecimenInstitution() {
+		if(specimenInstitution == null){
+			specimenInstitution = stringOf(30);
+		}
 		return specimenInstitution.getValue();
 	}
     
@@ -1131,19 +1334,24 @@ public class TestOrderRecord<T extends Record, T1 extends CommentRecord> extends
      * 
      */	
 	public void setSpecimenInstitution(String specimenInstitution) {
-		Component<String> specimenInstitutionComponent = new Component<>(String.class, specimenInstitution);
-		setField(specimenInstitutionComponent.toString(), 30);
+		Component<String> specimenInstitutionComponent = Component.ofString(specimenInstitution);
+		setField(specimenInstitutionComponent, 30);
 		this.specimenInstitution = specimenInstitutionComponent;
 	}
 
 	private List<T1> commentRecords;
+
+	//emptied list of comments of the previous use of the record
+	//опустошенный список комментариев предыдущего использования записи
+	private List<T1> recycledCommentRecords;
 	
 	@Override
 	public void addCommentRecord(T1 commentRecord){
 		if(this.commentRecords == null) {
-			this.commentRecords = new ArrayList<>();
+			this.commentRecords = this.recycledCommentRecords != null ? this.recycledCommentRecords : new ArrayList<>();
+			this.recycledCommentRecords = null;
 		}
-		commentRecord.setSequenceNumber(String.valueOf(this.commentRecords.size() + 1));
+		commentRecord.setSequenceNumber(this.commentRecords.size() + 1);
 		this.commentRecords.add(commentRecord);
 	}
 	
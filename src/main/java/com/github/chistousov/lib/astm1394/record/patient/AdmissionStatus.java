@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.patient;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * This value must be represented by the following minimum list or extensions agreed between sender and recipient: OP (Outpatient), PA (Advanced), IP (Inpatient), ER (Emergency Department).
@@ -64,12 +66,22 @@ public enum AdmissionStatus {
         admissionStatuses.put(ER.getId(), ER);
 	}
 
+	private static final CodeTable<AdmissionStatus> table = new CodeTable<>(admissionStatuses, U);
+
 	public static AdmissionStatus getBy(String id) {
-        AdmissionStatus admissionStatus = admissionStatuses.get(id);
-        if(admissionStatus == null){
-            admissionStatus = U;
-        }
-        return admissionStatus;
+		return table.get(id);
 	}
 
+	/**
+	 * Lookup table of admission statuses: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска статусов госпитализации: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<AdmissionStatus> codes() {
+		return table;
+	}
 }
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.patient;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Isolation codes indicate precautions that must be taken to protect the patient or staff from infection. Below are the recommended codes for general precautions. You can specify multiple precautions separated by repeating delimiters. Full text warnings can also be sent.
@@ -74,12 +76,25 @@ public enum IsolationStatus {
         isolationStatuses.put(WSP.getId(), WSP);
 	}
 
+	private static final CodeTable<IsolationStatus> table = new CodeTable<>(isolationStatuses, U);
+
 	public static IsolationStatus getBy(String id) {
-        IsolationStatus isolationStatus = isolationStatuses.get(id);
-        if(isolationStatus == null){
-            isolationStatus = U;
-        }
-        return isolationStatus;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of isolation codes: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска кодов изоляции: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<IsolationStatus> codes() {
+		return table;
 	}
+
+
     
 }
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.patient;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * If necessary, this value indicates the patient's marital status.
@@ -65,12 +67,22 @@ public enum MaritalStatus {
         maritalStatuses.put(A.getId(), A);
 	}
 
+	private static final CodeTable<MaritalStatus> table = new CodeTable<>(maritalStatuses, U);
+
 	public static MaritalStatus getBy(String id) {
-        MaritalStatus maritalStatus = maritalStatuses.get(id);
-        if(maritalStatus == null){
-            maritalStatus = U;
-        }
-        return maritalStatus;
+		return table.get(id);
 	}
 
+	/**
+	 * Lookup table of marital statuses: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска семейных положений: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<MaritalStatus> codes() {
+		return table;
+	}
 }
@@ -1,9 +1,11 @@
 package com.github.chistousov.lib.astm1394.record.patient;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.github.chistousov.lib.astm1394.record.Component;
+import com.github.chistousov.lib.astm1394.record.IReusable;
 import com.github.chistousov.lib.astm1394.record.IWithComments;
 import com.github.chistousov.lib.astm1394.record.Record;
 import com.github.chistousov.lib.astm1394.record.RecordType;
@@ -18,7 +20,7 @@ import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
  * @author Nikita Chistousov (chistousov.nik@yandex.ru)
  * @since 8
  */
-public class PatientInformationRecord<T extends Record, T1 extends CommentRecord> extends Record implements IWithComments<T1> {
+public class PatientInformationRecord<T extends Record, T1 extends CommentRecord> extends Record implements IWithComments<T1>, IReusable {
     
     /*
      * Этот идентификатор должен быть уникальным идентификатором, назначенным и используемым практикой для идентификации пациента и его / ее результатов после получения результатов тестирования.
@@ -190,6 +192,10 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
 	// для хранения зависимый заданий
 	private List<T> testOrderRecords;
 
+	//emptied list of orders of the previous use of the record
+	//опустошенный список заданий предыдущего использования записи
+	private List<T> recycledTestOrderRecords;
+
 
 	/**
 	 * <p>
@@ -225,42 +231,59 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
             throw new IllegalArgumentException("Сообщение не начинается с P, поэтому не является записью информации о пациенте");
         }
         setSequenceNumber(getField(1));
-		
-		this.practiceAssignedPatientId = new Component<>(Long.class, getField(2));
-        this.laboratoryAssignedPatientId = new Component<>(Long.class, getField(3));
-        this.patientIdNumber3 = new Component<>(String.class, getField(4));
-        this.patientName = new Component<>(String.class, getField(5));
-        this.mothersMaidenName = new Component<>(String.class, getField(6));
-        this.birthdate = new Component<>(String.class, getField(7));
-        this.patientSex = new Component<>(() -> PatientSex.getBy(getField(8)), PatientSex::getIdForComponent);
-        this.patientRaceEthnicOrigin = new Component<>(() -> PatientRaceEthnicOrigin.getBy(getField(9)), PatientRaceEthnicOrigin::getIdForComponent);
-        this.patientAddress = new Component<>(String.class, getField(10));
-        this.reservedField = new Component<>(String.class, getField(11));
-        this.patientTelephoneNumber = new Component<>(String.class, getField(12));
-        this.attendingPhysicianId = new Component<>(String.class, getField(13));
-        this.specialField1 = new Component<>(String.class, getField(14));
-        this.specialField2 = new Component<>(String.class, getField(15));
-        this.patientHeight = new Component<>(String.class, getField(16));
-        this.patientWeight = new Component<>(String.class, getField(17));
-        this.patientsKnownOrSuspectedDiagnosis = new Component<>(String.class, getField(18));
-        this.patientActiveMedications = new Component<>(String.class, getField(19));
-        this.patientsDiet = new Component<>(String.class, getField(20));
-        this.practiceFieldNumber1 = new Component<>(String.class, getField(21));
-        this.practiceFieldNumber2 = new Component<>(String.class, getField(22));
-        this.admissionAndDischargeDates =  new Component<>(String.class, getField(23));
-        this.admissionStatus = new Component<>(() -> AdmissionStatus.getBy(getField(24)), AdmissionStatus::getIdForComponent);
-        this.location = new Component<>(String.class, getField(25));
-        this.natureOfAlternativeDiagnosticCodeAndClassifiers = new Component<>(String.class, getField(26));
-        this.alternativeDiagnosticCodeAndClassification = new Component<>(String.class, getField(27));
-        this.patientReligion = new Component<>(() -> PatientReligion.getBy(getField(28)), PatientReligion::getIdForComponent);
-        this.maritalStatus = new Component<>(() -> MaritalStatus.getBy(getField(29)), MaritalStatus::getIdForComponent);
-        this.isolationStatus = new Component<>(() -> IsolationStatus.getBy(getField(30)), IsolationStatus::getIdForComponent);
-        this.language = new Component<>(String.class, getField(31));
-        this.hospitalService = new Component<>(String.class, getField(32));
-        this.hospitalInstitution = new Component<>(String.class, getField(33));
-        this.dosageCategory = new Component<>(String.class, getField(34));
     }
 
+	@Override
+	public void reset(String recordString, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter) {
+		refill(recordString, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter);
+
+		this.practiceAssignedPatientId = null;
+		this.laboratoryAssignedPatientId = null;
+		this.patientIdNumber3 = null;
+		this.patientName = null;
+		this.mothersMaidenName = null;
+		this.birthdate = null;
+		this.patientSex = null;
+		this.patientRaceEthnicOrigin = null;
+		this.patientAddress = null;
+		this.reservedField = null;
+		this.patientTelephoneNumber = null;
+		this.attendingPhysicianId = null;
+		this.specialField1 = null;
+		this.specialField2 = null;
+		this.patientHeight = null;
+		this.patientWeight = null;
+		this.patientsKnownOrSuspectedDiagnosis = null;
+		this.patientActiveMedications = null;
+		this.patientsDiet = null;
+		this.practiceFieldNumber1 = null;
+		this.practiceFieldNumber2 = null;
+		this.admissionAndDischargeDates = null;
+		this.admissionStatus = null;
+		this.location = null;
+		this.natureOfAlternativeDiagnosticCodeAndClassifiers = null;
+		this.alternativeDiagnosticCodeAndClassification = null;
+		this.patientReligion = null;
+		this.maritalStatus = null;
+		this.isolationStatus = null;
+		this.language = null;
+		this.hospitalService = null;
+		this.hospitalInstitution = null;
+		this.dosageCategory = null;
+
+		if(this.testOrderRecords != null){
+			this.testOrderRecords.clear();
+			this.recycledTestOrderRecords = this.testOrderRecords;
+			this.testOrderRecords = null;
+		}
+
+		if(this.commentRecords != null){
+			this.commentRecords.clear();
+			this.recycledCommentRecords = this.commentRecords;
+			this.commentRecords = null;
+		}
+	}
+
 	/**
 	 * <p>
 	 * Добавить задание для этого пациента
@@ -272,9 +295,10 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      */
 	public void addOrder(T testOrderRecord){
 		if(this.testOrderRecords == null){
-			this.testOrderRecords = new ArrayList<>();
+			this.testOrderRecords = this.recycledTestOrderRecords != null ? this.recycledTestOrderRecords : new ArrayList<>();
+			this.recycledTestOrderRecords = null;
 		}
-		testOrderRecord.setSequenceNumber(String.valueOf(this.testOrderRecords.size() + 1));
+		testOrderRecord.setSequenceNumber(this.testOrderRecords.size() + 1);
 		this.testOrderRecords.add(testOrderRecord);
 	}
 
@@ -294,20 +318,14 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
 
 
 	@Override
-	public String toString() {
-		StringBuilder returnStr = new StringBuilder();
-		
-		returnStr.append(this.getRecord());
-
-		if(this.commentRecords != null){
-			this.commentRecords.forEach(commentRecord -> returnStr.append(commentRecord.toString()));
-		}
+	public void writeTo(Appendable out) throws IOException {
+		super.writeTo(out);
 
 		if(this.testOrderRecords != null){
-			this.testOrderRecords.forEach(testOrderRecord -> returnStr.append(testOrderRecord.toString()));
+			for(T testOrderRecord : this.testOrderRecords){
+				testOrderRecord.writeTo(out);
+			}
 		}
-
-		return returnStr.toString();
 	}
 
 	/**
@@ -320,6 +338,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public Long getPracticeAssignedPatientId() {
+		if(practiceAssignedPatientId == null){
+			practiceAssignedPatientId = longOf(2);
+		}
 		return practiceAssignedPatientId.getValue();
 	}
 
@@ -333,8 +354,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPracticeAssignedPatientId(Long practiceAssignedPatientId) {
-		Component<Long> practiceAssignedPatientIdComponent = new Component<>(Long.class, practiceAssignedPatientId.toString());
-		setField(practiceAssignedPatientIdComponent.toString(), 2);
+		Component<Long> practiceAssignedPatientIdComponent = Component.ofLong(practiceAssignedPatientId);
+		setField(practiceAssignedPatientIdComponent, 2);
 		this.practiceAssignedPatientId = practiceAssignedPatientIdComponent;
 	}
 
@@ -349,6 +370,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public Long getLaboratoryAssignedPatientId() {
+		if(laboratoryAssignedPatientId == null){
+			laboratoryAssignedPatientId = longOf(3);
+		}
 		return laboratoryAssignedPatientId.getValue();
 	}
 
@@ -362,8 +386,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setLaboratoryAssignedPatientId(Long laboratoryAssignedPatientId) {
-		Component<Long> laboratoryAssignedPatientIdComponent = new Component<>(Long.class, laboratoryAssignedPatientId.toString());
-		setField(laboratoryAssignedPatientIdComponent.toString(), 3);
+		Component<Long> laboratoryAssignedPatientIdComponent = Component.ofLong(laboratoryAssignedPatientId);
+		setField(laboratoryAssignedPatientIdComponent, 3);
 		this.laboratoryAssignedPatientId = laboratoryAssignedPatientIdComponent;
 	}
 
@@ -377,6 +401,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientIdNumber3() {
+		if(patientIdNumber3 == null){
+			patientIdNumber3 = stringOf(4);
+		}
 		return patientIdNumber3.getValue();
 	}
 
@@ -390,8 +417,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientIdNumber3(String patientIdNumber3) {
-		Component<String> patientIdNumber3Component = new Component<>(String.class, patientIdNumber3);
-		setField(patientIdNumber3Component.toString(), 4);
+		Component<String> patientIdNumber3Component = Component.ofString(patientIdNumber3);
+		setField(patientIdNumber3Component, 4);
 		this.patientIdNumber3 = patientIdNumber3Component;
 	}
 
@@ -405,6 +432,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientName() {
+		if(patientName == null){
+			patientName = stringOf(5);
+		}
 		return patientName.getValue();
 	}
 
@@ -418,8 +448,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientName(String patientName) {
-		Component<String> patientNameComponent = new Component<>(String.class, patientName);
-		setField(patientNameComponent.toString(), 5);
+		Component<String> patientNameComponent = Component.ofString(patientName);
+		setField(patientNameComponent, 5);
 		this.patientName = patientNameComponent;
 	}
 
@@ -433,6 +463,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getMothersMaidenName() {
+		if(mothersMaidenName == null){
+			mothersMaidenName = stringOf(6);
+		}
 		return mothersMaidenName.getValue();
 	}
 
@@ -446,8 +479,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setMothersMaidenName(String mothersMaidenName) {
-		Component<String> mothersMaidenNameComponent = new Component<>(String.class, mothersMaidenName);
-		setField(mothersMaidenNameComponent.toString(), 6);
+		Component<String> mothersMaidenNameComponent = Component.ofString(mothersMaidenName);
+		setField(mothersMaidenNameComponent, 6);
 		this.mothersMaidenName = mothersMaidenNameComponent;
 	}
 
@@ -461,6 +494,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getBirthdate() {
+		if(birthdate == null){
+			birthdate = stringOf(7);
+		}
 		return birthdate.getValue();
 	}
 
@@ -474,8 +510,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setBirthdate(String birthdate) {
-		Component<String> birthdateComponent = new Component<>(String.class, birthdate);
-		setField(birthdateComponent.toString(), 7);
+		Component<String> birthdateComponent = Component.ofString(birthdate);
+		setField(birthdateComponent, 7);
 		this.birthdate = birthdateComponent;
 	}
 
@@ -489,6 +525,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public PatientRaceEthnicOrigin getPatientRaceEthnicOrigin() {
+		if(patientRaceEthnicOrigin == null){
+			patientRaceEthnicOrigin = componentOf(PatientRaceEthnicOrigin::getBy, PatientRaceEthnicOrigin::getIdForComponent, 9);
+		}
 		return patientRaceEthnicOrigin.getValue();
 	}
 
@@ -502,10 +541,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientRaceEthnicOrigin(PatientRaceEthnicOrigin patientRaceEthnicOrigin) {
-		Component<PatientRaceEthnicOrigin> patientRaceEthnicOriginComponent = new Component<>(
-			() -> patientRaceEthnicOrigin, PatientRaceEthnicOrigin::getIdForComponent
-		);
-		setField(patientRaceEthnicOriginComponent.toString(), 9);
+		Component<PatientRaceEthnicOrigin> patientRaceEthnicOriginComponent = Component.ofCode(patientRaceEthnicOrigin, PatientRaceEthnicOrigin::getIdForComponent);
+		setField(patientRaceEthnicOriginComponent, 9);
 		this.patientRaceEthnicOrigin = patientRaceEthnicOriginComponent;
 	}
 
@@ -519,6 +556,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientAddress() {
+		if(patientAddress == null){
+			patientAddress = stringOf(10);
+		}
 		return patientAddress.getValue();
 	}
 
@@ -532,8 +572,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientAddress(String patientAddress) {
-		Component<String> patientAddressComponent = new Component<>(String.class, patientAddress);
-		setField(patientAddressComponent.toString(), 10);
+		Component<String> patientAddressComponent = Component.ofString(patientAddress);
+		setField(patientAddressComponent, 10);
 		this.patientAddress = patientAddressComponent;
 	}
 
@@ -547,6 +587,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public PatientSex getPatientSex() {
+		if(patientSex == null){
+			patientSex = componentOf(PatientSex::getBy, PatientSex::getIdForComponent, 8);
+		}
 		return patientSex.getValue();
 	}
 
@@ -560,10 +603,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientSex(PatientSex patientSex) {
-		Component<PatientSex> patientSexComponent = new Component<>(
-			() -> patientSex, PatientSex::getIdForComponent
-		);
-		setField(patientSexComponent.toString(), 8);
+		Component<PatientSex> patientSexComponent = Component.ofCode(patientSex, PatientSex::getIdForComponent);
+		setField(patientSexComponent, 8);
 		this.patientSex = patientSexComponent;
 	}
 
@@ -577,6 +618,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getReservedField() {
+		if(reservedField == null){
+			reservedField = stringOf(11);
+		}
 		return reservedField.getValue();
 	}
 
@@ -590,8 +634,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setReservedField(String reservedField) {
-		Component<String> reservedFieldComponent = new Component<>(String.class, reservedField);
-		setField(reservedFieldComponent.toString(), 11);
+		Component<String> reservedFieldComponent = Component.ofString(reservedField);
+		setField(reservedFieldComponent, 11);
 		this.reservedField = reservedFieldComponent;
 	}
 
@@ -605,6 +649,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientTelephoneNumber() {
+		if(patientTelephoneNumber == null){
+			patientTelephoneNumber = stringOf(12);
+		}
 		return patientTelephoneNumber.getValue();
 	}
 
@@ -618,8 +665,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientTelephoneNumber(String patientTelephoneNumber) {
-		Component<String> patientTelephoneNumberComponent = new Component<>(String.class, patientTelephoneNumber);
-		setField(patientTelephoneNumberComponent.toString(), 12);
+		Component<String> patientTelephoneNumberComponent = Component.ofString(patientTelephoneNumber);
+		setField(patientTelephoneNumberComponent, 12);
 		this.patientTelephoneNumber = patientTelephoneNumberComponent;
 	}
 
@@ -633,6 +680,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getAttendingPhysicianId() {
+		if(attendingPhysicianId == null){
+			attendingPhysicianId = stringOf(13);
+		}
 		return attendingPhysicianId.getValue();
 	}
 
@@ -646,8 +696,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setAttendingPhysicianId(String attendingPhysicianId) {
-		Component<String> attendingPhysicianIdComponent = new Component<>(String.class, attendingPhysicianId);
-		setField(attendingPhysicianIdComponent.toString(), 13);
+		Component<String> attendingPhysicianIdComponent = Component.ofString(attendingPhysicianId);
+		setField(attendingPhysicianIdComponent, 13);
 		this.attendingPhysicianId = attendingPhysicianIdComponent;
 	}
 
@@ -661,6 +711,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getSpecialField1() {
+		if(specialField1 == null){
+			specialField1 = textOf(14);
+		}
 		return specialField1.getValue();
 	}
 
@@ -674,8 +727,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setSpecialField1(String specialField1) {
-		Component<String> specialField1Component = new Component<>(String.class, specialField1);
-		setField(specialField1Component.toString(), 14);
+		Component<String> specialField1Component = text(specialField1);
+		setField(specialField1Component, 14);
 		this.specialField1 = specialField1Component;
 	}
 
@@ -689,6 +742,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getSpecialField2() {
+		if(specialField2 == null){
+			specialField2 = textOf(15);
+		}
 		return specialField2.getValue();
 	}
 
@@ -702,8 +758,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setSpecialField2(String specialField2) {
-		Component<String> specialField2Component = new Component<>(String.class, specialField2);
-		setField(specialField2Component.toString(), 15);
+		Component<String> specialField2Component = text(specialField2);
+		setField(specialField2Component, 15);
 		this.specialField2 = specialField2Component;
 	}
 
@@ -717,6 +773,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientHeight() {
+		if(patientHeight == null){
+			patientHeight = stringOf(16);
+		}
 		return patientHeight.getValue();
 	}
 
@@ -730,8 +789,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientHeight(String patientHeight) {
-		Component<String> patientHeightComponent = new Component<>(String.class, patientHeight);
-		setField(patientHeightComponent.toString(), 16);
+		Component<String> patientHeightComponent = Component.ofString(patientHeight);
+		setField(patientHeightComponent, 16);
 		this.patientHeight = patientHeightComponent;
 	}
 
@@ -745,6 +804,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientWeight() {
+		if(patientWeight == null){
+			patientWeight = stringOf(17);
+		}
 		return patientWeight.getValue();
 	}
 
@@ -758,8 +820,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientWeight(String patientWeight) {
-		Component<String> patientWeightComponent = new Component<>(String.class, patientWeight);
-		setField(patientWeightComponent.toString(), 17);
+		Component<String> patientWeightComponent = Component.ofString(patientWeight);
+		setField(patientWeightComponent, 17);
 		this.patientWeight = patientWeightComponent;
 	}
 
@@ -773,6 +835,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientsKnownOrSuspectedDiagnosis() {
+		if(patientsKnownOrSuspectedDiagnosis == null){
+			patientsKnownOrSuspectedDiagnosis = stringOf(18);
+		}
 		return patientsKnownOrSuspectedDiagnosis.getValue();
 	}
 
@@ -786,8 +851,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientsKnownOrSuspectedDiagnosis(String patientsKnownOrSuspectedDiagnosis) {
-		Component<String> patientsKnownOrSuspectedDiagnosisComponent = new Component<>(String.class, patientsKnownOrSuspectedDiagnosis);
-		setField(patientsKnownOrSuspectedDiagnosisComponent.toString(), 18);
+		Component<String> patientsKnownOrSuspectedDiagnosisComponent = Component.ofString(patientsKnownOrSuspectedDiagnosis);
+		setField(patientsKnownOrSuspectedDiagnosisComponent, 18);
 		this.patientsKnownOrSuspectedDiagnosis = patientsKnownOrSuspectedDiagnosisComponent;
 	}
 
@@ -801,6 +866,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientActiveMedications() {
+		if(patientActiveMedications == null){
+			patientActiveMedications = stringOf(19);
+		}
 		return patientActiveMedications.getValue();
 	}
 
@@ -814,8 +882,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientActiveMedications(String patientActiveMedications) {
-		Component<String> patientActiveMedicationsComponent = new Component<>(String.class, patientActiveMedications);
-		setField(patientActiveMedicationsComponent.toString(), 19);
+		Component<String> patientActiveMedicationsComponent = Component.ofString(patientActiveMedications);
+		setField(patientActiveMedicationsComponent, 19);
 		this.patientActiveMedications = patientActiveMedicationsComponent;
 	}
 
@@ -829,6 +897,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPatientsDiet() {
+		if(patientsDiet == null){
+			patientsDiet = textOf(20);
+		}
 		return patientsDiet.getValue();
 	}
 
@@ -842,8 +913,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientsDiet(String patientsDiet) {
-		Component<String> patientsDietComponent = new Component<>(String.class, patientsDiet);
-		setField(patientsDietComponent.toString(), 20);
+		Component<String> patientsDietComponent = text(patientsDiet);
+		setField(patientsDietComponent, 20);
 		this.patientsDiet = patientsDietComponent;
 	}
 
@@ -857,6 +928,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPracticeFieldNumber1() {
+		if(practiceFieldNumber1 == null){
+			practiceFieldNumber1 = stringOf(21);
+		}
 		return practiceFieldNumber1.getValue();
 	}
 
@@ -870,8 +944,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPracticeFieldNumber1(String practiceFieldNumber1) {
-		Component<String> practiceFieldNumber1Component = new Component<>(String.class, practiceFieldNumber1);
-		setField(practiceFieldNumber1Component.toString(), 21);
+		Component<String> practiceFieldNumber1Component = Component.ofString(practiceFieldNumber1);
+		setField(practiceFieldNumber1Component, 21);
 		this.practiceFieldNumber1 = practiceFieldNumber1Component;
 	}
 
@@ -885,6 +959,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getPracticeFieldNumber2() {
+		if(practiceFieldNumber2 == null){
+			practiceFieldNumber2 = stringOf(22);
+		}
 		return practiceFieldNumber2.getValue();
 	}
 
@@ -898,8 +975,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPracticeFieldNumber2(String practiceFieldNumber2) {
-		Component<String> practiceFieldNumber2Component = new Component<>(String.class, practiceFieldNumber2);
-		setField(practiceFieldNumber2Component.toString(), 22);
+		Component<String> practiceFieldNumber2Component = Component.ofString(practiceFieldNumber2);
+		setField(practiceFieldNumber2Component, 22);
 		this.practiceFieldNumber2 = practiceFieldNumber2Component;
 	}
 
@@ -913,6 +990,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getAdmissionAndDischargeDates() {
+		if(admissionAndDischargeDates == null){
+			admissionAndDischargeDates = stringOf(23);
+		}
 		return admissionAndDischargeDates.getValue();
 	}
 
@@ -926,8 +1006,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setAdmissionAndDischargeDates(String admissionAndDischargeDates) {
-		Component<String> admissionAndDischargeDatesComponent = new Component<>(String.class, admissionAndDischargeDates);
-		setField(admissionAndDischargeDatesComponent.toString(), 23);
+		Component<String> admissionAndDischargeDatesComponent = Component.ofString(admissionAndDischargeDates);
+		setField(admissionAndDischargeDatesComponent, 23);
 		this.admissionAndDischargeDates = admissionAndDischargeDatesComponent;
 	}
 
@@ -941,6 +1021,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public AdmissionStatus getAdmissionStatus() {
+		if(admissionStatus == null){
+			admissionStatus = componentOf(AdmissionStatus::getBy, AdmissionStatus::getIdForComponent, 24);
+		}
 		return admissionStatus.getValue();
 	}
 
@@ -954,10 +1037,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setAdmissionStatus(AdmissionStatus admissionStatus) {
-		Component<AdmissionStatus> admissionStatusComponent = new Component<>(
-			() -> admissionStatus, AdmissionStatus::getIdForComponent
-		);
-		setField(admissionStatusComponent.toString(), 24);
+		Component<AdmissionStatus> admissionStatusComponent = Component.ofCode(admissionStatus, AdmissionStatus::getIdForComponent);
+		setField(admissionStatusComponent, 24);
 		this.admissionStatus = admissionStatusComponent;
 	}
 
@@ -971,6 +1052,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getLocation() {
+		if(location == null){
+			location = stringOf(25);
+		}
 		return location.getValue();
 	}
 
@@ -984,8 +1068,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setLocation(String location) {
-		Component<String> locationComponent = new Component<>(String.class, location);
-		setField(locationComponent.toString(), 25);
+		Component<String> locationComponent = Component.ofString(location);
+		setField(locationComponent, 25);
 		this.location = locationComponent;
 	}
 
@@ -999,6 +1083,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getNatureOfAlternativeDiagnosticCodeAndClassifiers() {
+		if(natureOfAlternativeDiagnosticCodeAndClassifiers == null){
+			natureOfAlternativeDiagnosticCodeAndClassifiers = stringOf(26);
+		}
 		return natureOfAlternativeDiagnosticCodeAndClassifiers.getValue();
 	}
 
@@ -1013,8 +1100,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      */
 	public void setNatureOfAlternativeDiagnosticCodeAndClassifiers(
 			String natureOfAlternativeDiagnosticCodeAndClassifiers) {
-		Component<String> natureOfAlternativeDiagnosticCodeAndClassifiersComponent = new Component<>(String.class, natureOfAlternativeDiagnosticCodeAndClassifiers);
-		setField(natureOfAlternativeDiagnosticCodeAndClassifiersComponent.toString(), 26);
+		Component<String> natureOfAlternativeDiagnosticCodeAndClassifiersComponent = Component.ofString(natureOfAlternativeDiagnosticCodeAndClassifiers);
+		setField(natureOfAlternativeDiagnosticCodeAndClassifiersComponent, 26);
 		this.natureOfAlternativeDiagnosticCodeAndClassifiers = natureOfAlternativeDiagnosticCodeAndClassifiersComponent;
 	}
 
@@ -1028,6 +1115,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getAlternativeDiagnosticCodeAndClassification() {
+		if(alternativeDiagnosticCodeAndClassification == null){
+			alternativeDiagnosticCodeAndClassification = stringOf(27);
+		}
 		return alternativeDiagnosticCodeAndClassification.getValue();
 	}
 
@@ -1042,8 +1132,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      */
 	public void setAlternativeDiagnosticCodeAndClassification(
 			String alternativeDiagnosticCodeAndClassification) {
-		Component<String> alternativeDiagnosticCodeAndClassificationComponent = new Component<>(String.class, alternativeDiagnosticCodeAndClassification);
-		setField(alternativeDiagnosticCodeAndClassificationComponent.toString(), 27);
+		Component<String> alternativeDiagnosticCodeAndClassificationComponent = Component.ofString(alternativeDiagnosticCodeAndClassification);
+		setField(alternativeDiagnosticCodeAndClassificationComponent, 27);
 		this.alternativeDiagnosticCodeAndClassification = alternativeDiagnosticCodeAndClassificationComponent;
 	}
 
@@ -1057,6 +1147,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public PatientReligion getPatientReligion() {
+		if(patientReligion == null){
+			patientReligion = componentOf(PatientReligion::getBy, PatientReligion::getIdForComponent, 28);
+		}
 		return patientReligion.getValue();
 	}
 
@@ -1070,10 +1163,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setPatientReligion(PatientReligion patientReligion) {
-		Component<PatientReligion> patientReligionComponent = new Component<>(
-			() -> patientReligion, PatientReligion::getIdForComponent
-		);
-		setField(patientReligionComponent.toString(), 28);
+		Component<PatientReligion> patientReligionComponent = Component.ofCode(patientReligion, PatientReligion::getIdForComponent);
+		setField(patientReligionComponent, 28);
 		this.patientReligion = patientReligionComponent;
 	}
 
@@ -1087,6 +1178,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public MaritalStatus getMaritalStatus() {
+		if(maritalStatus == null){
+			maritalStatus = componentOf(MaritalStatus::getBy, MaritalStatus::getIdForComponent, 29);
+		}
 		return maritalStatus.getValue();
 	}
 
@@ -1100,10 +1194,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setMaritalStatus(MaritalStatus maritalStatus) {
-		Component<MaritalStatus> maritalStatusComponent = new Component<>(
-			() -> maritalStatus, MaritalStatus::getIdForComponent
-		);
-		setField(maritalStatusComponent.toString(), 29);
+		Component<MaritalStatus> maritalStatusComponent = Component.ofCode(maritalStatus, MaritalStatus::getIdForComponent);
+		setField(maritalStatusComponent, 29);
 		this.maritalStatus = maritalStatusComponent;
 	}
 
@@ -1118,6 +1210,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public IsolationStatus getIsolationStatus() {
+		if(isolationStatus == null){
+			isolationStatus = componentOf(IsolationStatus::getBy, IsolationStatus::getIdForComponent, 30);
+		}
 		return isolationStatus.getValue();
 	}
 
@@ -1131,10 +1226,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setIsolationStatus(IsolationStatus isolationStatus) {
-		Component<IsolationStatus> isolationStatusComponent = new Component<>(
-			() -> isolationStatus, IsolationStatus::getIdForComponent
-		);
-		setField(isolationStatusComponent.toString(), 30);
+		Component<IsolationStatus> isolationStatusComponent = Component.ofCode(isolationStatus, IsolationStatus::getIdForComponent);
+		setField(isolationStatusComponent, 30);
 		this.isolationStatus = isolationStatusComponent;
 	}
 
@@ -1148,6 +1241,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getLanguage() {
+		if(language == null){
+			language = stringOf(31);
+		}
 		return language.getValue();
 	}
 
@@ -1161,8 +1257,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setLanguage(String language) {
-		Component<String> languageComponent = new Component<>(String.class, language);
-		setField(languageComponent.toString(), 31);
+		Component<String> languageComponent = Component.ofString(language);
+		setField(languageComponent, 31);
 		this.language = languageComponent;
 	}
 
@@ -1176,6 +1272,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getHospitalService() {
+		if(hospitalService == null){
+			hospitalService = stringOf(32);
+		}
 		return hospitalService.getValue();
 	}
 
@@ -1189,8 +1288,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setHospitalService(String hospitalService) {
-		Component<String> hospitalServiceComponent = new Component<>(String.class, hospitalService);
-		setField(hospitalServiceComponent.toString(), 32);
+		Component<String> hospitalServiceComponent = Component.ofString(hospitalService);
+		setField(hospitalServiceComponent, 32);
 		this.hospitalService = hospitalServiceComponent;
 	}
 
@@ -1204,6 +1303,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getHospitalInstitution() {
+		if(hospitalInstitution == null){
+			hospitalInstitution = stringOf(33);
+		}
 		return hospitalInstitution.getValue();
 	}
 
@@ -1217,8 +1319,8 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setHospitalInstitution(String hospitalInstitution) {
-		Component<String> hospitalInstitutionComponent = new Component<>(String.class, hospitalInstitution);
-		setField(hospitalInstitutionComponent.toString(), 33);
+		Component<String> hospitalInstitutionComponent = Component.ofString(hospitalInstitution);
+		setField(hospitalInstitutionComponent, 33);
 		this.hospitalInstitution = hospitalInstitutionComponent;
 	}
 
@@ -1233,6 +1335,9 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public String getDosageCategory() {
+		if(dosageCategory == null){
+			dosageCategory = stringOf(34);
+		}
 		return dosageCategory.getValue();
 	}
 
@@ -1246,19 +1351,24 @@ public class PatientInformationRecord<T extends Record, T1 extends CommentRecord
      * 
      */
 	public void setDosageCategory(String dosageCategory) {
-		Component<String> dosageCategoryComponent = new Component<>(String.class, dosageCategory);
-		setField(dosageCategoryComponent.toString(), 34);
+		Component<String> dosageCategoryComponent = Component.ofString(dosageCategory);
+		setField(dosageCategoryComponent, 34);
 		this.dosageCategory = dosageCategoryComponent;
 	}
 
 	private List<T1> commentRecords;
+
+	//emptied list of comments of the previous use of the record
+	//опустошенный список комментариев предыдущего использования записи
+	private List<T1> recycledCommentRecords;
 	
 	@Override
 	public void addCommentRecord(T1 commentRecord){
 		if(this.commentRecords == null) {
-			this.commentRecords = new ArrayList<>();
+			this.commentRecords = this.recycledCommentRecords != null ? this.recycledCommentRecords : new ArrayList<>();
+			this.recycledCommentRecords = null;
 		}
-		commentRecord.setSequenceNumber(String.valueOf(this.commentRecords.size() + 1));
+		commentRecord.setSequenceNumber(this.commentRecords.size() + 1);
 		this.commentRecords.add(commentRecord);
 	}
 	
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.patient;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Race
@@ -65,12 +67,23 @@ public enum PatientRaceEthnicOrigin {
         races.put(H.getId(), H);
 	}
 
+	private static final CodeTable<PatientRaceEthnicOrigin> table = new CodeTable<>(races, U);
+
 	public static PatientRaceEthnicOrigin getBy(String id) {
-        PatientRaceEthnicOrigin race = races.get(id);
-        if(race == null){
-            race = U;
-        }
-        return race;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of races: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска рас: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<PatientRaceEthnicOrigin> codes() {
+		return table;
 	}
 
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.patient;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Religion
@@ -68,12 +70,23 @@ public enum PatientReligion {
         religions.put(H.getId(), H);       
 	}
 
+	private static final CodeTable<PatientReligion> table = new CodeTable<>(religions, U);
+
 	public static PatientReligion getBy(String id) {
-	 	PatientReligion patientReligion = religions.get(id);
-        if(patientReligion == null){
-            patientReligion = U;
-        }
-        return patientReligion;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of religions: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска религий: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<PatientReligion> codes() {
+		return table;
 	}
 
 }
\ No newline at end of file
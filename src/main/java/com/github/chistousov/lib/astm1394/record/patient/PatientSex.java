@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.patient;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Sex.
@@ -59,12 +61,22 @@ public enum PatientSex {
         sexs.put(U.getId(), U);        
 	}
 
+	private static final CodeTable<PatientSex> table = new CodeTable<>(sexs, U);
+
 	public static PatientSex getBy(String id) {
-		PatientSex patientSex = sexs.get(id);
-        if(patientSex == null){
-            patientSex = U;
-        }
-        return patientSex;
-    }
+		return table.get(id);
+	}
 
+	/**
+	 * Lookup table of sexes: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска полов: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<PatientSex> codes() {
+		return table;
+	}
 }
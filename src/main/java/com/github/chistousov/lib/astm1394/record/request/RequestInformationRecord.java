@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.github.chistousov.lib.astm1394.record.Component;
-import com.github.chistousov.lib.astm1394.record.GeneralConsiderations;
+import com.github.chistousov.lib.astm1394.record.DateTimeParser;
 import com.github.chistousov.lib.astm1394.record.IWithComments;
 import com.github.chistousov.lib.astm1394.record.Record;
 import com.github.chistousov.lib.astm1394.record.RecordType;
@@ -94,30 +94,17 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
         }
         setSequenceNumber(getField(1));
 
-		this.startingRangeIdNumber = new Component<>(String.class, getField(2)); 
-		this.endingRangeIDNumber = new Component<>(String.class, getField(3)); 
-		this.universalTestId = new Component<>(String.class, getField(4));
-		this.natureOfRequestTimeLimits = new Component<>(String.class, getField(5));
-		this.beginningRequestResultsDateAndTime = new Component<>(LocalDateTime.class, getField(6));
-		this.endingRequestResultsDateAndTime = new Component<>(LocalDateTime.class, getField(7));
-		this.requestingPhysicianName = new Component<>(String.class, getField(8));
-		this.requestingPhysicianTelephoneNumber = new Component<>(String.class, getField(9));
-		this.userFieldNumber1 = new Component<>(String.class, getField(10));
-		this.userFieldNumber2 = new Component<>(String.class, getField(11));
-		this.requestInformationStatusCode = new Component<>(() -> RequestInformationStatusCodes.getBy(getField(12)), RequestInformationStatusCodes::getIdForComponent);
-	}
-
-	@Override
-	public String toString() {
-		StringBuilder returnStr = new StringBuilder();
-		
-		returnStr.append(this.getRecord());
-
-		if(this.commentRecords != null){
-			this.commentRecords.forEach(commentRecord -> returnStr.append(commentRecord.toString()));
-		}
-
-		return returnStr.toString();
+		this.startingRangeIdNumber = Component.ofString(getField(2)); 
+		this.endingRangeIDNumber = Component.ofString(getField(3)); 
+		this.universalTestId = Component.ofString(getField(4));
+		this.natureOfRequestTimeLimits = Component.ofString(getField(5));
+		this.beginningRequestResultsDateAndTime = Component.ofDateTime(getField(6));
+		this.endingRequestResultsDateAndTime = Component.ofDateTime(getField(7));
+		this.requestingPhysicianName = Component.ofString(getField(8));
+		this.requestingPhysicianTelephoneNumber = Component.ofString(getField(9));
+		this.userFieldNumber1 = Component.ofString(getField(10));
+		this.userFieldNumber2 = Component.ofString(getField(11));
+		this.requestInformationStatusCode = Component.ofCode(RequestInformationStatusCodes.getBy(getField(12)), RequestInformationStatusCodes::getIdForComponent);
 	}
 
 	/**
@@ -147,8 +134,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setStartingRangeIdNumber(String startingRangeIdNumber) {
-		Component<String> startingRangeIdNumberComponent = new Component<>(String.class, startingRangeIdNumber);
-		setField(startingRangeIdNumberComponent.toString(), 2);
+		Component<String> startingRangeIdNumberComponent = Component.ofString(startingRangeIdNumber);
+		setField(startingRangeIdNumberComponent, 2);
 		this.startingRangeIdNumber = startingRangeIdNumberComponent;
 	}
 
@@ -175,8 +162,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setEndingRangeIDNumber(String endingRangeIDNumber) {
-		Component<String> endingRangeIDNumberComponent = new Component<>(String.class, endingRangeIDNumber);
-		setField(endingRangeIDNumberComponent.toString(), 3);
+		Component<String> endingRangeIDNumberComponent = Component.ofString(endingRangeIDNumber);
+		setField(endingRangeIDNumberComponent, 3);
 		this.endingRangeIDNumber = endingRangeIDNumberComponent;
 	}
 
@@ -203,8 +190,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setUniversalTestId(String universalTestId) {
-		Component<String> universalTestIdComponent = new Component<>(String.class, universalTestId);
-		setField(universalTestIdComponent.toString(), 4);
+		Component<String> universalTestIdComponent = Component.ofString(universalTestId);
+		setField(universalTestIdComponent, 4);
 		this.universalTestId = universalTestIdComponent;
 	}
 
@@ -231,8 +218,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setNatureOfRequestTimeLimits(String natureOfRequestTimeLimits) {
-		Component<String> natureOfRequestTimeLimitsComponent = new Component<>(String.class, natureOfRequestTimeLimits);
-		setField(natureOfRequestTimeLimitsComponent.toString(), 5);
+		Component<String> natureOfRequestTimeLimitsComponent = Component.ofString(natureOfRequestTimeLimits);
+		setField(natureOfRequestTimeLimitsComponent, 5);
 		this.natureOfRequestTimeLimits = natureOfRequestTimeLimitsComponent;
 	}
 
@@ -249,6 +236,19 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
 		return beginningRequestResultsDateAndTime.getValue();
 	}
 
+	/**
+	 * {@link #getBeginningRequestResultsDateAndTime()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getBeginningRequestResultsDateAndTime()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getBeginningRequestResultsDateAndTimeEpochSecond() {
+		return beginningRequestResultsDateAndTime.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * Это поле должно представлять либо начальную (самую раннюю) дату и время, для которых запрашиваются результаты, либо отдельные дату и время. Поле может содержать одну дату и время или несколько дат и времени, разделенных повторяющимися разделителями. Каждая дата и время должны быть представлены, как указано в разделе 5.6.2. Если дата и время не указаны, прибор должен предполагать, что информационная система хочет, чтобы результаты уходили в прошлое, насколько это возможно, и согласовывались с критериями, указанными в других полях.
@@ -259,8 +259,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setBeginningRequestResultsDateAndTime(LocalDateTime beginningRequestResultsDateAndTime) {
-		Component<LocalDateTime> beginningRequestResultsDateAndTimeComponent = new Component<>(LocalDateTime.class, beginningRequestResultsDateAndTime.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(beginningRequestResultsDateAndTimeComponent.toString(), 6);
+		Component<LocalDateTime> beginningRequestResultsDateAndTimeComponent = Component.ofDateTime(beginningRequestResultsDateAndTime);
+		setField(beginningRequestResultsDateAndTimeComponent, 6);
 		this.beginningRequestResultsDateAndTime = beginningRequestResultsDateAndTimeComponent;
 	}
 
@@ -277,6 +277,19 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
 		return endingRequestResultsDateAndTime.getValue();
 	}
 
+	/**
+	 * {@link #getEndingRequestResultsDateAndTime()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getEndingRequestResultsDateAndTime()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getEndingRequestResultsDateAndTimeEpochSecond() {
+		return endingRequestResultsDateAndTime.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * Это поле, если оно не пустое, указывает конечную или самую последнюю (или самую последнюю) дату и время, для которых запрашиваются результаты. Дата и время должны быть представлены в соответствии с Разделом 5.6.2.
@@ -287,8 +300,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setEndingRequestResultsDateAndTime(LocalDateTime endingRequestResultsDateAndTime) {
-		Component<LocalDateTime> endingRequestResultsDateAndTimeComponent = new Component<>(LocalDateTime.class, endingRequestResultsDateAndTime.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(endingRequestResultsDateAndTimeComponent.toString(), 7);
+		Component<LocalDateTime> endingRequestResultsDateAndTimeComponent = Component.ofDateTime(endingRequestResultsDateAndTime);
+		setField(endingRequestResultsDateAndTimeComponent, 7);
 		this.endingRequestResultsDateAndTime = endingRequestResultsDateAndTimeComponent;
 	}
 
@@ -315,8 +328,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setRequestingPhysicianName(String requestingPhysicianName) {
-		Component<String> requestingPhysicianNameComponent = new Component<>(String.class, requestingPhysicianName);
-		setField(requestingPhysicianNameComponent.toString(), 8);
+		Component<String> requestingPhysicianNameComponent = Component.ofString(requestingPhysicianName);
+		setField(requestingPhysicianNameComponent, 8);
 		this.requestingPhysicianName = requestingPhysicianNameComponent;
 	}
 
@@ -343,8 +356,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setRequestingPhysicianTelephoneNumber(String requestingPhysicianTelephoneNumber) {
-		Component<String> requestingPhysicianTelephoneNumberComponent = new Component<>(String.class, requestingPhysicianTelephoneNumber);
-		setField(requestingPhysicianTelephoneNumberComponent.toString(), 9);
+		Component<String> requestingPhysicianTelephoneNumberComponent = Component.ofString(requestingPhysicianTelephoneNumber);
+		setField(requestingPhysicianTelephoneNumberComponent, 9);
 		this.requestingPhysicianTelephoneNumber = requestingPhysicianTelephoneNumberComponent;
 	}
 
@@ -371,8 +384,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setUserFieldNumber1(String userFieldNumber1) {
-		Component<String> userFieldNumber1Component = new Component<>(String.class, userFieldNumber1);
-		setField(userFieldNumber1Component.toString(), 10);
+		Component<String> userFieldNumber1Component = Component.ofString(userFieldNumber1);
+		setField(userFieldNumber1Component, 10);
 		this.userFieldNumber1 = userFieldNumber1Component;
 	}
 
@@ -399,8 +412,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setUserFieldNumber2(String userFieldNumber2) {
-		Component<String> userFieldNumber2Component = new Component<>(String.class, userFieldNumber2);
-		setField(userFieldNumber2Component.toString(), 11);
+		Component<String> userFieldNumber2Component = Component.ofString(userFieldNumber2);
+		setField(userFieldNumber2Component, 11);
 		this.userFieldNumber2 = userFieldNumber2Component;
 	}
 
@@ -427,10 +440,8 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
      * 
      */
 	public void setRequestInformationStatusCode(RequestInformationStatusCodes requestInformationStatusCode) {
-		Component<RequestInformationStatusCodes> requestInformationStatusCodeComponent = new Component<>(
-			() -> requestInformationStatusCode, RequestInformationStatusCodes::getIdForComponent
-		);
-		setField(requestInformationStatusCodeComponent.toString(), 12);
+		Component<RequestInformationStatusCodes> requestInformationStatusCodeComponent = Component.ofCode(requestInformationStatusCode, RequestInformationStatusCodes::getIdForComponent);
+		setField(requestInformationStatusCodeComponent, 12);
 		this.requestInformationStatusCode = requestInformationStatusCodeComponent;
 	}
 
@@ -441,7 +452,7 @@ public class RequestInformationRecord<T extends CommentRecord> extends Record im
 		if(this.commentRecords == null) {
 			this.commentRecords = new ArrayList<>();
 		}
-		commentRecord.setSequenceNumber(String.valueOf(this.commentRecords.size() + 1));
+		commentRecord.setSequenceNumber(this.commentRecords.size() + 1);
 		this.commentRecords.add(commentRecord);
 	}
 	
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.request;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * status codes
@@ -80,11 +82,22 @@ public enum RequestInformationStatusCodes {
 
 	}
 
+	private static final CodeTable<RequestInformationStatusCodes> table = new CodeTable<>(codes, UNDEFINED);
+
 	public static RequestInformationStatusCodes getBy(String id) {
-        RequestInformationStatusCodes code = codes.get(id);
-        if(code == null){
-            code = UNDEFINED;
-        }
-        return code;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of request status codes: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска кодов статусов запроса: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<RequestInformationStatusCodes> codes() {
+		return table;
 	}
 }
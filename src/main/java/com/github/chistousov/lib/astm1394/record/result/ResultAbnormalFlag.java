@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.result;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * This field should indicate the normal status of the result. Symbols for Significant Up or Down Changes or Abnormal Values
@@ -79,11 +81,22 @@ public enum ResultAbnormalFlag {
 		flags.put(W.getId(), W);	
 	}
 
+	private static final CodeTable<ResultAbnormalFlag> table = new CodeTable<>(flags, UNDEFINED);
+
 	public static ResultAbnormalFlag getBy(String id) {
-        ResultAbnormalFlag flag = flags.get(id);
-        if(flag == null){
-            flag = UNDEFINED;
-        }
-        return flag;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of abnormal flags: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска флагов отклонения: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<ResultAbnormalFlag> codes() {
+		return table;
 	}
 }
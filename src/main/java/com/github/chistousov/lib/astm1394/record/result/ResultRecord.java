@@ -2,16 +2,15 @@ package com.github.chistousov.lib.astm1394.record.result;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 import com.github.chistousov.lib.astm1394.record.Component;
-import com.github.chistousov.lib.astm1394.record.GeneralConsiderations;
+import com.github.chistousov.lib.astm1394.record.DateTimeParser;
+import com.github.chistousov.lib.astm1394.record.IReusable;
 import com.github.chistousov.lib.astm1394.record.IWithComments;
 import com.github.chistousov.lib.astm1394.record.Record;
 import com.github.chistousov.lib.astm1394.record.RecordType;
+import com.github.chistousov.lib.astm1394.record.Tokenizer;
 import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
 
 /**
@@ -23,7 +22,7 @@ import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
  * @author Nikita Chistousov (chistousov.nik@yandex.ru)
  * @since 8
  */
-public class ResultRecord<T extends CommentRecord> extends Record implements IWithComments<T> {
+public class ResultRecord<T extends CommentRecord> extends Record implements IWithComments<T>, IReusable {
 	
 	/*
 	 * Это первый компонент поля идентификатора теста. Это поле в настоящее время не используется, но зарезервировано для применения универсального кода идентификатора теста (коды LOINC), если одна система станет доступной для использования в будущем.
@@ -50,12 +49,22 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
 	 */
 	private List<Component<String>> additionalParameters;
 
+	/*
+	 * Компоненты поля 3 уже разобраны
+	 */
+	private boolean field3Parsed;
+
 	/*
 	 * Будь то числовые, текстовые или кодированные значения, данные должны быть записаны в текстовой нотации ASCII. Если результат данных содержит квалифицирующие элементы одинакового статуса, они должны быть разделены разделителями компонентов.
 	 * Это относится исключительно к результатам идентичного характера (то есть это поле не может содержать подразумеваемых подзначений). По возможности следует избегать использования компонентов в этом поле. Множественные результаты или значения, наблюдаемые, рассчитанные или предполагаемые для одного заказа теста (т. Е. MIC или коды интерпретации из одного теста на чувствительность к антибиотикам), должны быть представлены в отдельных записях результатов, причем каждое определение результата однозначно определяется полем идентификатора теста как приведено в разделе 9.3. Соответственно, поле идентификатора теста (см. Раздел 9.3) должно быть достаточно информативным, чтобы определять размещение значения данных со ссылкой на исходную запись заказа на тестирование и другие записи результатов, связанные с указанной записью заказа на тестирование.
 	 */
 	private Component<String> dataOrMeasurementValue;
 
+	/*
+	 * Значение результата, разобранное в примитивы
+	 */
+	private ResultValue resultValue;
+
 	/*
 	 * Здесь должно быть указано сокращение единиц для числовых результатов. При наличии следует использовать стандартные сокращения ISO в соответствии с ISO 29554 (например, использовать мг, а не миллиграммы). Единицы могут быть указаны в верхнем или нижнем регистре.
 	 */
@@ -118,63 +127,51 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
             throw new IllegalArgumentException("Сообщение не начинается с R, поэтому не является записью результата теста");
         }
         setSequenceNumber(getField(1));
-
-		String[] components = getField(2).split("\\" + componentDelimiter);
-
-		if(components.length > 1) {
-            try{
-                
-				setUniversalTestID(components[0]);
-            } catch(ArrayIndexOutOfBoundsException ex) {
-            }
-
-            try{
-				setUniversalTestIdName(components[1]);
-            } catch(ArrayIndexOutOfBoundsException ex) {
-            }
-
-            try{
-				setUniversalTestIdType(components[2]);
-            } catch(ArrayIndexOutOfBoundsException ex) {
-            }
-
-			try{
-				setManufacturersOrLocalCode(components[3]);
-            } catch(ArrayIndexOutOfBoundsException ex) {
-			}
-
-			if(components.length > 4){
-				setAdditionalParameters(Arrays.copyOfRange(components, 4, components.length));
-			}
-
-        }
-
-
-		this.dataOrMeasurementValue = new Component<>(String.class, getField(3));
-		this.units = new Component<>(String.class, getField(4));
-		this.referenceRanges = new Component<>(String.class, getField(5));
-		this.resultAbnormalFlag = new Component<>(() -> ResultAbnormalFlag.getBy(getField(6)), ResultAbnormalFlag::getIdForComponent);
-		this.natureOfAbnormalityTesting = new Component<>(String.class, getField(7));
-		this.resultStatus = new Component<>(() -> ResultStatus.getBy(getField(8)), ResultStatus::getIdForComponent);
-		this.dateOfChangeInInstrumentNormativeValuesOrUnits = new Component<>(LocalDateTime.class, getField(9));
-		this.operatorIdentification = new Component<>(String.class, getField(10));
-		this.dateTimeTestStarted = new Component<>(LocalDateTime.class, getField(11));
-		this.dateTimeTestCompleted = new Component<>(LocalDateTime.class, getField(12));
-		this.instrumentIdentification = new Component<>(String.class, getField(13));
-		
+		trimField3(componentDelimiter.charAt(0));
 	}
 
 	@Override
-	public String toString() {
-		StringBuilder returnStr = new StringBuilder();
-		
-		returnStr.append(this.getRecord());
+	public void reset(String recordString, String fieldDelimiter, String repeatDelimiter, String componentDelimiter, String escapeDelimiter) {
+		refill(recordString, fieldDelimiter, repeatDelimiter, componentDelimiter, escapeDelimiter);
+		trimField3(componentDelimiter.charAt(0));
+
+		this.universalTestID = null;
+		this.universalTestIdName = null;
+		this.universalTestIdType = null;
+		this.manufacturersOrLocalCode = null;
+		this.additionalParameters = null;
+		this.field3Parsed = false;
+		this.dataOrMeasurementValue = null;
+		this.resultValue = null;
+		this.units = null;
+		this.referenceRanges = null;
+		this.resultAbnormalFlag = null;
+		this.natureOfAbnormalityTesting = null;
+		this.resultStatus = null;
+		this.dateOfChangeInInstrumentNormativeValuesOrUnits = null;
+		this.operatorIdentification = null;
+		this.dateTimeTestStarted = null;
+		this.dateTimeTestCompleted = null;
+		this.instrumentIdentification = null;
 
 		if(this.commentRecords != null){
-			this.commentRecords.forEach(commentRecord -> returnStr.append(commentRecord.toString()));
+			this.commentRecords.clear();
+			this.recycledCommentRecords = this.commentRecords;
+			this.commentRecords = null;
 		}
+	}
 
-		return returnStr.toString();
+	//a field with several components is kept without trailing empty components, the components are parsed on first access
+	//поле с несколькими компонентами хранится без пустых компонентов в конце, компоненты разбираются при первом обращении
+	private void trimField3(char componentDelimiterChar) {
+		String field3 = getField(2);
+		int end = field3.length();
+		while(end > 0 && field3.charAt(end - 1) == componentDelimiterChar){
+			end--;
+		}
+		if(end < field3.length() && field3.lastIndexOf(componentDelimiterChar, end - 1) >= 0){
+			setField(field3.substring(0, end), 2);
+		}
 	}
 
 	/**
@@ -187,6 +184,7 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getUniversalTestID() {
+		parseField3();
 		return universalTestID.getValue();
 	}
 
@@ -200,6 +198,7 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getUniversalTestIdName() {
+		parseField3();
 		return universalTestIdName.getValue();
 	}
 
@@ -213,6 +212,7 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getUniversalTestIdType() {
+		parseField3();
 		return universalTestIdType.getValue();
 	}
 
@@ -227,6 +227,7 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getManufacturersOrLocalCode() {
+		parseField3();
 		return manufacturersOrLocalCode.getValue();
 	}
 
@@ -240,6 +241,7 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String[] getAdditionalParameters() {
+		parseField3();
 		return additionalParameters.stream().map(Component::toString).toArray(String[]::new);
 	}
 
@@ -253,8 +255,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setUniversalTestID(String universalTestID) {
-		this.universalTestID = new Component<>(String.class, universalTestID);
-		getField3();
+		parseField3();
+		this.universalTestID = Component.ofString(universalTestID);
+		markDirty(2);
 	}
 
 	/**
@@ -267,8 +270,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setUniversalTestIdName(String universalTestIdName) {
-		this.universalTestIdName = new Component<>(String.class, universalTestIdName);
-		getField3();
+		parseField3();
+		this.universalTestIdName = Component.ofString(universalTestIdName);
+		markDirty(2);
 	}
 
 	/**
@@ -281,8 +285,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setUniversalTestIdType(String universalTestIdType) {
-		this.universalTestIdType = new Component<>(String.class, universalTestIdType);
-		getField3();
+		parseField3();
+		this.universalTestIdType = Component.ofString(universalTestIdType);
+		markDirty(2);
 	}
 
 	/**
@@ -295,8 +300,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setManufacturersOrLocalCode(String manufacturersOrLocalCode) {
-		this.manufacturersOrLocalCode = new Component<>(String.class, manufacturersOrLocalCode);
-		getField3();
+		parseField3();
+		this.manufacturersOrLocalCode = Component.ofString(manufacturersOrLocalCode);
+		markDirty(2);
 	}
 
 	/**
@@ -309,26 +315,72 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setAdditionalParameters(String[] additionalParameters) {
-		this.additionalParameters = Arrays.asList(additionalParameters).stream().map(addParam -> new Component<String>(String.class, addParam)).collect(Collectors.toList());
-		getField3();
+		parseField3();
+		this.additionalParameters = new ArrayList<>(additionalParameters.length);
+		for(String additionalParameter : additionalParameters){
+			this.additionalParameters.add(Component.ofString(additionalParameter));
+		}
+		markDirty(2);
 	}
 
-    private void getField3(){
-        String univTestID = this.universalTestID != null ? this.universalTestID.getValue() : null;
-        String univTestIdName = this.universalTestIdName != null ? this.universalTestIdName.getValue() : null;
-        String univTestIdType = this.universalTestIdType != null ? this.universalTestIdType.getValue() : null;
-        String manufOrLocalCode = this.manufacturersOrLocalCode != null ? this.manufacturersOrLocalCode.getValue() : null;
+	private void parseField3(){
+		if(this.field3Parsed){
+			return;
+		}
+		this.field3Parsed = true;
 
-		List<String> buffer = new ArrayList<>(Arrays.asList(univTestID, univTestIdName, univTestIdType, manufOrLocalCode));
+		String[] components = Tokenizer.split(convertedField(2), getComponentDelimiter().getValue().charAt(0));
 
-		if(this.additionalParameters != null) {
-			buffer.addAll(this.additionalParameters.stream().map(Component::getValue).collect(Collectors.toList()));
+		if(components.length > 1) {
+			this.universalTestID = Component.ofString(components[0]);
+			this.universalTestIdName = Component.ofString(components[1]);
+			if(components.length > 2){
+				this.universalTestIdType = Component.ofString(components[2]);
+			}
+			if(components.length > 3){
+				this.manufacturersOrLocalCode = Component.ofString(components[3]);
+			}
+			if(components.length > 4){
+				this.additionalParameters = new ArrayList<>(components.length - 4);
+				for(int i = 4; i < components.length; i++){
+					this.additionalParameters.add(Component.ofString(components[i]));
+				}
+			}
 		}
-		
-        String field8 = buffer.stream().filter(Objects::nonNull).collect(Collectors.joining(getComponentDelimiter().getValue()));
+	}
 
-		setField(field8, 2);
-    }
+	@Override
+	protected String encodeField(int index){
+		if(index != 2){
+			return super.encodeField(index);
+		}
+		String componentDelimiter = getComponentDelimiter().getValue();
+		StringBuilder field3 = new StringBuilder();
+		boolean first = appendComponent(field3, this.universalTestID, componentDelimiter, true);
+		first = appendComponent(field3, this.universalTestIdName, componentDelimiter, first);
+		first = appendComponent(field3, this.universalTestIdType, componentDelimiter, first);
+		first = appendComponent(field3, this.manufacturersOrLocalCode, componentDelimiter, first);
+		if(this.additionalParameters != null){
+			for(Component<String> additionalParameter : this.additionalParameters){
+				first = appendComponent(field3, additionalParameter, componentDelimiter, first);
+			}
+		}
+		return field3.toString();
+	}
+
+	//components without a value are skipped, false if the component was appended
+	//компоненты без значения пропускаются, false если компонент добавлен
+	private static boolean appendComponent(StringBuilder field, Component<String> component, String componentDelimiter, boolean first){
+		String value = component != null ? component.getValue() : null;
+		if(value == null){
+			return first;
+		}
+		if(!first){
+			field.append(componentDelimiter);
+		}
+		field.append(value);
+		return false;
+	}
 
 	public String getComponentField3(int index){
 		String[] additionalParams = getAdditionalParameters();
@@ -357,9 +409,28 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getDataOrMeasurementValue() {
+		if(dataOrMeasurementValue == null){
+			dataOrMeasurementValue = stringOf(3);
+		}
 		return dataOrMeasurementValue.getValue();
 	}
 
+	/**
+	 * Value of the result parsed into primitives once, see {@link ResultValue}
+	 * (Значение результата, один раз разобранное в примитивы, см. {@link ResultValue})
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return value (значение)
+	 */
+	public ResultValue getResultValue() {
+		if(resultValue == null){
+			resultValue = new ResultValue(convertedField(3), getRepeatDelimiter().getValue().charAt(0));
+		}
+		return resultValue;
+	}
+
 	/**
 	 * <p>
 	 * Будь то числовые, текстовые или кодированные значения, данные должны быть записаны в текстовой нотации ASCII. Если результат данных содержит квалифицирующие элементы одинакового статуса, они должны быть разделены разделителями компонентов.
@@ -371,9 +442,10 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setDataOrMeasurementValue(String dataOrMeasurementValue) {
-		Component<String> dataOrMeasurementValueComponent = new Component<>(String.class, dataOrMeasurementValue);
-		setField(dataOrMeasurementValueComponent.toString(), 3);
+		Component<String> dataOrMeasurementValueComponent = Component.ofString(dataOrMeasurementValue);
+		setField(dataOrMeasurementValueComponent, 3);
 		this.dataOrMeasurementValue = dataOrMeasurementValueComponent;
+		this.resultValue = null;
 	}
 
 	/**
@@ -386,6 +458,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getUnits() {
+		if(units == null){
+			units = stringOf(4);
+		}
 		return units.getValue();
 	}
 
@@ -399,8 +474,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setUnits(String units) {
-		Component<String> unitsComponent = new Component<>(String.class, units);
-		setField(unitsComponent.toString(), 4);
+		Component<String> unitsComponent = Component.ofString(units);
+		setField(unitsComponent, 4);
 		this.units = unitsComponent;
 	}
 
@@ -414,6 +489,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getReferenceRanges() {
+		if(referenceRanges == null){
+			referenceRanges = stringOf(5);
+		}
 		return referenceRanges.getValue();
 	}
 
@@ -427,8 +505,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setReferenceRanges(String referenceRanges) {
-		Component<String> referenceRangesComponent = new Component<>(String.class, referenceRanges);
-		setField(referenceRangesComponent.toString(), 5);
+		Component<String> referenceRangesComponent = Component.ofString(referenceRanges);
+		setField(referenceRangesComponent, 5);
 		this.referenceRanges = referenceRangesComponent;
 	}
 
@@ -442,6 +520,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public ResultAbnormalFlag getResultAbnormalFlag() {
+		if(resultAbnormalFlag == null){
+			resultAbnormalFlag = componentOf(ResultAbnormalFlag::getBy, ResultAbnormalFlag::getIdForComponent, 6);
+		}
 		return resultAbnormalFlag.getValue();
 	}
 
@@ -455,10 +536,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setResultAbnormalFlag(ResultAbnormalFlag resultAbnormalFlag) {
-		Component<ResultAbnormalFlag> resultAbnormalFlagComponent = new Component<>(
-			() -> resultAbnormalFlag, ResultAbnormalFlag::getIdForComponent
-		);
-		setField(resultAbnormalFlagComponent.toString(), 6);
+		Component<ResultAbnormalFlag> resultAbnormalFlagComponent = Component.ofCode(resultAbnormalFlag, ResultAbnormalFlag::getIdForComponent);
+		setField(resultAbnormalFlagComponent, 6);
 		this.resultAbnormalFlag = resultAbnormalFlagComponent;
 	}
 
@@ -472,6 +551,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getNatureOfAbnormalityTesting() {
+		if(natureOfAbnormalityTesting == null){
+			natureOfAbnormalityTesting = stringOf(7);
+		}
 		return natureOfAbnormalityTesting.getValue();
 	}
 
@@ -485,8 +567,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setNatureOfAbnormalityTesting(String natureOfAbnormalityTesting) {
-		Component<String> natureOfAbnormalityTestingComponent = new Component<>(String.class, natureOfAbnormalityTesting);
-		setField(natureOfAbnormalityTestingComponent.toString(), 7);
+		Component<String> natureOfAbnormalityTestingComponent = Component.ofString(natureOfAbnormalityTesting);
+		setField(natureOfAbnormalityTestingComponent, 7);
 		this.natureOfAbnormalityTesting = natureOfAbnormalityTestingComponent;
 	}
 
@@ -500,6 +582,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public ResultStatus getResultStatus() {
+		if(resultStatus == null){
+			resultStatus = componentOf(ResultStatus::getBy, ResultStatus::getIdForComponent, 8);
+		}
 		return resultStatus.getValue();
 	}
 
@@ -513,10 +598,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setResultStatus(ResultStatus resultStatus) {
-		Component<ResultStatus> resultStatusComponent = new Component<>(
-			() -> resultStatus, ResultStatus::getIdForComponent
-		);
-		setField(resultStatusComponent.toString(), 8);
+		Component<ResultStatus> resultStatusComponent = Component.ofCode(resultStatus, ResultStatus::getIdForComponent);
+		setField(resultStatusComponent, 8);
 		this.resultStatus = resultStatusComponent;
 	}
 
@@ -530,9 +613,28 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public LocalDateTime getDateOfChangeInInstrumentNormativeValuesOrUnits() {
+		if(dateOfChangeInInstrumentNormativeValuesOrUnits == null){
+			dateOfChangeInInstrumentNormativeValuesOrUnits = dateTimeOf(9);
+		}
 		return dateOfChangeInInstrumentNormativeValuesOrUnits.getValue();
 	}
 
+	/**
+	 * {@link #getDateOfChangeInInstrumentNormativeValuesOrUnits()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getDateOfChangeInInstrumentNormativeValuesOrUnits()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getDateOfChangeInInstrumentNormativeValuesOrUnitsEpochSecond() {
+		if(dateOfChangeInInstrumentNormativeValuesOrUnits == null){
+			dateOfChangeInInstrumentNormativeValuesOrUnits = dateTimeOf(9);
+		}
+		return dateOfChangeInInstrumentNormativeValuesOrUnits.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * Это поле должно оставаться пустым, если нет соответствующих нормалей или единиц. В противном случае он должен быть представлен как в разделе 5.6.2. Отличие этих данных от данных, записанных в словаре принимающей системы, указывает на необходимость ручного просмотра результатов, чтобы определить, можно ли их считать такими же, как предыдущие.
@@ -544,8 +646,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      */
 	public void setDateOfChangeInInstrumentNormativeValuesOrUnits(
 			LocalDateTime dateOfChangeInInstrumentNormativeValuesOrUnits) {
-		Component<LocalDateTime> dateOfChangeInInstrumentNormativeValuesOrUnitsComponent = new Component<>(LocalDateTime.class, dateOfChangeInInstrumentNormativeValuesOrUnits.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(dateOfChangeInInstrumentNormativeValuesOrUnitsComponent.toString(), 9);
+		Component<LocalDateTime> dateOfChangeInInstrumentNormativeValuesOrUnitsComponent = Component.ofDateTime(dateOfChangeInInstrumentNormativeValuesOrUnits);
+		setField(dateOfChangeInInstrumentNormativeValuesOrUnitsComponent, 9);
 		this.dateOfChangeInInstrumentNormativeValuesOrUnits = dateOfChangeInInstrumentNormativeValuesOrUnitsComponent;
 	}
 
@@ -559,6 +661,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getOperatorIdentification() {
+		if(operatorIdentification == null){
+			operatorIdentification = stringOf(10);
+		}
 		return operatorIdentification.getValue();
 	}
 
@@ -572,8 +677,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setOperatorIdentification(String operatorIdentification) {
-		Component<String> operatorIdentificationComponent = new Component<>(String.class, operatorIdentification);
-		setField(operatorIdentificationComponent.toString(), 10);
+		Component<String> operatorIdentificationComponent = Component.ofString(operatorIdentification);
+		setField(operatorIdentificationComponent, 10);
 		this.operatorIdentification = operatorIdentificationComponent;
 	}
 
@@ -587,9 +692,28 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public LocalDateTime getDateTimeTestStarted() {
+		if(dateTimeTestStarted == null){
+			dateTimeTestStarted = dateTimeOf(11);
+		}
 		return dateTimeTestStarted.getValue();
 	}
 
+	/**
+	 * {@link #getDateTimeTestStarted()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getDateTimeTestStarted()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getDateTimeTestStartedEpochSecond() {
+		if(dateTimeTestStarted == null){
+			dateTimeTestStarted = dateTimeOf(11);
+		}
+		return dateTimeTestStarted.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * В этом поле записываются дата и время, когда прибор начал тест, результаты которого теперь сообщаются. Дата и время должны быть указаны, как указано в разделе 5.6.2.
@@ -600,8 +724,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setDateTimeTestStarted(LocalDateTime dateTimeTestStarted) {
-		Component<LocalDateTime> dateTimeTestStartedComponent = new Component<>(LocalDateTime.class, dateTimeTestStarted.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(dateTimeTestStartedComponent.toString(), 11);
+		Component<LocalDateTime> dateTimeTestStartedComponent = Component.ofDateTime(dateTimeTestStarted);
+		setField(dateTimeTestStartedComponent, 11);
 		this.dateTimeTestStarted = dateTimeTestStartedComponent;
 	}
 
@@ -615,9 +739,28 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public LocalDateTime getDateTimeTestCompleted() {
+		if(dateTimeTestCompleted == null){
+			dateTimeTestCompleted = dateTimeOf(12);
+		}
 		return dateTimeTestCompleted.getValue();
 	}
 
+	/**
+	 * {@link #getDateTimeTestCompleted()} in seconds since the epoch without creating LocalDateTime
+	 * ({@link #getDateTimeTestCompleted()} в секундах с начала эпохи без создания LocalDateTime)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return seconds, {@link DateTimeParser#INVALID} if there is no date (секунды, {@link DateTimeParser#INVALID}, если даты нет)
+	 */
+	public long getDateTimeTestCompletedEpochSecond() {
+		if(dateTimeTestCompleted == null){
+			dateTimeTestCompleted = dateTimeOf(12);
+		}
+		return dateTimeTestCompleted.getEpochSecond();
+	}
+
 	/**
 	 * <p>
 	 * В этом поле записывается дата и время, когда прибор завершил тест, результаты которого теперь сообщаются. Дата и время должны быть указаны, как указано в разделе 5.6.2.
@@ -628,8 +771,8 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setDateTimeTestCompleted(LocalDateTime dateTimeTestCompleted) {
-		Component<LocalDateTime> dateTimeTestCompletedComponent = new Component<>(LocalDateTime.class, dateTimeTestCompleted.format(GeneralConsiderations.DATE_TIME_FORMATTER));
-		setField(dateTimeTestCompletedComponent.toString(), 12);
+		Component<LocalDateTime> dateTimeTestCompletedComponent = Component.ofDateTime(dateTimeTestCompleted);
+		setField(dateTimeTestCompletedComponent, 12);
 		this.dateTimeTestCompleted = dateTimeTestCompletedComponent;
 	}
 
@@ -643,6 +786,9 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public String getInstrumentIdentification() {
+		if(instrumentIdentification == null){
+			instrumentIdentification = stringOf(13);
+		}
 		return instrumentIdentification.getValue();
 	}
 
@@ -656,19 +802,24 @@ public class ResultRecord<T extends CommentRecord> extends Record implements IWi
      * 
      */
 	public void setInstrumentIdentification(String instrumentIdentification) {
-		Component<String> instrumentIdentificationComponent = new Component<>(String.class, instrumentIdentification);
-		setField(instrumentIdentificationComponent.toString(), 13);
+		Component<String> instrumentIdentificationComponent = Component.ofString(instrumentIdentification);
+		setField(instrumentIdentificationComponent, 13);
 		this.instrumentIdentification = instrumentIdentificationComponent;
 	}
 
 	private List<T> commentRecords;
+
+	//emptied list of comments of the previous use of the record
+	//опустошенный список комментариев предыдущего использования записи
+	private List<T> recycledCommentRecords;
 	
 	@Override
 	public void addCommentRecord(T commentRecord){
 		if(this.commentRecords == null) {
-			this.commentRecords = new ArrayList<>();
+			this.commentRecords = this.recycledCommentRecords != null ? this.recycledCommentRecords : new ArrayList<>();
+			this.recycledCommentRecords = null;
 		}
-		commentRecord.setSequenceNumber(String.valueOf(this.commentRecords.size() + 1));
+		commentRecord.setSequenceNumber(this.commentRecords.size() + 1);
 		this.commentRecords.add(commentRecord);
 	}
 	
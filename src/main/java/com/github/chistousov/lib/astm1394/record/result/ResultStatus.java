@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.result;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * Result status
@@ -79,11 +81,22 @@ public enum ResultStatus {
 		resultStatuses.put(W.getId(), W);
 	}
 
+	private static final CodeTable<ResultStatus> table = new CodeTable<>(resultStatuses, UNDEFINED);
+
 	public static ResultStatus getBy(String id) {
-        ResultStatus status = resultStatuses.get(id);
-        if(status == null){
-            status = UNDEFINED;
-        }
-        return status;
+		return table.get(id);
+	}
+
+	/**
+	 * Lookup table of result statuses: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска статусов результатов: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<ResultStatus> codes() {
+		return table;
 	}
 }
@@ -0,0 +1,277 @@
+package com.github.chistousov.lib.astm1394.record.result;
+
+/**
+ * <p>
+ * Value of a result (field 3 of the result record) parsed once into primitives. The first repeat is the value,
+ * it may start with a censoring sign ({@code <}, {@code >}, {@code <=}, {@code >=}), spaces around it are ignored.
+ * A number is kept as an unscaled long and a scale, {@code 1.00} is 100 with the scale 2. Values that are not numbers
+ * are reported by {@link #isNumeric()}, nothing is thrown. Other repeats (for example the flag in {@code 146!  H } of UniCell DxH)
+ * are available by {@link #getRepeat(int)}.
+ * (Значение результата (поле 3 записи результата), один раз разобранное в примитивы. Первый повтор - значение,
+ * оно может начинаться со знака цензурирования ({@code <}, {@code >}, {@code <=}, {@code >=}), пробелы вокруг игнорируются.
+ * Число хранится как немасштабированный long и масштаб, {@code 1.00} - это 100 с масштабом 2. Значения, не являющиеся числами,
+ * определяются {@link #isNumeric()}, исключения не выбрасываются. Остальные повторы (например, флаг в {@code 146!  H } UniCell DxH)
+ * доступны через {@link #getRepeat(int)}.)
+ * </p>
+ *
+ * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+ * @since 8
+ */
+public final class ResultValue {
+
+	private static final int MAX_DIGITS = 18;
+
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+		1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+	};
+
+	private final String value;
+	private final char repeatDelimiter;
+
+	//end of the first repeat
+	//конец первого повтора
+	private final int valueEnd;
+
+	private boolean numeric;
+	private long unscaledValue;
+	private int scale;
+
+	private boolean lessThan;
+	private boolean greaterThan;
+	private boolean inclusive;
+
+	/**
+	 * Parses the value of a result
+	 * (Разбирает значение результата)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param value text of the field, may be null (текст поля, может быть null)
+	 * @param repeatDelimiter repeat delimiter of the message (разделитель повторов сообщения)
+	 */
+	public ResultValue(String value, char repeatDelimiter) {
+		this.value = value == null ? "" : value;
+		this.repeatDelimiter = repeatDelimiter;
+
+		int end = this.value.indexOf(repeatDelimiter);
+		this.valueEnd = end < 0 ? this.value.length() : end;
+
+		//a sign without a number is not a censored value
+		//знак без числа не является цензурированным значением
+		if(!parse()){
+			this.lessThan = false;
+			this.greaterThan = false;
+			this.inclusive = false;
+		}
+	}
+
+	//true if the value is a number
+	//true, если значение является числом
+	private boolean parse() {
+		int i = 0;
+		int end = this.valueEnd;
+		while(i < end && this.value.charAt(i) == ' '){
+			i++;
+		}
+		while(end > i && this.value.charAt(end - 1) == ' '){
+			end--;
+		}
+
+		if(i < end && (this.value.charAt(i) == '<' || this.value.charAt(i) == '>')){
+			this.lessThan = this.value.charAt(i) == '<';
+			this.greaterThan = !this.lessThan;
+			i++;
+			if(i < end && this.value.charAt(i) == '='){
+				this.inclusive = true;
+				i++;
+			}
+			while(i < end && this.value.charAt(i) == ' '){
+				i++;
+			}
+		}
+
+		boolean negative = false;
+		if(i < end && (this.value.charAt(i) == '-' || this.value.charAt(i) == '+')){
+			negative = this.value.charAt(i) == '-';
+			i++;
+		}
+
+		long unscaled = 0;
+		boolean hasDigits = false;
+		int digits = 0;
+		int fractionDigits = -1;
+		for(; i < end; i++){
+			char c = this.value.charAt(i);
+			if(c == '.' && fractionDigits < 0){
+				fractionDigits = 0;
+			} else if(c >= '0' && c <= '9'){
+				hasDigits = true;
+				//leading zeros do not take digits
+				//ведущие нули не занимают цифр
+				if(unscaled != 0 || c != '0'){
+					digits++;
+				}
+				if(digits > MAX_DIGITS){
+					return false;
+				}
+				unscaled = unscaled * 10 + (c - '0');
+				if(fractionDigits >= 0){
+					fractionDigits++;
+				}
+			} else {
+				return false;
+			}
+		}
+
+		//at least one digit and a scale that fits into the table
+		//хотя бы одна цифра и масштаб, который помещается в таблицу
+		if(!hasDigits || fractionDigits >= POWERS_OF_TEN.length){
+			return false;
+		}
+		this.numeric = true;
+		this.unscaledValue = negative ? -unscaled : unscaled;
+		this.scale = Math.max(fractionDigits, 0);
+		return true;
+	}
+
+	/**
+	 * The value is a number, possibly censored
+	 * (Значение является числом, возможно цензурированным)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return true for a number (true для числа)
+	 */
+	public boolean isNumeric() {
+		return this.numeric;
+	}
+
+	/**
+	 * Digits of the number without the decimal point, 0 if the value is not a number
+	 * (Цифры числа без десятичной точки, 0 если значение не является числом)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return unscaled value (немасштабированное значение)
+	 */
+	public long getUnscaledValue() {
+		return this.unscaledValue;
+	}
+
+	/**
+	 * Number of digits after the decimal point
+	 * (Количество цифр после десятичной точки)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return scale (масштаб)
+	 */
+	public int getScale() {
+		return this.scale;
+	}
+
+	/**
+	 * Number as a double
+	 * (Число как double)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return value, NaN if the value is not a number (значение, NaN если значение не является числом)
+	 */
+	public double getDoubleValue() {
+		if(!this.numeric){
+			return Double.NaN;
+		}
+		return this.unscaledValue / POWERS_OF_TEN[this.scale];
+	}
+
+	/**
+	 * The value is censored: it is only known to be below or above the number
+	 * (Значение цензурировано: известно только, что оно ниже или выше числа)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return true for {@code <}, {@code >}, {@code <=} and {@code >=} (true для {@code <}, {@code >}, {@code <=} и {@code >=})
+	 */
+	public boolean isCensored() {
+		return this.lessThan || this.greaterThan;
+	}
+
+	public boolean isLessThan() {
+		return this.lessThan;
+	}
+
+	public boolean isGreaterThan() {
+		return this.greaterThan;
+	}
+
+	/**
+	 * The censoring sign includes the number ({@code <=} or {@code >=})
+	 * (Знак цензурирования включает число ({@code <=} или {@code >=}))
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return true for {@code <=} and {@code >=} (true для {@code <=} и {@code >=})
+	 */
+	public boolean isInclusive() {
+		return this.inclusive;
+	}
+
+	/**
+	 * Number of repeats of the field
+	 * (Количество повторов поля)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return number of repeats, at least 1 (количество повторов, не меньше 1)
+	 */
+	public int getRepeatCount() {
+		int repeats = 1;
+		for(int i = this.valueEnd; i < this.value.length(); i++){
+			if(this.value.charAt(i) == this.repeatDelimiter){
+				repeats++;
+			}
+		}
+		return repeats;
+	}
+
+	/**
+	 * Repeat of the field, 0 is the value
+	 * (Повтор поля, 0 - значение)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @param index repeat index (индекс повтора)
+	 * @return repeat, an empty string if there is no such repeat (повтор, пустая строка, если такого повтора нет)
+	 */
+	public String getRepeat(int index) {
+		int start = 0;
+		int end = this.valueEnd;
+		for(int i = 0; i < index; i++){
+			if(end >= this.value.length()){
+				return "";
+			}
+			start = end + 1;
+			end = this.value.indexOf(this.repeatDelimiter, start);
+			if(end < 0){
+				end = this.value.length();
+			}
+		}
+		return this.value.substring(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return this.value;
+	}
+}
@@ -32,7 +32,7 @@ public class MessageTerminatorRecord extends Record {
         }
         setSequenceNumber(getField(1));
 
-		this.terminationCode = new Component<>(() -> TerminationCode.getBy(getField(2)), TerminationCode::getIdForComponent);
+		this.terminationCode = Component.ofCode(TerminationCode.getBy(getField(2)), TerminationCode::getIdForComponent);
 	}
 
 	/**
@@ -58,10 +58,8 @@ public class MessageTerminatorRecord extends Record {
      * 
      */
 	public void setTerminationCode(TerminationCode terminationCode) {
-		Component<TerminationCode> terminationCodeComponent = new Component<>(
-			() -> terminationCode, TerminationCode::getIdForComponent
-		);
-		setField(terminationCodeComponent.toString(), 2);
+		Component<TerminationCode> terminationCodeComponent = Component.ofCode(terminationCode, TerminationCode::getIdForComponent);
+		setField(terminationCodeComponent, 2);
 		this.terminationCode = terminationCodeComponent;
 	}
 
@@ -3,6 +3,8 @@ package com.github.chistousov.lib.astm1394.record.terminator;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.github.chistousov.lib.astm1394.record.CodeTable;
+
 /**
  * <p>
  * This field provides an explanation for ending a session.
@@ -71,13 +73,22 @@ public enum TerminationCode {
 		codes.put(F.getId(), F);
 	}
 
+	private static final CodeTable<TerminationCode> table = new CodeTable<>(codes, UNDEFINED);
+
 	public static TerminationCode getBy(String id) {
-        TerminationCode code = codes.get(id);
-        if(code == null){
-            code = UNDEFINED;
-        }
-        return code;
+		return table.get(id);
 	}
 
-
+	/**
+	 * Lookup table of termination codes: codes of one character, strings and parts of the text are found without creating strings
+	 * (Таблица поиска кодов завершения: коды из одного символа, строки и части текста находятся без создания строк)
+	 *
+	 * @author Nikita Chistousov (chistousov.nik@yandex.ru)
+	 * @since 8
+	 *
+	 * @return table (таблица)
+	 */
+	public static CodeTable<TerminationCode> codes() {
+		return table;
+	}
 }
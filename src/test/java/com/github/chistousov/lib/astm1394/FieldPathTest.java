@@ -0,0 +1,130 @@
+package com.github.chistousov.lib.astm1394;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.assertj.core.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+class FieldPathTest {
+
+	private static final String MESSAGE_CENTAUR_XP = "H|\\^&|||UIW_LIS|||||LIS_ID||P||20211101085116\r"
+		+ "P|1|188875|||Иванов^Иван|||U\r"
+		+ "O|1|000004300798^0014^A||^^^VitD|R||||||||||Serum||||||||||F\r"
+		+ "R|1|^^^VitD^^^1^RLU|611793|||||F||||20211101085116|IRL21681824\r"
+		+ "R|2|^^^VitD^^^1^COFF|1.00|ng/mL||||F||||20211101085116|IRL21681824\r"
+		+ "L|1|N\r";
+
+	private static final String MESSAGE_UNICELL_DXH = "H|\\!~|||DxH|||||LIS||P|LIS2-A2|20211101085116\r"
+		+ "P|1\r"
+		+ "O|1|SID123||!!!CD\\!!!DIFF|R\r"
+		+ "R|1|!!!WBC|7.5|10^3/uL\r"
+		+ "L|1|N\r";
+
+	@Test
+	@DisplayName("Путь читает компоненты всех подходящих записей")
+	void checkAllRecords() {
+
+		//given
+		FieldPath path = FieldPath.compile("R[*].2.4");
+
+		//when
+		List<String> actual = path.values(MESSAGE_CENTAUR_XP);
+
+		//then
+		assertThat(actual).isEqualTo(Arrays.asList(new Object[]{ "VitD", "VitD" }));
+	}
+
+	@Test
+	@DisplayName("Путь выбирает записи по порядковому номеру и по значению поля")
+	void checkSelectors() {
+
+		//given
+
+		//when
+
+		//then
+		assertThat(FieldPath.compile("R[2].3").first(MESSAGE_CENTAUR_XP)).isEqualTo("1.00");
+		assertThat(FieldPath.compile("R[2].2.8").first(MESSAGE_CENTAUR_XP)).isEqualTo("COFF");
+		assertThat(FieldPath.compile("O[specimen=000004300798].test").first(MESSAGE_CENTAUR_XP)).isEqualTo("VitD");
+		assertThat(FieldPath.compile("O[specimen=000004300799].test").first(MESSAGE_CENTAUR_XP)).isNull();
+		assertThat(FieldPath.compile("R[3.1=611793].units").first(MESSAGE_CENTAUR_XP)).isEqualTo("");
+		assertThat(FieldPath.compile("P.5.1").first(MESSAGE_CENTAUR_XP)).isEqualTo("Иванов");
+		assertThat(FieldPath.compile("H.sender").first(MESSAGE_CENTAUR_XP)).isEqualTo("UIW_LIS");
+	}
+
+	@Test
+	@DisplayName("Путь читает повторы с разделителями из заголовка и из байтов")
+	void checkRepeatsUniCellDxH() {
+
+		//given
+		FieldPath tests = FieldPath.compile("O.4[*].4");
+		FieldPath secondTest = FieldPath.compile("O.4[2].4");
+		FieldPath value = FieldPath.compile("R[*].value");
+
+		//when
+		List<String> actualTests = tests.values(ByteBuffer.wrap(MESSAGE_UNICELL_DXH.getBytes(StandardCharsets.US_ASCII)), StandardCharsets.US_ASCII);
+
+		//then
+		assertThat(actualTests).isEqualTo(Arrays.asList(new Object[]{ "CD", "DIFF" }));
+		assertThat(secondTest.first(MESSAGE_UNICELL_DXH)).isEqualTo("DIFF");
+		assertThat(value.first(MESSAGE_UNICELL_DXH)).isEqualTo("7.5");
+	}
+
+	@Test
+	@DisplayName("Некорректный путь не компилируется")
+	void checkInvalidPaths() {
+
+		//given
+		String[] invalidPaths = { "", "X.1", "R", "R.", "R.2.0", "R[1.2", "R.unknown", "R.test.1", "R.2.4x" };
+
+		//when
+
+		//then
+		for(String invalidPath : invalidPaths){
+			boolean thrown = false;
+			try{
+				FieldPath.compile(invalidPath);
+			} catch(IllegalArgumentException ex){
+				thrown = true;
+			}
+			assertThat(thrown).isTrue();
+		}
+	}
+
+	@Test
+	@DisplayName("Байты читаются только в кодировках, где байт ASCII - всегда символ ASCII")
+	void checkByteCharsets() {
+
+		//given
+		FieldPath patientName = FieldPath.compile("P.5.1");
+		String[] invalidCharsets = { "GBK", "Big5", "Shift_JIS", "UTF-16" };
+
+		//when
+		Charset windows1251 = Charset.forName("windows-1251");
+		List<String> actualUtf8 = patientName.values(ByteBuffer.wrap(MESSAGE_CENTAUR_XP.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+		List<String> actualWindows1251 = patientName.values(ByteBuffer.wrap(MESSAGE_CENTAUR_XP.getBytes(windows1251)), windows1251);
+
+		//then
+		assertThat(actualUtf8).isEqualTo(Arrays.asList(new Object[]{ "Иванов" }));
+		assertThat(actualWindows1251).isEqualTo(Arrays.asList(new Object[]{ "Иванов" }));
+		for(String invalidCharset : invalidCharsets){
+			Charset charset = Charset.forName(invalidCharset);
+			boolean thrown = false;
+			try{
+				patientName.values(ByteBuffer.wrap(MESSAGE_CENTAUR_XP.getBytes(charset)), charset);
+			} catch(IllegalArgumentException ex){
+				thrown = true;
+			}
+			assertThat(thrown).isTrue();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.github.chistousov.lib.astm1394;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+class MessageArchiveTest {
+
+	@Test
+	@DisplayName("Сообщения на границах окон просмотра находятся один раз")
+	void checkWindowBoundaries() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		String[] messagesStr = { messageStr, messageStr.replace("188875", "188876").replace("\r", "\r\n"), messageStr };
+		String garbage = "garbage\r";
+		Path archive = Files.createTempFile("archive", ".astm");
+		Files.write(archive, (garbage + String.join("", messagesStr)).getBytes(StandardCharsets.US_ASCII));
+		int longest = messagesStr[1].length();
+
+		//when
+		try{
+			//every alignment of the boundaries of windows with the starts of messages and their CR LF
+			//каждое выравнивание границ окон с началами сообщений и их CR LF
+			for(long regionSize = longest; regionSize < longest + garbage.length() + messagesStr[0].length(); regionSize++){
+				for(ForkJoinPool forkJoinPool : new ForkJoinPool[]{ null, ForkJoinPool.commonPool() }){
+					MessageArchive messageArchive = MessageArchive.map(archive, forkJoinPool, regionSize);
+
+					//then
+					assertThat(messageArchive.size()).isEqualTo(messagesStr.length);
+					for(int i = 0; i < messagesStr.length; i++){
+						ByteBuffer bytes = messageArchive.message(i);
+						byte[] message = new byte[bytes.remaining()];
+						bytes.get(message);
+						assertThat(new String(message, StandardCharsets.US_ASCII)).isEqualTo(messagesStr[i]);
+					}
+				}
+			}
+		} finally {
+			Files.delete(archive);
+		}
+	}
+}
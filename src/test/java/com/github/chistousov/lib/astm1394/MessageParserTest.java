@@ -0,0 +1,852 @@
+package com.github.chistousov.lib.astm1394;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.chistousov.lib.astm1394.centaurxp.IWithCommentsCentaurXP;
+import com.github.chistousov.lib.astm1394.centaurxp.PatientInformationCentaurXPRecord;
+import com.github.chistousov.lib.astm1394.centaurxp.RequestInformationCentaurXPRecord;
+import com.github.chistousov.lib.astm1394.centaurxp.ResultCentaurXPRecord;
+import com.github.chistousov.lib.astm1394.centaurxp.TestOrderCentaurXPRecord;
+import com.github.chistousov.lib.astm1394.record.Diagnostic;
+import com.github.chistousov.lib.astm1394.record.RecordType;
+import com.github.chistousov.lib.astm1394.record.result.ResultStatus;
+import com.github.chistousov.lib.astm1394.record.order.ActionCode;
+import com.github.chistousov.lib.astm1394.record.ScientificRecord;
+import com.github.chistousov.lib.astm1394.record.ValueDictionary;
+import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
+import com.github.chistousov.lib.astm1394.record.header.MessageHeaderRecord;
+import com.github.chistousov.lib.astm1394.record.terminator.MessageTerminatorRecord;
+import com.github.chistousov.lib.astm1394.unicelldxh.IWithCommentsUniCellDxH;
+import com.github.chistousov.lib.astm1394.unicelldxh.PatientInformationUniCellDxHRecord;
+import com.github.chistousov.lib.astm1394.unicelldxh.RequestInformationUniCellDxHRecord;
+import com.github.chistousov.lib.astm1394.unicelldxh.ResultUniCellDxHrecord;
+import com.github.chistousov.lib.astm1394.unicelldxh.TestOrderUniCellDxHRecord;
+
+import org.assertj.core.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+
+
+class MessageParserTest {
+
+	private static final MessageParser<MessageHeaderRecord,
+									   PatientInformationCentaurXPRecord,
+									   TestOrderCentaurXPRecord,
+									   ResultCentaurXPRecord,
+									   RequestInformationCentaurXPRecord,
+									   ScientificRecord,
+									   MessageTerminatorRecord,
+									   CommentRecord,
+									   IWithCommentsCentaurXP> PARSER_CENTAUR_XP = new MessageParser<>(
+										   MessageHeaderRecord::new,
+										   PatientInformationCentaurXPRecord::new,
+										   TestOrderCentaurXPRecord::new,
+										   ResultCentaurXPRecord::new,
+										   RequestInformationCentaurXPRecord::new,
+										   ScientificRecord::new,
+										   MessageTerminatorRecord::new,
+										   CommentRecord::new);
+
+	private static Stream<String> messagesCentaurXPProvider() throws Exception{
+		return Stream.of("requests", "orders", "results")
+					.flatMap(dir -> {
+							try {
+								return Files.walk(Paths.get("src", "test", "resources", "CentaurXP", dir));
+							} catch (IOException e) {
+								return Stream.empty();
+							}
+						})
+					.filter(Files::isRegularFile)
+					.map(file -> {
+							try {
+								return new String(Files.readAllBytes(file), "UTF-8");
+							} catch (IOException e) {
+								return file.toString();
+							}
+						});
+	}
+
+	@ParameterizedTest
+	@DisplayName("Пропускаем через парсер с фабриками записей тестовые сообщения CentaurXP")
+	@MethodSource("messagesCentaurXPProvider")
+	void checkMessagesCentaurXP(String expected) {
+
+		//given
+
+		//when
+		String actual = String.join("\r", Arrays.asList(
+			PARSER_CENTAUR_XP.parse(expected).toString()
+			.split("\r|\n|\r\n"))
+			.stream()
+			.map(record -> record.toString()
+			.replaceAll("(\\|+$)", ""))
+			.toArray(String[]::new)
+			)+"\r";
+
+		//then
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	@Test
+	@DisplayName("Парсер по классам записей создается один раз")
+	void checkParserIsCached() {
+
+		//given
+
+		//when
+		MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> first = MessageParser.of(
+			MessageHeaderRecord.class,
+			PatientInformationCentaurXPRecord.class,
+			TestOrderCentaurXPRecord.class,
+			ResultCentaurXPRecord.class,
+			RequestInformationCentaurXPRecord.class,
+			ScientificRecord.class,
+			MessageTerminatorRecord.class,
+			CommentRecord.class,
+			IWithCommentsCentaurXP.class);
+		MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> second = MessageParser.of(
+			MessageHeaderRecord.class,
+			PatientInformationCentaurXPRecord.class,
+			TestOrderCentaurXPRecord.class,
+			ResultCentaurXPRecord.class,
+			RequestInformationCentaurXPRecord.class,
+			ScientificRecord.class,
+			MessageTerminatorRecord.class,
+			CommentRecord.class,
+			IWithCommentsCentaurXP.class);
+
+		//then
+		assertThat(first).isSameAs(second);
+	}
+
+	@Test
+	@DisplayName("Потоковый разбор передает записи всех сообщений обработчику")
+	void checkStreamingCentaurXP() throws Exception {
+
+		//given
+		String messages = messagesCentaurXPProvider().collect(Collectors.joining());
+		int expectedMessages = (int) messagesCentaurXPProvider().count();
+		int expectedResults = messagesCentaurXPProvider()
+			.map(PARSER_CENTAUR_XP::parse)
+			.filter(message -> message.getPatientInformationRecords() != null)
+			.flatMap(message -> message.getPatientInformationRecords().stream())
+			.filter(patient -> patient.getTestOrderRecords() != null)
+			.flatMap(patient -> patient.getTestOrderRecords().stream())
+			.filter(order -> order.getResultRecords() != null)
+			.mapToInt(order -> order.getResultRecords().size())
+			.sum();
+
+		AtomicInteger headers = new AtomicInteger();
+		AtomicInteger results = new AtomicInteger();
+		AtomicInteger terminators = new AtomicInteger();
+
+		//when
+		PARSER_CENTAUR_XP.parse(new ByteArrayInputStream(messages.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8,
+			new MessageHandler<MessageHeaderRecord,
+							   PatientInformationCentaurXPRecord,
+							   TestOrderCentaurXPRecord,
+							   ResultCentaurXPRecord,
+							   RequestInformationCentaurXPRecord,
+							   MessageTerminatorRecord,
+							   CommentRecord>() {
+
+				@Override
+				public void onHeader(MessageHeaderRecord headerRecord) {
+					headers.incrementAndGet();
+				}
+
+				@Override
+				public void onResult(TestOrderCentaurXPRecord testOrderRecord, ResultCentaurXPRecord resultRecord) {
+					if(testOrderRecord != null){
+						results.incrementAndGet();
+					}
+				}
+
+				@Override
+				public void onTerminator(MessageTerminatorRecord terminatorRecord) {
+					terminators.incrementAndGet();
+				}
+			});
+
+		//then
+		assertThat(headers.get()).isEqualTo(expectedMessages);
+		assertThat(terminators.get()).isEqualTo(expectedMessages);
+		assertThat(results.get()).isEqualTo(expectedResults);
+	}
+
+	@Test
+	@DisplayName("Курсор читает типы, уровни, поля и компоненты записей без их создания")
+	void checkCursorCentaurXP() {
+
+		//given
+		String message = "H|\\^&|||UIW_LIS|||||LIS_ID||P||20211101085116\r"
+			+ "P|1|188875||||||U\r"
+			+ "O|1|000004300798^0014^A||^^^VitD|R||||||||||Serum||||||||||F\r"
+			+ "R|1|^^^VitD^^^1^RLU|611793|||||F||||20211101085116|IRL21681824\r"
+			+ "R|2|^^^VitD^^^1^COFF|1.00|ng/mL||||F||||20211101085116|IRL21681824\r"
+			+ "L|1|N\r";
+
+		//when
+		RecordCursor cursor = PARSER_CENTAUR_XP.cursor(message);
+
+		//then
+		assertThat(cursor.next()).isTrue();
+		assertThat(cursor.getRecordType()).isEqualTo(RecordType.H);
+		assertThat(cursor.getComponentDelimiter()).isEqualTo('^');
+
+		assertThat(cursor.next()).isTrue();
+		assertThat(cursor.getRecordType()).isEqualTo(RecordType.P);
+		assertThat(cursor.getLevel()).isEqualTo(1);
+		assertThat(cursor.fieldEquals(2, "188875")).isTrue();
+
+		assertThat(cursor.next()).isTrue();
+		assertThat(cursor.getRecordType()).isEqualTo(RecordType.O);
+		assertThat(cursor.getComponent(2, 1)).isEqualTo("0014");
+
+		assertThat(cursor.next()).isTrue();
+		assertThat(cursor.getRecordType()).isEqualTo(RecordType.R);
+		assertThat(cursor.getLevel()).isEqualTo(3);
+		assertThat(cursor.getComponent(2, 3)).isEqualTo("VitD");
+		assertThat(cursor.getComponent(2, 7)).isEqualTo("RLU");
+		assertThat(cursor.getComponent(2, 8)).isEqualTo("");
+		assertThat(cursor.getField(3)).isEqualTo("611793");
+		assertThat(cursor.getField(40)).isEqualTo("");
+		assertThat(((ResultCentaurXPRecord) cursor.materialize()).getField(3)).isEqualTo("611793");
+
+		assertThat(cursor.skipChildren()).isTrue();
+		assertThat(cursor.getRecordType()).isEqualTo(RecordType.R);
+		assertThat(cursor.getField(1)).isEqualTo("2");
+
+		assertThat(cursor.next()).isTrue();
+		assertThat(cursor.getRecordType()).isEqualTo(RecordType.L);
+		assertThat(cursor.getLevel()).isEqualTo(0);
+
+		assertThat(cursor.next()).isFalse();
+		assertThat(cursor.getRecordType()).isNull();
+	}
+
+	@Test
+	@DisplayName("Инкрементальный парсер собирает те же сообщения из частей байтов")
+	void checkIncrementalCentaurXP() throws Exception {
+
+		//given
+		List<String> expected = messagesCentaurXPProvider()
+			.map(message -> PARSER_CENTAUR_XP.parse(message).toString())
+			.collect(Collectors.toList());
+		byte[] bytes = messagesCentaurXPProvider().collect(Collectors.joining()).getBytes(StandardCharsets.UTF_8);
+
+		List<String> actual = new ArrayList<>();
+		IncrementalMessageParser incrementalParser = PARSER_CENTAUR_XP.incremental(StandardCharsets.UTF_8,
+			message -> actual.add(message.toString()));
+
+		//when
+		for(int offset = 0; offset < bytes.length; offset += 7){
+			incrementalParser.feed(ByteBuffer.wrap(bytes, offset, Math.min(7, bytes.length - offset)));
+		}
+		incrementalParser.finish();
+
+		//then
+		assertThat(actual.size()).isEqualTo(expected.size());
+		assertThat(actual.equals(expected)).isTrue();
+	}
+
+	@ParameterizedTest
+	@DisplayName("Разбор из байтов однобайтовой кодировки дает то же сообщение, что и разбор строки")
+	@MethodSource("messagesCentaurXPProvider")
+	void checkBytesCentaurXP(String messageStr) {
+
+		//given
+		Charset charset = Charset.forName("windows-1251");
+		String expected = PARSER_CENTAUR_XP.parse(messageStr).toString();
+
+		//when
+		String actual = PARSER_CENTAUR_XP.parse(ByteBuffer.wrap(messageStr.getBytes(charset)), charset).toString();
+
+		//then
+		assertThat(actual).isEqualTo(expected);
+	}
+
+	@Test
+	@DisplayName("Курсор по байтам декодирует только читаемые поля")
+	void checkBytesCursor() {
+
+		//given
+		Charset charset = Charset.forName("windows-1251");
+		byte[] bytes = "H|\\^&|||LIS\rP|1|188875||Иванов^Иван\rL|1|N\r".getBytes(charset);
+
+		//when
+		RecordCursor cursor = PARSER_CENTAUR_XP.cursor(ByteBuffer.wrap(bytes), charset);
+		cursor.next();
+		cursor.next();
+
+		//then
+		assertThat(cursor.getRecordType()).isEqualTo(RecordType.P);
+		assertThat(cursor.getComponent(4, 0)).isEqualTo("Иванов");
+		assertThat(cursor.getComponent(4, 1)).isEqualTo("Иван");
+		assertThat(cursor.fieldEquals(2, "188875")).isTrue();
+	}
+
+	@Test
+	@DisplayName("Проекция пропускает комментарии и сохраняет текст полей результатов вне маски")
+	void checkProjectionUniCellDxH() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "UniCellDxH", "results", "1.txt")), "UTF-8");
+		MessageParser<MessageHeaderRecord,
+					  PatientInformationUniCellDxHRecord,
+					  TestOrderUniCellDxHRecord,
+					  ResultUniCellDxHrecord,
+					  RequestInformationUniCellDxHRecord,
+					  ScientificRecord,
+					  MessageTerminatorRecord,
+					  CommentRecord,
+					  IWithCommentsUniCellDxH> parser = MessageParser.of(
+						  MessageHeaderRecord.class,
+						  PatientInformationUniCellDxHRecord.class,
+						  TestOrderUniCellDxHRecord.class,
+						  ResultUniCellDxHrecord.class,
+						  RequestInformationUniCellDxHRecord.class,
+						  ScientificRecord.class,
+						  MessageTerminatorRecord.class,
+						  CommentRecord.class,
+						  IWithCommentsUniCellDxH.class);
+		Projection projection = Projection.all()
+			.skip(RecordType.C)
+			.fields(RecordType.R, 2, 3, 4, 6);
+
+		//when
+		TestOrderUniCellDxHRecord expected = parser.parse(messageStr).getPatientInformationRecords().get(0).getTestOrderRecords().get(0);
+		TestOrderUniCellDxHRecord actual = parser.withProjection(projection).parse(messageStr).getPatientInformationRecords().get(0).getTestOrderRecords().get(0);
+
+		//then
+		assertThat(expected.getCommentRecords()).isNotNull();
+		assertThat(actual.getCommentRecords()).isNull();
+		assertThat(actual.getResultRecords().size()).isEqualTo(expected.getResultRecords().size());
+
+		ResultUniCellDxHrecord result = actual.getResultRecords().get(0);
+		assertThat(result.getField(1)).isEqualTo("1");
+		assertThat(result.getField(2)).isEqualTo("!!!WBC!33256-9");
+		assertThat(result.getField(3)).isEqualTo("7.4");
+		assertThat(result.getField(4)).isEqualTo("10^9/L");
+		assertThat(result.getField(13)).isEqualTo(expected.getResultRecords().get(0).getField(13));
+		assertThat(result.toString()).isEqualTo(expected.getResultRecords().get(0).toString());
+	}
+
+	@Test
+	@DisplayName("Проекция не преобразует поля вне маски, но не меняет текст записи")
+	void checkProjectionCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		Projection projection = Projection.all()
+			.fields(RecordType.R, 2, 3);
+
+		//when
+		ResultCentaurXPRecord expected = PARSER_CENTAUR_XP.parse(messageStr)
+			.getPatientInformationRecords().get(0).getTestOrderRecords().get(0).getResultRecords().get(1);
+		ResultCentaurXPRecord result = PARSER_CENTAUR_XP.withProjection(projection).parse(messageStr)
+			.getPatientInformationRecords().get(0).getTestOrderRecords().get(0).getResultRecords().get(1);
+
+		//then
+		assertThat(result.getResultValue().getDoubleValue()).isEqualTo(1.0);
+		assertThat(result.getUnits()).isEqualTo("");
+		assertThat(result.getDateTimeTestCompleted()).isNull();
+		assertThat(result.getField(4)).isEqualTo("ng/mL");
+		assertThat(expected.getUnits()).isEqualTo("ng/mL");
+		assertThat(result.toString()).isEqualTo(expected.toString());
+	}
+
+	@Test
+	@DisplayName("Результаты с одним словарем разделяют единицы, статус, прибор и время")
+	void checkDictionaryCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		String expected = PARSER_CENTAUR_XP.parse(messageStr).toString();
+
+		//when
+		Message<?, ?, ?, ?, ?, ?, ?, ?, ?> actual = PARSER_CENTAUR_XP.withDictionary(new ValueDictionary(256)).parse(messageStr);
+		List<ResultCentaurXPRecord> results = PARSER_CENTAUR_XP.withDictionary(new ValueDictionary(256)).parse(messageStr)
+			.getPatientInformationRecords().get(0).getTestOrderRecords().get(0).getResultRecords();
+		ResultCentaurXPRecord first = results.get(1);
+		ResultCentaurXPRecord second = results.get(2);
+
+		//then
+		assertThat(actual.toString()).isEqualTo(expected);
+		assertThat(second.getField(4)).isSameAs(first.getField(4));
+		assertThat(second.getField(8)).isSameAs(first.getField(8));
+		assertThat(second.getField(13)).isSameAs(first.getField(13));
+		assertThat(second.getDateTimeTestCompleted()).isSameAs(first.getDateTimeTestCompleted());
+		assertThat(second.getDateTimeTestCompletedEpochSecond()).isEqualTo(first.getDateTimeTestCompletedEpochSecond());
+	}
+
+	@Test
+	@DisplayName("Пул записей разделяется потоками, которые одновременно разбирают и освобождают сообщения")
+	void checkConcurrentRecordPoolCentaurXP() throws Exception {
+
+		//given
+		List<String> messagesStr = new ArrayList<>();
+		List<String> expected = new ArrayList<>();
+		for(int i = 1; i <= 15; i++){
+			String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", i + ".txt")), "UTF-8");
+			messagesStr.add(messageStr);
+			expected.add(PARSER_CENTAUR_XP.parse(messageStr).toString());
+		}
+		RecordPool pool = new RecordPool(8);
+		MessageParser<?, ?, ?, ?, ?, ?, ?, ?, ?> parser = PARSER_CENTAUR_XP.withRecordPool(pool).withForkJoinPool(ForkJoinPool.commonPool());
+		ForkJoinPool threads = new ForkJoinPool(4);
+		AtomicInteger mismatches = new AtomicInteger();
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+		//when
+		try{
+			for(int thread = 0; thread < 4; thread++){
+				int first = thread;
+				tasks.add(threads.submit(() -> {
+					for(int i = 0; i < 300; i++){
+						int index = (first + i) % messagesStr.size();
+						Message<?, ?, ?, ?, ?, ?, ?, ?, ?> message = parser.parse(messagesStr.get(index));
+						if(!message.toString().equals(expected.get(index))){
+							mismatches.incrementAndGet();
+						}
+						pool.release(message);
+					}
+				}));
+			}
+			for(ForkJoinTask<?> task : tasks){
+				task.join();
+			}
+		} finally {
+			threads.shutdown();
+		}
+
+		//then
+		assertThat(mismatches.get()).isEqualTo(0);
+		assertThat(pool.size(RecordType.R) <= 8).isTrue();
+		assertThat(pool.size(RecordType.R) > 0).isTrue();
+	}
+
+	@Test
+	@DisplayName("Парсер с пулом заполняет заново освобожденные записи")
+	void checkRecordPoolCentaurXP() throws Exception {
+
+		//given
+		List<String> messagesStr = new ArrayList<>();
+		for(int i = 1; i <= 15; i++){
+			messagesStr.add(new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", i + ".txt")), "UTF-8"));
+		}
+		RecordPool pool = new RecordPool(64);
+		MessageParser<MessageHeaderRecord,
+					  PatientInformationCentaurXPRecord,
+					  TestOrderCentaurXPRecord,
+					  ResultCentaurXPRecord,
+					  RequestInformationCentaurXPRecord,
+					  ScientificRecord,
+					  MessageTerminatorRecord,
+					  CommentRecord,
+					  IWithCommentsCentaurXP> parser = PARSER_CENTAUR_XP.withRecordPool(pool);
+
+		//when
+		Message<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> first = parser.parse(messagesStr.get(0));
+		ResultCentaurXPRecord firstResult = first.getPatientInformationRecords().get(0).getTestOrderRecords().get(0).getResultRecords().get(0);
+		pool.release(first);
+
+		//then
+		assertThat(pool.size(RecordType.P)).isEqualTo(1);
+		assertThat(pool.size(RecordType.O)).isEqualTo(1);
+		assertThat(pool.size(RecordType.R)).isEqualTo(3);
+		assertThat(first.getPatientInformationRecords()).isNull();
+		for(String messageStr : messagesStr){
+			Message<MessageHeaderRecord,
+					PatientInformationCentaurXPRecord,
+					TestOrderCentaurXPRecord,
+					ResultCentaurXPRecord,
+					RequestInformationCentaurXPRecord,
+					ScientificRecord,
+					MessageTerminatorRecord,
+					CommentRecord,
+					IWithCommentsCentaurXP> message = parser.parse(messageStr);
+			assertThat(message.toString()).isEqualTo(PARSER_CENTAUR_XP.parse(messageStr).toString());
+			pool.release(message);
+		}
+		assertThat(parser.parse(messagesStr.get(1)).getPatientInformationRecords().get(0).getTestOrderRecords().get(0).getResultRecords()
+			.contains(firstResult)).isTrue();
+	}
+
+	@ParameterizedTest
+	@DisplayName("Сообщение записывается в Appendable и канал тем же текстом, что и toString")
+	@MethodSource("messagesCentaurXPProvider")
+	void checkWriteToCentaurXP(String messageStr) throws Exception {
+
+		//given
+		Message<?, ?, ?, ?, ?, ?, ?, ?, ?> message = PARSER_CENTAUR_XP.parse(messageStr.replace("LIS_ID", "ЛИС"));
+		StringBuilder out = new StringBuilder("reused");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ChannelAppender channelOut = new ChannelAppender(Channels.newChannel(bytes), ByteBuffer.allocate(16), StandardCharsets.UTF_8);
+
+		//when
+		out.setLength(0);
+		message.writeTo(out);
+		message.writeTo(channelOut);
+		channelOut.flush();
+
+		//then
+		assertThat(out.toString()).isEqualTo(message.toString());
+		assertThat(new String(bytes.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(message.toString());
+	}
+
+	@Test
+	@DisplayName("Закодированная запись кэшируется и кодируется заново только после изменения")
+	void checkEncodedRecordCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		Message<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> message = PARSER_CENTAUR_XP.parse(messageStr);
+		TestOrderCentaurXPRecord order = message.getPatientInformationRecords().get(0).getTestOrderRecords().get(0);
+		ResultCentaurXPRecord result = order.getResultRecords().get(1);
+		String orderStr = order.getRecord();
+		String resultStr = result.getRecord();
+
+		//when
+		String cachedOrderStr = order.getRecord();
+		order.setActionCode(ActionCode.Q);
+		order.setSequenceNumber("2");
+		result.setUniversalTestIdName("VitD25");
+
+		//then
+		assertThat(cachedOrderStr).isSameAs(orderStr);
+		assertThat(order.getRecord()).isEqualTo(orderStr.replace("O|1|", "O|2|").replace("R||||||||||Serum", "R||||||Q||||Serum"));
+		assertThat(order.getSequenceNumber()).isEqualTo(2);
+		assertThat(result.getRecord()).isEqualTo(resultStr.replace("|^^^VitD^^^1^COFF|", "|^VitD25^^VitD^^^1^COFF|"));
+		assertThat(message.toString().contains(order.getRecord())).isTrue();
+		assertThat(message.toString().contains(result.getRecord())).isTrue();
+	}
+
+	@Test
+	@DisplayName("Терпимый парсер собирает диагностики вместо исключений")
+	void checkTolerantCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		String brokenStr = messageStr
+			.replace("\rO|1|", "\rX|1|unknown\rO|1|")
+			.replace("|20211101085116|IRL21681824\rR|3|", "|2021113|IRL21681824\rR|3|")
+			.replace("L|1|N\r", "");
+		String orphanStr = messageStr.substring(0, messageStr.indexOf("\rP|") + 1) + messageStr.substring(messageStr.indexOf("O|1|"));
+		MessageParser<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> parser = PARSER_CENTAUR_XP.withTolerantMode(true);
+
+		//when
+		Message<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> message = parser.parse(brokenStr);
+		List<ResultCentaurXPRecord> results = message.getPatientInformationRecords().get(0).getTestOrderRecords().get(0).getResultRecords();
+		int parsedDiagnostics = message.getDiagnostics().size();
+		LocalDateTime dateTimeTestCompleted = results.get(1).getDateTimeTestCompleted();
+		Message<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> orphanMessage = parser.parse(orphanStr);
+
+		//then
+		assertThat(parsedDiagnostics).isEqualTo(2);
+		assertThat(message.getDiagnostics().get(0).getProblem()).isEqualTo(Diagnostic.Problem.UNKNOWN_RECORD_TYPE);
+		assertThat(message.getDiagnostics().get(0).getRecordIndex()).isEqualTo(2);
+		assertThat(message.getDiagnostics().get(1).getProblem()).isEqualTo(Diagnostic.Problem.MISSING_TERMINATOR);
+		assertThat(results.size()).isEqualTo(3);
+		assertThat(dateTimeTestCompleted).isNull();
+		assertThat(results.get(2).getDateTimeTestCompleted()).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51, 16));
+		assertThat(message.getDiagnostics().size()).isEqualTo(3);
+		assertThat(message.getDiagnostics().get(2).getRecordIndex()).isEqualTo(5);
+		assertThat(message.getDiagnostics().get(2).getFieldIndex()).isEqualTo(12);
+		assertThat(message.getDiagnostics().get(2).getText()).isEqualTo("2021113");
+
+		assertThat(orphanMessage.getPatientInformationRecords()).isNull();
+		assertThat(orphanMessage.getDiagnostics().size()).isEqualTo(1);
+		assertThat(orphanMessage.getDiagnostics().get(0).getProblem()).isEqualTo(Diagnostic.Problem.MISSING_PARENT);
+		assertThat(orphanMessage.getDiagnostics().get(0).getRecordType()).isEqualTo(RecordType.O);
+		assertThat(orphanMessage.getTerminatorRecord() == null).isFalse();
+	}
+
+	@Test
+	@DisplayName("Терпимый парсер сообщает о неизвестном коде и о записи с лишними полями без исключений")
+	void checkTolerantCodesCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		String brokenStr = messageStr
+			.replace("R|1|^^^VitD^^^1^RLU|611793|||||F|", "R|1|^^^VitD^^^1^RLU|611793|||||Z|")
+			.replace("|20211101085116|IRL21681824\rR|3|", "|20211101085116|IRL21681824|extra\rR|3|");
+
+		//when
+		Message<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> message = PARSER_CENTAUR_XP.withTolerantMode(true).parse(brokenStr);
+		int parsedDiagnostics = message.getDiagnostics().size();
+		List<ResultCentaurXPRecord> results = message.getPatientInformationRecords().get(0).getTestOrderRecords().get(0).getResultRecords();
+		ResultStatus resultStatus = results.get(0).getResultStatus();
+
+		//then
+		assertThat(parsedDiagnostics).isEqualTo(1);
+		assertThat(message.getDiagnostics().get(0).getProblem()).isEqualTo(Diagnostic.Problem.INVALID_RECORD);
+		assertThat(message.getDiagnostics().get(0).getRecordType()).isEqualTo(RecordType.R);
+		assertThat(results.size()).isEqualTo(2);
+		assertThat(resultStatus).isEqualTo(ResultStatus.UNDEFINED);
+		assertThat(message.getDiagnostics().size()).isEqualTo(2);
+		assertThat(message.getDiagnostics().get(1).getProblem()).isEqualTo(Diagnostic.Problem.INVALID_VALUE);
+		assertThat(message.getDiagnostics().get(1).getFieldIndex()).isEqualTo(8);
+		assertThat(message.getDiagnostics().get(1).getText()).isEqualTo("Z");
+	}
+
+	@Test
+	@DisplayName("Фильтр пропускает сообщения по заголовку без создания записей остальных сообщений")
+	void checkFilterCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		String testMessageStr = messageStr.replace("|LIS_ID||P|", "|LIS_ID||T|");
+		String messagesStr = testMessageStr + messageStr + testMessageStr;
+		MessageFilter filter = MessageFilter.all()
+			.anyRecord(RecordPredicate.in("H.processingId", "P"));
+
+		String expected = PARSER_CENTAUR_XP.parse(messageStr).toString();
+
+		List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>> actual = new ArrayList<>();
+		List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>> actualFromStream = new ArrayList<>();
+		List<Message<?, ?, ?, ?, ?, ?, ?, ?, ?>> actualNone = new ArrayList<>();
+
+		//when
+		PARSER_CENTAUR_XP.filter(messagesStr, filter, actual::add);
+		PARSER_CENTAUR_XP.filter(new ByteArrayInputStream(messagesStr.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, filter, actualFromStream::add);
+		PARSER_CENTAUR_XP.filter(messagesStr, filter.anyRecord(RecordPredicate.in("R.value", "0")), actualNone::add);
+
+		//then
+		assertThat(actual.size()).isEqualTo(1);
+		assertThat(actual.get(0).toString()).isEqualTo(expected);
+		assertThat(actualFromStream.size()).isEqualTo(1);
+		assertThat(actualFromStream.get(0).toString()).isEqualTo(expected);
+		assertThat(actualNone.size()).isEqualTo(0);
+	}
+
+	@Test
+	@DisplayName("Фильтр создает только подходящие результаты")
+	void checkFilterUniCellDxH() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "UniCellDxH", "results", "1.txt")), "UTF-8");
+		MessageParser<MessageHeaderRecord,
+					  PatientInformationUniCellDxHRecord,
+					  TestOrderUniCellDxHRecord,
+					  ResultUniCellDxHrecord,
+					  RequestInformationUniCellDxHRecord,
+					  ScientificRecord,
+					  MessageTerminatorRecord,
+					  CommentRecord,
+					  IWithCommentsUniCellDxH> parser = MessageParser.of(
+						  MessageHeaderRecord.class,
+						  PatientInformationUniCellDxHRecord.class,
+						  TestOrderUniCellDxHRecord.class,
+						  ResultUniCellDxHrecord.class,
+						  RequestInformationUniCellDxHRecord.class,
+						  ScientificRecord.class,
+						  MessageTerminatorRecord.class,
+						  CommentRecord.class,
+						  IWithCommentsUniCellDxH.class);
+		//the abnormal flag of UniCell DxH follows the reference ranges in field 7
+		//флаг отклонения UniCell DxH следует за референсными интервалами в поле 7
+		RecordPredicate abnormal = RecordPredicate.in("R.7", "A", "H", "HH", "LL");
+		MessageFilter filter = MessageFilter.all()
+			.anyRecord(abnormal)
+			.records(RecordType.R, abnormal);
+
+		List<Message<MessageHeaderRecord,
+					 PatientInformationUniCellDxHRecord,
+					 TestOrderUniCellDxHRecord,
+					 ResultUniCellDxHrecord,
+					 RequestInformationUniCellDxHRecord,
+					 ScientificRecord,
+					 MessageTerminatorRecord,
+					 CommentRecord,
+					 IWithCommentsUniCellDxH>> actual = new ArrayList<>();
+
+		//when
+		parser.filter(ByteBuffer.wrap(messageStr.getBytes(StandardCharsets.US_ASCII)), StandardCharsets.US_ASCII, filter, actual::add);
+
+		//then
+		assertThat(actual.size()).isEqualTo(1);
+		TestOrderUniCellDxHRecord order = actual.get(0).getPatientInformationRecords().get(0).getTestOrderRecords().get(0);
+		assertThat(order.getCommentRecords()).isNotNull();
+		assertThat(order.getResultRecords().size()).isEqualTo(2);
+		assertThat(order.getResultRecords().get(0).getField(2)).isEqualTo("!!!HGB!718-7");
+		assertThat(order.getResultRecords().get(1).getField(2)).isEqualTo("!!!HCT!4544-3");
+		assertThat(actual.get(0).getTerminatorRecord()).isNotNull();
+	}
+
+	@Test
+	@DisplayName("Параллельный разбор пациентов дает то же сообщение, что и последовательный")
+	void checkParallelCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		int patientStart = messageStr.indexOf("P|");
+		int terminatorStart = messageStr.indexOf("L|");
+		String patientStr = messageStr.substring(patientStart, terminatorStart);
+		StringBuilder batchStr = new StringBuilder(messageStr.substring(0, patientStart));
+		for(int i = 0; i < 300; i++){
+			batchStr.append(i == 200 ? patientStr.replace("\rO|1|", "\rX|1|unknown\rO|1|") : patientStr);
+		}
+		batchStr.append(messageStr.substring(terminatorStart));
+		MessageParser<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> parser = PARSER_CENTAUR_XP.withTolerantMode(true);
+
+		//when
+		Message<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> expected = parser.parse(batchStr.toString());
+		Message<MessageHeaderRecord,
+				PatientInformationCentaurXPRecord,
+				TestOrderCentaurXPRecord,
+				ResultCentaurXPRecord,
+				RequestInformationCentaurXPRecord,
+				ScientificRecord,
+				MessageTerminatorRecord,
+				CommentRecord,
+				IWithCommentsCentaurXP> actual = parser.withForkJoinPool(ForkJoinPool.commonPool()).parse(batchStr.toString());
+
+		//then
+		assertThat(actual.getPatientInformationRecords().size()).isEqualTo(300);
+		assertThat(actual.toString()).isEqualTo(expected.toString());
+		assertThat(actual.getDiagnostics().size()).isEqualTo(1);
+		assertThat(actual.getDiagnostics().get(0).getRecordIndex()).isEqualTo(expected.getDiagnostics().get(0).getRecordIndex());
+		assertThat(actual.getDiagnostics().get(0).getProblem()).isEqualTo(Diagnostic.Problem.UNKNOWN_RECORD_TYPE);
+		assertThat(actual.getTerminatorRecord() == null).isFalse();
+	}
+
+	@Test
+	@DisplayName("Архив сообщений разбирается из отображенного в память файла в исходном порядке")
+	void checkArchiveCentaurXP() throws Exception {
+
+		//given
+		String messageStr = new String(Files.readAllBytes(Paths.get("src", "test", "resources", "CentaurXP", "results", "1.txt")), "UTF-8");
+		String secondStr = messageStr.replace("188875", "188876");
+		Path archive = Files.createTempFile("archive", ".astm");
+		Files.write(archive, ("garbage\r" + messageStr + secondStr.replace("\r", "\r\n") + messageStr).getBytes(StandardCharsets.US_ASCII));
+		List<String> sequential = new ArrayList<>();
+		List<String> parallel = new ArrayList<>();
+
+		//when
+		try{
+			PARSER_CENTAUR_XP.parse(archive, StandardCharsets.US_ASCII, message -> sequential.add(message.toString()));
+			PARSER_CENTAUR_XP.withForkJoinPool(ForkJoinPool.commonPool()).parse(archive, StandardCharsets.US_ASCII, message -> parallel.add(message.toString()));
+		} finally {
+			Files.delete(archive);
+		}
+
+		//then
+		assertThat(sequential.size()).isEqualTo(3);
+		assertThat(sequential.get(0)).isEqualTo(PARSER_CENTAUR_XP.parse(messageStr).toString());
+		assertThat(sequential.get(1)).isEqualTo(PARSER_CENTAUR_XP.parse(secondStr).toString());
+		assertThat(sequential.get(2)).isEqualTo(sequential.get(0));
+		assertThat(parallel.equals(sequential)).isTrue();
+	}
+
+	@Test
+	@DisplayName("Дерево каталогов разбирается параллельно, сообщения передаются в порядке файлов")
+	void checkIngestCentaurXP() throws Exception {
+
+		//given
+		Path root = Paths.get("src", "test", "resources");
+		List<String> expected = new ArrayList<>();
+		try(Stream<Path> files = Files.walk(root.resolve("CentaurXP"))){
+			for(Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())){
+				expected.add(file + " " + PARSER_CENTAUR_XP.parse(new String(Files.readAllBytes(file), "UTF-8")));
+			}
+		}
+		List<String> actual = new ArrayList<>();
+
+		//when
+		new MessageIngest(ForkJoinPool.commonPool(), 250)
+			.withProfile("CentaurXP", PARSER_CENTAUR_XP)
+			.ingest(root, StandardCharsets.US_ASCII, (file, message) -> actual.add(file + " " + message));
+
+		//then
+		assertThat(actual.size()).isEqualTo(45);
+		assertThat(actual.equals(expected)).isTrue();
+	}
+}
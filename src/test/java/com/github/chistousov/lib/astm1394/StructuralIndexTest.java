@@ -0,0 +1,89 @@
+package com.github.chistousov.lib.astm1394;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import com.github.chistousov.lib.astm1394.record.RecordType;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+
+
+class StructuralIndexTest {
+
+	private static Stream<byte[]> messagesProvider() throws Exception{
+		return Stream.of(Paths.get("src", "test", "resources", "CentaurXP"), Paths.get("src", "test", "resources", "UniCellDxH"))
+					.flatMap(dir -> {
+							try {
+								return Files.walk(dir);
+							} catch (IOException e) {
+								return Stream.empty();
+							}
+						})
+					.filter(Files::isRegularFile)
+					.map(file -> {
+							try {
+								return Files.readAllBytes(file);
+							} catch (IOException e) {
+								return new byte[0];
+							}
+						});
+	}
+
+	@ParameterizedTest
+	@DisplayName("Индекс находит те же записи и поля, что и разбиение текста")
+	@MethodSource("messagesProvider")
+	void checkFields(byte[] message) {
+
+		//given
+		String messageStr = new String(message, StandardCharsets.US_ASCII);
+		String[] records = messageStr.split("\r");
+
+		//when
+		StructuralIndex index = StructuralIndex.of(message, StandardCharsets.US_ASCII);
+
+		//then
+		assertThat(index.getRecordCount()).isEqualTo(records.length);
+		for(int record = 0; record < records.length; record++){
+			String[] fields = records[record].split("\\|", -1);
+			assertThat(index.getFieldCount(record)).isEqualTo(fields.length);
+			for(int field = 0; field < fields.length; field++){
+				assertThat(index.getField(record, field)).isEqualTo(fields[field]);
+			}
+		}
+	}
+
+	@Test
+	@DisplayName("Индекс находит повторы и компоненты с разделителями из заголовка")
+	void checkComponents() {
+
+		//given
+		byte[] message = "H|\\!~|||LIS\rO|1|SID||!!!WBC\\!!!RBC|R\rL|1|N\r".getBytes(StandardCharsets.US_ASCII);
+
+		//when
+		StructuralIndex index = StructuralIndex.of(message, StandardCharsets.US_ASCII);
+
+		//then
+		assertThat(index.getRecordType(1)).isEqualTo(RecordType.O);
+		assertThat(index.getField(0, 1)).isEqualTo("\\!~");
+		assertThat(index.getComponent(1, 4, 0, 3)).isEqualTo("WBC");
+		assertThat(index.getComponent(1, 4, 1, 3)).isEqualTo("RBC");
+		assertThat(index.getComponent(1, 4, 1, 4)).isEqualTo("");
+		assertThat(index.getComponentStart(1, 4, 2, 0)).isEqualTo(-1);
+		assertThat(index.getField(2, 2)).isEqualTo("N");
+		assertThat(index.getRepeatCount(1, 4)).isEqualTo(2);
+		assertThat(index.getRepeat(1, 4, 1)).isEqualTo("!!!RBC");
+		assertThat(index.repeatEquals(1, 4, 0, "!!!WBC")).isTrue();
+		assertThat(index.componentEquals(1, 4, 1, 3, "WBC")).isFalse();
+		assertThat(index.fieldEquals(1, 2, "SID")).isTrue();
+	}
+}
@@ -0,0 +1,61 @@
+package com.github.chistousov.lib.astm1394.record;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.util.Collections;
+
+import com.github.chistousov.lib.astm1394.record.patient.IsolationStatus;
+import com.github.chistousov.lib.astm1394.record.patient.PatientSex;
+import com.github.chistousov.lib.astm1394.record.result.ResultAbnormalFlag;
+import com.github.chistousov.lib.astm1394.record.terminator.TerminationCode;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+class CodeTableTest {
+
+	@Test
+	@DisplayName("Коды из одного и нескольких символов находятся без строк")
+	void checkCodes() {
+
+		//given
+
+		//when
+
+		//then
+		assertThat(RecordType.getBy('R')).isEqualTo(RecordType.R);
+		assertThat(RecordType.getBy('Z')).isEqualTo(RecordType.U);
+		assertThat(RecordType.getBy('Ж')).isEqualTo(RecordType.U);
+		assertThat(ResultAbnormalFlag.getBy("HH")).isEqualTo(ResultAbnormalFlag.HH);
+		assertThat(ResultAbnormalFlag.getBy("<")).isEqualTo(ResultAbnormalFlag.BELOWABSOLUTELOW);
+		assertThat(ResultAbnormalFlag.getBy("")).isEqualTo(ResultAbnormalFlag.UNDEFINED);
+		assertThat(IsolationStatus.getBy("WSP")).isEqualTo(IsolationStatus.WSP);
+		assertThat(IsolationStatus.getBy("WSPX")).isEqualTo(IsolationStatus.U);
+		assertThat(IsolationStatus.getBy("WSPXY")).isEqualTo(IsolationStatus.U);
+		assertThat(TerminationCode.getBy(null)).isEqualTo(TerminationCode.UNDEFINED);
+	}
+
+	@Test
+	@DisplayName("Код находится в части текста")
+	void checkPartOfText() {
+
+		//given
+		CodeTable<RecordType> table = new CodeTable<>(Collections.singletonMap("LL", RecordType.L), RecordType.U);
+		String record = "R|1|^^^VitD|1.00|ng/mL||LL|";
+
+		//when
+		int start = record.indexOf("LL");
+
+		//then
+		assertThat(table.get(record, start, start + 2)).isEqualTo(RecordType.L);
+		assertThat(table.get(record, start, start + 1)).isEqualTo(RecordType.U);
+		assertThat(table.get(record, start - 1, start + 2)).isEqualTo(RecordType.U);
+		assertThat(table.get(new StringBuilder("LL"))).isEqualTo(RecordType.L);
+		assertThat(ResultAbnormalFlag.codes().get(record, start, start + 2)).isEqualTo(ResultAbnormalFlag.LL);
+		assertThat(PatientSex.codes().get('F')).isEqualTo(PatientSex.F);
+		assertThat(RecordType.codes().get(record, 0, 1)).isEqualTo(RecordType.R);
+	}
+}
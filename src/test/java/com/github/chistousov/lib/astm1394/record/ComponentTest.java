@@ -0,0 +1,56 @@
+package com.github.chistousov.lib.astm1394.record;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.chistousov.lib.astm1394.record.order.ActionCode;
+
+
+
+class ComponentTest {
+
+	@Test
+	@DisplayName("Числа хранятся как примитивы, не числа дают null")
+	void checkNumbers() {
+
+		//when
+		Component<Integer> number = Component.ofInt("-42");
+		Component<Integer> overflow = Component.ofInt("2147483648");
+		Component<Long> patientId = Component.ofLong("9223372036854775807");
+		Component<Long> notNumber = Component.ofLong("12A");
+
+		//then
+		assertThat(number.getValue()).isEqualTo(-42);
+		assertThat(number.toString()).isEqualTo("-42");
+		assertThat(overflow.getValue()).isNull();
+		assertThat(overflow.toString()).isEqualTo("");
+		assertThat(patientId.getValue()).isEqualTo(Long.MAX_VALUE);
+		assertThat(notNumber.getValue()).isNull();
+		assertThat(new Component<>(Integer.class, "+7").getValue()).isEqualTo(7);
+	}
+
+	@Test
+	@DisplayName("Дата и код записываются без повторного разбора")
+	void checkDateTimeAndCode() {
+
+		//when
+		Component<LocalDateTime> dateTime = Component.ofDateTime(LocalDateTime.of(2021, 11, 1, 8, 51, 16, 500));
+		Component<LocalDateTime> shortDateTime = Component.ofDateTime("202111010851");
+		Component<ActionCode> actionCode = Component.ofCode(ActionCode.Q, ActionCode::getIdForComponent);
+		Component<ActionCode> noActionCode = Component.ofCode(null, ActionCode::getIdForComponent);
+
+		//then
+		assertThat(dateTime.toString()).isEqualTo("20211101085116");
+		assertThat(dateTime.getValue()).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51, 16));
+		assertThat(shortDateTime.toString()).isEqualTo("202111010851");
+		assertThat(Component.ofDateTime((LocalDateTime) null).toString()).isEqualTo("");
+		assertThat(actionCode.getValue()).isSameAs(ActionCode.Q);
+		assertThat(actionCode.toString()).isEqualTo("Q");
+		assertThat(noActionCode.toString()).isEqualTo("");
+	}
+}
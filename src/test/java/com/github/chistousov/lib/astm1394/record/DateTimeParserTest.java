@@ -0,0 +1,73 @@
+package com.github.chistousov.lib.astm1394.record;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+class DateTimeParserTest {
+
+	@Test
+	@DisplayName("Дата и время разбираются с полной и сокращенной точностью")
+	void checkPrecisions() {
+
+		//given
+
+		//when
+
+		//then
+		assertThat(DateTimeParser.parseDateTime("20211101085116")).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51, 16));
+		assertThat(DateTimeParser.parseDateTime("202111010851")).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51));
+		assertThat(DateTimeParser.parseDateTime("2021110108")).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 0));
+		assertThat(DateTimeParser.parseDateTime("20211101")).isEqualTo(LocalDateTime.of(2021, 11, 1, 0, 0));
+		assertThat(DateTimeParser.parseDate("19770624")).isEqualTo(LocalDate.of(1977, 6, 24));
+		assertThat(DateTimeParser.epochSecond("20211101085116")).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51, 16).toEpochSecond(ZoneOffset.UTC));
+		assertThat(DateTimeParser.epochSecond("16000229235959")).isEqualTo(LocalDateTime.of(1600, 2, 29, 23, 59, 59).toEpochSecond(ZoneOffset.UTC));
+	}
+
+	@Test
+	@DisplayName("Пустые и некорректные значения не разбираются без исключений")
+	void checkInvalid() {
+
+		//given
+
+		//when
+
+		//then
+		assertThat(DateTimeParser.epochSecond("")).isEqualTo(DateTimeParser.INVALID);
+		assertThat(DateTimeParser.epochSecond(null)).isEqualTo(DateTimeParser.INVALID);
+		assertThat(DateTimeParser.epochSecond("2021110")).isEqualTo(DateTimeParser.INVALID);
+		assertThat(DateTimeParser.epochSecond("20210229")).isEqualTo(DateTimeParser.INVALID);
+		assertThat(DateTimeParser.epochSecond("20211301")).isEqualTo(DateTimeParser.INVALID);
+		assertThat(DateTimeParser.epochSecond("20211101246000")).isEqualTo(DateTimeParser.INVALID);
+		assertThat(DateTimeParser.epochSecond("2021-11-01")).isEqualTo(DateTimeParser.INVALID);
+		assertThat(DateTimeParser.parseDateTime("A0211101")).isNull();
+	}
+
+	@Test
+	@DisplayName("Компонент сохраняет точность даты и времени")
+	void checkComponent() {
+
+		//given
+		Component<LocalDateTime> full = new Component<>(LocalDateTime.class, "20211101085116");
+		Component<LocalDateTime> truncated = new Component<>(LocalDateTime.class, "202111010851");
+		Component<LocalDateTime> empty = new Component<>(LocalDateTime.class, "");
+
+		//when
+
+		//then
+		assertThat(full.toString()).isEqualTo("20211101085116");
+		assertThat(truncated.toString()).isEqualTo("202111010851");
+		assertThat(truncated.getValue()).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51));
+		assertThat(empty.toString()).isEqualTo("");
+		assertThat(empty.getValue()).isNull();
+		assertThat(empty.getEpochSecond()).isEqualTo(DateTimeParser.INVALID);
+	}
+}
@@ -0,0 +1,65 @@
+package com.github.chistousov.lib.astm1394.record;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
+
+
+
+class EscapeSequencesTest {
+
+	@Test
+	@DisplayName("Escape-последовательности декодируются, текст без них не копируется")
+	void checkUnescape() {
+
+		//given
+		String plain = "Hemolyzed sample";
+		String escaped = "A&S&B&F&C&R&D&E&E &H&high&N& &X4142& &Q& &X4& tail&";
+
+		//when
+		String plainText = EscapeSequences.unescape(plain, '|', '\\', '^', '&');
+		String text = EscapeSequences.unescape(escaped, '|', '\\', '^', '&');
+
+		//then
+		assertThat(plainText).isSameAs(plain);
+		assertThat(text).isEqualTo("A^B|C\\D&E high AB &Q& &X4& tail&");
+	}
+
+	@Test
+	@DisplayName("Разделители в тексте экранируются")
+	void checkEscape() {
+
+		//given
+		String plain = "Hemolyzed sample";
+
+		//when
+		String plainField = EscapeSequences.escape(plain, '|', '\\', '^', '&');
+		String field = EscapeSequences.escape("A^B|C\\D&E", '|', '\\', '^', '&');
+
+		//then
+		assertThat(plainField).isSameAs(plain);
+		assertThat(field).isEqualTo("A&S&B&F&C&R&D&E&E");
+		assertThat(EscapeSequences.unescape(field, '|', '\\', '^', '&')).isEqualTo("A^B|C\\D&E");
+	}
+
+	@Test
+	@DisplayName("Текст комментария декодируется при чтении и экранируется при записи")
+	void checkCommentText() {
+
+		//given
+		CommentRecord comment = new CommentRecord("C|1|I|Flag &S& see &F& note|G", "|", "\\", "^", "&");
+
+		//when
+		String text = comment.getCommentText();
+		comment.setCommentText("A^B");
+
+		//then
+		assertThat(text).isEqualTo("Flag ^ see | note");
+		assertThat(comment.getRecord()).isEqualTo("C|1|I|A&S&B|G\r");
+		assertThat(comment.getCommentText()).isEqualTo("A^B");
+	}
+}
@@ -0,0 +1,58 @@
+package com.github.chistousov.lib.astm1394.record;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
+import com.github.chistousov.lib.astm1394.record.comment.CommentType;
+
+
+
+class RecordTest {
+
+	@Test
+	@DisplayName("Поля читаются из текста записи, неизмененная запись не меняется")
+	void checkFieldViews() {
+
+		//given
+		CommentRecord comment = new CommentRecord("C|1|I|Flag note||", "|", "\\", "^", "&");
+		CommentRecord other = new CommentRecord("C|2|L|Text|I", "|", "\\", "^", "&");
+
+		//then
+		assertThat(comment.getFieldView(3).toString()).isEqualTo("Flag note");
+		assertThat(comment.getFieldView(4).length()).isEqualTo(0);
+		assertThat(comment.getFieldView(0).toString()).isEqualTo("C");
+		assertThat(comment.getRecord()).isEqualTo("C|1|I|Flag note|\r");
+		assertThat(other.getFieldDelimiter()).isSameAs(comment.getFieldDelimiter());
+
+		//when
+		comment.setCommentType(CommentType.G);
+
+		//then
+		assertThat(comment.getFieldView(4).toString()).isEqualTo("G");
+		assertThat(comment.getFieldView(3).toString()).isEqualTo("Flag note");
+		assertThat(comment.getRecord()).isEqualTo("C|1|I|Flag note|G\r");
+	}
+
+	@Test
+	@DisplayName("Запись не может иметь больше полей, чем битов признаков изменения")
+	void checkFieldsLimit() {
+
+		//given
+		boolean thrown = false;
+
+		//when
+		try{
+			new Record(65, RecordType.M, "|", "\\", "^", "&") { };
+		} catch(IllegalArgumentException ex){
+			thrown = true;
+		}
+
+		//then
+		assertThat(thrown).isTrue();
+		assertThat(new Record(64, RecordType.M, "|", "\\", "^", "&") { }.getRecordType()).isEqualTo(RecordType.M);
+	}
+}
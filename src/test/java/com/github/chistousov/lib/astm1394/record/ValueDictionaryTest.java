@@ -0,0 +1,111 @@
+package com.github.chistousov.lib.astm1394.record;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import java.time.LocalDateTime;
+
+import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
+import com.github.chistousov.lib.astm1394.record.result.ResultRecord;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+class ValueDictionaryTest {
+
+	@Test
+	@DisplayName("Равные значения возвращаются одним экземпляром")
+	void checkCanonical() {
+
+		//given
+		ValueDictionary dictionary = new ValueDictionary(16);
+		String units = new String("10^9/L");
+		String record = "R|1|!!!WBC!33256-9|7.4|10^9/L||3.8 to 11.8|||F";
+
+		//when
+		String first = dictionary.canonical(units);
+		String second = dictionary.canonical(new String("10^9/L"));
+		String fromText = dictionary.canonical(record, record.indexOf("10^9/L"), record.indexOf("10^9/L") + 6);
+
+		//then
+		assertThat(first).isSameAs(units);
+		assertThat(second).isSameAs(units);
+		assertThat(fromText).isSameAs(units);
+		assertThat(dictionary.canonical("g/L")).isEqualTo("g/L");
+	}
+
+	@Test
+	@DisplayName("Дата и время значения разбираются один раз, при попадании в словарь")
+	void checkDateTime() {
+
+		//given
+		ValueDictionary dictionary = new ValueDictionary(16);
+		String value = dictionary.canonical(new String("20211028082826"));
+
+		//when
+		LocalDateTime first = dictionary.dateTime(value);
+		LocalDateTime second = dictionary.dateTime(new String("20211028082826"));
+
+		//then
+		assertThat(first).isEqualTo(LocalDateTime.of(2021, 10, 28, 8, 28, 26));
+		assertThat(second).isSameAs(first);
+		assertThat(dictionary.epochSecond("20211028082826")).isEqualTo(DateTimeParser.epochSecond("20211028082826"));
+		assertThat(dictionary.dateTime("20211328")).isNull();
+		assertThat(dictionary.epochSecond("")).isEqualTo(DateTimeParser.INVALID);
+	}
+
+	@Test
+	@DisplayName("Геттеры даты и времени не меняют словарь")
+	void checkDateTimeWithoutStore() {
+
+		//given
+		ValueDictionary dictionary = new ValueDictionary(16);
+		String value = new String("20211101085116");
+
+		//when
+		LocalDateTime dateTime = dictionary.dateTime(value);
+		String canonical = dictionary.canonical(new String("20211101085116"));
+
+		//then
+		assertThat(dateTime).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51, 16));
+		assertThat(canonical).isNotSameAs(value);
+	}
+
+	@Test
+	@DisplayName("Поля записи делаются каноническими по смещениям, текст записи не меняется")
+	void checkCanonicalize() {
+
+		//given
+		ValueDictionary dictionary = new ValueDictionary(16);
+		String units = dictionary.canonical(new String("ng/mL"));
+		String recordStr = "R|2|^^^VitD^^^1^COFF|1.00|ng/mL||||F||||20211101085116|IRL21681824";
+
+		//when
+		ResultRecord<CommentRecord> record = dictionary.canonicalize(new ResultRecord<>(recordStr, "|", "\\", "^", "&"));
+
+		//then
+		assertThat(record.getField(4)).isSameAs(units);
+		assertThat(record.getUnits()).isSameAs(units);
+		assertThat(record.getDateTimeTestCompleted()).isSameAs(dictionary.dateTime("20211101085116"));
+		assertThat(record.getRecord()).isEqualTo(recordStr + "\r");
+	}
+
+	@Test
+	@DisplayName("Дата и время поля, которого нет в словаре, разбираются компонентом")
+	void checkDateTimeOfMissedValue() {
+
+		//given
+		ValueDictionary dictionary = new ValueDictionary(16).fields(RecordType.R);
+		String recordStr = "R|2|^^^VitD^^^1^COFF|1.00|ng/mL||||F||||20211101085116|IRL21681824";
+
+		//when
+		ResultRecord<CommentRecord> record = dictionary.canonicalize(new ResultRecord<>(recordStr, "|", "\\", "^", "&"));
+
+		//then
+		assertThat(record.getDateTimeTestCompleted()).isEqualTo(LocalDateTime.of(2021, 11, 1, 8, 51, 16));
+		String value = new String("20211101085116");
+		assertThat(dictionary.canonical(value)).isSameAs(value);
+	}
+}
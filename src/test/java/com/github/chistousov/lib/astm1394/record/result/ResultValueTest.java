@@ -0,0 +1,85 @@
+package com.github.chistousov.lib.astm1394.record.result;
+
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+import com.github.chistousov.lib.astm1394.record.comment.CommentRecord;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+class ResultValueTest {
+
+	@Test
+	@DisplayName("Числовое значение хранится как немасштабированное число и масштаб")
+	void checkNumbers() {
+
+		//given
+		ResultValue decimal = new ResultValue("1.00", '\\');
+		ResultValue negative = new ResultValue(" -0.5 ", '\\');
+		ResultValue integer = new ResultValue("611793", '\\');
+
+		//when
+
+		//then
+		assertThat(decimal.isNumeric()).isTrue();
+		assertThat(decimal.getUnscaledValue()).isEqualTo(100L);
+		assertThat(decimal.getScale()).isEqualTo(2);
+		assertThat(decimal.getDoubleValue()).isEqualTo(1.0);
+		assertThat(negative.getUnscaledValue()).isEqualTo(-5L);
+		assertThat(negative.getScale()).isEqualTo(1);
+		assertThat(integer.getDoubleValue()).isEqualTo(611793.0);
+		assertThat(integer.isCensored()).isFalse();
+	}
+
+	@Test
+	@DisplayName("Цензурированные и нечисловые значения определяются без исключений")
+	void checkCensoredAndText() {
+
+		//given
+		ResultValue less = new ResultValue("<0.01", '\\');
+		ResultValue greaterOrEqual = new ResultValue(">= 1000", '\\');
+		ResultValue text = new ResultValue("POSITIVE", '\\');
+		ResultValue sign = new ResultValue("<", '\\');
+		ResultValue empty = new ResultValue("", '\\');
+		ResultValue tooLong = new ResultValue("12345678901234567890", '\\');
+
+		//when
+
+		//then
+		assertThat(less.isNumeric()).isTrue();
+		assertThat(less.isLessThan()).isTrue();
+		assertThat(less.isInclusive()).isFalse();
+		assertThat(less.getUnscaledValue()).isEqualTo(1L);
+		assertThat(greaterOrEqual.isGreaterThan()).isTrue();
+		assertThat(greaterOrEqual.isInclusive()).isTrue();
+		assertThat(greaterOrEqual.getDoubleValue()).isEqualTo(1000.0);
+		assertThat(text.isNumeric()).isFalse();
+		assertThat(Double.isNaN(text.getDoubleValue())).isTrue();
+		assertThat(sign.isNumeric()).isFalse();
+		assertThat(sign.isCensored()).isFalse();
+		assertThat(empty.isNumeric()).isFalse();
+		assertThat(tooLong.isNumeric()).isFalse();
+	}
+
+	@Test
+	@DisplayName("Значение UniCell DxH с флагом в повторе")
+	void checkRepeatsUniCellDxH() {
+
+		//given
+		ResultRecord<CommentRecord> resultRecord = new ResultRecord<>("R|4|!!!HGB!718-7|146!  H |g/L||109 to 143|A||F", "|", "!", "~", "&");
+
+		//when
+		ResultValue actual = resultRecord.getResultValue();
+
+		//then
+		assertThat(actual.isNumeric()).isTrue();
+		assertThat(actual.getUnscaledValue()).isEqualTo(146L);
+		assertThat(actual.getRepeatCount()).isEqualTo(2);
+		assertThat(actual.getRepeat(0)).isEqualTo("146");
+		assertThat(actual.getRepeat(1)).isEqualTo("  H ");
+		assertThat(actual.getRepeat(2)).isEqualTo("");
+	}
+}